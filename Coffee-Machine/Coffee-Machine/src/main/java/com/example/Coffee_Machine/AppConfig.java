@@ -1,10 +1,22 @@
 package com.example.Coffee_Machine;
 
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.PropertySource;
 
 @Configuration
 @ComponentScan("com.example.Coffee_Machine")
+@PropertySource("classpath:application.properties")
+// Class-based proxies, so beans can still be looked up by their concrete type
+@EnableAspectJAutoProxy(proxyTargetClass = true)
 public class AppConfig {
+
+    // Static: it post-processes bean definitions, so it must exist before the other beans
+    @Bean
+    public static PooledScope pooledScope() {
+        return new PooledScope();
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.Coffee_Machine;
+
+/**
+ * Counters for one {@link OrderCoalescer}. {@code coalescingWait} is the time an order spent
+ * between being placed and its batch starting to brew.
+ */
+public record BatchStats(String drink, long orders, long batches, double meanBatchSize, int maxBatchSize,
+                         long fullBatches, long windowBatches, long rejected, LatencySnapshot coalescingWait) {
+}
@@ -4,32 +4,139 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 
 @Service
 public class CafeService {
     private CoffeeMachine espressoMachine;
     private CoffeeMachine latteMachine;
 
+    // One pipeline per machine type, so a rush on lattes doesn't hold up espressos
+    private final OrderPipeline espressoOrders;
+    private final OrderPipeline latteOrders;
+
+    // Completes when each machine has finished preheating (see MachineWarmUp)
+    private final CompletableFuture<Void> espressoWarm;
+    private final CompletableFuture<Void> latteWarm;
+    private final boolean rejectWhileCold;
+    private final long warmUpTimeoutMillis;
+
+    // Optional front-end that brews identical orders together; null when batching is off
+    private final OrderCoalescer espressoBatches;
+    private final OrderCoalescer latteBatches;
+
     @Autowired
     public CafeService(
             @Qualifier("espressoMachine") CoffeeMachine espressoMachine,
-            @Qualifier("latteMachine") CoffeeMachine latteMachine){
+            @Qualifier("latteMachine") CoffeeMachine latteMachine,
+            @Value("${cafe.pipeline.espresso.workers:4}") int espressoWorkers,
+            @Value("${cafe.pipeline.latte.workers:2}") int latteWorkers,
+            @Value("${cafe.pipeline.queue-capacity:100}") int queueCapacity,
+            @Value("${cafe.pipeline.rejection-policy:BLOCK}") RejectionPolicy rejectionPolicy,
+            @Value("${cafe.pipeline.offer-timeout-ms:500}") long offerTimeoutMillis,
+            MachineWarmUp warmUp,
+            @Value("${cafe.warmup.reject-while-cold:false}") boolean rejectWhileCold,
+            @Value("${cafe.warmup.timeout-ms:10000}") long warmUpTimeoutMillis,
+            @Value("${cafe.batching.enabled:false}") boolean batching,
+            @Value("${cafe.batching.max-batch:10}") int maxBatch,
+            @Value("${cafe.batching.window-ms:20}") long batchWindowMillis){
         this.espressoMachine = espressoMachine;
         this.latteMachine = latteMachine;
+        this.espressoWarm = warmUp.register("espressoMachine", espressoMachine);
+        // Preheating the pooled latte proxy borrows, and so creates, the pool's first instances;
+        // each instance preheats itself when the pool creates it (see LatteMachine)
+        this.latteWarm = warmUp.register("latteMachine", latteMachine);
+        this.rejectWhileCold = rejectWhileCold;
+        this.warmUpTimeoutMillis = warmUpTimeoutMillis;
+        this.espressoOrders = new OrderPipeline("espresso", espressoMachine, espressoWorkers,
+                queueCapacity, rejectionPolicy, offerTimeoutMillis, espressoWarm);
+        this.latteOrders = new OrderPipeline("latte", latteMachine, latteWorkers,
+                queueCapacity, rejectionPolicy, offerTimeoutMillis, latteWarm);
+        this.espressoBatches = batching
+                ? new OrderCoalescer("espresso", espressoMachine, maxBatch, batchWindowMillis, queueCapacity, espressoWarm)
+                : null;
+        this.latteBatches = batching
+                ? new OrderCoalescer("latte", latteMachine, maxBatch, batchWindowMillis, queueCapacity, latteWarm)
+                : null;
     }
 
     public void makeEspresso(){
+        awaitWarm("espresso", espressoWarm);
         espressoMachine.makeCoffee();
 
     }
 
     public void makeLatte(){
+        awaitWarm("latte", latteWarm);
         latteMachine.makeCoffee();
 
     }
 
+    // Queue the order and return straight away; the ticket completes when the drink is ready
+    public OrderTicket orderEspresso(){
+        checkWarm("espresso", espressoWarm);
+        return espressoBatches != null ? espressoBatches.submit() : espressoOrders.submit();
+    }
+
+    public OrderTicket orderLatte(){
+        checkWarm("latte", latteWarm);
+        return latteBatches != null ? latteBatches.submit() : latteOrders.submit();
+    }
+
+    // Cold machines either refuse orders or let them queue until preheating is done
+    private void checkWarm(String drink, CompletableFuture<Void> warm){
+        if (rejectWhileCold && !warm.isDone()) {
+            throw new OrderRejectedException(drink + " machine is still warming up");
+        }
+    }
+
+    private void awaitWarm(String drink, CompletableFuture<Void> warm){
+        checkWarm(drink, warm);
+        try {
+            warm.get(warmUpTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new OrderRejectedException(drink + " machine not warm after " + warmUpTimeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            throw new OrderRejectedException(drink + " machine failed to warm up: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderRejectedException("Interrupted waiting for the " + drink + " machine");
+        }
+    }
+
+    @EventListener
+    public void onLowStock(LowStockEvent event){
+        System.out.println("Running low on " + event.ingredient() + ": " + event.remaining()
+                + event.ingredient().unit() + " left");
+    }
+
+    public List<PipelineStats> pipelineStats(){
+        return List.of(espressoOrders.stats(), latteOrders.stats());
+    }
+
+    public List<BatchStats> batchStats(){
+        return espressoBatches != null ? List.of(espressoBatches.stats(), latteBatches.stats()) : List.of();
+    }
+
+    @PreDestroy
+    public void closePipelines(){
+        if (espressoBatches != null) {
+            espressoBatches.close();
+            latteBatches.close();
+        }
+        espressoOrders.close();
+        latteOrders.close();
+    }
+
 
 }
@@ -1,6 +1,17 @@
 package com.example.Coffee_Machine;
 
 public interface CoffeeMachine {
-    Void makeCoffee();
+    void makeCoffee();
+
+    // Brews several drinks of this kind in one cycle; machines that can't just brew them one by one
+    default void makeBatch(int cups) {
+        for (int i = 0; i < cups; i++) {
+            makeCoffee();
+        }
+    }
+
+    // Brings the machine up to temperature; called once, off the startup thread, by MachineWarmUp
+    default void preheat() {
+    }
 
 }
@@ -7,6 +7,10 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @SpringBootApplication
 
 public class CoffeeMachineApplication {
@@ -20,9 +24,23 @@ public class CoffeeMachineApplication {
 		//CoffeeLifecycle  lc1 = context.getBean(CoffeeLifecycle.class);
 
 		CafeService cafe = context.getBean(CafeService.class);
+		MachineWarmUp warmUp = context.getBean(MachineWarmUp.class);
 //		System.out.println(cafe.makeCoffee());
 		cafe.makeEspresso();
 
+		// A small rush of concurrent orders through the pipelines
+		List<OrderTicket> tickets = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			tickets.add(i % 2 == 0 ? cafe.orderEspresso() : cafe.orderLatte());
+		}
+		CompletableFuture.allOf(tickets.stream().map(OrderTicket::ready).toArray(CompletableFuture[]::new)).join();
+		cafe.pipelineStats().forEach(System.out::println);
+		cafe.batchStats().forEach(System.out::println);
+		System.out.println("Warm-up times: " + warmUp.warmUpTimes() + ", all warm after " + warmUp.allWarm().join().toMillis() + " ms");
+		context.getBean(LatencyRegistry.class).snapshots().values().forEach(System.out::println);
+		context.getBean(PooledScope.class).stats().values().forEach(System.out::println);
+		System.out.println("Inventory: " + context.getBean(IngredientInventory.class).levels());
+
 
 		LatteMachine l1 = context.getBean(LatteMachine.class);
 		EspressoMachine l2 = context.getBean(EspressoMachine.class);
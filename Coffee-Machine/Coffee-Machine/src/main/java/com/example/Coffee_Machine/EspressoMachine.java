@@ -1,24 +1,56 @@
 package com.example.Coffee_Machine;
 
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 @Scope("singleton")
 @Qualifier("espressoMachine")
 public class EspressoMachine implements CoffeeMachine {
 
+    // What one cup takes from the shared inventory
+    static final Map<Ingredient, Integer> RECIPE = Map.of(Ingredient.BEANS, 18, Ingredient.CUPS, 1);
+
+    @Autowired
+    private IngredientInventory inventory;
+
     public EspressoMachine(){
         System.out.println("Espresso Constructor called");
     }
     @Override
     public void makeCoffee() {
+        inventory.reserve(RECIPE, 1);
         System.out.println("Espresso Prepared");
     }
 
+    @Override
+    public void makeBatch(int cups) {
+        inventory.reserve(RECIPE, cups);
+        System.out.println(cups + " x Espresso Prepared in one brew");
+    }
+
+    // Simulated time to bring the boiler up to temperature
+    @Value("${cafe.warmup.espresso-ms:200}")
+    private long preheatMillis;
+
+    @Override
+    public void preheat() {
+        System.out.println("Espresso preheating");
+        try {
+            Thread.sleep(preheatMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espresso preheat interrupted", e);
+        }
+    }
+
     @PostConstruct
     public void init(){
         System.out.println("Espresso initialized");
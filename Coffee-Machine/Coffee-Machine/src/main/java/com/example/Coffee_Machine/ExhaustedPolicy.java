@@ -0,0 +1,13 @@
+package com.example.Coffee_Machine;
+
+/**
+ * What a pooled scope does when every instance is borrowed and the pool is at its maximum.
+ */
+public enum ExhaustedPolicy {
+    // Wait up to max-wait-ms for an instance to be returned
+    WAIT,
+    // Fail the lookup straight away
+    FAIL,
+    // Create a temporary extra instance, discarded when it is returned
+    GROW
+}
@@ -0,0 +1,35 @@
+package com.example.Coffee_Machine;
+
+public enum Ingredient {
+    BEANS("g", 5_000, 500),
+    MILK("ml", 10_000, 1_000),
+    CUPS("", 500, 50);
+
+    private final String unit;
+    // Used when cafe.inventory.<ingredient>.stock / .low-threshold aren't set
+    private final long defaultStock;
+    private final long defaultLowThreshold;
+
+    Ingredient(String unit, long defaultStock, long defaultLowThreshold) {
+        this.unit = unit;
+        this.defaultStock = defaultStock;
+        this.defaultLowThreshold = defaultLowThreshold;
+    }
+
+    public String unit() {
+        return unit;
+    }
+
+    long defaultStock() {
+        return defaultStock;
+    }
+
+    long defaultLowThreshold() {
+        return defaultLowThreshold;
+    }
+
+    // Property key segment, e.g. cafe.inventory.beans.stock
+    String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Beans, milk and cups shared by every machine. A drink's ingredients are reserved all together
+ * or not at all: the stock levels live in one immutable array that each reservation or restock
+ * replaces with a single compare-and-set, so concurrent orders never lock, never see half a
+ * reservation and can never take the stock below zero.
+ *
+ * A {@link LowStockEvent} is published when an ingredient falls to its threshold; only the
+ * update that crosses the threshold publishes, so each crossing is reported exactly once.
+ */
+@Component
+public class IngredientInventory {
+
+    private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+    // Indexed by ordinal; never modified once published
+    private final AtomicReference<long[]> levels;
+    private final long[] lowThresholds;
+    private final ApplicationEventPublisher events;
+
+    private final LongAdder reservations = new LongAdder();
+    private final LongAdder stockOuts = new LongAdder();
+
+    @Autowired
+    public IngredientInventory(Environment environment, ApplicationEventPublisher events) {
+        this(configured(environment, "stock"), configured(environment, "low-threshold"), events);
+    }
+
+    public IngredientInventory(Map<Ingredient, Long> stock, Map<Ingredient, Long> lowThresholds,
+                               ApplicationEventPublisher events) {
+        long[] initial = new long[INGREDIENTS.length];
+        this.lowThresholds = new long[INGREDIENTS.length];
+        for (Ingredient ingredient : INGREDIENTS) {
+            initial[ingredient.ordinal()] = stock.getOrDefault(ingredient, 0L);
+            this.lowThresholds[ingredient.ordinal()] = lowThresholds.getOrDefault(ingredient, 0L);
+            if (initial[ingredient.ordinal()] < 0) {
+                throw new IllegalArgumentException("Negative stock for " + ingredient);
+            }
+        }
+        this.levels = new AtomicReference<>(initial);
+        this.events = events;
+    }
+
+    private static Map<Ingredient, Long> configured(Environment environment, String key) {
+        Map<Ingredient, Long> values = new EnumMap<>(Ingredient.class);
+        for (Ingredient ingredient : INGREDIENTS) {
+            long fallback = key.equals("stock") ? ingredient.defaultStock() : ingredient.defaultLowThreshold();
+            values.put(ingredient, environment.getProperty("cafe.inventory." + ingredient.key() + "." + key,
+                    Long.class, fallback));
+        }
+        return values;
+    }
+
+    /**
+     * Takes {@code portions} times the recipe, or nothing if any ingredient is short.
+     *
+     * @throws OutOfStockException naming the first ingredient that ran short
+     */
+    public void reserve(Map<Ingredient, Integer> recipe, int portions) {
+        Ingredient shortOf = take(recipe, portions);
+        if (shortOf != null) {
+            throw new OutOfStockException(shortOf, "Not enough " + shortOf.key() + " for " + portions
+                    + (portions == 1 ? " drink" : " drinks") + " (" + level(shortOf) + shortOf.unit() + " left)");
+        }
+    }
+
+    public boolean tryReserve(Map<Ingredient, Integer> recipe, int portions) {
+        return take(recipe, portions) == null;
+    }
+
+    // Returns the ingredient that was short, or null once the whole recipe has been taken
+    private Ingredient take(Map<Ingredient, Integer> recipe, int portions) {
+        if (portions < 1) {
+            throw new IllegalArgumentException("portions must be positive");
+        }
+        long[] needed = new long[INGREDIENTS.length];
+        recipe.forEach((ingredient, amount) -> needed[ingredient.ordinal()] = (long) amount * portions);
+        while (true) {
+            long[] current = levels.get();
+            long[] next = current.clone();
+            for (int i = 0; i < next.length; i++) {
+                next[i] -= needed[i];
+                if (next[i] < 0) {
+                    stockOuts.increment();
+                    return INGREDIENTS[i];
+                }
+            }
+            if (levels.compareAndSet(current, next)) {
+                reservations.increment();
+                publishCrossings(current, next);
+                return null;
+            }
+        }
+    }
+
+    public void restock(Ingredient ingredient, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Restock amount must be positive");
+        }
+        levels.updateAndGet(current -> {
+            long[] next = current.clone();
+            next[ingredient.ordinal()] = Math.addExact(next[ingredient.ordinal()], amount);
+            return next;
+        });
+    }
+
+    private void publishCrossings(long[] before, long[] after) {
+        for (int i = 0; i < after.length; i++) {
+            if (before[i] > lowThresholds[i] && after[i] <= lowThresholds[i]) {
+                events.publishEvent(new LowStockEvent(INGREDIENTS[i], after[i], lowThresholds[i]));
+            }
+        }
+    }
+
+    public long level(Ingredient ingredient) {
+        return levels.get()[ingredient.ordinal()];
+    }
+
+    // One consistent snapshot of every ingredient
+    public Map<Ingredient, Long> levels() {
+        long[] current = levels.get();
+        Map<Ingredient, Long> snapshot = new EnumMap<>(Ingredient.class);
+        for (Ingredient ingredient : INGREDIENTS) {
+            snapshot.put(ingredient, current[ingredient.ordinal()]);
+        }
+        return snapshot;
+    }
+
+    public long reservations() {
+        return reservations.sum();
+    }
+
+    public long stockOuts() {
+        return stockOuts.sum();
+    }
+}
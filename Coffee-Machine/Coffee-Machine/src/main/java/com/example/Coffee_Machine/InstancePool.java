@@ -0,0 +1,261 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.beans.factory.ObjectFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The instances behind one {@code pooled}-scope bean. Instances are created through the bean
+ * factory (so constructors, {@code @PostConstruct} and aspects all apply) only when no idle one
+ * is available, handed to one borrower at a time, and destroyed (running their destruction
+ * callbacks) when they have been idle too long or the pool is closed.
+ */
+class InstancePool {
+
+    private record Idle(Object instance, long returnedNanos) {
+    }
+
+    private final String bean;
+    private final int min;
+    private final int max;
+    private final long idleTimeoutNanos;
+    private final ExhaustedPolicy policy;
+    private final long maxWaitNanos;
+    // Hands back the destruction callback the bean factory registered while creating an instance
+    private final Supplier<Runnable> destructionCallbacks;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    // Most recently returned first, so busy periods keep reusing the same few instances
+    private final Deque<Idle> idle = new ArrayDeque<>();
+    private final Map<Object, Runnable> live = new IdentityHashMap<>();
+    private final Set<Object> borrowed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int total;
+    private int peakActive;
+    private boolean prefilled;
+    private boolean closed;
+    private long borrows;
+    private long created;
+    private long destroyed;
+    private long waits;
+    private long exhausted;
+
+    InstancePool(String bean, int min, int max, long idleTimeoutMillis, ExhaustedPolicy policy, long maxWaitMillis,
+                 Supplier<Runnable> destructionCallbacks) {
+        if (min < 0 || max < 1 || min > max) {
+            throw new IllegalArgumentException("Pool for " + bean + " needs 0 <= min <= max and max >= 1");
+        }
+        this.bean = bean;
+        this.min = min;
+        this.max = max;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.policy = policy;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.destructionCallbacks = destructionCallbacks;
+    }
+
+    Object borrow(ObjectFactory<?> factory) {
+        prefill(factory);
+        long deadline = 0;
+        lock.lock();
+        try {
+            while (true) {
+                Idle next = idle.pollFirst();
+                if (next != null) {
+                    return lend(next.instance());
+                }
+                if (total < max || policy == ExhaustedPolicy.GROW) {
+                    total++;
+                    break;
+                }
+                if (policy == ExhaustedPolicy.FAIL) {
+                    exhausted++;
+                    throw new PoolExhaustedException("All " + max + " " + bean + " instances are in use");
+                }
+                if (deadline == 0) {
+                    waits++;
+                    deadline = System.nanoTime() + maxWaitNanos;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    exhausted++;
+                    throw new PoolExhaustedException("No " + bean + " instance returned within "
+                            + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                }
+                try {
+                    returned.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PoolExhaustedException("Interrupted waiting for a " + bean + " instance");
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        // A slot is reserved; build the instance without holding the lock
+        Object instance = create(factory);
+        lock.lock();
+        try {
+            return lend(instance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Brings a new pool up to its minimum size the first time it is used
+    private void prefill(ObjectFactory<?> factory) {
+        int missing;
+        lock.lock();
+        try {
+            if (prefilled) {
+                return;
+            }
+            prefilled = true;
+            missing = Math.max(0, min - total);
+            total += missing;
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < missing; i++) {
+            Object instance = create(factory);
+            lock.lock();
+            try {
+                idle.addLast(new Idle(instance, System.nanoTime()));
+                returned.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Object create(ObjectFactory<?> factory) {
+        Object instance;
+        try {
+            instance = factory.getObject();
+        } catch (RuntimeException e) {
+            // Drops anything registered before the failure, so the next instance can't pick it up
+            destructionCallbacks.get();
+            lock.lock();
+            try {
+                total--;
+                returned.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        Runnable callback = destructionCallbacks.get();
+        lock.lock();
+        try {
+            live.put(instance, callback);
+            created++;
+        } finally {
+            lock.unlock();
+        }
+        return instance;
+    }
+
+    // Caller holds the lock
+    private Object lend(Object instance) {
+        borrowed.add(instance);
+        borrows++;
+        peakActive = Math.max(peakActive, borrowed.size());
+        return instance;
+    }
+
+    void release(Object instance) {
+        Runnable destroy = null;
+        lock.lock();
+        try {
+            if (closed) {
+                // Already destroyed along with the pool
+                return;
+            }
+            if (!borrowed.remove(instance)) {
+                throw new IllegalArgumentException("Not a borrowed " + bean + " instance: " + instance);
+            }
+            if (total > max) {
+                // A GROW surplus instance; don't keep it
+                total--;
+                destroyed++;
+                destroy = live.remove(instance);
+            } else {
+                idle.addFirst(new Idle(instance, System.nanoTime()));
+            }
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+        runQuietly(destroy);
+    }
+
+    /**
+     * Destroys instances idle for longer than the timeout, keeping at least {@code min}.
+     */
+    void evictIdle() {
+        List<Runnable> callbacks = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            while (total > min && !idle.isEmpty() && now - idle.peekLast().returnedNanos() > idleTimeoutNanos) {
+                Idle stale = idle.pollLast();
+                total--;
+                destroyed++;
+                callbacks.add(live.remove(stale.instance()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        callbacks.forEach(InstancePool::runQuietly);
+    }
+
+    void close() {
+        List<Runnable> callbacks;
+        lock.lock();
+        try {
+            closed = true;
+            callbacks = new ArrayList<>(live.values());
+            destroyed += live.size();
+            live.clear();
+            idle.clear();
+            borrowed.clear();
+            total = 0;
+        } finally {
+            lock.unlock();
+        }
+        callbacks.forEach(InstancePool::runQuietly);
+    }
+
+    PoolStats stats(String name) {
+        lock.lock();
+        try {
+            int active = borrowed.size();
+            return new PoolStats(name, min, max, total, idle.size(), active, peakActive, borrows, created,
+                    destroyed, waits, exhausted, active / (double) max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void runQuietly(Runnable callback) {
+        if (callback == null) {
+            return;
+        }
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            System.out.println("Destroying pooled instance failed: " + e.getMessage());
+        }
+    }
+}
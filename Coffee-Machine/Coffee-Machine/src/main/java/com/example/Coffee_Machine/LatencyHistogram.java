@@ -0,0 +1,112 @@
+package com.example.Coffee_Machine;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram in nanoseconds that threads can record into without locks or shared
+ * counters. Each thread gets its own bucket array the first time it records and is the only
+ * writer to it; readers merge all arrays when asked for a snapshot, so a snapshot may miss a
+ * few in-flight recordings but never blocks a writer.
+ *
+ * Buckets are log-linear: exact below 16 ns, then 8 sub-buckets per power of two, which keeps
+ * every reported percentile within 12.5% of the true value.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int LINEAR_EXPONENT = 4; // log2(LINEAR_LIMIT)
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - LINEAR_EXPONENT) * SUB_BUCKETS;
+
+    // Slots after the buckets: total count, total nanos, max nanos
+    private static final int COUNT = BUCKETS;
+    private static final int SUM = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+
+    private final String name;
+    private final List<AtomicLongArray> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<AtomicLongArray> local = ThreadLocal.withInitial(this::newRecorder);
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        AtomicLongArray slots = local.get();
+        long value = Math.max(0, nanos);
+        int bucket = bucketOf(value);
+        // Single writer per array: a plain read-increment with a release store is enough
+        slots.lazySet(bucket, slots.get(bucket) + 1);
+        slots.lazySet(COUNT, slots.get(COUNT) + 1);
+        slots.lazySet(SUM, slots.get(SUM) + value);
+        if (value > slots.get(MAX)) {
+            slots.lazySet(MAX, value);
+        }
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (AtomicLongArray slots : recorders) {
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += slots.get(i);
+            }
+            count += slots.get(COUNT);
+            sum += slots.get(SUM);
+            max = Math.max(max, slots.get(MAX));
+        }
+        if (count == 0) {
+            return new LatencySnapshot(name, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySnapshot(name, count, sum / (double) count,
+                percentile(merged, count, 0.50, max), percentile(merged, count, 0.90, max),
+                percentile(merged, count, 0.99, max), percentile(merged, count, 0.999, max), max);
+    }
+
+    private AtomicLongArray newRecorder() {
+        AtomicLongArray slots = new AtomicLongArray(BUCKETS + 3);
+        recorders.add(slots);
+        return slots;
+    }
+
+    private static long percentile(long[] buckets, long count, double quantile, long max) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_EXPONENT;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowest = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowest + width - 1;
+    }
+}
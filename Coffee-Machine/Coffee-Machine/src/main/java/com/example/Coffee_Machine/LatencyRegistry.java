@@ -0,0 +1,33 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named latency histograms filled in by {@link TimingAspect}: one per coffee machine bean
+ * (e.g. {@code espressoMachine}, {@code latteMachine}) and one per timed CafeService method
+ * (e.g. {@code cafeService.orderLatte}).
+ */
+@Component
+public class LatencyRegistry {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public LatencySnapshot snapshot(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram.snapshot() : new LatencyHistogram(name).snapshot();
+    }
+
+    public Map<String, LatencySnapshot> snapshots() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+}
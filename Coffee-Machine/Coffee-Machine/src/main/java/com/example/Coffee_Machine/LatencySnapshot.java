@@ -0,0 +1,13 @@
+package com.example.Coffee_Machine;
+
+/**
+ * Merged view of a {@link LatencyHistogram}; all times in nanoseconds.
+ */
+public record LatencySnapshot(String name, long count, double mean, long p50, long p90, long p99, long p999, long max) {
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%.0fns p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns",
+                name, count, mean, p50, p90, p99, p999, max);
+    }
+}
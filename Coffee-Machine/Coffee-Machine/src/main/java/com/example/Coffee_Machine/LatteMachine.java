@@ -1,27 +1,73 @@
 package com.example.Coffee_Machine;
 
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
 @Lazy
 @Component
-@Scope("prototype")
+@Scope(PooledScope.NAME)
 public class LatteMachine implements CoffeeMachine{
 
 
+    // What one cup takes from the shared inventory
+    static final Map<Ingredient, Integer> RECIPE = Map.of(Ingredient.BEANS, 18, Ingredient.MILK, 180, Ingredient.CUPS, 1);
+
+    @Autowired
+    private IngredientInventory inventory;
+
     public LatteMachine (){
         System.out.println("Latte Constructor called");
     }
     @Override
     public void makeCoffee() {
+        inventory.reserve(RECIPE, 1);
         System.out.println("Latte Prepared");
     }
 
+    @Override
+    public void makeBatch(int cups) {
+        inventory.reserve(RECIPE, cups);
+        System.out.println(cups + " x Latte Prepared in one brew");
+    }
+
+    // Simulated time to bring the boiler up to temperature
+    @Value("${cafe.warmup.latte-ms:300}")
+    private long preheatMillis;
+
+    private boolean warm;
+
+    // Each pooled instance has its own boiler, so the first call heats it and later ones return at once
+    @Override
+    public synchronized void preheat() {
+        if (warm) {
+            return;
+        }
+        System.out.println("Latte preheating");
+        try {
+            Thread.sleep(preheatMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Latte preheat interrupted", e);
+        }
+        warm = true;
+    }
+
+    synchronized boolean isWarm() {
+        return warm;
+    }
+
+    // Runs whenever the pool creates an instance, so instances added under load are never cold
     @PostConstruct
     public void init(){
         System.out.println("Lattemachine Innitialized");
+        preheat();
 
     }
 
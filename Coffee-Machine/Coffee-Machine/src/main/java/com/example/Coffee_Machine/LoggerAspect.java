@@ -1,19 +0,0 @@
-//package com.example.Coffee_Machine;
-//
-//import org.aspectj.lang.annotation.After;
-//import org.aspectj.lang.annotation.Aspect;
-//import org.aspectj.lang.annotation.Before;
-//import org.springframework.stereotype.Component;
-//
-//@Aspect
-//@Component
-//public class LoggerAspect {
-//    @Before("execution(* com.example.coffee.CafeService.makeCoffee(..))")
-//    public void logBefore() {
-//        System.out.println("Before making coffee...");
-//    }
-//    @After("execution(* com.example.coffee.CafeService.makeCoffee(..))")
-//    public void logAfter() {
-//        System.out.println("After making coffee...");
-//    }
-//}
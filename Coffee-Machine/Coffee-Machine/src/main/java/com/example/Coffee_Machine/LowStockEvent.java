@@ -0,0 +1,5 @@
+package com.example.Coffee_Machine;
+
+// Published once each time an ingredient drops to or below its low-stock threshold
+public record LowStockEvent(Ingredient ingredient, long remaining, long threshold) {
+}
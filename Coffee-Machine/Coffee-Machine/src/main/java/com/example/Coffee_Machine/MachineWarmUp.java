@@ -0,0 +1,108 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Preheats every registered machine in parallel once the context has been refreshed, so the
+ * time until the first drink is the slowest machine's warm-up rather than the sum of all of
+ * them. Each machine has a readiness future that orders can wait on (or check and refuse).
+ */
+@Component
+public class MachineWarmUp {
+
+    private final Map<String, Machine> machines = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Duration> allWarm = new CompletableFuture<>();
+
+    private static class Machine {
+        final CoffeeMachine machine;
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
+        volatile Duration warmUpTime;
+
+        Machine(CoffeeMachine machine) {
+            this.machine = machine;
+        }
+    }
+
+    /**
+     * Registers a machine to be preheated; returns its readiness future. Machines registered
+     * after warm-up has started are preheated straight away.
+     */
+    public CompletableFuture<Void> register(String name, CoffeeMachine machine) {
+        Machine entry = new Machine(machine);
+        Machine existing = machines.putIfAbsent(name, entry);
+        if (existing != null) {
+            return existing.ready;
+        }
+        if (started.get()) {
+            CompletableFuture.runAsync(() -> preheat(name, entry));
+        }
+        return entry.ready;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUp() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        ExecutorService heaters = Executors.newFixedThreadPool(Math.max(1, machines.size()), task -> {
+            Thread thread = new Thread(task, "machine-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] warming = machines.entrySet().stream()
+                .map(e -> CompletableFuture.runAsync(() -> preheat(e.getKey(), e.getValue()), heaters))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(warming).whenComplete((ignored, failure) -> {
+            heaters.shutdown();
+            Duration total = Duration.ofNanos(System.nanoTime() - start);
+            System.out.println("All machines warm in " + total.toMillis() + " ms");
+            allWarm.complete(total);
+        });
+    }
+
+    private void preheat(String name, Machine entry) {
+        long start = System.nanoTime();
+        try {
+            entry.machine.preheat();
+            entry.warmUpTime = Duration.ofNanos(System.nanoTime() - start);
+            System.out.println(name + " warm after " + entry.warmUpTime.toMillis() + " ms");
+            entry.ready.complete(null);
+        } catch (RuntimeException e) {
+            System.out.println(name + " failed to warm up: " + e.getMessage());
+            entry.ready.completeExceptionally(e);
+        }
+    }
+
+    public boolean isWarm(String name) {
+        Machine entry = machines.get(name);
+        return entry != null && entry.ready.isDone() && !entry.ready.isCompletedExceptionally();
+    }
+
+    // Completes with the wall time from the start of warm-up until the last machine was ready
+    public CompletableFuture<Duration> allWarm() {
+        return allWarm;
+    }
+
+    public Map<String, Duration> warmUpTimes() {
+        Map<String, Duration> times = new TreeMap<>();
+        machines.forEach((name, entry) -> {
+            if (entry.warmUpTime != null) {
+                times.put(name, entry.warmUpTime);
+            }
+        });
+        return times;
+    }
+}
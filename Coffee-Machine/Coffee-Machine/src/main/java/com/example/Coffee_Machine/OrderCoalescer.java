@@ -0,0 +1,162 @@
+package com.example.Coffee_Machine;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Groups identical orders into one {@link CoffeeMachine#makeBatch(int)} cycle. Orders collect
+ * until {@code maxBatch} are waiting or {@code windowMillis} has passed since the first one,
+ * then go to the machine together; each order still gets its own ticket. Batches are brewed
+ * one at a time on a single thread, so orders arriving while the machine is busy simply make
+ * the next batch bigger.
+ */
+public class OrderCoalescer implements AutoCloseable {
+
+    private record Pending(OrderTicket ticket, long placedNanos) {
+    }
+
+    private final String drink;
+    private final CoffeeMachine machine;
+    private final int maxBatch;
+    private final long windowMillis;
+    private final int maxPending;
+    private final CompletableFuture<?> warm;
+    private final ScheduledThreadPoolExecutor brewer;
+
+    // Guarded by this
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> windowTimer;
+    private int inFlight;
+    private boolean closed;
+
+    private final AtomicLong orderNumbers = new AtomicLong();
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder brewed = new LongAdder();
+    private final LongAdder fullBatches = new LongAdder();
+    private final LongAdder windowBatches = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final LatencyHistogram coalescingWait;
+
+    public OrderCoalescer(String drink, CoffeeMachine machine, int maxBatch, long windowMillis, int maxPending,
+                          CompletableFuture<?> warm) {
+        if (maxBatch < 1 || maxPending < maxBatch) {
+            throw new IllegalArgumentException("maxBatch must be positive and no larger than maxPending");
+        }
+        this.drink = drink;
+        this.machine = machine;
+        this.maxBatch = maxBatch;
+        this.windowMillis = windowMillis;
+        this.maxPending = maxPending;
+        this.warm = warm;
+        this.coalescingWait = new LatencyHistogram(drink + ".coalescing-wait");
+        this.brewer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, drink + "-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.brewer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @throws OrderRejectedException if {@code maxPending} orders are already waiting or brewing
+     */
+    public OrderTicket submit() {
+        OrderTicket ticket = new OrderTicket(orderNumbers.incrementAndGet(), drink, Instant.now(), new CompletableFuture<>());
+        synchronized (this) {
+            if (closed) {
+                throw new OrderRejectedException(drink + " batching is closed");
+            }
+            if (pending.size() + inFlight >= maxPending) {
+                rejected.increment();
+                throw new OrderRejectedException(drink + " has " + maxPending + " orders outstanding");
+            }
+            pending.add(new Pending(ticket, System.nanoTime()));
+            if (pending.size() >= maxBatch) {
+                fullBatches.increment();
+                dispatch();
+            } else if (pending.size() == 1) {
+                windowTimer = brewer.schedule(this::windowElapsed, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        orders.increment();
+        return ticket;
+    }
+
+    private synchronized void windowElapsed() {
+        if (!pending.isEmpty()) {
+            windowBatches.increment();
+            dispatch();
+        }
+    }
+
+    // Caller holds the lock
+    private void dispatch() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>(maxBatch);
+        if (windowTimer != null) {
+            windowTimer.cancel(false);
+            windowTimer = null;
+        }
+        inFlight += batch.size();
+        brewer.execute(() -> brew(batch));
+    }
+
+    private void brew(List<Pending> batch) {
+        long started = System.nanoTime();
+        for (Pending order : batch) {
+            coalescingWait.record(started - order.placedNanos());
+        }
+        try {
+            warm.join();
+            machine.makeBatch(batch.size());
+            batches.increment();
+            brewed.add(batch.size());
+            maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+            batch.forEach(order -> order.ticket().ready().complete(null));
+        } catch (RuntimeException e) {
+            batch.forEach(order -> order.ticket().ready().completeExceptionally(e));
+        } finally {
+            synchronized (this) {
+                inFlight -= batch.size();
+            }
+        }
+    }
+
+    public BatchStats stats() {
+        long batchCount = batches.sum();
+        return new BatchStats(drink, orders.sum(), batchCount, batchCount == 0 ? 0 : brewed.sum() / (double) batchCount,
+                maxBatchSize.get(), fullBatches.sum(), windowBatches.sum(), rejected.sum(), coalescingWait.snapshot());
+    }
+
+    /**
+     * Sends whatever is still waiting to the machine, then stops once it has been brewed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (!pending.isEmpty()) {
+                dispatch();
+            }
+        }
+        brewer.shutdown();
+        try {
+            if (!brewer.awaitTermination(5, TimeUnit.SECONDS)) {
+                brewer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            brewer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
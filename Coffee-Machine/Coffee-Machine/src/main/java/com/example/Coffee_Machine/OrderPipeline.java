@@ -0,0 +1,148 @@
+package com.example.Coffee_Machine;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Orders for one kind of drink: a fixed set of worker threads in front of one machine, fed
+ * from a bounded queue. When the queue is full the {@link RejectionPolicy} decides whether the
+ * order is refused, waits for a slot, or is brewed on the caller's thread.
+ */
+public class OrderPipeline implements AutoCloseable {
+
+    private final String drink;
+    private final CoffeeMachine machine;
+    private final int workers;
+    private final int queueCapacity;
+    private final RejectionPolicy policy;
+    private final long offerTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final CompletableFuture<?> warm;
+
+    private final AtomicLong orderNumbers = new AtomicLong();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final long startedNanos = System.nanoTime();
+
+    public OrderPipeline(String drink, CoffeeMachine machine, int workers, int queueCapacity,
+                         RejectionPolicy policy, long offerTimeoutMillis) {
+        this(drink, machine, workers, queueCapacity, policy, offerTimeoutMillis, CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * @param warm completes when the machine is ready; queued orders are held until then
+     */
+    public OrderPipeline(String drink, CoffeeMachine machine, int workers, int queueCapacity,
+                         RejectionPolicy policy, long offerTimeoutMillis, CompletableFuture<?> warm) {
+        if (workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("workers and queueCapacity must be positive");
+        }
+        this.drink = drink;
+        this.machine = machine;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.policy = policy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.warm = warm;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), baristas(drink), rejectionHandler());
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Places an order. Returns once the order is queued (or, under {@code CALLER_RUNS} with a
+     * full queue, once it has been brewed).
+     *
+     * @throws OrderRejectedException if the queue is full and the policy gives up on the order
+     */
+    public OrderTicket submit() {
+        OrderTicket ticket = new OrderTicket(orderNumbers.incrementAndGet(), drink, Instant.now(), new CompletableFuture<>());
+        try {
+            executor.execute(() -> brew(ticket));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new OrderRejectedException(e.getMessage());
+        }
+        submitted.increment();
+        peakQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+        return ticket;
+    }
+
+    private void brew(OrderTicket ticket) {
+        try {
+            warm.join();
+            machine.makeCoffee();
+            completed.increment();
+            ticket.ready().complete(null);
+        } catch (RuntimeException e) {
+            failed.increment();
+            ticket.ready().completeExceptionally(e);
+        }
+    }
+
+    private RejectedExecutionHandler rejectionHandler() {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException(drink + " pipeline is closed");
+            }
+            switch (policy) {
+                case CALLER_RUNS -> task.run();
+                case BLOCK -> {
+                    try {
+                        if (!pool.getQueue().offer(task, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                            throw new RejectedExecutionException(drink + " queue still full after " + offerTimeoutMillis + " ms");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted waiting for a " + drink + " queue slot");
+                    }
+                }
+                default -> throw new RejectedExecutionException(drink + " queue is full (" + queueCapacity + " orders)");
+            }
+        };
+    }
+
+    public PipelineStats stats() {
+        long done = completed.sum();
+        double seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        return new PipelineStats(drink, workers, queueCapacity, executor.getQueue().size(), peakQueueDepth.get(),
+                submitted.sum(), done, failed.sum(), rejected.sum(), seconds > 0 ? done / seconds : 0);
+    }
+
+    /**
+     * Stops taking orders and waits briefly for the queued ones to be brewed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory baristas(String drink) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, drink + "-barista-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.Coffee_Machine;
+
+public class OrderRejectedException extends RuntimeException {
+
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+}
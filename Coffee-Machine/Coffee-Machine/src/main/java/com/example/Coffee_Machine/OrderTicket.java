@@ -0,0 +1,11 @@
+package com.example.Coffee_Machine;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handed back when an order is accepted; {@code ready} completes when the drink is made,
+ * or completes exceptionally if the machine failed.
+ */
+public record OrderTicket(long number, String drink, Instant placedAt, CompletableFuture<Void> ready) {
+}
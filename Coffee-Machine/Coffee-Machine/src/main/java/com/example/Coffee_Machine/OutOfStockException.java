@@ -0,0 +1,15 @@
+package com.example.Coffee_Machine;
+
+public class OutOfStockException extends RuntimeException {
+
+    private final Ingredient ingredient;
+
+    public OutOfStockException(Ingredient ingredient, String message) {
+        super(message);
+        this.ingredient = ingredient;
+    }
+
+    public Ingredient ingredient() {
+        return ingredient;
+    }
+}
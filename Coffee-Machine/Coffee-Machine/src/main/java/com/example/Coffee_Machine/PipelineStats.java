@@ -0,0 +1,8 @@
+package com.example.Coffee_Machine;
+
+/**
+ * Point-in-time counters for one {@link OrderPipeline}.
+ */
+public record PipelineStats(String drink, int workers, int queueCapacity, int queueDepth, int peakQueueDepth,
+                            long submitted, long completed, long failed, long rejected, double ordersPerSecond) {
+}
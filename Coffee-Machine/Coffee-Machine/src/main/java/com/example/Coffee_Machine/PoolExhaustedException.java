@@ -0,0 +1,8 @@
+package com.example.Coffee_Machine;
+
+public class PoolExhaustedException extends RuntimeException {
+
+    public PoolExhaustedException(String message) {
+        super(message);
+    }
+}
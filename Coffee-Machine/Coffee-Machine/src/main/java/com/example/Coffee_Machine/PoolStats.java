@@ -0,0 +1,8 @@
+package com.example.Coffee_Machine;
+
+/**
+ * Point-in-time view of one pooled bean. {@code utilization} is active / max.
+ */
+public record PoolStats(String bean, int min, int max, int total, int idle, int active, int peakActive,
+                        long borrows, long created, long destroyed, long waits, long exhausted, double utilization) {
+}
@@ -0,0 +1,88 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.scope.ScopedProxyFactoryBean;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+
+/**
+ * Builds the singleton proxy {@link PooledScope} registers in place of a pooled bean. Each call
+ * on the proxy borrows an instance from the scope and returns it when the call completes.
+ *
+ * Extends {@link ScopedProxyFactoryBean} only so that {@code @Configuration} classes treat it like
+ * any other scoped proxy and let {@code @Bean} methods for pooled beans create real instances.
+ */
+public class PooledProxyFactoryBean extends ScopedProxyFactoryBean {
+
+    private String targetBeanName;
+    private PooledScope pooledScope;
+    private Object proxy;
+
+    @Override
+    public void setTargetBeanName(String targetBeanName) {
+        this.targetBeanName = targetBeanName;
+    }
+
+    public void setPooledScope(PooledScope pooledScope) {
+        this.pooledScope = pooledScope;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        Class<?> targetClass = beanFactory.getType(targetBeanName);
+        if (targetClass == null) {
+            throw new IllegalStateException("Cannot determine the type of pooled bean " + targetBeanName);
+        }
+        ProxyFactory factory = new ProxyFactory();
+        factory.setTargetSource(new PooledTargetSource(beanFactory, targetClass));
+        factory.setProxyTargetClass(true);
+        // Keeps auto-proxying (e.g. TimingAspect) off the proxy; the pooled instances are advised already
+        factory.addInterface(AopInfrastructureBean.class);
+        ClassLoader classLoader = beanFactory instanceof ConfigurableBeanFactory configurable
+                ? configurable.getBeanClassLoader() : null;
+        proxy = factory.getProxy(classLoader);
+    }
+
+    @Override
+    public Object getObject() {
+        return proxy;
+    }
+
+    @Override
+    public Class<?> getObjectType() {
+        return proxy != null ? proxy.getClass() : null;
+    }
+
+    private class PooledTargetSource implements TargetSource {
+
+        private final BeanFactory beanFactory;
+        private final Class<?> targetClass;
+
+        PooledTargetSource(BeanFactory beanFactory, Class<?> targetClass) {
+            this.beanFactory = beanFactory;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public Class<?> getTargetClass() {
+            return targetClass;
+        }
+
+        @Override
+        public boolean isStatic() {
+            return false;
+        }
+
+        @Override
+        public Object getTarget() {
+            return beanFactory.getBean(targetBeanName);
+        }
+
+        @Override
+        public void releaseTarget(Object target) {
+            pooledScope.release(targetBeanName, target);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code pooled} bean scope: a small pool of reusable instances per bean instead of a new
+ * instance per lookup ({@code prototype}) or one shared instance ({@code singleton}).
+ *
+ * Every {@code @Scope("pooled")} bean is registered behind a singleton proxy under its original
+ * name; each call on the proxy borrows an instance, invokes it and returns it, so injection
+ * points need no changes and each concurrent caller gets its own instance. Pools are configured
+ * with {@code cafe.pool.*} properties, overridable per bean as {@code cafe.pool.<bean>.*}.
+ */
+public class PooledScope implements Scope, BeanDefinitionRegistryPostProcessor, EnvironmentAware, DisposableBean {
+
+    public static final String NAME = "pooled";
+
+    // Bean name prefix for the pooled definitions hidden behind the proxies
+    static final String TARGET_PREFIX = "pooledTarget.";
+
+    private final Map<String, InstancePool> pools = new ConcurrentHashMap<>();
+    // Set by the bean factory while an instance is being created inside get(), by bean name, so a
+    // pooled bean created while another one is being built cannot take the other's callback
+    private final ThreadLocal<Map<String, Runnable>> creationCallbacks = ThreadLocal.withInitial(HashMap::new);
+    private Environment environment;
+    private ScheduledExecutorService evictor;
+
+    public static String originalBeanName(String beanName) {
+        return beanName.startsWith(TARGET_PREFIX) ? beanName.substring(TARGET_PREFIX.length()) : beanName;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        for (String name : registry.getBeanDefinitionNames()) {
+            BeanDefinition definition = registry.getBeanDefinition(name);
+            if (NAME.equals(definition.getScope()) && !name.startsWith(TARGET_PREFIX)) {
+                registerProxy(registry, name, definition);
+            }
+        }
+    }
+
+    // Same arrangement Spring uses for scoped proxies, with a target source that returns instances
+    private void registerProxy(BeanDefinitionRegistry registry, String name, BeanDefinition target) {
+        String targetName = TARGET_PREFIX + name;
+        RootBeanDefinition proxy = new RootBeanDefinition(PooledProxyFactoryBean.class);
+        proxy.setDecoratedDefinition(new BeanDefinitionHolder(target, targetName));
+        proxy.setOriginatingBeanDefinition(target);
+        proxy.setLazyInit(target.isLazyInit());
+        proxy.setPrimary(target.isPrimary());
+        proxy.setAutowireCandidate(target.isAutowireCandidate());
+        if (target instanceof AbstractBeanDefinition abstractTarget) {
+            proxy.copyQualifiersFrom(abstractTarget);
+        }
+        proxy.getPropertyValues().add("targetBeanName", targetName);
+        proxy.getPropertyValues().add("pooledScope", this);
+
+        target.setAutowireCandidate(false);
+        target.setPrimary(false);
+        registry.removeBeanDefinition(name);
+        registry.registerBeanDefinition(targetName, target);
+        registry.registerBeanDefinition(name, proxy);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        beanFactory.registerScope(NAME, this);
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        return pools.computeIfAbsent(name, this::newPool).borrow(objectFactory);
+    }
+
+    /**
+     * Returns an instance obtained from {@link #get}; the proxies do this after every call.
+     */
+    public void release(String name, Object instance) {
+        InstancePool pool = pools.get(name);
+        if (pool == null) {
+            throw new IllegalArgumentException("No pool for " + name);
+        }
+        pool.release(instance);
+    }
+
+    @Override
+    public Object remove(String name) {
+        InstancePool pool = pools.remove(name);
+        if (pool != null) {
+            pool.close();
+        }
+        return null;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        creationCallbacks.get().put(name, callback);
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    public Map<String, PoolStats> stats() {
+        Map<String, PoolStats> stats = new TreeMap<>();
+        pools.forEach((name, pool) -> stats.put(originalBeanName(name), pool.stats(originalBeanName(name))));
+        return stats;
+    }
+
+    private InstancePool newPool(String name) {
+        String bean = originalBeanName(name);
+        long idleTimeoutMillis = property(bean, "idle-timeout-ms", Long.class, 60_000L);
+        InstancePool pool = new InstancePool(bean,
+                property(bean, "min", Integer.class, 1),
+                property(bean, "max", Integer.class, 4),
+                idleTimeoutMillis,
+                property(bean, "exhausted-policy", ExhaustedPolicy.class, ExhaustedPolicy.WAIT),
+                property(bean, "max-wait-ms", Long.class, 1_000L),
+                () -> takeCreationCallback(name));
+        long period = Math.max(10, idleTimeoutMillis / 2);
+        evictor().scheduleWithFixedDelay(pool::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        return pool;
+    }
+
+    private Runnable takeCreationCallback(String name) {
+        Map<String, Runnable> callbacks = creationCallbacks.get();
+        Runnable callback = callbacks.remove(name);
+        if (callbacks.isEmpty()) {
+            creationCallbacks.remove();
+        }
+        return callback;
+    }
+
+    private <T> T property(String bean, String key, Class<T> type, T defaultValue) {
+        if (environment == null) {
+            return defaultValue;
+        }
+        T value = environment.getProperty("cafe.pool." + bean + "." + key, type);
+        return value != null ? value : environment.getProperty("cafe.pool." + key, type, defaultValue);
+    }
+
+    private synchronized ScheduledExecutorService evictor() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return evictor;
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            if (evictor != null) {
+                evictor.shutdownNow();
+            }
+        }
+        pools.values().forEach(InstancePool::close);
+        pools.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.Coffee_Machine;
+
+/**
+ * What an {@link OrderPipeline} does with a new order when its queue is full.
+ */
+public enum RejectionPolicy {
+    // Refuse the order straight away
+    REJECT,
+    // Make the customer wait for a free slot, up to the pipeline's offer timeout
+    BLOCK,
+    // Brew it on the ordering thread, which naturally slows the caller down
+    CALLER_RUNS
+}
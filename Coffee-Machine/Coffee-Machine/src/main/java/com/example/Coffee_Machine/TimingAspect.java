@@ -0,0 +1,90 @@
+package com.example.Coffee_Machine;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.beans.Introspector;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every {@code CoffeeMachine.makeCoffee()} call and the CafeService make/order methods
+ * into {@link LatencyRegistry} histograms. Machine timings are keyed by bean name, so all
+ * instances of the pooled {@code latteMachine} share one histogram.
+ *
+ * A {@code makeBatch(cups)} call is one brew cycle, so it is recorded once per batch under
+ * {@code <bean>.batch} rather than mixed into the per-drink histogram.
+ */
+@Aspect
+@Component
+public class TimingAspect {
+
+    private final LatencyRegistry registry;
+    private final ListableBeanFactory beanFactory;
+
+    // Resolved once per class/method so the advice itself is two map lookups and a record
+    private final Map<Class<?>, LatencyHistogram> machineHistograms = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LatencyHistogram> batchHistograms = new ConcurrentHashMap<>();
+    private final Map<Method, LatencyHistogram> cafeHistograms = new ConcurrentHashMap<>();
+
+    public TimingAspect(LatencyRegistry registry, ListableBeanFactory beanFactory) {
+        this.registry = registry;
+        this.beanFactory = beanFactory;
+    }
+
+    @Around("execution(void com.example.Coffee_Machine.CoffeeMachine+.makeCoffee())")
+    public Object timeMachine(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> machineClass = joinPoint.getTarget().getClass();
+        LatencyHistogram histogram = machineHistograms.get(machineClass);
+        if (histogram == null) {
+            histogram = machineHistograms.computeIfAbsent(machineClass, type -> registry.histogram(beanNameOf(type)));
+        }
+        return timed(joinPoint, histogram);
+    }
+
+    @Around("execution(void com.example.Coffee_Machine.CoffeeMachine+.makeBatch(int))")
+    public Object timeBatch(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> machineClass = joinPoint.getTarget().getClass();
+        LatencyHistogram histogram = batchHistograms.get(machineClass);
+        if (histogram == null) {
+            histogram = batchHistograms.computeIfAbsent(machineClass,
+                    type -> registry.histogram(beanNameOf(type) + ".batch"));
+        }
+        return timed(joinPoint, histogram);
+    }
+
+    @Around("execution(* com.example.Coffee_Machine.CafeService.make*(..))"
+            + " || execution(* com.example.Coffee_Machine.CafeService.order*(..))")
+    public Object timeCafe(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LatencyHistogram histogram = cafeHistograms.get(method);
+        if (histogram == null) {
+            histogram = cafeHistograms.computeIfAbsent(method, m -> registry.histogram("cafeService." + m.getName()));
+        }
+        return timed(joinPoint, histogram);
+    }
+
+    private static Object timed(ProceedingJoinPoint joinPoint, LatencyHistogram histogram) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    private String beanNameOf(Class<?> type) {
+        Class<?> userClass = ClassUtils.getUserClass(type);
+        String[] names = beanFactory.getBeanNamesForType(userClass, true, false);
+        // Outside a container fall back to the default component name
+        return names.length > 0
+                ? PooledScope.originalBeanName(names[0])
+                : Introspector.decapitalize(userClass.getSimpleName());
+    }
+}
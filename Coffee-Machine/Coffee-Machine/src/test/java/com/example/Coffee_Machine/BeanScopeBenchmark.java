@@ -0,0 +1,103 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost of getting a machine and brewing one drink under each scope: {@code singleton} (one
+ * shared instance), {@code prototype} (constructed and initialised on every lookup) and
+ * {@code pooled} (borrowed from and returned to a small pool on every call). The machine does
+ * a fixed amount of setup work in its constructor, like a real one calibrating its grinder.
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.example.Coffee_Machine.BeanScopeBenchmark -Dexec.classpathScope=test
+ */
+public class BeanScopeBenchmark {
+
+	private static final int WARMUP_CALLS = 20_000;
+	private static final int MEASURED_CALLS = 100_000;
+
+	static class CalibratedMachine implements CoffeeMachine {
+		private final double[] calibration = new double[2_048];
+		private long brewed;
+
+		CalibratedMachine() {
+			for (int i = 0; i < calibration.length; i++) {
+				calibration[i] = Math.sqrt(i) * 1.0001;
+			}
+		}
+
+		@Override
+		public void makeCoffee() {
+			brewed += (long) calibration[(int) (brewed & 2_047)];
+		}
+	}
+
+	// Not a @Configuration, so the application's component scan leaves it alone
+	static class Machines {
+		@Bean
+		static PooledScope pooledScope() {
+			return new PooledScope();
+		}
+
+		@Bean
+		CalibratedMachine singletonMachine() {
+			return new CalibratedMachine();
+		}
+
+		@Bean
+		@Scope("prototype")
+		CalibratedMachine prototypeMachine() {
+			return new CalibratedMachine();
+		}
+
+		@Bean
+		@Scope(PooledScope.NAME)
+		CalibratedMachine pooledMachine() {
+			return new CalibratedMachine();
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Machines.class)) {
+			System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+			System.out.printf("%-12s %8s %12s%n", "scope", "threads", "ns/call");
+			for (int threads : new int[]{1, 4}) {
+				for (String scope : new String[]{"singleton", "prototype", "pooled"}) {
+					String bean = scope + "Machine";
+					// Look the bean up on every call, as a per-order getBean() would
+					Runnable order = () -> ((CoffeeMachine) context.getBean(bean)).makeCoffee();
+					System.out.printf("%-12s %8d %12.1f%n", scope, threads, run(threads, order));
+				}
+			}
+			context.getBean(PooledScope.class).stats().values().forEach(System.out::println);
+		}
+	}
+
+	// Wall-clock ns per call over all threads
+	private static double run(int threads, Runnable order) throws InterruptedException {
+		runAll(threads, order, WARMUP_CALLS);
+		long start = System.nanoTime();
+		runAll(threads, order, MEASURED_CALLS);
+		return (System.nanoTime() - start) / (double) threads / MEASURED_CALLS;
+	}
+
+	private static void runAll(int threads, Runnable order, int calls) throws InterruptedException {
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < calls; i++) {
+					order.run();
+				}
+			}));
+		}
+		workers.forEach(Thread::start);
+		for (Thread worker : workers) {
+			worker.join();
+		}
+	}
+}
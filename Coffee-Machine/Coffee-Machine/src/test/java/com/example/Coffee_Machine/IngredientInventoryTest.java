@@ -0,0 +1,128 @@
+package com.example.Coffee_Machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngredientInventoryTest {
+
+	private final ConcurrentLinkedQueue<LowStockEvent> events = new ConcurrentLinkedQueue<>();
+
+	private IngredientInventory inventory(long beans, long milk, long cups, long threshold) {
+		return new IngredientInventory(
+				Map.of(Ingredient.BEANS, beans, Ingredient.MILK, milk, Ingredient.CUPS, cups),
+				Map.of(Ingredient.BEANS, threshold, Ingredient.MILK, threshold, Ingredient.CUPS, threshold),
+				event -> events.add((LowStockEvent) event));
+	}
+
+	@Test
+	void reservationIsAllOrNothing() {
+		IngredientInventory inventory = inventory(1_000, 100, 10, 0);
+
+		OutOfStockException e = assertThrows(OutOfStockException.class,
+				() -> inventory.reserve(LatteMachine.RECIPE, 1));
+
+		assertEquals(Ingredient.MILK, e.ingredient());
+		assertEquals(Map.of(Ingredient.BEANS, 1_000L, Ingredient.MILK, 100L, Ingredient.CUPS, 10L), inventory.levels());
+		assertTrue(inventory.tryReserve(EspressoMachine.RECIPE, 10));
+		assertFalse(inventory.tryReserve(EspressoMachine.RECIPE, 1));
+		assertEquals(1_000 - 180, inventory.level(Ingredient.BEANS));
+		assertEquals(2, inventory.stockOuts());
+	}
+
+	@Test
+	void lowStockIsReportedOncePerCrossing() {
+		IngredientInventory inventory = inventory(100, 0, 100, 50);
+
+		for (int i = 0; i < 5; i++) {
+			inventory.reserve(Map.of(Ingredient.CUPS, 20), 1);
+		}
+		assertEquals(List.of(new LowStockEvent(Ingredient.CUPS, 40, 50)), new ArrayList<>(events));
+
+		inventory.restock(Ingredient.CUPS, 100);
+		inventory.reserve(Map.of(Ingredient.CUPS, 60), 1);
+		assertEquals(2, events.size());
+		assertEquals(new LowStockEvent(Ingredient.CUPS, 40, 50), events.stream().skip(1).findFirst().orElseThrow());
+	}
+
+	// Many threads racing for the same stock, with a restocker topping up milk meanwhile
+	@Test
+	void concurrentOrdersNeverOversell() throws Exception {
+		int threads = 8;
+		int attemptsPerThread = 20_000;
+		long beans = 18 * 3_000;
+		long milk = 180 * 500;
+		long cups = 2_500;
+		IngredientInventory inventory = inventory(beans, milk, cups, 100);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<long[]>> orders = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				orders.add(pool.submit(() -> {
+					// espressos, lattes (both counted in cups)
+					long[] served = new long[2];
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < attemptsPerThread; i++) {
+						int cupsWanted = random.nextInt(1, 4);
+						if (random.nextBoolean()) {
+							if (inventory.tryReserve(EspressoMachine.RECIPE, cupsWanted)) {
+								served[0] += cupsWanted;
+							}
+						} else if (inventory.tryReserve(LatteMachine.RECIPE, cupsWanted)) {
+							served[1] += cupsWanted;
+						}
+					}
+					return served;
+				}));
+			}
+			Future<Long> restocks = pool.submit(() -> {
+				start.await();
+				long added = 0;
+				for (int i = 0; i < 100; i++) {
+					inventory.restock(Ingredient.MILK, 180);
+					added += 180;
+					Thread.yield();
+				}
+				return added;
+			});
+			start.countDown();
+
+			long espressos = 0;
+			long lattes = 0;
+			for (Future<long[]> order : orders) {
+				long[] served = order.get(60, TimeUnit.SECONDS);
+				espressos += served[0];
+				lattes += served[1];
+			}
+			long milkAdded = restocks.get(60, TimeUnit.SECONDS);
+
+			Map<Ingredient, Long> expected = new EnumMap<>(Ingredient.class);
+			expected.put(Ingredient.BEANS, beans - 18 * (espressos + lattes));
+			expected.put(Ingredient.MILK, milk + milkAdded - 180 * lattes);
+			expected.put(Ingredient.CUPS, cups - espressos - lattes);
+			assertEquals(expected, inventory.levels());
+			inventory.levels().values().forEach(level -> assertTrue(level >= 0));
+			// More attempts than stock, so cups must have run out (or nearly: the last orders wanted up to 3)
+			assertTrue(inventory.level(Ingredient.CUPS) < 3);
+			assertTrue(inventory.stockOuts() > 0);
+			assertEquals(1, events.stream().filter(e -> e.ingredient() == Ingredient.CUPS).count());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
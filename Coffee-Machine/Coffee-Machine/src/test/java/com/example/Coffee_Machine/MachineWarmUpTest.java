@@ -0,0 +1,114 @@
+package com.example.Coffee_Machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MachineWarmUpTest {
+
+	// Preheats for a fixed time and records whether a drink was made while still cold
+	static class TimedMachine implements CoffeeMachine {
+		final long preheatMillis;
+		volatile boolean warm;
+		volatile boolean brewedCold;
+
+		TimedMachine(long preheatMillis) {
+			this.preheatMillis = preheatMillis;
+		}
+
+		@Override
+		public void preheat() {
+			try {
+				Thread.sleep(preheatMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			warm = true;
+		}
+
+		@Override
+		public void makeCoffee() {
+			brewedCold |= !warm;
+		}
+	}
+
+	@Test
+	void machinesWarmInParallel() {
+		MachineWarmUp warmUp = new MachineWarmUp();
+		warmUp.register("grinder", new TimedMachine(100));
+		warmUp.register("espressoMachine", new TimedMachine(200));
+		warmUp.register("latteMachine", new TimedMachine(300));
+
+		warmUp.warmUp();
+		Duration total = warmUp.allWarm().join();
+
+		// Bounded by the slowest machine, not the 600 ms sum
+		assertTrue(total.toMillis() >= 300 && total.toMillis() < 550, "took " + total);
+		assertEquals(3, warmUp.warmUpTimes().size());
+		assertTrue(warmUp.warmUpTimes().get("latteMachine").toMillis() >= 300);
+		assertTrue(warmUp.isWarm("grinder"));
+	}
+
+	@Test
+	void failedWarmUpFailsReadiness() {
+		MachineWarmUp warmUp = new MachineWarmUp();
+		CompletableFuture<Void> ready = warmUp.register("broken", new CoffeeMachine() {
+			@Override
+			public void makeCoffee() {
+			}
+
+			@Override
+			public void preheat() {
+				throw new IllegalStateException("no water");
+			}
+		});
+
+		warmUp.warmUp();
+		warmUp.allWarm().join();
+
+		assertTrue(ready.isCompletedExceptionally());
+		assertFalse(warmUp.isWarm("broken"));
+	}
+
+	@Test
+	void ordersQueueUntilTheMachineIsWarm() throws Exception {
+		MachineWarmUp warmUp = new MachineWarmUp();
+		TimedMachine espresso = new TimedMachine(200);
+		CafeService cafe = cafe(espresso, new TimedMachine(0), warmUp, false);
+		try {
+			OrderTicket early = cafe.orderEspresso();
+			assertFalse(early.ready().isDone());
+
+			warmUp.warmUp();
+			early.ready().get(5, TimeUnit.SECONDS);
+			assertFalse(espresso.brewedCold);
+		} finally {
+			cafe.closePipelines();
+		}
+	}
+
+	@Test
+	void coldMachinesCanRejectOrders() {
+		MachineWarmUp warmUp = new MachineWarmUp();
+		CafeService cafe = cafe(new TimedMachine(50), new TimedMachine(50), warmUp, true);
+		try {
+			assertThrows(OrderRejectedException.class, cafe::orderLatte);
+			assertThrows(OrderRejectedException.class, cafe::makeEspresso);
+
+			warmUp.warmUp();
+			warmUp.allWarm().join();
+			cafe.orderLatte().ready().join();
+			cafe.makeEspresso();
+		} finally {
+			cafe.closePipelines();
+		}
+	}
+
+	private static CafeService cafe(CoffeeMachine espresso, CoffeeMachine latte, MachineWarmUp warmUp, boolean rejectWhileCold) {
+		return new CafeService(espresso, latte, 1, 1, 10, RejectionPolicy.REJECT, 0, warmUp, rejectWhileCold, 5_000, false, 1, 0);
+	}
+}
@@ -0,0 +1,118 @@
+package com.example.Coffee_Machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCoalescerTest {
+
+	// Remembers the size of every batch it was asked to brew
+	static class BatchMachine implements CoffeeMachine {
+		final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void makeCoffee() {
+			batches.add(1);
+		}
+
+		@Override
+		public void makeBatch(int cups) {
+			batches.add(cups);
+		}
+	}
+
+	private static final CompletableFuture<Void> WARM = CompletableFuture.completedFuture(null);
+
+	@Test
+	void burstIsBrewedInFullBatches() throws Exception {
+		BatchMachine machine = new BatchMachine();
+		ExecutorService customers = Executors.newFixedThreadPool(8);
+		try (OrderCoalescer coalescer = new OrderCoalescer("espresso", machine, 10, 1_000, 100, WARM)) {
+			List<Future<OrderTicket>> orders = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				orders.add(customers.submit(coalescer::submit));
+			}
+			for (Future<OrderTicket> order : orders) {
+				order.get().ready().get(5, TimeUnit.SECONDS);
+			}
+
+			assertEquals(List.of(10, 10, 10, 10, 10), machine.batches);
+			BatchStats stats = coalescer.stats();
+			assertEquals(50, stats.orders());
+			assertEquals(5, stats.batches());
+			assertEquals(5, stats.fullBatches());
+			assertEquals(10.0, stats.meanBatchSize());
+			assertEquals(50, stats.coalescingWait().count());
+		} finally {
+			customers.shutdownNow();
+		}
+	}
+
+	@Test
+	void partialBatchLeavesWhenTheWindowCloses() {
+		BatchMachine machine = new BatchMachine();
+		try (OrderCoalescer coalescer = new OrderCoalescer("latte", machine, 10, 50, 100, WARM)) {
+			long start = System.nanoTime();
+			List<OrderTicket> tickets = List.of(coalescer.submit(), coalescer.submit(), coalescer.submit());
+			tickets.forEach(ticket -> ticket.ready().join());
+
+			assertEquals(List.of(3), machine.batches);
+			assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+			assertEquals(1, coalescer.stats().windowBatches());
+			// Every order waited for the window, bounded by it plus scheduling slack
+			assertTrue(coalescer.stats().coalescingWait().p50() >= TimeUnit.MILLISECONDS.toNanos(40));
+		}
+	}
+
+	@Test
+	void outstandingOrdersAreBounded() {
+		CountDownLatch release = new CountDownLatch(1);
+		CoffeeMachine stuck = new BatchMachine() {
+			@Override
+			public void makeBatch(int cups) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		try (OrderCoalescer coalescer = new OrderCoalescer("espresso", stuck, 2, 1_000, 4, WARM)) {
+			for (int i = 0; i < 4; i++) {
+				coalescer.submit();
+			}
+
+			assertThrows(OrderRejectedException.class, coalescer::submit);
+			assertEquals(1, coalescer.stats().rejected());
+			release.countDown();
+		}
+	}
+
+	@Test
+	void failedBatchFailsEveryTicket() {
+		CoffeeMachine broken = new BatchMachine() {
+			@Override
+			public void makeBatch(int cups) {
+				throw new IllegalStateException("out of milk");
+			}
+		};
+		try (OrderCoalescer coalescer = new OrderCoalescer("latte", broken, 2, 1_000, 10, WARM)) {
+			OrderTicket first = coalescer.submit();
+			OrderTicket second = coalescer.submit();
+
+			assertThrows(Exception.class, () -> first.ready().join());
+			assertThrows(Exception.class, () -> second.ready().join());
+			assertEquals(0, coalescer.stats().batches());
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.Coffee_Machine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderPipelineTest {
+
+	// A machine that holds every drink until the test opens the latch
+	static class SlowMachine implements CoffeeMachine {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger brewed = new AtomicInteger();
+
+		@Override
+		public void makeCoffee() {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			brewed.incrementAndGet();
+		}
+	}
+
+	private static void awaitBrewing(SlowMachine machine) {
+		try {
+			assertTrue(machine.started.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	void concurrentOrdersAreAllServed() throws Exception {
+		AtomicInteger brewed = new AtomicInteger();
+		ExecutorService customers = Executors.newFixedThreadPool(8);
+		try (OrderPipeline pipeline = new OrderPipeline("espresso", brewed::incrementAndGet, 4, 16, RejectionPolicy.BLOCK, 5_000)) {
+			List<Future<OrderTicket>> orders = new ArrayList<>();
+			for (int i = 0; i < 400; i++) {
+				orders.add(customers.submit(pipeline::submit));
+			}
+			List<CompletableFuture<Void>> ready = new ArrayList<>();
+			for (Future<OrderTicket> order : orders) {
+				ready.add(order.get().ready());
+			}
+			CompletableFuture.allOf(ready.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+			PipelineStats stats = pipeline.stats();
+			assertEquals(400, brewed.get());
+			assertEquals(400, stats.submitted());
+			assertEquals(400, stats.completed());
+			assertEquals(0, stats.rejected());
+			assertTrue(stats.peakQueueDepth() <= 16);
+			assertTrue(stats.ordersPerSecond() > 0);
+		} finally {
+			customers.shutdownNow();
+		}
+	}
+
+	@Test
+	void rejectPolicyRefusesWhenQueueIsFull() {
+		SlowMachine machine = new SlowMachine();
+		try (OrderPipeline pipeline = new OrderPipeline("latte", machine, 1, 2, RejectionPolicy.REJECT, 0)) {
+			// One order being brewed plus two waiting fills the pipeline
+			OrderTicket first = pipeline.submit();
+			awaitBrewing(machine);
+			pipeline.submit();
+			pipeline.submit();
+
+			assertThrows(OrderRejectedException.class, pipeline::submit);
+			assertEquals(1, pipeline.stats().rejected());
+			assertEquals(2, pipeline.stats().queueDepth());
+
+			machine.release.countDown();
+			first.ready().join();
+		}
+	}
+
+	@Test
+	void blockPolicyGivesUpAfterTimeout() {
+		SlowMachine machine = new SlowMachine();
+		try (OrderPipeline pipeline = new OrderPipeline("latte", machine, 1, 1, RejectionPolicy.BLOCK, 50)) {
+			pipeline.submit();
+			awaitBrewing(machine);
+			pipeline.submit();
+
+			long start = System.nanoTime();
+			assertThrows(OrderRejectedException.class, pipeline::submit);
+			assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+			machine.release.countDown();
+		}
+	}
+
+	@Test
+	void callerRunsPolicyBrewsOnTheCallingThread() {
+		SlowMachine blocker = new SlowMachine();
+		List<String> brewedOn = new ArrayList<>();
+		CoffeeMachine machine = () -> {
+			if (!Thread.currentThread().getName().startsWith("espresso-barista")) {
+				brewedOn.add(Thread.currentThread().getName());
+				return;
+			}
+			blocker.makeCoffee();
+		};
+		try (OrderPipeline pipeline = new OrderPipeline("espresso", machine, 1, 1, RejectionPolicy.CALLER_RUNS, 0)) {
+			pipeline.submit();
+			awaitBrewing(blocker);
+			pipeline.submit();
+
+			OrderTicket overflow = pipeline.submit();
+			assertTrue(overflow.ready().isDone());
+			assertEquals(List.of(Thread.currentThread().getName()), brewedOn);
+			blocker.release.countDown();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package com.example.Coffee_Machine;
+
+import jakarta.annotation.PreDestroy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledScopeTest {
+
+	static final AtomicInteger constructed = new AtomicInteger();
+	static final AtomicInteger destroyed = new AtomicInteger();
+
+	// Counts constructions/destructions and can be held mid-brew to force concurrent borrows
+	static class SlowMachine implements CoffeeMachine {
+		static volatile CountDownLatch gate = new CountDownLatch(0);
+
+		SlowMachine() {
+			constructed.incrementAndGet();
+		}
+
+		@Override
+		public void makeCoffee() {
+			try {
+				gate.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@PreDestroy
+		void shutDown() {
+			destroyed.incrementAndGet();
+		}
+	}
+
+	static class Customer {
+		@Autowired
+		@Qualifier("slowMachine")
+		CoffeeMachine machine;
+	}
+
+	// Not a @Configuration, so the application's component scan leaves it alone
+	static class PoolConfig {
+		@Bean
+		static PooledScope pooledScope() {
+			return new PooledScope();
+		}
+
+		@Bean
+		@Scope(PooledScope.NAME)
+		SlowMachine slowMachine() {
+			return new SlowMachine();
+		}
+
+		@Bean
+		Customer customer() {
+			return new Customer();
+		}
+	}
+
+	private AnnotationConfigApplicationContext context;
+
+	private AnnotationConfigApplicationContext start(Map<String, Object> properties) {
+		constructed.set(0);
+		destroyed.set(0);
+		context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+		context.register(PoolConfig.class);
+		context.refresh();
+		return context;
+	}
+
+	@AfterEach
+	void close() {
+		SlowMachine.gate = new CountDownLatch(0);
+		if (context != null) {
+			context.close();
+		}
+	}
+
+	private static void awaitActive(PooledScope scope, int active) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			PoolStats stats = scope.stats().get("slowMachine");
+			if (stats != null && stats.active() >= active) {
+				return;
+			}
+			Thread.sleep(5);
+		}
+		fail("Pool never reached " + active + " active instances: " + scope.stats());
+	}
+
+	@Test
+	void instancesAreReusedAcrossCalls() {
+		start(Map.of("cafe.pool.min", "2", "cafe.pool.max", "3"));
+		CoffeeMachine machine = context.getBean(Customer.class).machine;
+
+		for (int i = 0; i < 100; i++) {
+			machine.makeCoffee();
+		}
+
+		PoolStats stats = context.getBean(PooledScope.class).stats().get("slowMachine");
+		assertEquals(2, constructed.get());
+		assertEquals(100, stats.borrows());
+		assertEquals(0, stats.active());
+		assertEquals(2, stats.idle());
+		assertSame(machine, context.getBean("slowMachine"));
+	}
+
+	@Test
+	void concurrentCallersGetTheirOwnInstanceUpToMax() throws Exception {
+		start(Map.of("cafe.pool.min", "0", "cafe.pool.max", "3", "cafe.pool.max-wait-ms", "5000"));
+		CoffeeMachine machine = context.getBean(Customer.class).machine;
+		SlowMachine.gate = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(6);
+		try {
+			List<Future<?>> calls = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				calls.add(callers.submit(machine::makeCoffee));
+			}
+			PooledScope scope = context.getBean(PooledScope.class);
+			awaitActive(scope, 3);
+			PoolStats busy = scope.stats().get("slowMachine");
+			assertEquals(3, busy.active());
+			assertEquals(1.0, busy.utilization());
+
+			SlowMachine.gate.countDown();
+			for (Future<?> call : calls) {
+				call.get(5, TimeUnit.SECONDS);
+			}
+			PoolStats done = scope.stats().get("slowMachine");
+			assertEquals(3, constructed.get());
+			assertEquals(3, done.peakActive());
+			assertTrue(done.waits() > 0);
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void failPolicyRejectsWhenExhausted() throws Exception {
+		start(Map.of("cafe.pool.slowMachine.max", "1", "cafe.pool.slowMachine.exhausted-policy", "FAIL"));
+		CoffeeMachine machine = context.getBean(Customer.class).machine;
+		SlowMachine.gate = new CountDownLatch(1);
+		ExecutorService caller = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> holding = caller.submit(machine::makeCoffee);
+			PooledScope scope = context.getBean(PooledScope.class);
+			awaitActive(scope, 1);
+
+			assertThrows(PoolExhaustedException.class, machine::makeCoffee);
+			assertEquals(1, scope.stats().get("slowMachine").exhausted());
+			SlowMachine.gate.countDown();
+			holding.get(5, TimeUnit.SECONDS);
+		} finally {
+			caller.shutdownNow();
+		}
+	}
+
+	@Test
+	void idleInstancesAreEvictedDownToMin() throws Exception {
+		start(Map.of("cafe.pool.min", "1", "cafe.pool.max", "4", "cafe.pool.idle-timeout-ms", "50",
+				"cafe.pool.exhausted-policy", "GROW"));
+		CoffeeMachine machine = context.getBean(Customer.class).machine;
+		SlowMachine.gate = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> calls = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				calls.add(callers.submit(machine::makeCoffee));
+			}
+			Thread.sleep(100);
+			SlowMachine.gate.countDown();
+			for (Future<?> call : calls) {
+				call.get(5, TimeUnit.SECONDS);
+			}
+			assertEquals(4, constructed.get());
+
+			PooledScope scope = context.getBean(PooledScope.class);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (scope.stats().get("slowMachine").total() > 1 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(1, scope.stats().get("slowMachine").total());
+			assertEquals(3, destroyed.get());
+		} finally {
+			callers.shutdownNow();
+		}
+
+		context.close();
+		assertEquals(4, destroyed.get());
+	}
+
+	@Test
+	void everyLatteInstanceIsPreheatedWhenThePoolCreatesIt() {
+		context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+				Map.of("cafe.warmup.latte-ms", "20", "cafe.pool.min", "0", "cafe.pool.max", "2")));
+		context.register(PoolConfig.class, LatteMachine.class, IngredientInventory.class);
+		context.refresh();
+		PooledScope scope = context.getBean(PooledScope.class);
+
+		// Held without returning them, so the pool has to create a second instance
+		LatteMachine first = (LatteMachine) context.getBean(PooledScope.TARGET_PREFIX + "latteMachine");
+		LatteMachine second = (LatteMachine) context.getBean(PooledScope.TARGET_PREFIX + "latteMachine");
+
+		assertNotSame(first, second);
+		assertTrue(first.isWarm());
+		assertTrue(second.isWarm());
+		assertEquals(2, scope.stats().get("latteMachine").created());
+		scope.release(PooledScope.TARGET_PREFIX + "latteMachine", first);
+		scope.release(PooledScope.TARGET_PREFIX + "latteMachine", second);
+	}
+
+	@Test
+	void nestedCreationKeepsEachDestructionCallback() {
+		PooledScope scope = new PooledScope();
+		List<String> destroyedBeans = new ArrayList<>();
+
+		// The outer bean's callback is registered before the inner bean is created and registers its own
+		Object outer = scope.get("outer", () -> {
+			scope.registerDestructionCallback("outer", () -> destroyedBeans.add("outer"));
+			Object inner = scope.get("inner", () -> {
+				scope.registerDestructionCallback("inner", () -> destroyedBeans.add("inner"));
+				return new Object();
+			});
+			scope.release("inner", inner);
+			return new Object();
+		});
+		scope.release("outer", outer);
+		scope.destroy();
+
+		assertEquals(2, destroyedBeans.size());
+		assertEquals(Set.of("outer", "inner"), Set.copyOf(destroyedBeans));
+	}
+}
@@ -0,0 +1,172 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.metrics.StartupStep;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * How long the Coffee-Machine context takes to start, and which beans that time goes to, under
+ * three modes:
+ * <ul>
+ *     <li>{@code SCANNING}: {@code @ComponentScan} walks the classpath (the index is ignored)</li>
+ *     <li>{@code INDEXED}: candidates come from the META-INF/spring.components index written at
+ *     compile time by spring-context-indexer</li>
+ *     <li>{@code LAZY}: indexed, and every bean is created on first use instead of at refresh</li>
+ * </ul>
+ * The component index is deprecated for removal as of Spring 6.1, so the benchmark drives it
+ * through its documented {@code spring.index.ignore} flag and resource location rather than
+ * through {@code CandidateComponentsIndexLoader}; INDEXED and LAZY go away with the indexer.
+ * Startup is a cold-JVM cost, so each run is a fresh JVM; the table shows medians over the runs.
+ * "First order" is the time from the end of refresh to the first espresso, which is where lazy
+ * mode pays for the beans it skipped. Per-bean times are self time, excluding the beans each
+ * one pulled in as dependencies.
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.example.Coffee_Machine.StartupBenchmark -Dexec.classpathScope=test
+ */
+public class StartupBenchmark {
+
+	enum Mode {SCANNING, INDEXED, LAZY}
+
+	private static final int RUNS = 5;
+	private static final String IGNORE_INDEX = "spring.index.ignore";
+	private static final String COMPONENTS_INDEX = "META-INF/spring.components";
+	private static final int SLOWEST_BEANS = 10;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 1) {
+			runOnce(Mode.valueOf(args[0]));
+			return;
+		}
+		Map<Mode, List<Double>> refresh = new TreeMap<>();
+		Map<Mode, List<Double>> firstOrder = new TreeMap<>();
+		Map<Mode, Integer> beansAtRefresh = new TreeMap<>();
+		Map<String, List<Double>> beanTimes = new HashMap<>();
+		for (int run = 0; run < RUNS; run++) {
+			// Interleave the modes so drift on the machine affects them all alike
+			for (Mode mode : Mode.values()) {
+				for (String line : fork(mode)) {
+					String[] fields = line.split(" ");
+					if (fields[0].equals("result")) {
+						refresh.computeIfAbsent(mode, m -> new ArrayList<>()).add(Double.parseDouble(fields[1]));
+						firstOrder.computeIfAbsent(mode, m -> new ArrayList<>()).add(Double.parseDouble(fields[2]));
+						beansAtRefresh.put(mode, Integer.parseInt(fields[3]));
+					} else if (fields[0].equals("bean") && mode == Mode.INDEXED) {
+						beanTimes.computeIfAbsent(fields[1], b -> new ArrayList<>()).add(Double.parseDouble(fields[2]));
+					}
+				}
+			}
+		}
+
+		System.out.println("available processors: " + Runtime.getRuntime().availableProcessors() + ", runs per mode: " + RUNS);
+		System.out.printf("%-10s %12s %16s %18s%n", "mode", "refresh ms", "first order ms", "beans at refresh");
+		for (Mode mode : Mode.values()) {
+			System.out.printf("%-10s %12.1f %16.1f %18d%n", mode, median(refresh.get(mode)),
+					median(firstOrder.get(mode)), beansAtRefresh.get(mode));
+		}
+		System.out.println("Slowest beans to instantiate (INDEXED, median self time):");
+		beanTimes.entrySet().stream()
+				.sorted((a, b) -> Double.compare(median(b.getValue()), median(a.getValue())))
+				.limit(SLOWEST_BEANS)
+				.forEach(e -> System.out.printf("  %-60s %8.2f ms%n", e.getKey(), median(e.getValue())));
+	}
+
+	private static List<String> fork(Mode mode) throws Exception {
+		String java = ProcessHandle.current().info().command().orElse("java");
+		Process process = new ProcessBuilder(java,
+				"-cp", System.getProperty("java.class.path"),
+				// Measure startup, not the simulated boiler warm-up
+				"-Dcafe.warmup.espresso-ms=0", "-Dcafe.warmup.latte-ms=0",
+				StartupBenchmark.class.getName(), mode.name())
+				.redirectErrorStream(true)
+				.start();
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = output.readLine()) != null) {
+				if (line.startsWith("result ") || line.startsWith("bean ")) {
+					lines.add(line);
+				}
+			}
+		}
+		if (process.waitFor() != 0) {
+			throw new IllegalStateException(mode + " run failed with exit code " + process.exitValue());
+		}
+		return lines;
+	}
+
+	private static void runOnce(Mode mode) {
+		if (mode == Mode.SCANNING) {
+			SpringProperties.setFlag(IGNORE_INDEX);
+		} else if (StartupBenchmark.class.getClassLoader().getResource(COMPONENTS_INDEX) == null) {
+			throw new IllegalStateException("No " + COMPONENTS_INDEX + " on the classpath; is spring-context-indexer on the compile path?");
+		}
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10_000);
+		long start = System.nanoTime();
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(startup);
+		if (mode == Mode.LAZY) {
+			context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor());
+		}
+		context.register(AppConfig.class);
+		context.refresh();
+		long refreshed = System.nanoTime();
+		int beansAtRefresh = instantiations(startup.getBufferedTimeline()).size();
+
+		context.getBean(CafeService.class).makeEspresso();
+		long firstOrder = System.nanoTime();
+
+		System.out.printf("result %.3f %.3f %d%n", (refreshed - start) / 1e6, (firstOrder - refreshed) / 1e6, beansAtRefresh);
+		selfTimes(instantiations(startup.getBufferedTimeline()))
+				.forEach((bean, nanos) -> System.out.printf("bean %s %.3f%n", bean, nanos / 1e6));
+		context.close();
+	}
+
+	private static List<StartupTimeline.TimelineEvent> instantiations(StartupTimeline timeline) {
+		return timeline.getEvents().stream()
+				.filter(e -> e.getStartupStep().getName().equals("spring.beans.instantiate"))
+				.toList();
+	}
+
+	// Each bean's time minus the time spent creating the beans it depends on
+	private static Map<String, Long> selfTimes(List<StartupTimeline.TimelineEvent> events) {
+		Map<Long, Long> childNanos = new HashMap<>();
+		for (StartupTimeline.TimelineEvent event : events) {
+			Long parent = event.getStartupStep().getParentId();
+			if (parent != null) {
+				childNanos.merge(parent, event.getDuration().toNanos(), Long::sum);
+			}
+		}
+		Map<String, Long> self = new HashMap<>();
+		for (StartupTimeline.TimelineEvent event : events) {
+			StartupStep step = event.getStartupStep();
+			String bean = null;
+			for (StartupStep.Tag tag : step.getTags()) {
+				if (tag.getKey().equals("beanName")) {
+					bean = tag.getValue();
+				}
+			}
+			Duration duration = event.getDuration();
+			self.merge(bean, duration.toNanos() - childNanos.getOrDefault(step.getId(), 0L), Long::sum);
+		}
+		return self;
+	}
+
+	private static double median(List<Double> values) {
+		List<Double> sorted = values.stream().sorted().toList();
+		int middle = sorted.size() / 2;
+		return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+	}
+}
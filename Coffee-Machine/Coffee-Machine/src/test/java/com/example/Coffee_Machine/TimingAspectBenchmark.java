@@ -0,0 +1,94 @@
+package com.example.Coffee_Machine;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures what {@link TimingAspect} adds to a {@code makeCoffee()} call: a plain call, the same
+ * call through a Spring AOP proxy without advice, and through a proxy with the timing advice.
+ * The difference between the last two is the aspect's own cost; running with several threads
+ * shows the per-thread histograms do not contend.
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.example.Coffee_Machine.TimingAspectBenchmark -Dexec.classpathScope=test
+ */
+public class TimingAspectBenchmark {
+
+	private static final int WARMUP_CALLS = 2_000_000;
+	private static final int MEASURED_CALLS = 10_000_000;
+
+	// Does a trivial amount of work so the call cannot be optimised away
+	static class NoopMachine implements CoffeeMachine {
+		long brewed;
+
+		@Override
+		public void makeCoffee() {
+			brewed++;
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		LatencyRegistry registry = new LatencyRegistry();
+		TimingAspect aspect = new TimingAspect(registry, new DefaultListableBeanFactory());
+
+		System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.printf("%-16s %8s %12s%n", "variant", "threads", "ns/call");
+		for (int threads : new int[]{1, 4}) {
+			LatencyHistogram scratch = new LatencyHistogram("record-only");
+			double plain = run(threads, () -> new NoopMachine());
+			double recordOnly = run(threads, () -> () -> scratch.record(System.nanoTime() & 0xFFFF));
+			double proxied = run(threads, () -> proxy(new NoopMachine(), null));
+			double timed = run(threads, () -> proxy(new NoopMachine(), aspect));
+			System.out.printf("%-16s %8d %12.1f%n", "plain", threads, plain);
+			System.out.printf("%-16s %8d %12.1f%n", "nanoTime+record", threads, recordOnly);
+			System.out.printf("%-16s %8d %12.1f%n", "proxy", threads, proxied);
+			System.out.printf("%-16s %8d %12.1f%n", "proxy+timing", threads, timed);
+			System.out.printf("%-16s %8d %12.1f%n", "timing overhead", threads, timed - proxied);
+		}
+		System.out.println(registry.snapshot("noopMachine"));
+	}
+
+	interface MachineFactory {
+		CoffeeMachine create();
+	}
+
+	private static CoffeeMachine proxy(CoffeeMachine target, TimingAspect aspect) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		if (aspect != null) {
+			factory.addAspect(aspect);
+		}
+		return factory.getProxy();
+	}
+
+	// Wall-clock ns per call over all threads, i.e. the inverse of aggregate throughput;
+	// flat as threads are added (up to the core count) means the threads do not contend
+	private static double run(int threads, MachineFactory machines) throws InterruptedException {
+		List<CoffeeMachine> perThread = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			perThread.add(machines.create());
+		}
+		runAll(perThread, WARMUP_CALLS);
+		long start = System.nanoTime();
+		runAll(perThread, MEASURED_CALLS);
+		return (System.nanoTime() - start) / (double) threads / MEASURED_CALLS;
+	}
+
+	private static void runAll(List<CoffeeMachine> machines, int calls) throws InterruptedException {
+		List<Thread> workers = new ArrayList<>();
+		for (CoffeeMachine machine : machines) {
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < calls; i++) {
+					machine.makeCoffee();
+				}
+			}));
+		}
+		workers.forEach(Thread::start);
+		for (Thread worker : workers) {
+			worker.join();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.Coffee_Machine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TimingAspectTest {
+
+	@Autowired
+	private CafeService cafe;
+
+	@Autowired
+	private LatencyRegistry registry;
+
+	@Autowired
+	@Qualifier("latteMachine")
+	private CoffeeMachine latteMachine;
+
+	@Test
+	void machineAndCafeCallsAreTimedPerBean() {
+		long espressos = registry.snapshot("espressoMachine").count();
+		long lattes = registry.snapshot("latteMachine").count();
+		long orders = registry.snapshot("cafeService.orderLatte").count();
+
+		for (int i = 0; i < 5; i++) {
+			cafe.makeEspresso();
+		}
+		List<OrderTicket> tickets = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tickets.add(cafe.orderLatte());
+		}
+		tickets.forEach(ticket -> ticket.ready().join());
+
+		assertEquals(espressos + 5, registry.snapshot("espressoMachine").count());
+		assertEquals(lattes + 3, registry.snapshot("latteMachine").count());
+		assertEquals(orders + 3, registry.snapshot("cafeService.orderLatte").count());
+		assertTrue(registry.snapshot("cafeService.makeEspresso").p99() > 0);
+	}
+
+	@Test
+	void batchBrewsAreTimedOncePerBatch() {
+		long batches = registry.snapshot("latteMachine.batch").count();
+		long lattes = registry.snapshot("latteMachine").count();
+
+		latteMachine.makeBatch(3);
+		latteMachine.makeBatch(2);
+
+		assertEquals(batches + 2, registry.snapshot("latteMachine.batch").count());
+		assertEquals(lattes, registry.snapshot("latteMachine").count());
+	}
+
+	@Test
+	void percentilesStayWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram("uniform");
+		for (long nanos = 1; nanos <= 100_000; nanos++) {
+			histogram.record(nanos);
+		}
+
+		LatencySnapshot snapshot = histogram.snapshot();
+		assertEquals(100_000, snapshot.count());
+		assertEquals(50_000.5, snapshot.mean(), 0.001);
+		assertEquals(100_000, snapshot.max());
+		assertWithin(50_000, snapshot.p50());
+		assertWithin(90_000, snapshot.p90());
+		assertWithin(99_000, snapshot.p99());
+		assertWithin(99_900, snapshot.p999());
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue(actual >= expected && actual <= expected * 1.125, "expected ~" + expected + " but was " + actual);
+	}
+
+	@Test
+	void concurrentWritersLoseNothing() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram("concurrent");
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 100_000; i++) {
+					histogram.record(1_000 + i % 1_000);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		LatencySnapshot snapshot = histogram.snapshot();
+		assertEquals(400_000, snapshot.count());
+		assertEquals(1_999, snapshot.max());
+	}
+
+	@Test
+	void bucketBoundariesRoundTrip() {
+		for (long value : new long[]{0, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE}) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(LatencyHistogram.highestValueIn(bucket) >= value, "bucket too low for " + value);
+			assertTrue(bucket == 0 || LatencyHistogram.highestValueIn(bucket - 1) < value, "bucket too high for " + value);
+		}
+	}
+}
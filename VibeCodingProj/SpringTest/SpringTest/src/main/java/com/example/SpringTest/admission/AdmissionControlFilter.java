@@ -0,0 +1,205 @@
+package com.example.SpringTest.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adaptive admission control for the API. Requests beyond the concurrency limit that the
+ * {@link GradientConcurrencyLimit} derives from observed latency are rejected at once with
+ * {@code 503} (or {@code app.admission.reject-status}) and {@code Retry-After}. They never
+ * reach a controller or the database.
+ * <p>
+ * Paths are mapped to a {@link Priority} through the {@code app.admission.*-paths} patterns.
+ * Other GETs are {@code HIGH} and other methods {@code NORMAL}. Health probes are always
+ * admitted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.admission.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.admission.max-limit:200}")
+    private int maxLimit;
+
+    // How far latency may rise above the baseline before the limit shrinks
+    @Value("${app.admission.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.admission.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.admission.short-window:10}")
+    private int shortWindow;
+
+    // Requests between baseline measurements, and requests measured each time
+    @Value("${app.admission.probe-interval:10000}")
+    private int probeInterval;
+
+    @Value("${app.admission.probe-samples:20}")
+    private int probeSamples;
+
+    @Value("${app.admission.normal-share:0.9}")
+    private double normalShare;
+
+    @Value("${app.admission.low-share:0.5}")
+    private double lowShare;
+
+    @Value("${app.admission.critical-paths:/api/v1/health/**}")
+    private List<String> criticalPaths;
+
+    @Value("${app.admission.low-priority-paths:/api/v1/books/stats}")
+    private List<String> lowPriorityPaths;
+
+    // 503 by default; 429 suits clients that already back off on rate limits
+    @Value("${app.admission.reject-status:503}")
+    private int rejectStatus;
+
+    @Value("${app.admission.retry-after:1s}")
+    private Duration retryAfter;
+
+    private volatile ConcurrencyLimiter limiter;
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(new GradientConcurrencyLimit.Settings(
+                initialLimit, minLimit, maxLimit, tolerance, smoothing, backoffRatio, shortWindow, probeInterval, probeSamples));
+        ConcurrencyLimiter next = new ConcurrencyLimiter(limit,
+                Map.of(Priority.HIGH, 1.0, Priority.NORMAL, normalShare, Priority.LOW, lowShare));
+
+        Gauge.builder("http.admission.limit", next, ConcurrencyLimiter::getLimit)
+                .description("Concurrent API requests currently admitted by the adaptive limit")
+                .register(meterRegistry);
+        Gauge.builder("http.admission.in.flight", next, ConcurrencyLimiter::getInFlight)
+                .description("API requests holding an admission permit")
+                .register(meterRegistry);
+        Gauge.builder("http.admission.rtt.baseline", limit, GradientConcurrencyLimit::getBaselineMillis)
+                .description("Unqueued request latency the limit compares against")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejections.put(priority, Counter.builder("http.admission.rejections")
+                    .description("API requests rejected by admission control")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        limiter = next;
+        logger.info("Adaptive admission control enabled (limit {} within {}-{})", initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limiter == null || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        ConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority);
+        if (permit == null) {
+            rejections.get(priority).increment();
+            reject(request, response);
+            return;
+        }
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            permit.release(dropped);
+        }
+    }
+
+    public Priority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (matches(criticalPaths, path)) {
+            return Priority.CRITICAL;
+        }
+        if (matches(lowPriorityPaths, path)) {
+            return Priority.LOW;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) ? Priority.HIGH : Priority.NORMAL;
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        HttpStatus status = HttpStatus.valueOf(rejectStatus);
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", "Server is at capacity, retry later");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
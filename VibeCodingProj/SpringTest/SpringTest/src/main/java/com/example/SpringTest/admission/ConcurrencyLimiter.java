@@ -0,0 +1,82 @@
+package com.example.SpringTest.admission;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests while fewer than the {@link GradientConcurrencyLimit} are in flight. Each
+ * admitted request holds a {@link Permit} and must release it on completion. Releasing feeds
+ * the request's latency back into the limit.
+ */
+public class ConcurrencyLimiter {
+
+    private final GradientConcurrencyLimit limit;
+    private final Map<Priority, Double> shares;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param shares fraction of the limit each priority may fill; missing priorities get the whole limit
+     */
+    public ConcurrencyLimiter(GradientConcurrencyLimit limit, Map<Priority, Double> shares) {
+        this.limit = limit;
+        this.shares = new EnumMap<>(Priority.class);
+        this.shares.putAll(shares);
+    }
+
+    /**
+     * Returns a permit, or {@code null} if the request should be rejected.
+     */
+    public Permit tryAcquire(Priority priority) {
+        if (priority == Priority.CRITICAL) {
+            return new Permit(false, 0);
+        }
+        int allowed = Math.max(1, (int) (limit.getLimit() * shares.getOrDefault(priority, 1.0)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(true, current + 1);
+            }
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public GradientConcurrencyLimit getGradientLimit() {
+        return limit;
+    }
+
+    public final class Permit {
+
+        private final boolean counted;
+        private final int inFlightAtStart;
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit(boolean counted, int inFlightAtStart) {
+            this.counted = counted;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * @param dropped whether the request failed in a way that signals overload
+         */
+        public void release(boolean dropped) {
+            if (released || !counted) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            limit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.SpringTest.admission;
+
+/**
+ * Estimates how many requests can be in flight at once from observed latency, in the style
+ * of a gradient limit. It compares a short moving average of request latency with a
+ * baseline, the latency of requests that did not queue. While latency stays within
+ * {@code tolerance} times the baseline, the limit grows by roughly its square root per
+ * sample. Beyond that it shrinks in proportion, by at most half per sample. Dropped requests
+ * (timeouts, server errors) cut it by {@code backoffRatio}.
+ * <p>
+ * A baseline averaged from loaded traffic would drift up with the queueing it is meant to
+ * detect. Instead, every {@code probeInterval} samples the limit is pinned to
+ * {@code minLimit} until {@code probeSamples} requests have completed at that concurrency.
+ * Their mean latency becomes the new baseline and the previous limit is restored.
+ * <p>
+ * The limit does not grow while fewer than half of the permits are in use. Otherwise a quiet
+ * period would leave a limit that the next burst has never tested.
+ */
+public class GradientConcurrencyLimit {
+
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                           double backoffRatio, int shortWindow, int probeInterval, int probeSamples) {
+
+        public Settings {
+            if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min-limit <= initial-limit <= max-limit");
+            }
+            if (tolerance < 1.0 || smoothing <= 0 || smoothing > 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException(
+                        "tolerance must be >= 1, smoothing in (0, 1] and backoff-ratio in (0, 1)");
+            }
+            if (shortWindow < 1 || probeSamples < 1 || probeInterval <= probeSamples) {
+                throw new IllegalArgumentException("short-window and probe-samples must be positive "
+                        + "and probe-interval larger than probe-samples");
+            }
+        }
+    }
+
+    private final Settings settings;
+    private double limit;
+    private double shortRttNanos;
+    private double baselineNanos;
+    private boolean probing = true;
+    private long probeTotalNanos;
+    private int probeCount;
+    private int samplesSinceProbe;
+    private volatile int currentLimit;
+
+    public GradientConcurrencyLimit(Settings settings) {
+        this.settings = settings;
+        this.limit = settings.initialLimit();
+        // The first baseline is measured before the initial limit takes effect
+        this.currentLimit = settings.minLimit();
+    }
+
+    /**
+     * The number of requests that may currently be in flight.
+     */
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public synchronized double getBaselineMillis() {
+        return baselineNanos / 1_000_000.0;
+    }
+
+    public synchronized boolean isProbing() {
+        return probing;
+    }
+
+    /**
+     * Records one completed request.
+     *
+     * @param rttNanos time from admission to completion
+     * @param inFlight requests in flight when this one was admitted, itself included
+     * @param dropped  whether the request timed out or failed on the server side
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (probing) {
+            // Requests admitted before the probe began may have queued, so they do not count
+            if (!dropped && inFlight <= settings.minLimit()) {
+                probeTotalNanos += rttNanos;
+                if (++probeCount >= settings.probeSamples()) {
+                    finishProbe();
+                }
+            }
+            return;
+        }
+        if (dropped) {
+            update(limit * settings.backoffRatio());
+        } else {
+            shortRttNanos = shortRttNanos == 0 ? rttNanos
+                    : shortRttNanos + (rttNanos - shortRttNanos) / settings.shortWindow();
+            if (inFlight * 2 >= limit) {
+                double gradient = Math.max(0.5, Math.min(1.0, settings.tolerance() * baselineNanos / shortRttNanos));
+                double target = limit * gradient + Math.sqrt(limit);
+                update(limit * (1 - settings.smoothing()) + target * settings.smoothing());
+            }
+        }
+        if (++samplesSinceProbe >= settings.probeInterval()) {
+            probing = true;
+            currentLimit = settings.minLimit();
+        }
+    }
+
+    private void finishProbe() {
+        baselineNanos = (double) probeTotalNanos / probeCount;
+        probeTotalNanos = 0;
+        probeCount = 0;
+        samplesSinceProbe = 0;
+        shortRttNanos = baselineNanos;
+        probing = false;
+        currentLimit = (int) limit;
+    }
+
+    private void update(double next) {
+        limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), next));
+        currentLimit = (int) limit;
+    }
+}
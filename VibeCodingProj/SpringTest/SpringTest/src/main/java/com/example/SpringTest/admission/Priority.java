@@ -0,0 +1,16 @@
+package com.example.SpringTest.admission;
+
+/**
+ * Admission classes, highest first. Each class may fill only its share of the current
+ * concurrency limit, so lower classes are shed first as the limit tightens.
+ */
+public enum Priority {
+    /** Health probes; always admitted and not counted against the limit. */
+    CRITICAL,
+    /** Reads. */
+    HIGH,
+    /** Writes. */
+    NORMAL,
+    /** Expensive reports such as statistics and analytics. */
+    LOW
+}
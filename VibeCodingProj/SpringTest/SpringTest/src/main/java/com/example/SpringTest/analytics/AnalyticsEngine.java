@@ -0,0 +1,496 @@
+package com.example.SpringTest.analytics;
+
+import com.example.SpringTest.analytics.AnalyticsQuery.Aggregate;
+import com.example.SpringTest.analytics.AnalyticsQuery.Dimension;
+import com.example.SpringTest.analytics.AnalyticsQuery.Filter;
+import com.example.SpringTest.analytics.AnalyticsQuery.Metric;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+import static com.example.SpringTest.analytics.BookColumnarSnapshot.NULL_CODE;
+import static com.example.SpringTest.analytics.BookColumnarSnapshot.NULL_INT;
+import static com.example.SpringTest.analytics.BookColumnarSnapshot.NULL_PRICE;
+
+/**
+ * Evaluates {@link AnalyticsQuery} over a {@link BookColumnarSnapshot}. Rows are split into
+ * fork/join chunks; each chunk aggregates into its own group table keyed by a mixed-radix
+ * composite of the dimension codes, and the tables are merged on join.
+ */
+public class AnalyticsEngine {
+
+    // Key spaces up to this many groups are aggregated into flat arrays instead of a hash index
+    private static final int DENSE_GROUP_LIMIT = 4096;
+    private static final int MIN_CHUNK_ROWS = 8192;
+
+    private final ForkJoinPool pool;
+
+    public AnalyticsEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public record AnalyticsResult(List<Map<String, Object>> rows, int totalGroups, long matchedRows,
+                                  int scannedRows, long elapsedMicros) {
+    }
+
+    public AnalyticsResult execute(BookColumnarSnapshot snapshot, AnalyticsQuery query) {
+        long started = System.nanoTime();
+
+        List<DimensionColumn> dimensions = new ArrayList<>();
+        for (Dimension dimension : query.groupBy()) {
+            dimensions.add(DimensionColumn.of(dimension, snapshot));
+        }
+        long[] strides = new long[dimensions.size()];
+        long keySpace = 1;
+        try {
+            for (int i = dimensions.size() - 1; i >= 0; i--) {
+                strides[i] = keySpace;
+                keySpace = Math.multiplyExact(keySpace, dimensions.get(i).cardinality);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Too many group-by combinations, drop a dimension or widen the buckets");
+        }
+
+        List<Metric> metrics = query.aggregates().stream()
+                .map(Aggregate::metric)
+                .filter(m -> m != null)
+                .distinct()
+                .toList();
+        Scan scan = new Scan(snapshot, query.filter(), dimensions, strides, metrics, keySpace);
+
+        GroupTable table;
+        int rows = snapshot.getRowCount();
+        int chunk = Math.max(MIN_CHUNK_ROWS, rows / (pool.getParallelism() * 4));
+        if (rows <= chunk) {
+            table = scan.run(0, rows);
+        } else {
+            table = pool.invoke(new ScanTask(scan, 0, rows, chunk));
+        }
+
+        List<Map<String, Object>> resultRows = new ArrayList<>(table.size());
+        long[] matched = new long[1];
+        table.forEach((key, data, offset) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            long remainder = key;
+            for (int i = 0; i < dimensions.size(); i++) {
+                int code = (int) (remainder / strides[i]);
+                remainder %= strides[i];
+                row.put(dimensions.get(i).label, dimensions.get(i).value(code));
+            }
+            for (Aggregate aggregate : query.aggregates()) {
+                row.put(aggregate.label(), aggregateValue(aggregate, metrics, data, offset));
+            }
+            matched[0] += data[offset];
+            resultRows.add(row);
+        });
+
+        sort(resultRows, query, dimensions);
+        int totalGroups = resultRows.size();
+        List<Map<String, Object>> limited = totalGroups > query.limit()
+                ? new ArrayList<>(resultRows.subList(0, query.limit()))
+                : resultRows;
+        return new AnalyticsResult(limited, totalGroups, matched[0], rows, (System.nanoTime() - started) / 1000);
+    }
+
+    private static Object aggregateValue(Aggregate aggregate, List<Metric> metrics, long[] data, int offset) {
+        long count = data[offset];
+        if (aggregate.function() == AnalyticsQuery.Function.COUNT) {
+            return count;
+        }
+        int base = offset + 1 + 4 * metrics.indexOf(aggregate.metric());
+        long sum = data[base];
+        long min = data[base + 1];
+        long max = data[base + 2];
+        long n = data[base + 3];
+        if (n == 0) {
+            return null;
+        }
+        boolean money = aggregate.metric() == Metric.PRICE;
+        switch (aggregate.function()) {
+            case SUM:
+                return money ? BigDecimal.valueOf(sum, 2) : (Object) sum;
+            case MIN:
+                return money ? BigDecimal.valueOf(min, 2) : (Object) min;
+            case MAX:
+                return money ? BigDecimal.valueOf(max, 2) : (Object) max;
+            case AVG:
+                BigDecimal average = BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(n), 4, RoundingMode.HALF_UP);
+                return money ? average.movePointLeft(2).setScale(2, RoundingMode.HALF_UP) : average.setScale(2, RoundingMode.HALF_UP);
+            default:
+                throw new IllegalStateException("Unhandled aggregate " + aggregate.function());
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void sort(List<Map<String, Object>> rows, AnalyticsQuery query, List<DimensionColumn> dimensions) {
+        Comparator<Object> values = Comparator.nullsLast((a, b) -> ((Comparable) a).compareTo(b));
+        Comparator<Map<String, Object>> order;
+        if (query.orderBy() != null && !query.orderBy().isBlank()) {
+            String column = query.orderBy().trim().toLowerCase();
+            if (!rows.isEmpty() && !rows.get(0).containsKey(column)) {
+                throw new IllegalArgumentException("orderBy must be one of " + rows.get(0).keySet());
+            }
+            order = Comparator.comparing(row -> row.get(column), values);
+            if (query.descending()) {
+                order = order.reversed();
+            }
+        } else {
+            order = (a, b) -> 0;
+            for (DimensionColumn dimension : dimensions) {
+                order = order.thenComparing(row -> row.get(dimension.label), values);
+            }
+        }
+        rows.sort(order);
+    }
+
+    /**
+     * Everything a chunk needs to aggregate a row range; shared read-only between tasks.
+     */
+    private static final class Scan {
+
+        private final BookColumnarSnapshot snapshot;
+        private final List<DimensionColumn> dimensions;
+        private final long[] strides;
+        private final List<Metric> metrics;
+        private final long keySpace;
+        private final int width;
+
+        private final int genreFilter;
+        private final int authorFilter;
+        private final int minYear;
+        private final int maxYear;
+        private final Boolean available;
+        private final long minPrice;
+        private final long maxPrice;
+        private final boolean matchesNothing;
+
+        Scan(BookColumnarSnapshot snapshot, Filter filter, List<DimensionColumn> dimensions, long[] strides,
+             List<Metric> metrics, long keySpace) {
+            this.snapshot = snapshot;
+            this.dimensions = dimensions;
+            this.strides = strides;
+            this.metrics = metrics;
+            this.keySpace = keySpace;
+            this.width = 1 + 4 * metrics.size();
+
+            Filter f = filter == null ? Filter.NONE : filter;
+            this.genreFilter = f.genre() == null ? Integer.MIN_VALUE : snapshot.genreCode(f.genre());
+            this.authorFilter = f.author() == null ? Integer.MIN_VALUE : snapshot.authorCode(f.author());
+            this.minYear = f.minYear() == null ? Integer.MIN_VALUE : f.minYear();
+            this.maxYear = f.maxYear() == null ? Integer.MAX_VALUE : f.maxYear();
+            this.available = f.available();
+            this.minPrice = f.minPrice() == null ? Long.MIN_VALUE : f.minPrice().movePointRight(2).longValue();
+            this.maxPrice = f.maxPrice() == null ? Long.MAX_VALUE : f.maxPrice().movePointRight(2).longValue();
+            // A genre or author that is not in the dictionary cannot match any row
+            this.matchesNothing = (f.genre() != null && genreFilter == NULL_CODE)
+                    || (f.author() != null && authorFilter == NULL_CODE);
+        }
+
+        GroupTable run(int from, int to) {
+            GroupTable table = new GroupTable(keySpace, width);
+            if (matchesNothing) {
+                return table;
+            }
+            int[] genres = snapshot.genreCodes();
+            int[] authors = snapshot.authorCodes();
+            int[] years = snapshot.years();
+            long[] prices = snapshot.priceCents();
+            boolean[] availability = snapshot.available();
+            boolean yearFiltered = minYear != Integer.MIN_VALUE || maxYear != Integer.MAX_VALUE;
+            boolean priceFiltered = minPrice != Long.MIN_VALUE || maxPrice != Long.MAX_VALUE;
+
+            for (int row = from; row < to; row++) {
+                if (genreFilter != Integer.MIN_VALUE && genres[row] != genreFilter) {
+                    continue;
+                }
+                if (authorFilter != Integer.MIN_VALUE && authors[row] != authorFilter) {
+                    continue;
+                }
+                if (yearFiltered && (years[row] == NULL_INT || years[row] < minYear || years[row] > maxYear)) {
+                    continue;
+                }
+                if (priceFiltered && (prices[row] == NULL_PRICE || prices[row] < minPrice || prices[row] > maxPrice)) {
+                    continue;
+                }
+                if (available != null && availability[row] != available) {
+                    continue;
+                }
+
+                long key = 0;
+                for (int i = 0; i < dimensions.size(); i++) {
+                    key += dimensions.get(i).code(row) * strides[i];
+                }
+                int offset = table.slot(key);
+                long[] data = table.data();
+                data[offset]++;
+                for (int m = 0; m < metrics.size(); m++) {
+                    long value = metricValue(metrics.get(m), row);
+                    if (value == Long.MIN_VALUE) {
+                        continue;
+                    }
+                    int base = offset + 1 + 4 * m;
+                    data[base] += value;
+                    if (data[base + 3] == 0 || value < data[base + 1]) {
+                        data[base + 1] = value;
+                    }
+                    if (data[base + 3] == 0 || value > data[base + 2]) {
+                        data[base + 2] = value;
+                    }
+                    data[base + 3]++;
+                }
+            }
+            return table;
+        }
+
+        private long metricValue(Metric metric, int row) {
+            switch (metric) {
+                case PRICE:
+                    return snapshot.priceCents()[row];
+                case STOCK:
+                    int stock = snapshot.stock()[row];
+                    return stock == NULL_INT ? Long.MIN_VALUE : stock;
+                case YEAR:
+                    int year = snapshot.years()[row];
+                    return year == NULL_INT ? Long.MIN_VALUE : year;
+                default:
+                    throw new IllegalStateException("Unhandled metric " + metric);
+            }
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<GroupTable> {
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        ScanTask(Scan scan, int from, int to, int chunk) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected GroupTable compute() {
+            if (to - from <= chunk) {
+                return scan.run(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, from, mid, chunk);
+            left.fork();
+            GroupTable right = new ScanTask(scan, mid, to, chunk).compute();
+            GroupTable merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    /**
+     * Per-group accumulators laid out as [count, then sum/min/max/n per metric]. Small key
+     * spaces index the flat array directly; larger ones go through a key-to-slot map.
+     */
+    static final class GroupTable {
+
+        interface GroupVisitor {
+            void visit(long key, long[] data, int offset);
+        }
+
+        private final int width;
+        private final boolean dense;
+        private long[] data;
+        private Map<Long, Integer> slots;
+        private long[] keys;
+        private int size;
+
+        GroupTable(long keySpace, int width) {
+            this.width = width;
+            this.dense = keySpace <= DENSE_GROUP_LIMIT;
+            if (dense) {
+                data = new long[(int) keySpace * width];
+            } else {
+                data = new long[16 * width];
+                keys = new long[16];
+                slots = new HashMap<>();
+            }
+        }
+
+        long[] data() {
+            return data;
+        }
+
+        int slot(long key) {
+            if (dense) {
+                return (int) key * width;
+            }
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    data = Arrays.copyOf(data, size * 2 * width);
+                }
+                slot = size++;
+                keys[slot] = key;
+                slots.put(key, slot);
+            }
+            return slot * width;
+        }
+
+        int size() {
+            if (!dense) {
+                return size;
+            }
+            int groups = 0;
+            for (int offset = 0; offset < data.length; offset += width) {
+                if (data[offset] > 0) {
+                    groups++;
+                }
+            }
+            return groups;
+        }
+
+        void forEach(GroupVisitor visitor) {
+            if (dense) {
+                for (int offset = 0; offset < data.length; offset += width) {
+                    if (data[offset] > 0) {
+                        visitor.visit(offset / width, data, offset);
+                    }
+                }
+            } else {
+                for (int slot = 0; slot < size; slot++) {
+                    visitor.visit(keys[slot], data, slot * width);
+                }
+            }
+        }
+
+        void merge(GroupTable other) {
+            other.forEach((key, otherData, otherOffset) -> {
+                int offset = slot(key);
+                long[] target = data;
+                target[offset] += otherData[otherOffset];
+                for (int base = 1; base < width; base += 4) {
+                    long otherN = otherData[otherOffset + base + 3];
+                    if (otherN == 0) {
+                        continue;
+                    }
+                    long n = target[offset + base + 3];
+                    target[offset + base] += otherData[otherOffset + base];
+                    target[offset + base + 1] = n == 0 ? otherData[otherOffset + base + 1]
+                            : Math.min(target[offset + base + 1], otherData[otherOffset + base + 1]);
+                    target[offset + base + 2] = n == 0 ? otherData[otherOffset + base + 2]
+                            : Math.max(target[offset + base + 2], otherData[otherOffset + base + 2]);
+                    target[offset + base + 3] = n + otherN;
+                }
+            });
+        }
+    }
+
+    /**
+     * Maps a row to a small non-negative code for one group-by dimension; code 0 is null.
+     */
+    private abstract static class DimensionColumn {
+
+        final String label;
+        final int cardinality;
+
+        DimensionColumn(String label, int cardinality) {
+            this.label = label;
+            this.cardinality = cardinality;
+        }
+
+        abstract long code(int row);
+
+        abstract Object value(int code);
+
+        static DimensionColumn of(Dimension dimension, BookColumnarSnapshot snapshot) {
+            switch (dimension.kind()) {
+                case GENRE:
+                    return dictionary(dimension.label(), snapshot.genreCodes(), snapshot.genreCardinality(), snapshot::genre);
+                case AUTHOR:
+                    return dictionary(dimension.label(), snapshot.authorCodes(), snapshot.authorCardinality(), snapshot::author);
+                case YEAR:
+                    return bucketed(dimension.label(), snapshot.years(), snapshot.minYear(), snapshot.maxYear(), 1);
+                case DECADE:
+                    return bucketed(dimension.label(), snapshot.years(), snapshot.minYear(), snapshot.maxYear(), 10);
+                case STOCK:
+                    return bucketed(dimension.label(), snapshot.stock(), snapshot.minStock(), snapshot.maxStock(),
+                            dimension.bucketWidth());
+                case PRICE:
+                    return priceBuckets(dimension.label(), snapshot, dimension.bucketWidth() * 100L);
+                case AVAILABLE:
+                    boolean[] available = snapshot.available();
+                    return new DimensionColumn(dimension.label(), 2) {
+                        long code(int row) {
+                            return available[row] ? 1 : 0;
+                        }
+
+                        Object value(int code) {
+                            return code == 1;
+                        }
+                    };
+                default:
+                    throw new IllegalArgumentException("Unsupported dimension " + dimension.kind());
+            }
+        }
+
+        private static DimensionColumn dictionary(String label, int[] codes, int cardinality,
+                                                  IntFunction<String> decode) {
+            return new DimensionColumn(label, cardinality + 1) {
+                long code(int row) {
+                    return codes[row] + 1;
+                }
+
+                Object value(int code) {
+                    return code == 0 ? null : decode.apply(code - 1);
+                }
+            };
+        }
+
+        private static DimensionColumn bucketed(String label, int[] values, int min, int max, int width) {
+            boolean empty = min > max;
+            int base = empty ? 0 : Math.floorDiv(min, width);
+            int buckets = empty ? 0 : Math.floorDiv(max, width) - base + 1;
+            return new DimensionColumn(label, buckets + 1) {
+                long code(int row) {
+                    int value = values[row];
+                    return value == NULL_INT ? 0 : Math.floorDiv(value, width) - base + 1;
+                }
+
+                Object value(int code) {
+                    return code == 0 ? null : (base + code - 1) * width;
+                }
+            };
+        }
+
+        private static DimensionColumn priceBuckets(String label, BookColumnarSnapshot snapshot, long widthCents) {
+            long[] prices = snapshot.priceCents();
+            boolean empty = snapshot.minPriceCents() > snapshot.maxPriceCents();
+            long base = empty ? 0 : Math.floorDiv(snapshot.minPriceCents(), widthCents);
+            long buckets = empty ? 0 : Math.floorDiv(snapshot.maxPriceCents(), widthCents) - base + 1;
+            if (buckets + 1 > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Price bucket width is too small for the price range");
+            }
+            return new DimensionColumn(label, (int) buckets + 1) {
+                long code(int row) {
+                    long price = prices[row];
+                    return price == NULL_PRICE ? 0 : Math.floorDiv(price, widthCents) - base + 1;
+                }
+
+                Object value(int code) {
+                    return code == 0 ? null : BigDecimal.valueOf((base + code - 1) * widthCents, 2);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.SpringTest.analytics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A group-by request against the snapshot, e.g. {@code groupBy=genre,decade} with
+ * {@code aggregate=count,avg(price)}. Bucketed dimensions take a width: {@code stock:10},
+ * {@code price:5}.
+ */
+public record AnalyticsQuery(List<Dimension> groupBy, List<Aggregate> aggregates, Filter filter,
+                             String orderBy, boolean descending, int limit) {
+
+    public static final int MAX_LIMIT = 10_000;
+
+    public AnalyticsQuery {
+        if (aggregates.isEmpty()) {
+            throw new IllegalArgumentException("At least one aggregate is required");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        groupBy = List.copyOf(groupBy);
+        aggregates = List.copyOf(aggregates);
+    }
+
+    public enum DimensionKind {
+        GENRE, AUTHOR, YEAR, DECADE, AVAILABLE, STOCK, PRICE
+    }
+
+    public enum Metric {
+        PRICE, STOCK, YEAR
+    }
+
+    public enum Function {
+        COUNT, SUM, AVG, MIN, MAX
+    }
+
+    public record Dimension(DimensionKind kind, int bucketWidth, String label) {
+
+        static Dimension parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            DimensionKind kind = parseEnum(DimensionKind.class, parts[0], "group-by dimension");
+            boolean bucketed = kind == DimensionKind.STOCK || kind == DimensionKind.PRICE;
+            if (!bucketed && parts.length > 1) {
+                throw new IllegalArgumentException("Dimension '" + parts[0] + "' does not take a bucket width");
+            }
+            int width = 1;
+            if (bucketed) {
+                width = parts.length > 1 ? parsePositive(parts[1], spec) : 10;
+            }
+            return new Dimension(kind, width, bucketed ? parts[0] + ":" + width : parts[0]);
+        }
+    }
+
+    public record Aggregate(Function function, Metric metric, String label) {
+
+        static Aggregate parse(String spec) {
+            String trimmed = spec.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.equals("count") || trimmed.equals("count(*)")) {
+                return new Aggregate(Function.COUNT, null, "count");
+            }
+            int open = trimmed.indexOf('(');
+            if (open < 0 || !trimmed.endsWith(")")) {
+                throw new IllegalArgumentException("Aggregate must look like avg(price), got '" + spec + "'");
+            }
+            Function function = parseEnum(Function.class, trimmed.substring(0, open), "aggregate function");
+            Metric metric = parseEnum(Metric.class, trimmed.substring(open + 1, trimmed.length() - 1), "aggregate column");
+            if (function == Function.COUNT) {
+                return new Aggregate(Function.COUNT, null, "count");
+            }
+            return new Aggregate(function, metric, trimmed);
+        }
+    }
+
+    public record Filter(String genre, String author, Integer minYear, Integer maxYear, Boolean available,
+                         BigDecimal minPrice, BigDecimal maxPrice) {
+
+        public static final Filter NONE = new Filter(null, null, null, null, null, null, null);
+    }
+
+    public static List<Dimension> parseDimensions(String specs) {
+        List<Dimension> dimensions = new ArrayList<>();
+        if (specs != null) {
+            for (String spec : specs.split(",")) {
+                if (!spec.isBlank()) {
+                    dimensions.add(Dimension.parse(spec));
+                }
+            }
+        }
+        return dimensions;
+    }
+
+    public static List<Aggregate> parseAggregates(String specs) {
+        List<Aggregate> aggregates = new ArrayList<>();
+        if (specs != null) {
+            for (String spec : specs.split(",(?![^(]*\\))")) {
+                if (!spec.isBlank()) {
+                    aggregates.add(Aggregate.parse(spec));
+                }
+            }
+        }
+        return aggregates;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String what) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + what + " '" + value + "'");
+        }
+    }
+
+    private static int parsePositive(String value, String spec) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Bucket width must be a positive integer in '" + spec + "'");
+    }
+}
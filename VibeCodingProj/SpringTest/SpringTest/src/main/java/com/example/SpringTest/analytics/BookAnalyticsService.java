@@ -0,0 +1,139 @@
+package com.example.SpringTest.analytics;
+
+import com.example.SpringTest.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves group-by analytics from a columnar snapshot of the books table that is rebuilt on
+ * a fixed delay, so merchandising queries never scan the OLTP tables. Results can lag writes
+ * by up to {@code app.analytics.refresh-interval-ms}.
+ */
+@Service
+public class BookAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookAnalyticsService.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.enabled:true}")
+    private boolean enabled;
+
+    // 0 means one worker per available processor
+    @Value("${app.analytics.parallelism:0}")
+    private int parallelism;
+
+    private volatile BookColumnarSnapshot snapshot = BookColumnarSnapshot.empty();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private ForkJoinPool pool;
+    private AnalyticsEngine engine;
+    private Timer queryTimer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // Own pool so long scans cannot starve the common pool used elsewhere
+        pool = new ForkJoinPool(workers);
+        engine = new AnalyticsEngine(pool);
+
+        queryTimer = Timer.builder("books.analytics.query")
+                .description("Analytics query time over the columnar snapshot")
+                .register(meterRegistry);
+        Gauge.builder("books.analytics.snapshot.rows", this, s -> s.snapshot.getRowCount())
+                .description("Rows in the current analytics snapshot")
+                .register(meterRegistry);
+        Gauge.builder("books.analytics.snapshot.age", this,
+                        s -> Duration.between(s.snapshot.getBuiltAt(), Instant.now()).toMillis() / 1000.0)
+                .description("Seconds since the analytics snapshot was built")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.analytics.refresh-interval-ms:60000}",
+               fixedDelayString = "${app.analytics.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (enabled && engine != null) {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            List<Object[]> rows = bookRepository.findAnalyticsColumns();
+            BookColumnarSnapshot.Builder builder = BookColumnarSnapshot.builder(rows.size());
+            for (Object[] row : rows) {
+                builder.add((Long) row[0], (String) row[1], (String) row[2], (BigDecimal) row[3],
+                        (Integer) row[4], (Integer) row[5], (Boolean) row[6]);
+            }
+            snapshot = builder.build();
+            logger.debug("Analytics snapshot rebuilt with {} books in {} ms", rows.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    public AnalyticsEngine.AnalyticsResult query(AnalyticsQuery query) {
+        if (!enabled || engine == null) {
+            throw new IllegalStateException("Analytics snapshot is not available");
+        }
+        long start = System.nanoTime();
+        try {
+            return engine.execute(snapshot, query);
+        } finally {
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Map<String, Object> snapshotInfo() {
+        BookColumnarSnapshot current = snapshot;
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("rows", current.getRowCount());
+        info.put("builtAt", current.getBuiltAt().toString());
+        info.put("ageSeconds", Duration.between(current.getBuiltAt(), Instant.now()).toSeconds());
+        info.put("genres", current.genreCardinality());
+        info.put("authors", current.authorCardinality());
+        info.put("approximateBytes", current.approximateBytes());
+        info.put("parallelism", pool == null ? 0 : pool.getParallelism());
+        return info;
+    }
+}
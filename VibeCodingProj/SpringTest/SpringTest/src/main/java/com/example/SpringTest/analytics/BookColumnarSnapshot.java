@@ -0,0 +1,254 @@
+package com.example.SpringTest.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable column-per-field copy of the books table for analytics. Genre and author are
+ * dictionary encoded ignoring case, under the first spelling seen; prices are whole cents;
+ * nulls use the sentinel values below.
+ */
+public final class BookColumnarSnapshot {
+
+    public static final int NULL_CODE = -1;
+    public static final long NULL_PRICE = Long.MIN_VALUE;
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    private final int rowCount;
+    private final long[] ids;
+    private final int[] genreCodes;
+    private final int[] authorCodes;
+    private final long[] priceCents;
+    private final int[] years;
+    private final int[] stock;
+    private final boolean[] available;
+    private final String[] genreDictionary;
+    private final String[] authorDictionary;
+    private final Map<String, Integer> genreIndex;
+    private final Map<String, Integer> authorIndex;
+    private final Instant builtAt;
+
+    // Value ranges (ignoring nulls), used to size bucketed group-by keys
+    private int minYear = Integer.MAX_VALUE;
+    private int maxYear = Integer.MIN_VALUE;
+    private int minStock = Integer.MAX_VALUE;
+    private int maxStock = Integer.MIN_VALUE;
+    private long minPriceCents = Long.MAX_VALUE;
+    private long maxPriceCents = Long.MIN_VALUE;
+
+    private BookColumnarSnapshot(Builder builder) {
+        this.rowCount = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, rowCount);
+        this.genreCodes = Arrays.copyOf(builder.genreCodes, rowCount);
+        this.authorCodes = Arrays.copyOf(builder.authorCodes, rowCount);
+        this.priceCents = Arrays.copyOf(builder.priceCents, rowCount);
+        this.years = Arrays.copyOf(builder.years, rowCount);
+        this.stock = Arrays.copyOf(builder.stock, rowCount);
+        this.available = Arrays.copyOf(builder.available, rowCount);
+        this.genreDictionary = builder.genres.toArray(new String[0]);
+        this.authorDictionary = builder.authors.toArray(new String[0]);
+        this.genreIndex = Map.copyOf(builder.genreIndex);
+        this.authorIndex = Map.copyOf(builder.authorIndex);
+        this.builtAt = Instant.now();
+
+        for (int row = 0; row < rowCount; row++) {
+            if (years[row] != NULL_INT) {
+                minYear = Math.min(minYear, years[row]);
+                maxYear = Math.max(maxYear, years[row]);
+            }
+            if (stock[row] != NULL_INT) {
+                minStock = Math.min(minStock, stock[row]);
+                maxStock = Math.max(maxStock, stock[row]);
+            }
+            if (priceCents[row] != NULL_PRICE) {
+                minPriceCents = Math.min(minPriceCents, priceCents[row]);
+                maxPriceCents = Math.max(maxPriceCents, priceCents[row]);
+            }
+        }
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    public static BookColumnarSnapshot empty() {
+        return new Builder(0).build();
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    long[] ids() {
+        return ids;
+    }
+
+    int[] genreCodes() {
+        return genreCodes;
+    }
+
+    int[] authorCodes() {
+        return authorCodes;
+    }
+
+    long[] priceCents() {
+        return priceCents;
+    }
+
+    int[] years() {
+        return years;
+    }
+
+    int[] stock() {
+        return stock;
+    }
+
+    boolean[] available() {
+        return available;
+    }
+
+    String genre(int code) {
+        return code == NULL_CODE ? null : genreDictionary[code];
+    }
+
+    String author(int code) {
+        return code == NULL_CODE ? null : authorDictionary[code];
+    }
+
+    int minYear() {
+        return minYear;
+    }
+
+    int maxYear() {
+        return maxYear;
+    }
+
+    int minStock() {
+        return minStock;
+    }
+
+    int maxStock() {
+        return maxStock;
+    }
+
+    long minPriceCents() {
+        return minPriceCents;
+    }
+
+    long maxPriceCents() {
+        return maxPriceCents;
+    }
+
+    int genreCardinality() {
+        return genreDictionary.length;
+    }
+
+    int authorCardinality() {
+        return authorDictionary.length;
+    }
+
+    /**
+     * Dictionary code for a genre (case-insensitive), or {@link #NULL_CODE} when absent.
+     */
+    int genreCode(String genre) {
+        return lookup(genreIndex, genre);
+    }
+
+    int authorCode(String author) {
+        return lookup(authorIndex, author);
+    }
+
+    public long approximateBytes() {
+        return (long) rowCount * (8 + 4 + 4 + 8 + 4 + 4 + 1);
+    }
+
+    private static int lookup(Map<String, Integer> index, String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        return index.getOrDefault(key(value), NULL_CODE);
+    }
+
+    // "Fantasy" and "fantasy" share one code, so filters and groups see them as one value
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Builder {
+
+        private int size;
+        private long[] ids;
+        private int[] genreCodes;
+        private int[] authorCodes;
+        private long[] priceCents;
+        private int[] years;
+        private int[] stock;
+        private boolean[] available;
+        private final List<String> genres = new ArrayList<>();
+        private final List<String> authors = new ArrayList<>();
+        private final Map<String, Integer> genreIndex = new HashMap<>();
+        private final Map<String, Integer> authorIndex = new HashMap<>();
+
+        private Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            ids = new long[capacity];
+            genreCodes = new int[capacity];
+            authorCodes = new int[capacity];
+            priceCents = new long[capacity];
+            years = new int[capacity];
+            stock = new int[capacity];
+            available = new boolean[capacity];
+        }
+
+        public Builder add(long id, String genre, String author, BigDecimal price, Integer year,
+                           Integer stockQuantity, Boolean isAvailable) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            genreCodes[size] = encode(genre, genres, genreIndex);
+            authorCodes[size] = encode(author, authors, authorIndex);
+            priceCents[size] = price == null ? NULL_PRICE : price.movePointRight(2).longValue();
+            years[size] = year == null ? NULL_INT : year;
+            stock[size] = stockQuantity == null ? NULL_INT : stockQuantity;
+            available[size] = Boolean.TRUE.equals(isAvailable);
+            size++;
+            return this;
+        }
+
+        public BookColumnarSnapshot build() {
+            return new BookColumnarSnapshot(this);
+        }
+
+        private static int encode(String value, List<String> dictionary, Map<String, Integer> index) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            return index.computeIfAbsent(key(value), k -> {
+                dictionary.add(value);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            genreCodes = Arrays.copyOf(genreCodes, capacity);
+            authorCodes = Arrays.copyOf(authorCodes, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            years = Arrays.copyOf(years, capacity);
+            stock = Arrays.copyOf(stock, capacity);
+            available = Arrays.copyOf(available, capacity);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.SpringTest.cache;
+
+import com.example.SpringTest.model.Book;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag-length-value encoding for the values we keep in the caches: {@link Book},
+ * lists of books, the statistics map and its scalar members.
+ *
+ * Field order inside a book is fixed by {@link #SCHEMA_VERSION}; adding or reordering
+ * fields means bumping the version so older entries are treated as misses.
+ */
+public final class BookBinaryCodec {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_BOOK = 1;
+    private static final byte TAG_LIST = 2;
+    private static final byte TAG_MAP = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_LONG = 5;
+    private static final byte TAG_INT = 6;
+    private static final byte TAG_BOOLEAN = 7;
+    private static final byte TAG_DECIMAL = 8;
+    private static final byte TAG_DATETIME = 9;
+    private static final byte TAG_DOUBLE = 10;
+
+    // Presence bits for the nullable Book fields
+    private static final int F_ID = 1;
+    private static final int F_TITLE = 1 << 1;
+    private static final int F_AUTHOR = 1 << 2;
+    private static final int F_ISBN = 1 << 3;
+    private static final int F_DESCRIPTION = 1 << 4;
+    private static final int F_YEAR = 1 << 5;
+    private static final int F_GENRE = 1 << 6;
+    private static final int F_PRICE = 1 << 7;
+    private static final int F_STOCK = 1 << 8;
+    private static final int F_AVAILABLE = 1 << 9;
+    private static final int F_CREATED = 1 << 10;
+    private static final int F_UPDATED = 1 << 11;
+
+    private BookBinaryCodec() {}
+
+    public static void encode(Object value, ByteSink out) {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Book book) {
+            out.writeByte(TAG_BOOK);
+            encodeBook(book, out);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TAG_LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) {
+                encode(element, out);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            out.writeByte(TAG_LIST);
+            out.writeVarInt(collection.size());
+            for (Object element : collection) {
+                encode(element, out);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(TAG_MAP);
+            out.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new IllegalArgumentException("Only String map keys are supported");
+                }
+                out.writeString(key);
+                encode(entry.getValue(), out);
+            }
+        } else if (value instanceof String s) {
+            out.writeByte(TAG_STRING);
+            out.writeString(s);
+        } else if (value instanceof Long l) {
+            out.writeByte(TAG_LONG);
+            out.writeVarLong(zigZag(l));
+        } else if (value instanceof Integer i) {
+            out.writeByte(TAG_INT);
+            out.writeVarLong(zigZag(i));
+        } else if (value instanceof Boolean b) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeByte(b ? 1 : 0);
+        } else if (value instanceof BigDecimal d) {
+            out.writeByte(TAG_DECIMAL);
+            writeDecimal(d, out);
+        } else if (value instanceof LocalDateTime t) {
+            out.writeByte(TAG_DATETIME);
+            writeDateTime(t, out);
+        } else if (value instanceof Double d) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(d));
+        } else {
+            throw new IllegalArgumentException("Unsupported cache value type: " + value.getClass().getName());
+        }
+    }
+
+    public static Object decode(ByteSource in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_BOOK:
+                return decodeBook(in);
+            case TAG_LIST: {
+                int size = in.readVarInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(decode(in));
+                }
+                return list;
+            }
+            case TAG_MAP: {
+                int size = in.readVarInt();
+                Map<String, Object> map = new HashMap<>(Math.max(4, size * 4 / 3 + 1));
+                for (int i = 0; i < size; i++) {
+                    String key = in.readString();
+                    map.put(key, decode(in));
+                }
+                return map;
+            }
+            case TAG_STRING:
+                return in.readString();
+            case TAG_LONG:
+                return unZigZag(in.readVarLong());
+            case TAG_INT:
+                return (int) unZigZag(in.readVarLong());
+            case TAG_BOOLEAN:
+                return in.readByte() != 0;
+            case TAG_DECIMAL:
+                return readDecimal(in);
+            case TAG_DATETIME:
+                return readDateTime(in);
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            default:
+                throw new IllegalArgumentException("Unknown value tag: " + tag);
+        }
+    }
+
+    private static void encodeBook(Book book, ByteSink out) {
+        int present = 0;
+        if (book.getId() != null) present |= F_ID;
+        if (book.getTitle() != null) present |= F_TITLE;
+        if (book.getAuthor() != null) present |= F_AUTHOR;
+        if (book.getIsbn() != null) present |= F_ISBN;
+        if (book.getDescription() != null) present |= F_DESCRIPTION;
+        if (book.getPublicationYear() != null) present |= F_YEAR;
+        if (book.getGenre() != null) present |= F_GENRE;
+        if (book.getPrice() != null) present |= F_PRICE;
+        if (book.getStockQuantity() != null) present |= F_STOCK;
+        if (book.getAvailable() != null) present |= F_AVAILABLE;
+        if (book.getCreatedAt() != null) present |= F_CREATED;
+        if (book.getUpdatedAt() != null) present |= F_UPDATED;
+        out.writeVarInt(present);
+
+        if ((present & F_ID) != 0) out.writeVarLong(zigZag(book.getId()));
+        if ((present & F_TITLE) != 0) out.writeString(book.getTitle());
+        if ((present & F_AUTHOR) != 0) out.writeString(book.getAuthor());
+        if ((present & F_ISBN) != 0) out.writeString(book.getIsbn());
+        if ((present & F_DESCRIPTION) != 0) out.writeString(book.getDescription());
+        if ((present & F_YEAR) != 0) out.writeVarLong(zigZag(book.getPublicationYear()));
+        if ((present & F_GENRE) != 0) out.writeString(book.getGenre());
+        if ((present & F_PRICE) != 0) writeDecimal(book.getPrice(), out);
+        if ((present & F_STOCK) != 0) out.writeVarLong(zigZag(book.getStockQuantity()));
+        if ((present & F_AVAILABLE) != 0) out.writeByte(book.getAvailable() ? 1 : 0);
+        if ((present & F_CREATED) != 0) writeDateTime(book.getCreatedAt(), out);
+        if ((present & F_UPDATED) != 0) writeDateTime(book.getUpdatedAt(), out);
+    }
+
+    private static Book decodeBook(ByteSource in) {
+        int present = in.readVarInt();
+        Book book = new Book();
+        // The entity defaults stockQuantity/available, so absent fields must be cleared explicitly
+        book.setStockQuantity(null);
+        book.setAvailable(null);
+
+        if ((present & F_ID) != 0) book.setId(unZigZag(in.readVarLong()));
+        if ((present & F_TITLE) != 0) book.setTitle(in.readString());
+        if ((present & F_AUTHOR) != 0) book.setAuthor(in.readString());
+        if ((present & F_ISBN) != 0) book.setIsbn(in.readString());
+        if ((present & F_DESCRIPTION) != 0) book.setDescription(in.readString());
+        if ((present & F_YEAR) != 0) book.setPublicationYear((int) unZigZag(in.readVarLong()));
+        if ((present & F_GENRE) != 0) book.setGenre(in.readString());
+        if ((present & F_PRICE) != 0) book.setPrice(readDecimal(in));
+        if ((present & F_STOCK) != 0) book.setStockQuantity((int) unZigZag(in.readVarLong()));
+        if ((present & F_AVAILABLE) != 0) book.setAvailable(in.readByte() != 0);
+        if ((present & F_CREATED) != 0) book.setCreatedAt(readDateTime(in));
+        if ((present & F_UPDATED) != 0) book.setUpdatedAt(readDateTime(in));
+        return book;
+    }
+
+    private static void writeDecimal(BigDecimal value, ByteSink out) {
+        out.writeVarLong(zigZag(value.scale()));
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(0);
+            out.writeVarLong(zigZag(unscaled.longValue()));
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(1);
+            out.writeVarInt(bytes.length);
+            out.writeBytes(bytes, 0, bytes.length);
+        }
+    }
+
+    private static BigDecimal readDecimal(ByteSource in) {
+        int scale = (int) unZigZag(in.readVarLong());
+        if (in.readByte() == 0) {
+            return BigDecimal.valueOf(unZigZag(in.readVarLong()), scale);
+        }
+        byte[] bytes = in.readBytes(in.readVarInt());
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static void writeDateTime(LocalDateTime value, ByteSink out) {
+        out.writeVarLong(zigZag(value.toEpochSecond(ZoneOffset.UTC)));
+        out.writeVarInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteSource in) {
+        long seconds = unZigZag(in.readVarLong());
+        int nanos = in.readVarInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer with varint helpers. Not thread-safe; one instance per encode call.
+     */
+    public static final class ByteSink {
+        private byte[] buffer;
+        private int position;
+
+        public ByteSink(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        public void writeByte(int b) {
+            ensure(1);
+            buffer[position++] = (byte) b;
+        }
+
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        public void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        public void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        public void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        public void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        public int size() {
+            return position;
+        }
+
+        public byte[] array() {
+            return buffer;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * Cursor over an encoded byte array.
+     */
+    public static final class ByteSource {
+        private final byte[] buffer;
+        private int position;
+        private final int limit;
+
+        public ByteSource(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        private void require(int count) {
+            if (position + count > limit) {
+                throw new IllegalArgumentException("Truncated cache payload");
+            }
+        }
+
+        public byte readByte() {
+            require(1);
+            return buffer[position++];
+        }
+
+        public byte[] readBytes(int length) {
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        public int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        public long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in cache payload");
+        }
+
+        public long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        public String readString() {
+            int length = readVarInt();
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
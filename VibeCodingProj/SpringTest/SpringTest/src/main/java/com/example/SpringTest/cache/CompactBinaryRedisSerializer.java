@@ -0,0 +1,186 @@
+package com.example.SpringTest.cache;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer backed by {@link BookBinaryCodec}.
+ *
+ * Frame layout: magic byte, schema version, flags, then the payload. Payloads larger than
+ * the compression threshold are deflated. Values the codec does not understand are stored
+ * as JSON inside the same frame, and frames that do not start with the magic byte are read
+ * as plain JSON so entries written before the switch stay readable until they expire.
+ */
+public class CompactBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactBinaryRedisSerializer.class);
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final int HEADER_SIZE = 3;
+
+    static final int FLAG_DEFLATED = 1;
+    static final int FLAG_JSON = 1 << 1;
+
+    private final int compressionThreshold;
+    private final GenericJackson2JsonRedisSerializer jsonSerializer;
+
+    public CompactBinaryRedisSerializer(int compressionThreshold) {
+        this(compressionThreshold, jsonSerializer());
+    }
+
+    public CompactBinaryRedisSerializer(int compressionThreshold, GenericJackson2JsonRedisSerializer jsonSerializer) {
+        this.compressionThreshold = compressionThreshold <= 0 ? Integer.MAX_VALUE : compressionThreshold;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    // JSON serializer that also understands the java.time fields on Book
+    public static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        serializer.configure(mapper -> mapper
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        return serializer;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        int flags = 0;
+        BookBinaryCodec.ByteSink body = new BookBinaryCodec.ByteSink(256);
+        try {
+            BookBinaryCodec.encode(value, body);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Falling back to JSON for cache value of type {}", value.getClass().getName());
+            byte[] json = jsonSerializer.serialize(value);
+            body = new BookBinaryCodec.ByteSink(json.length);
+            body.writeBytes(json, 0, json.length);
+            flags |= FLAG_JSON;
+        }
+
+        BookBinaryCodec.ByteSink frame;
+        if (body.size() >= compressionThreshold) {
+            flags |= FLAG_DEFLATED;
+            frame = new BookBinaryCodec.ByteSink(body.size() / 2 + 16);
+            writeHeader(frame, flags);
+            frame.writeVarInt(body.size());
+            deflate(body, frame);
+        } else {
+            frame = new BookBinaryCodec.ByteSink(body.size() + HEADER_SIZE);
+            writeHeader(frame, flags);
+            frame.writeBytes(body.array(), 0, body.size());
+        }
+        return frame.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE) {
+            throw new SerializationException("Truncated cache frame");
+        }
+
+        int version = bytes[1] & 0xFF;
+        if (version != BookBinaryCodec.SCHEMA_VERSION) {
+            // Written by a newer/older build; treat as a miss so the value is reloaded
+            logger.debug("Ignoring cache entry with schema version {}", version);
+            return null;
+        }
+
+        int flags = bytes[2] & 0xFF;
+        byte[] payload = bytes;
+        int offset = HEADER_SIZE;
+        int limit = bytes.length;
+        try {
+            if ((flags & FLAG_DEFLATED) != 0) {
+                BookBinaryCodec.ByteSource header = new BookBinaryCodec.ByteSource(bytes, HEADER_SIZE, bytes.length);
+                int rawLength = header.readVarInt();
+                int dataOffset = HEADER_SIZE + varIntSize(rawLength);
+                payload = inflate(bytes, dataOffset, bytes.length - dataOffset, rawLength);
+                offset = 0;
+                limit = payload.length;
+            }
+
+            if ((flags & FLAG_JSON) != 0) {
+                byte[] json = payload;
+                if (offset != 0 || limit != payload.length) {
+                    json = Arrays.copyOfRange(payload, offset, limit);
+                }
+                return jsonSerializer.deserialize(json);
+            }
+            return BookBinaryCodec.decode(new BookBinaryCodec.ByteSource(payload, offset, limit));
+        } catch (IllegalArgumentException | DataFormatException e) {
+            throw new SerializationException("Could not decode cache entry", e);
+        }
+    }
+
+    private static void writeHeader(BookBinaryCodec.ByteSink frame, int flags) {
+        frame.writeByte(MAGIC);
+        frame.writeByte(BookBinaryCodec.SCHEMA_VERSION);
+        frame.writeByte(flags);
+    }
+
+    private static void deflate(BookBinaryCodec.ByteSink body, BookBinaryCodec.ByteSink frame) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body.array(), 0, body.size());
+            deflater.finish();
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                frame.writeBytes(chunk, 0, written);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] source, int offset, int length, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(source, offset, length);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new DataFormatException("Expected " + rawLength + " bytes but inflated " + read);
+            }
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int varIntSize(int value) {
+        long v = value & 0xFFFFFFFFL;
+        int size = 1;
+        while ((v & ~0x7FL) != 0) {
+            v >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.SpringTest.cache;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorates the Redis {@link CacheManager} so a slow or unavailable Redis costs a cache miss
+ * rather than request latency.
+ * <p>
+ * Every Redis operation runs on a small bounded pool (the bulkhead) and is abandoned after
+ * {@code timeout}. Outcomes feed a circuit breaker. While the breaker is open, or when a call
+ * fails, reads are served from a small per-cache local copy, or miss and fall through to the
+ * database. Writes go to the local copy and are deferred. A deferred write is kept as an
+ * invalidation of its key: the fresh value is cached again on the next read, and Redis never
+ * ends up holding a value older than the database. Deferred invalidations are applied once
+ * the breaker closes. Until then, reads of those keys bypass Redis.
+ */
+public class ResilientCacheManager implements CacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientCacheManager.class);
+
+    public record Settings(Duration timeout, int maxConcurrent, int queueCapacity, int localMaxEntries,
+                           Duration localTtl, int maxDeferredKeys) {
+    }
+
+    private final CacheManager delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final RedisSerializer<Object> localSerializer;
+    private final Settings settings;
+    private final ThreadPoolExecutor bulkhead;
+    private final Map<String, ResilientCache> decorated = new ConcurrentHashMap<>();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private volatile boolean replayNeeded;
+
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong bulkheadRejections = new AtomicLong();
+
+    public ResilientCacheManager(CacheManager delegate, CircuitBreaker circuitBreaker,
+                                 RedisSerializer<Object> localSerializer, Settings settings) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.localSerializer = localSerializer;
+        this.settings = settings;
+        AtomicInteger threads = new AtomicInteger();
+        this.bulkhead = new ThreadPoolExecutor(settings.maxConcurrent(), settings.maxConcurrent(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, settings.queueCapacity())), task -> {
+                    Thread thread = new Thread(task, "redis-cache-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.bulkhead.allowCoreThreadTimeOut(true);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            logger.warn("Redis cache circuit breaker {}", event.getStateTransition());
+            if (event.getStateTransition().getToState() == CircuitBreaker.State.CLOSED && replayNeeded) {
+                replayDeferred();
+            }
+        });
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public long getBulkheadRejections() {
+        return bulkheadRejections.get();
+    }
+
+    public int getBulkheadActive() {
+        return bulkhead.getActiveCount();
+    }
+
+    public long getDeferredKeys() {
+        return decorated.values().stream().mapToLong(cache -> cache.deferred.size()).sum();
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return decorated.computeIfAbsent(name, n -> new ResilientCache(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Applies deferred invalidations on the bulkhead. Runs when the breaker closes and after
+     * any successful call while invalidations are pending.
+     */
+    public void replayDeferred() {
+        if (!replaying.compareAndSet(false, true)) {
+            return;
+        }
+        replayNeeded = false;
+        try {
+            bulkhead.execute(() -> {
+                try {
+                    for (ResilientCache cache : decorated.values()) {
+                        if (!cache.replay()) {
+                            replayNeeded = true;
+                        }
+                    }
+                } finally {
+                    replaying.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Reads of the affected keys keep bypassing Redis until a later call retries
+            replayNeeded = true;
+            replaying.set(false);
+        }
+    }
+
+    // Thrown inside the decorator only; callers see a fallback instead
+    private static final class Unavailable extends Exception {
+        Unavailable(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private <T> T call(Callable<T> operation) throws Unavailable {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new Unavailable(null);
+        }
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = bulkhead.submit(operation);
+        } catch (RejectedExecutionException e) {
+            // A full bulkhead says nothing about Redis itself
+            circuitBreaker.releasePermission();
+            bulkheadRejections.incrementAndGet();
+            throw new Unavailable(e);
+        }
+        try {
+            T result = future.get(settings.timeout().toNanos(), TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (replayNeeded) {
+                replayDeferred();
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.incrementAndGet();
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw new Unavailable(e);
+        } catch (ExecutionException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e.getCause());
+            throw new Unavailable(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.releasePermission();
+            throw new Unavailable(e);
+        }
+    }
+
+    private void run(Runnable operation) throws Unavailable {
+        call(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    class ResilientCache implements Cache {
+
+        private final Cache redis;
+        private final LocalCopies local = new LocalCopies();
+        private final Set<Object> deferred = ConcurrentHashMap.newKeySet();
+        // Set when too many keys were deferred, or on clear(); the whole cache is then invalidated
+        private volatile boolean clearDeferred;
+
+        ResilientCache(Cache redis) {
+            this.redis = redis;
+        }
+
+        @Override
+        public String getName() {
+            return redis.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return redis.getNativeCache();
+        }
+
+        @Override
+        @Nullable
+        public ValueWrapper get(Object key) {
+            if (!clearDeferred && !deferred.contains(key)) {
+                try {
+                    return call(() -> redis.get(key));
+                } catch (Unavailable e) {
+                    logFallback("get", e);
+                }
+            } else if (circuitBreaker.getState() == CircuitBreaker.State.CLOSED) {
+                // Nothing else may reach Redis while a clear is pending, so retry the replay from here
+                replayDeferred();
+            }
+            fallbacks.incrementAndGet();
+            return local.get(key);
+        }
+
+        @Override
+        @Nullable
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, @Nullable Class<T> type) {
+            ValueWrapper wrapper = get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value != null && type != null && !type.isInstance(value)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+            }
+            return (T) value;
+        }
+
+        @Override
+        @Nullable
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper wrapper = get(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            put(key, value);
+            return value;
+        }
+
+        @Override
+        public void put(Object key, @Nullable Object value) {
+            local.put(key, value);
+            if (!clearDeferred && !deferred.contains(key)) {
+                try {
+                    run(() -> redis.put(key, value));
+                    return;
+                } catch (Unavailable e) {
+                    logFallback("put", e);
+                }
+            }
+            defer(key);
+        }
+
+        @Override
+        public void evict(Object key) {
+            local.evict(key);
+            try {
+                run(() -> redis.evict(key));
+                deferred.remove(key);
+            } catch (Unavailable e) {
+                logFallback("evict", e);
+                defer(key);
+            }
+        }
+
+        @Override
+        public void clear() {
+            local.clear();
+            try {
+                run(redis::clear);
+                deferred.clear();
+                clearDeferred = false;
+            } catch (Unavailable e) {
+                logFallback("clear", e);
+                clearDeferred = true;
+                deferred.clear();
+                replayNeeded = true;
+            }
+        }
+
+        private void defer(Object key) {
+            if (clearDeferred) {
+                return;
+            }
+            deferred.add(key);
+            if (deferred.size() > settings.maxDeferredKeys()) {
+                clearDeferred = true;
+                deferred.clear();
+            }
+            replayNeeded = true;
+        }
+
+        // Runs on a bulkhead thread; Redis is expected to be back, so a failure just stops the replay
+        boolean replay() {
+            try {
+                if (clearDeferred) {
+                    redis.clear();
+                    clearDeferred = false;
+                }
+                Iterator<Object> keys = deferred.iterator();
+                while (keys.hasNext()) {
+                    redis.evict(keys.next());
+                    keys.remove();
+                }
+                return true;
+            } catch (RuntimeException e) {
+                logger.warn("Replaying deferred invalidations for cache {} failed: {}", getName(), e.getMessage());
+                return false;
+            }
+        }
+
+        private void logFallback(String operation, Unavailable e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Redis cache {} {} fell back ({})", getName(), operation,
+                        e.getCause() != null ? e.getCause().toString() : "circuit " + circuitBreaker.getState());
+            }
+        }
+    }
+
+    /**
+     * A few recent values per cache, stored serialized so callers never share an instance.
+     */
+    private class LocalCopies {
+
+        private record Entry(byte[] value, long expiresAtNanos) {
+        }
+
+        private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > settings.localMaxEntries();
+            }
+        };
+
+        @Nullable
+        Cache.ValueWrapper get(Object key) {
+            Entry entry;
+            synchronized (this) {
+                entry = entries.get(key);
+                if (entry != null && System.nanoTime() - entry.expiresAtNanos() > 0) {
+                    entries.remove(key);
+                    entry = null;
+                }
+            }
+            if (entry == null) {
+                return null;
+            }
+            return new SimpleValueWrapper(entry.value() == null ? null : localSerializer.deserialize(entry.value()));
+        }
+
+        void put(Object key, @Nullable Object value) {
+            if (settings.localMaxEntries() <= 0) {
+                return;
+            }
+            byte[] bytes = value == null ? null : localSerializer.serialize(value);
+            Entry entry = new Entry(bytes, System.nanoTime() + settings.localTtl().toNanos());
+            synchronized (this) {
+                entries.put(key, entry);
+            }
+        }
+
+        synchronized void evict(Object key) {
+            entries.remove(key);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.SpringTest.catalog;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Exports the books table to a catalog snapshot file for {@link MappedCatalogStore}
+ * instances, typically edge deployments that ship without the database.
+ */
+@Service
+public class CatalogSnapshotExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotExporter.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${app.catalog-snapshot.export.enabled:false}")
+    private boolean scheduledExportEnabled;
+
+    @Value("${app.catalog-snapshot.path:./data/catalog.snapshot}")
+    private Path path;
+
+    private final CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+
+    @Scheduled(initialDelayString = "${app.catalog-snapshot.export.interval-ms:300000}",
+               fixedDelayString = "${app.catalog-snapshot.export.interval-ms:300000}")
+    public void scheduledExport() {
+        if (scheduledExportEnabled) {
+            export();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CatalogSnapshotWriter.Summary export() {
+        long start = System.nanoTime();
+        List<Book> books = bookRepository.findAll();
+        try {
+            CatalogSnapshotWriter.Summary summary = writer.write(books, path);
+            logger.info("Exported {} books to catalog snapshot {} ({} bytes) in {} ms", summary.books(), path,
+                    summary.bytes(), (System.nanoTime() - start) / 1_000_000);
+            return summary;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog snapshot " + path, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.SpringTest.catalog;
+
+/**
+ * Layout of a catalog snapshot file. All integers are little-endian; offsets are absolute
+ * file positions except string references, which are relative to the string heap.
+ *
+ * <pre>
+ * header        HEADER_SIZE bytes
+ * records       recordCount x RECORD_SIZE, sorted by id
+ * id index      recordCount x long, the same ids packed densely for binary search
+ * author table  authorCount x TABLE_ENTRY_SIZE (name ref, first posting, posting count), sorted by name
+ * genre table   genreCount  x TABLE_ENTRY_SIZE
+ * postings      int record ordinals, grouped per author then per genre, ascending id within a group
+ * string heap   UTF-8 bytes, each distinct string stored once
+ * </pre>
+ *
+ * A string reference is an (offset, length) pair of ints; length -1 means null.
+ */
+final class CatalogSnapshotFormat {
+
+    static final long MAGIC = 0x50414E534B4F4F42L; // "BOOKSNAP" read little-endian
+    static final int VERSION = 1;
+
+    // Header field positions
+    static final int HEADER_SIZE = 96;
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 8;
+    static final int H_RECORD_SIZE = 12;
+    static final int H_RECORD_COUNT = 16;
+    static final int H_AUTHOR_COUNT = 20;
+    static final int H_GENRE_COUNT = 24;
+    static final int H_BUILT_AT = 32;
+    static final int H_RECORDS = 40;
+    static final int H_ID_INDEX = 48;
+    static final int H_AUTHOR_TABLE = 56;
+    static final int H_GENRE_TABLE = 64;
+    static final int H_POSTINGS = 72;
+    static final int H_HEAP = 80;
+    static final int H_FILE_LENGTH = 88;
+
+    // Record field positions
+    static final int RECORD_SIZE = 88;
+    static final int R_ID = 0;
+    static final int R_PRICE_CENTS = 8;
+    static final int R_CREATED_AT = 16;
+    static final int R_UPDATED_AT = 24;
+    static final int R_PUBLICATION_YEAR = 32;
+    static final int R_STOCK = 36;
+    static final int R_FLAGS = 40;
+    static final int R_TITLE = 44;
+    static final int R_AUTHOR = 52;
+    static final int R_ISBN = 60;
+    static final int R_DESCRIPTION = 68;
+    static final int R_GENRE = 76;
+
+    static final int TABLE_ENTRY_SIZE = 16;
+
+    static final int FLAG_AVAILABLE = 1;
+    static final int FLAG_AVAILABLE_NULL = 2;
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    private CatalogSnapshotFormat() {
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.SpringTest.catalog;
+
+import com.example.SpringTest.model.Book;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static com.example.SpringTest.catalog.CatalogSnapshotFormat.*;
+
+/**
+ * Writes a catalog snapshot (see {@link CatalogSnapshotFormat}). The file is written next to
+ * the target and renamed into place, so a reader polling the target only ever sees complete
+ * snapshots.
+ */
+public class CatalogSnapshotWriter {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    public record Summary(Path path, int books, int authors, int genres, long bytes) {
+    }
+
+    public Summary write(List<Book> books, Path target) throws IOException {
+        List<Book> sorted = new ArrayList<>(books);
+        sorted.sort(Comparator.comparing(Book::getId));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getId().equals(sorted.get(i - 1).getId())) {
+                throw new IllegalArgumentException("Duplicate book id " + sorted.get(i).getId());
+            }
+        }
+
+        StringHeap heap = new StringHeap();
+        TreeMap<String, List<Integer>> authors = group(sorted, Book::getAuthor);
+        TreeMap<String, List<Integer>> genres = group(sorted, Book::getGenre);
+        int postingCount = authors.values().stream().mapToInt(List::size).sum()
+                + genres.values().stream().mapToInt(List::size).sum();
+
+        long recordsOffset = HEADER_SIZE;
+        long idIndexOffset = recordsOffset + (long) sorted.size() * RECORD_SIZE;
+        long authorTableOffset = idIndexOffset + (long) sorted.size() * Long.BYTES;
+        long genreTableOffset = authorTableOffset + (long) authors.size() * TABLE_ENTRY_SIZE;
+        long postingsOffset = genreTableOffset + (long) genres.size() * TABLE_ENTRY_SIZE;
+        long heapOffset = postingsOffset + (long) postingCount * Integer.BYTES;
+
+        // Intern strings first so records and tables can reference final heap offsets
+        for (Book book : sorted) {
+            heap.intern(book.getTitle());
+            heap.intern(book.getAuthor());
+            heap.intern(book.getIsbn());
+            heap.intern(book.getDescription());
+            heap.intern(book.getGenre());
+        }
+        long fileLength = heapOffset + heap.size();
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot of " + fileLength + " bytes exceeds the 2 GB mapping limit");
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ChannelWriter out = new ChannelWriter(channel);
+
+                out.putLong(MAGIC);
+                out.putInt(VERSION);
+                out.putInt(RECORD_SIZE);
+                out.putInt(sorted.size());
+                out.putInt(authors.size());
+                out.putInt(genres.size());
+                out.putInt(0);
+                out.putLong(System.currentTimeMillis());
+                out.putLong(recordsOffset);
+                out.putLong(idIndexOffset);
+                out.putLong(authorTableOffset);
+                out.putLong(genreTableOffset);
+                out.putLong(postingsOffset);
+                out.putLong(heapOffset);
+                out.putLong(fileLength);
+
+                for (Book book : sorted) {
+                    out.putLong(book.getId());
+                    out.putLong(book.getPrice() == null ? NULL_LONG
+                            : book.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+                    out.putLong(toMicros(book.getCreatedAt()));
+                    out.putLong(toMicros(book.getUpdatedAt()));
+                    out.putInt(book.getPublicationYear() == null ? NULL_INT : book.getPublicationYear());
+                    out.putInt(book.getStockQuantity() == null ? NULL_INT : book.getStockQuantity());
+                    int flags = book.getAvailable() == null ? FLAG_AVAILABLE_NULL
+                            : book.getAvailable() ? FLAG_AVAILABLE : 0;
+                    out.putInt(flags);
+                    out.putRef(heap, book.getTitle());
+                    out.putRef(heap, book.getAuthor());
+                    out.putRef(heap, book.getIsbn());
+                    out.putRef(heap, book.getDescription());
+                    out.putRef(heap, book.getGenre());
+                    out.putInt(0);
+                }
+                for (Book book : sorted) {
+                    out.putLong(book.getId());
+                }
+
+                int posting = 0;
+                for (Map.Entry<String, List<Integer>> entry : authors.entrySet()) {
+                    out.putRef(heap, entry.getKey());
+                    out.putInt(posting);
+                    out.putInt(entry.getValue().size());
+                    posting += entry.getValue().size();
+                }
+                for (Map.Entry<String, List<Integer>> entry : genres.entrySet()) {
+                    out.putRef(heap, entry.getKey());
+                    out.putInt(posting);
+                    out.putInt(entry.getValue().size());
+                    posting += entry.getValue().size();
+                }
+                for (List<Integer> ordinals : authors.values()) {
+                    ordinals.forEach(out::putInt);
+                }
+                for (List<Integer> ordinals : genres.values()) {
+                    ordinals.forEach(out::putInt);
+                }
+                for (byte[] bytes : heap.chunks) {
+                    out.putBytes(bytes);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new Summary(target, sorted.size(), authors.size(), genres.size(), fileLength);
+    }
+
+    // Timestamps are zone-less in the entity, so they are stored as UTC-relative micros and read back unchanged
+    static long toMicros(LocalDateTime time) {
+        return time == null ? NULL_LONG : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static TreeMap<String, List<Integer>> group(List<Book> sorted, Function<Book, String> key) {
+        TreeMap<String, List<Integer>> groups = new TreeMap<>();
+        for (int ordinal = 0; ordinal < sorted.size(); ordinal++) {
+            String value = key.apply(sorted.get(ordinal));
+            if (value != null) {
+                groups.computeIfAbsent(value, k -> new ArrayList<>()).add(ordinal);
+            }
+        }
+        return groups;
+    }
+
+    private static final class StringHeap {
+        private final Map<String, int[]> refs = new HashMap<>();
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long size;
+
+        void intern(String value) {
+            if (value == null || refs.containsKey(value)) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            refs.put(value, new int[] {(int) size, bytes.length});
+            chunks.add(bytes);
+            size += bytes.length;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("String heap exceeds 2 GB");
+            }
+        }
+
+        int[] ref(String value) {
+            return refs.get(value);
+        }
+
+        long size() {
+            return size;
+        }
+    }
+
+    private static final class ChannelWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        ChannelWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putRef(StringHeap heap, String value) {
+            int[] ref = value == null ? null : heap.ref(value);
+            putInt(ref == null ? 0 : ref[0]);
+            putInt(ref == null ? -1 : ref[1]);
+        }
+
+        void putBytes(byte[] bytes) {
+            int written = 0;
+            while (written < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.SpringTest.catalog;
+
+import com.example.SpringTest.model.Book;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.SpringTest.catalog.CatalogSnapshotFormat.*;
+
+/**
+ * One catalog snapshot file mapped read-only. Opening only validates the header, so it costs
+ * the same for ten books or ten million; pages are faulted in by the OS as lookups touch them.
+ * Reads use absolute buffer accessors only, so a single instance is safe to share between
+ * threads and stays valid after the file is replaced on disk.
+ */
+public final class MappedCatalogSnapshot {
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final int authorCount;
+    private final int genreCount;
+    private final Instant builtAt;
+    private final int records;
+    private final int idIndex;
+    private final int authorTable;
+    private final int genreTable;
+    private final int postings;
+    private final int heap;
+
+    private MappedCatalogSnapshot(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getLong(H_MAGIC) != MAGIC) {
+            throw new IllegalStateException(path + " is not a catalog snapshot");
+        }
+        if (buffer.getInt(H_VERSION) != VERSION || buffer.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IllegalStateException(path + " has unsupported snapshot version " + buffer.getInt(H_VERSION));
+        }
+        if (buffer.getLong(H_FILE_LENGTH) != buffer.capacity()) {
+            throw new IllegalStateException(path + " is truncated: expected " + buffer.getLong(H_FILE_LENGTH)
+                    + " bytes, found " + buffer.capacity());
+        }
+        this.recordCount = buffer.getInt(H_RECORD_COUNT);
+        this.authorCount = buffer.getInt(H_AUTHOR_COUNT);
+        this.genreCount = buffer.getInt(H_GENRE_COUNT);
+        this.builtAt = Instant.ofEpochMilli(buffer.getLong(H_BUILT_AT));
+        this.records = (int) buffer.getLong(H_RECORDS);
+        this.idIndex = (int) buffer.getLong(H_ID_INDEX);
+        this.authorTable = (int) buffer.getLong(H_AUTHOR_TABLE);
+        this.genreTable = (int) buffer.getLong(H_GENRE_TABLE);
+        this.postings = (int) buffer.getLong(H_POSTINGS);
+        this.heap = (int) buffer.getLong(H_HEAP);
+    }
+
+    public static MappedCatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException(path + " exceeds the 2 GB mapping limit");
+            }
+            // The mapping outlives the channel, no file handle is held
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCatalogSnapshot(path, mapped.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public long count() {
+        return recordCount;
+    }
+
+    public int authorCount() {
+        return authorCount;
+    }
+
+    public int genreCount() {
+        return genreCount;
+    }
+
+    public long sizeBytes() {
+        return buffer.capacity();
+    }
+
+    public Optional<Book> findById(Long id) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long probe = buffer.getLong(idIndex + mid * Long.BYTES);
+            if (probe < id) {
+                low = mid + 1;
+            } else if (probe > id) {
+                high = mid - 1;
+            } else {
+                return Optional.of(record(mid));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    public List<Book> findByAuthor(String author) {
+        return postingList(authorTable, authorCount, author);
+    }
+
+    public List<Book> findByGenre(String genre) {
+        return postingList(genreTable, genreCount, genre);
+    }
+
+    private List<Book> postingList(int table, int entries, String key) {
+        if (key == null) {
+            return List.of();
+        }
+        int low = 0;
+        int high = entries - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = table + mid * TABLE_ENTRY_SIZE;
+            // Same ordering as the writer's TreeMap
+            int cmp = string(entry).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                int first = buffer.getInt(entry + 8);
+                int count = buffer.getInt(entry + 12);
+                List<Book> books = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    books.add(record(buffer.getInt(postings + (first + i) * Integer.BYTES)));
+                }
+                return books;
+            }
+        }
+        return List.of();
+    }
+
+    private Book record(int ordinal) {
+        int base = records + ordinal * RECORD_SIZE;
+        Book book = new Book();
+        book.setId(buffer.getLong(base + R_ID));
+        book.setTitle(string(base + R_TITLE));
+        book.setAuthor(string(base + R_AUTHOR));
+        book.setIsbn(string(base + R_ISBN));
+        book.setDescription(string(base + R_DESCRIPTION));
+        book.setGenre(string(base + R_GENRE));
+        long cents = buffer.getLong(base + R_PRICE_CENTS);
+        book.setPrice(cents == NULL_LONG ? null : BigDecimal.valueOf(cents, 2));
+        int year = buffer.getInt(base + R_PUBLICATION_YEAR);
+        book.setPublicationYear(year == NULL_INT ? null : year);
+        int stock = buffer.getInt(base + R_STOCK);
+        book.setStockQuantity(stock == NULL_INT ? null : stock);
+        int flags = buffer.getInt(base + R_FLAGS);
+        book.setAvailable((flags & FLAG_AVAILABLE_NULL) != 0 ? null : (flags & FLAG_AVAILABLE) != 0);
+        book.setCreatedAt(fromMicros(buffer.getLong(base + R_CREATED_AT)));
+        book.setUpdatedAt(fromMicros(buffer.getLong(base + R_UPDATED_AT)));
+        return book;
+    }
+
+    private String string(int refPosition) {
+        int length = buffer.getInt(refPosition + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(heap + buffer.getInt(refPosition), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
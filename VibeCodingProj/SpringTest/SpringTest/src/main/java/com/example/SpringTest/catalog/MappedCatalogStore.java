@@ -0,0 +1,141 @@
+package com.example.SpringTest.catalog;
+
+import com.example.SpringTest.model.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read store over the latest catalog snapshot file, with the lookup methods of
+ * {@code BookRepository} it can answer. The file is polled and, when a new snapshot lands,
+ * mapped and swapped in atomically; requests already running keep the snapshot they started
+ * with.
+ */
+@Component
+public class MappedCatalogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedCatalogStore.class);
+
+    @Value("${app.catalog-snapshot.read-store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.catalog-snapshot.path:./data/catalog.snapshot}")
+    private Path path;
+
+    private volatile MappedCatalogSnapshot current;
+    private volatile FileVersion loadedVersion;
+
+    private record FileVersion(Instant modified, long size, Object fileKey) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reloadIfChanged();
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog-snapshot.read-store.reload-interval-ms:10000}",
+               fixedDelayString = "${app.catalog-snapshot.read-store.reload-interval-ms:10000}")
+    public void scheduledReload() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Maps the snapshot file again if it changed since the last load. Does nothing while the
+     * read store is disabled. A file that fails validation is logged and ignored, leaving the
+     * previous snapshot in service.
+     */
+    public synchronized boolean reloadIfChanged() {
+        if (!enabled) {
+            return false;
+        }
+        FileVersion version;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            version = new FileVersion(attributes.lastModifiedTime().toInstant(), attributes.size(), attributes.fileKey());
+        } catch (IOException e) {
+            if (current == null) {
+                logger.warn("Catalog snapshot {} not available yet: {}", path, e.getMessage());
+            }
+            return false;
+        }
+        if (version.equals(loadedVersion)) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(path);
+            current = snapshot;
+            loadedVersion = version;
+            logger.info("Mapped catalog snapshot {} ({} books, {} bytes) in {} us", path, snapshot.count(),
+                    snapshot.sizeBytes(), (System.nanoTime() - start) / 1_000);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.error("Rejected catalog snapshot {}, keeping the previous one", path, e);
+            return false;
+        }
+    }
+
+    public boolean isAvailable() {
+        return current != null;
+    }
+
+    public Optional<Book> findById(Long id) {
+        return snapshot().findById(id);
+    }
+
+    public boolean existsById(Long id) {
+        return snapshot().existsById(id);
+    }
+
+    public List<Book> findByAuthor(String author) {
+        return snapshot().findByAuthor(author);
+    }
+
+    public List<Book> findByGenre(String genre) {
+        return snapshot().findByGenre(genre);
+    }
+
+    public long count() {
+        return snapshot().count();
+    }
+
+    public Map<String, Object> info() {
+        MappedCatalogSnapshot snapshot = current;
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("enabled", enabled);
+        info.put("path", path.toString());
+        info.put("available", snapshot != null);
+        if (snapshot != null) {
+            info.put("books", snapshot.count());
+            info.put("authors", snapshot.authorCount());
+            info.put("genres", snapshot.genreCount());
+            info.put("bytes", snapshot.sizeBytes());
+            info.put("builtAt", snapshot.getBuiltAt().toString());
+            info.put("ageSeconds", Duration.between(snapshot.getBuiltAt(), Instant.now()).toSeconds());
+        }
+        return info;
+    }
+
+    private MappedCatalogSnapshot snapshot() {
+        MappedCatalogSnapshot snapshot = current;
+        if (snapshot == null) {
+            throw new IllegalStateException("No catalog snapshot is loaded from " + path);
+        }
+        return snapshot;
+    }
+}
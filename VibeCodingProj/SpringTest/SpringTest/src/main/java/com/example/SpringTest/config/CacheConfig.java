@@ -1,5 +1,14 @@
 package com.example.SpringTest.config;
 
+import com.example.SpringTest.cache.CompactBinaryRedisSerializer;
+import com.example.SpringTest.cache.ResilientCacheManager;
+import com.example.SpringTest.tracing.TracingCacheManager;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -8,13 +17,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -27,9 +39,49 @@ public class CacheConfig {
     @Value("${spring.data.redis.port:6379}")
     private int redisPort;
 
+    @Value("${spring.data.redis.timeout:250ms}")
+    private Duration redisCommandTimeout;
+
+    @Value("${spring.data.redis.connect-timeout:250ms}")
+    private Duration redisConnectTimeout;
+
+    // Caller-side budget for one cache operation, enforced by the bulkhead
+    @Value("${app.cache.resilience.timeout:100ms}")
+    private Duration cacheTimeout;
+
+    @Value("${app.cache.resilience.max-concurrent:16}")
+    private int cacheMaxConcurrent;
+
+    @Value("${app.cache.resilience.queue-capacity:32}")
+    private int cacheQueueCapacity;
+
+    @Value("${app.cache.resilience.local-max-entries:500}")
+    private int localMaxEntries;
+
+    @Value("${app.cache.resilience.local-ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${app.cache.resilience.max-deferred-keys:10000}")
+    private int maxDeferredKeys;
+
+    // Caches listed here store values with the compact binary codec instead of JSON
+    @Value("${app.cache.binary-codec-caches:}")
+    private List<String> binaryCodecCaches;
+
+    @Value("${app.cache.codec.compression-threshold:1024}")
+    private int compressionThreshold;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory(redisHost, redisPort);
+        // Fail commands at once while disconnected instead of queueing them until reconnect
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .commandTimeout(redisCommandTimeout)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(redisConnectTimeout).build())
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .build())
+                .build();
+        return new LettuceConnectionFactory(new RedisStandaloneConfiguration(redisHost, redisPort), clientConfig);
     }
 
     @Bean
@@ -42,37 +94,78 @@ public class CacheConfig {
         template.setHashKeySerializer(new StringRedisSerializer());
         
         // Use JSON serializer for values
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(CompactBinaryRedisSerializer.jsonSerializer());
+        template.setHashValueSerializer(CompactBinaryRedisSerializer.jsonSerializer());
         
         template.afterPropertiesSet();
         return template;
     }
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                        .fromSerializer(CompactBinaryRedisSerializer.jsonSerializer()));
 
         // Custom cache configurations
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
         
         // Books cache - 15 minutes TTL
-        cacheConfigurations.put("books", defaultConfig.entryTtl(Duration.ofMinutes(15)));
+        cacheConfigurations.put("books", withValueCodec("books", defaultConfig.entryTtl(Duration.ofMinutes(15))));
         
         // Book statistics cache - 30 minutes TTL
-        cacheConfigurations.put("book_stats", defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        cacheConfigurations.put("book_stats", withValueCodec("book_stats", defaultConfig.entryTtl(Duration.ofMinutes(30))));
         
         // Rate limiting cache - 1 hour TTL
-        cacheConfigurations.put("rate-limit-buckets", defaultConfig.entryTtl(Duration.ofHours(1)));
+        cacheConfigurations.put("rate-limit-buckets", withValueCodec("rate-limit-buckets", defaultConfig.entryTtl(Duration.ofHours(1))));
 
-        return RedisCacheManager.builder(redisConnectionFactory())
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory())
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        // Not a bean of its own, so initialize the configured caches here
+        redisCacheManager.afterPropertiesSet();
+
+        ResilientCacheManager resilientCacheManager = new ResilientCacheManager(redisCacheManager,
+                circuitBreakerRegistry.circuitBreaker("redisCache"), compactBinaryRedisSerializer(),
+                new ResilientCacheManager.Settings(cacheTimeout, cacheMaxConcurrent, cacheQueueCapacity,
+                        localMaxEntries, localTtl, maxDeferredKeys));
+        registerMetrics(resilientCacheManager, meterRegistry);
+
+        return new TracingCacheManager(resilientCacheManager);
+    }
+
+    @Bean
+    public CompactBinaryRedisSerializer compactBinaryRedisSerializer() {
+        return new CompactBinaryRedisSerializer(compressionThreshold);
+    }
+
+    private void registerMetrics(ResilientCacheManager manager, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.redis.fallbacks", manager, ResilientCacheManager::getFallbacks)
+                .description("Cache reads served locally or as misses because Redis was unavailable")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.redis.timeouts", manager, ResilientCacheManager::getTimeouts)
+                .description("Redis cache operations abandoned after the timeout")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.redis.bulkhead.rejections", manager, ResilientCacheManager::getBulkheadRejections)
+                .description("Redis cache operations rejected because the bulkhead was full")
+                .register(meterRegistry);
+        Gauge.builder("cache.redis.bulkhead.active", manager, ResilientCacheManager::getBulkheadActive)
+                .description("Redis cache operations currently running")
+                .register(meterRegistry);
+        Gauge.builder("cache.redis.deferred.keys", manager, ResilientCacheManager::getDeferredKeys)
+                .description("Cache keys whose Redis invalidation is waiting for Redis to recover")
+                .register(meterRegistry);
+    }
+
+    private RedisCacheConfiguration withValueCodec(String cacheName, RedisCacheConfiguration config) {
+        if (binaryCodecCaches == null || !binaryCodecCaches.contains(cacheName)) {
+            return config;
+        }
+        return config.serializeValuesWith(RedisSerializationContext.SerializationPair
+                .fromSerializer(compactBinaryRedisSerializer()));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.example.SpringTest.config;
+
+import com.example.SpringTest.migration.LegacyBookMigrator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wires {@link LegacyBookMigrator} to the legacy {@code /books} database. The legacy pool is
+ * deliberately not a {@code DataSource} bean, so JPA and Flyway keep using the primary one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.legacy-migration.enabled", havingValue = "true")
+public class LegacyMigrationConfig {
+
+    @Value("${app.legacy-migration.url}")
+    private String url;
+
+    @Value("${app.legacy-migration.username:sa}")
+    private String username;
+
+    @Value("${app.legacy-migration.password:}")
+    private String password;
+
+    @Value("${app.legacy-migration.table:book}")
+    private String table;
+
+    @Value("${app.legacy-migration.job-name:legacy-books}")
+    private String jobName;
+
+    @Value("${app.legacy-migration.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.legacy-migration.workers:4}")
+    private int workers;
+
+    @Value("${app.legacy-migration.progress-interval:5s}")
+    private Duration progressInterval;
+
+    private HikariDataSource legacyPool;
+
+    @Bean
+    public LegacyBookMigrator legacyBookMigrator(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("LegacyBooks");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(true);
+        // Only the reader thread queries the legacy database
+        config.setMaximumPoolSize(2);
+        legacyPool = new HikariDataSource(config);
+        return new LegacyBookMigrator(legacyPool, dataSource, transactionManager, jobName, table, chunkSize, workers,
+                progressInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.legacy-migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner legacyMigrationRunner(LegacyBookMigrator migrator) {
+        return args -> migrator.migrate();
+    }
+
+    @PreDestroy
+    public void closeLegacyPool() {
+        if (legacyPool != null) {
+            legacyPool.close();
+        }
+    }
+}
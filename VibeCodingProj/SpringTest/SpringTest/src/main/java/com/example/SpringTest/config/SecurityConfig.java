@@ -2,6 +2,7 @@ package com.example.SpringTest.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -31,6 +32,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
                         .requestMatchers("/api/v1/books/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/catalog/books/**", "/api/v1/catalog/snapshot").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/info", "/actuator/metrics").permitAll()
                         .requestMatchers("/test/**").permitAll()
                         // H2 Console (only for development)
@@ -0,0 +1,89 @@
+package com.example.SpringTest.controller;
+
+import com.example.SpringTest.analytics.AnalyticsEngine;
+import com.example.SpringTest.analytics.AnalyticsQuery;
+import com.example.SpringTest.analytics.BookAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Tag(name = "Catalog Analytics", description = "Group-by queries over an in-memory snapshot of the catalog")
+@RestController
+@RequestMapping("/api/v1/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    @Autowired
+    private BookAnalyticsService analyticsService;
+
+    @Operation(summary = "Group-by query",
+               description = "Aggregate books by genre, author, year, decade, available, stock:<width> or price:<width>. "
+                       + "Results come from a periodically refreshed snapshot and may lag recent writes.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Query evaluated"),
+        @ApiResponse(responseCode = "400", description = "Unknown dimension, aggregate or order column")
+    })
+    @GetMapping("/query")
+    public ResponseEntity<Map<String, Object>> query(
+            @Parameter(description = "Comma-separated dimensions, e.g. genre,decade") @RequestParam(required = false) String groupBy,
+            @Parameter(description = "Comma-separated aggregates, e.g. count,avg(price),sum(stock)") @RequestParam(defaultValue = "count") String aggregate,
+            @Parameter(description = "Genre filter") @RequestParam(required = false) String genre,
+            @Parameter(description = "Author filter") @RequestParam(required = false) String author,
+            @Parameter(description = "Minimum publication year") @RequestParam(required = false) Integer minYear,
+            @Parameter(description = "Maximum publication year") @RequestParam(required = false) Integer maxYear,
+            @Parameter(description = "Availability filter") @RequestParam(required = false) Boolean available,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Column to order by (a dimension or aggregate)") @RequestParam(required = false) String orderBy,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Maximum groups returned") @RequestParam(defaultValue = "1000") int limit) {
+
+        logger.debug("Analytics query groupBy={} aggregate={}", groupBy, aggregate);
+
+        AnalyticsQuery query = new AnalyticsQuery(
+                AnalyticsQuery.parseDimensions(groupBy),
+                AnalyticsQuery.parseAggregates(aggregate),
+                new AnalyticsQuery.Filter(genre, author, minYear, maxYear, available, minPrice, maxPrice),
+                orderBy,
+                sortDir.equalsIgnoreCase("desc"),
+                limit);
+        AnalyticsEngine.AnalyticsResult result = analyticsService.query(query);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("rows", result.rows());
+        response.put("totalGroups", result.totalGroups());
+        response.put("matchedBooks", result.matchedRows());
+        response.put("scannedBooks", result.scannedRows());
+        response.put("elapsedMicros", result.elapsedMicros());
+        response.put("snapshot", analyticsService.snapshotInfo());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Snapshot status", description = "Size and age of the analytics snapshot")
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() {
+        return ResponseEntity.ok(analyticsService.snapshotInfo());
+    }
+
+    @Operation(summary = "Refresh snapshot", description = "Rebuild the analytics snapshot from the database now")
+    @PostMapping("/snapshot/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        logger.info("Analytics snapshot refresh requested");
+        analyticsService.refresh();
+        return ResponseEntity.ok(analyticsService.snapshotInfo());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.SpringTest.controller;
 
+import com.example.SpringTest.http.BookPageResponse;
 import com.example.SpringTest.model.Book;
 import com.example.SpringTest.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,7 +55,7 @@ public class BookController {
     @ApiResponse(responseCode = "200", description = "Books retrieved successfully")
     @GetMapping
     public ResponseEntity<List<Book>> getAllBooks() {
-        logger.info("Fetching all books");
+        logger.debug("Fetching all books");
         List<Book> books = bookService.getAllBooks();
         return ResponseEntity.ok(books);
     }
@@ -68,7 +69,7 @@ public class BookController {
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir) {
         
-        logger.info("Fetching books with pagination - page: {}, size: {}, sortBy: {}, sortDir: {}", 
+        logger.debug("Fetching books with pagination - page: {}, size: {}, sortBy: {}, sortDir: {}", 
                     page, size, sortBy, sortDir);
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -78,7 +79,7 @@ public class BookController {
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<Book> booksPage = bookService.getAllBooksPageable(pageable);
         
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = new BookPageResponse();
         response.put("books", booksPage.getContent());
         response.put("currentPage", booksPage.getNumber());
         response.put("totalItems", booksPage.getTotalElements());
@@ -94,9 +95,9 @@ public class BookController {
     @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchBooks(
-            @Parameter(description = "Title filter") @RequestParam(required = false) String title,
-            @Parameter(description = "Author filter") @RequestParam(required = false) String author,
-            @Parameter(description = "Genre filter") @RequestParam(required = false) String genre,
+            @Parameter(description = "Title prefix (case-insensitive)") @RequestParam(required = false) String title,
+            @Parameter(description = "Author prefix (case-insensitive)") @RequestParam(required = false) String author,
+            @Parameter(description = "Genre (case-insensitive exact match)") @RequestParam(required = false) String genre,
             @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
             @Parameter(description = "Minimum publication year") @RequestParam(required = false) Integer minYear,
@@ -107,7 +108,7 @@ public class BookController {
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
 
-        logger.info("Advanced search with filters");
+        logger.debug("Advanced search with filters");
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : 
@@ -117,7 +118,7 @@ public class BookController {
         Page<Book> booksPage = bookService.searchBooksWithFilters(
             title, author, genre, minPrice, maxPrice, minYear, maxYear, available, pageable);
         
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = new BookPageResponse();
         response.put("books", booksPage.getContent());
         response.put("currentPage", booksPage.getNumber());
         response.put("totalItems", booksPage.getTotalElements());
@@ -142,12 +143,12 @@ public class BookController {
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
 
-        logger.info("Full-text search for: {}", q);
+        logger.debug("Full-text search for: {}", q);
         
         Pageable pageable = PageRequest.of(page, size);
         Page<Book> booksPage = bookService.fullTextSearch(q, pageable);
         
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = new BookPageResponse();
         response.put("books", booksPage.getContent());
         response.put("currentPage", booksPage.getNumber());
         response.put("totalItems", booksPage.getTotalElements());
@@ -157,6 +158,46 @@ public class BookController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Substring search", description = "Search books whose title or author contains a term, ignoring case")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    @GetMapping("/search/contains")
+    public ResponseEntity<Map<String, Object>> containsSearch(
+            @Parameter(description = "Term contained in the title") @RequestParam(required = false) String title,
+            @Parameter(description = "Term contained in the author, used when no title is given") @RequestParam(required = false) String author,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
+
+        if (title == null && author == null) {
+            throw new IllegalArgumentException("Either title or author is required");
+        }
+        logger.debug("Substring search for title: {}, author: {}", title, author);
+
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Book> booksPage = title != null
+                ? bookService.searchByTitle(title, pageable)
+                : bookService.searchByAuthor(author, pageable);
+
+        Map<String, Object> response = new BookPageResponse();
+        response.put("books", booksPage.getContent());
+        response.put("currentPage", booksPage.getNumber());
+        response.put("totalItems", booksPage.getTotalElements());
+        response.put("totalPages", booksPage.getTotalPages());
+        response.put("searchTerm", title != null ? title : author);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Fuzzy search", description = "Books whose title or author resembles the query, tolerating typos, closest first")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<Book>> fuzzySearch(
+            @Parameter(description = "Search query", required = true) @RequestParam String q,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "10") int limit) {
+
+        logger.debug("Fuzzy search for: {}", q);
+        return ResponseEntity.ok(bookService.fuzzySearch(q, Math.max(1, Math.min(limit, 100))));
+    }
+
     @Operation(summary = "Get book by ID", description = "Retrieve a specific book by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Book found"),
@@ -165,7 +206,7 @@ public class BookController {
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(
             @Parameter(description = "Book ID", required = true) @PathVariable Long id) {
-        logger.info("Fetching book with id: {}", id);
+        logger.debug("Fetching book with id: {}", id);
         Book book = bookService.getBookById(id);
         return ResponseEntity.ok(book);
     }
@@ -175,11 +216,24 @@ public class BookController {
     @GetMapping("/author/{author}")
     public ResponseEntity<List<Book>> getBooksByAuthor(
             @Parameter(description = "Author name", required = true) @PathVariable String author) {
-        logger.info("Fetching books by author: {}", author);
+        logger.debug("Fetching books by author: {}", author);
         List<Book> books = bookService.getBooksByAuthor(author);
         return ResponseEntity.ok(books);
     }
 
+    @Operation(summary = "Similar books", description = "Books with a similar description, genre and author, most similar first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Similar books retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Book not found")
+    })
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<Book>> getSimilarBooks(
+            @Parameter(description = "Book ID", required = true) @PathVariable Long id,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "10") int limit) {
+        logger.debug("Fetching books similar to id: {}", id);
+        return ResponseEntity.ok(bookService.getSimilarBooks(id, Math.max(1, Math.min(limit, 100))));
+    }
+
     @Operation(summary = "Update book", description = "Update an existing book")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Book updated successfully"),
@@ -217,7 +271,7 @@ public class BookController {
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getBookStats() {
-        logger.info("Fetching book statistics");
+        logger.debug("Fetching book statistics");
         
         Map<String, Object> stats = bookService.getBookStatistics();
         
@@ -229,7 +283,7 @@ public class BookController {
     @GetMapping("/exists/{id}")
     public ResponseEntity<Map<String, Boolean>> checkBookExists(
             @Parameter(description = "Book ID", required = true) @PathVariable Long id) {
-        logger.info("Checking if book exists with id: {}", id);
+        logger.debug("Checking if book exists with id: {}", id);
         
         boolean exists = bookService.existsById(id);
         Map<String, Boolean> response = new HashMap<>();
@@ -245,12 +299,12 @@ public class BookController {
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
         
-        logger.info("Fetching available books");
+        logger.debug("Fetching available books");
         
         Pageable pageable = PageRequest.of(page, size);
         Page<Book> availableBooks = bookService.getAvailableBooks(pageable);
         
-        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> response = new BookPageResponse();
         response.put("books", availableBooks.getContent());
         response.put("currentPage", availableBooks.getNumber());
         response.put("totalItems", availableBooks.getTotalElements());
@@ -0,0 +1,109 @@
+package com.example.SpringTest.controller;
+
+import com.example.SpringTest.catalog.CatalogSnapshotExporter;
+import com.example.SpringTest.catalog.CatalogSnapshotWriter;
+import com.example.SpringTest.catalog.MappedCatalogStore;
+import com.example.SpringTest.exception.BookNotFoundException;
+import com.example.SpringTest.model.Book;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Tag(name = "Catalog Snapshot", description = "Read-only book lookups served from a memory-mapped catalog snapshot")
+@RestController
+@RequestMapping("/api/v1/catalog")
+@CrossOrigin(origins = "*")
+public class CatalogSnapshotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotController.class);
+
+    @Autowired
+    private MappedCatalogStore catalogStore;
+
+    @Autowired
+    private CatalogSnapshotExporter snapshotExporter;
+
+    @Operation(summary = "Get book by ID from the snapshot", description = "Served without the database or Redis")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Book found"),
+        @ApiResponse(responseCode = "404", description = "Book not in the snapshot"),
+        @ApiResponse(responseCode = "503", description = "No snapshot loaded")
+    })
+    @GetMapping("/books/{id}")
+    public ResponseEntity<?> getBookById(@Parameter(description = "Book ID") @PathVariable Long id) {
+        if (!catalogStore.isAvailable()) {
+            return unavailable();
+        }
+        Book book = catalogStore.findById(id).orElseThrow(() -> BookNotFoundException.forId(id));
+        return ResponseEntity.ok(book);
+    }
+
+    @Operation(summary = "Get books by author from the snapshot")
+    @GetMapping("/books/author/{author}")
+    public ResponseEntity<?> getBooksByAuthor(@Parameter(description = "Author name") @PathVariable String author) {
+        if (!catalogStore.isAvailable()) {
+            return unavailable();
+        }
+        List<Book> books = catalogStore.findByAuthor(author);
+        return ResponseEntity.ok(books);
+    }
+
+    @Operation(summary = "Get books by genre from the snapshot")
+    @GetMapping("/books/genre/{genre}")
+    public ResponseEntity<?> getBooksByGenre(@Parameter(description = "Genre") @PathVariable String genre) {
+        if (!catalogStore.isAvailable()) {
+            return unavailable();
+        }
+        List<Book> books = catalogStore.findByGenre(genre);
+        return ResponseEntity.ok(books);
+    }
+
+    @Operation(summary = "Snapshot status", description = "Size and age of the mapped catalog snapshot")
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() {
+        return ResponseEntity.ok(catalogStore.info());
+    }
+
+    @Operation(summary = "Export snapshot", description = "Write a new catalog snapshot from the database now")
+    @PostMapping("/snapshot/export")
+    public ResponseEntity<Map<String, Object>> export() {
+        logger.info("Catalog snapshot export requested");
+        CatalogSnapshotWriter.Summary summary = snapshotExporter.export();
+        Map<String, Object> response = new HashMap<>();
+        response.put("path", summary.path().toString());
+        response.put("books", summary.books());
+        response.put("authors", summary.authors());
+        response.put("genres", summary.genres());
+        response.put("bytes", summary.bytes());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Reload snapshot", description = "Map the snapshot file again if it changed on disk")
+    @PostMapping("/snapshot/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        boolean reloaded = catalogStore.reloadIfChanged();
+        Map<String, Object> response = new HashMap<>(catalogStore.info());
+        response.put("reloaded", reloaded);
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> unavailable() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Unavailable");
+        response.put("message", "No catalog snapshot is loaded");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+}
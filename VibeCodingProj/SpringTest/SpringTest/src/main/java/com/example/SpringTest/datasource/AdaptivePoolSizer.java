@@ -0,0 +1,216 @@
+package com.example.SpringTest.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the Hikari pool at runtime from its own pending-thread count and the
+ * {@code hikaricp.connections.acquire} / {@code hikaricp.connections.usage} timers, within
+ * the {@code app.datasource.adaptive.*} bounds. Growth takes effect immediately; shrinking
+ * lowers the limits and Hikari retires surplus idle connections after {@code idle-timeout}.
+ */
+@Component
+public class AdaptivePoolSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.datasource.adaptive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.datasource.adaptive.min-size:5}")
+    private int minSize;
+
+    @Value("${app.datasource.adaptive.max-size:40}")
+    private int maxSize;
+
+    @Value("${app.datasource.adaptive.min-idle:2}")
+    private int minIdle;
+
+    @Value("${app.datasource.adaptive.target-acquire-time:5ms}")
+    private Duration targetAcquireTime;
+
+    @Value("${app.datasource.adaptive.headroom:1.25}")
+    private double headroom;
+
+    @Value("${app.datasource.adaptive.grow-step:4}")
+    private int growStep;
+
+    @Value("${app.datasource.adaptive.shrink-step:2}")
+    private int shrinkStep;
+
+    @Value("${app.datasource.adaptive.shrink-after-intervals:6}")
+    private int shrinkAfterIntervals;
+
+    private PoolSizingPolicy policy;
+    private HikariDataSource hikari;
+    private long lastTickNanos;
+    private long lastAcquireCount;
+    private double lastAcquireMillis;
+    private long lastUsageCount;
+    private double lastUsageMillis;
+    private volatile int lastDemand;
+    private Counter growCounter;
+    private Counter shrinkCounter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                logger.info("Adaptive pool sizing disabled: data source is not a Hikari pool");
+                return;
+            }
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            logger.warn("Adaptive pool sizing disabled: cannot unwrap data source", e);
+            return;
+        }
+
+        policy = new PoolSizingPolicy(new PoolSizingPolicy.Bounds(minSize, maxSize, minIdle,
+                targetAcquireTime, headroom, growStep, shrinkStep, shrinkAfterIntervals));
+
+        String pool = hikari.getPoolName();
+        Gauge.builder("hikaricp.adaptive.max.size", hikari, HikariDataSource::getMaximumPoolSize)
+                .description("Maximum pool size currently chosen by the adaptive sizer")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("hikaricp.adaptive.min.idle", hikari, HikariDataSource::getMinimumIdle)
+                .description("Minimum idle connections currently chosen by the adaptive sizer")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("hikaricp.adaptive.demand", this, s -> s.lastDemand)
+                .description("Estimated concurrent connection demand including headroom")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        growCounter = Counter.builder("hikaricp.adaptive.resizes")
+                .description("Pool resize decisions")
+                .tag("pool", pool)
+                .tag("action", "grow")
+                .register(meterRegistry);
+        shrinkCounter = Counter.builder("hikaricp.adaptive.resizes")
+                .description("Pool resize decisions")
+                .tag("pool", pool)
+                .tag("action", "shrink")
+                .register(meterRegistry);
+
+        lastTickNanos = System.nanoTime();
+        logger.info("Adaptive pool sizing enabled for {} (bounds {}-{}, starting at {})",
+                pool, minSize, maxSize, hikari.getMaximumPoolSize());
+    }
+
+    @Scheduled(initialDelayString = "${app.datasource.adaptive.interval-ms:5000}",
+               fixedDelayString = "${app.datasource.adaptive.interval-ms:5000}")
+    public void adjust() {
+        if (policy == null) {
+            return;
+        }
+        HikariPoolMXBean poolBean = hikari.getHikariPoolMXBean();
+        if (poolBean == null) {
+            // Pool has not been started yet
+            return;
+        }
+        PoolSizingPolicy.Decision decision = policy.decide(hikari.getMaximumPoolSize(), sample(poolBean));
+        lastDemand = decision.demand();
+        apply(decision);
+    }
+
+    private PoolSizingPolicy.Sample sample(HikariPoolMXBean poolBean) {
+        long now = System.nanoTime();
+        Duration interval = Duration.ofNanos(now - lastTickNanos);
+        lastTickNanos = now;
+
+        long acquisitions = 0;
+        double meanAcquire = 0;
+        Timer acquire = timer("hikaricp.connections.acquire");
+        if (acquire != null) {
+            long count = acquire.count();
+            double total = acquire.totalTime(TimeUnit.MILLISECONDS);
+            acquisitions = count - lastAcquireCount;
+            meanAcquire = acquisitions > 0 ? (total - lastAcquireMillis) / acquisitions : 0;
+            lastAcquireCount = count;
+            lastAcquireMillis = total;
+        }
+
+        double meanUsage = 0;
+        Timer usage = timer("hikaricp.connections.usage");
+        if (usage != null) {
+            long count = usage.count();
+            double total = usage.totalTime(TimeUnit.MILLISECONDS);
+            long returned = count - lastUsageCount;
+            meanUsage = returned > 0 ? (total - lastUsageMillis) / returned : 0;
+            lastUsageCount = count;
+            lastUsageMillis = total;
+        }
+
+        return new PoolSizingPolicy.Sample(poolBean.getActiveConnections(), poolBean.getIdleConnections(),
+                poolBean.getThreadsAwaitingConnection(), acquisitions, interval, meanAcquire, meanUsage);
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.find(name).tag("pool", hikari.getPoolName()).timer();
+    }
+
+    private void apply(PoolSizingPolicy.Decision decision) {
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        int previousMaximum = config.getMaximumPoolSize();
+        int previousMinimumIdle = config.getMinimumIdle();
+        // Holding keeps min-idle where it is too, otherwise it would follow every blip in demand
+        if (decision.maximumPoolSize() == previousMaximum
+                && (decision.action() == PoolSizingPolicy.Action.HOLD || decision.minimumIdle() == previousMinimumIdle)) {
+            logger.trace("Pool {} unchanged at {}: {}", hikari.getPoolName(), previousMaximum, decision.reason());
+            return;
+        }
+
+        // Keep minimumIdle <= maximumPoolSize at every step, Hikari rejects the opposite
+        if (decision.maximumPoolSize() >= previousMaximum) {
+            config.setMaximumPoolSize(decision.maximumPoolSize());
+            config.setMinimumIdle(decision.minimumIdle());
+        } else {
+            config.setMinimumIdle(decision.minimumIdle());
+            config.setMaximumPoolSize(decision.maximumPoolSize());
+        }
+
+        if (decision.action() == PoolSizingPolicy.Action.GROW) {
+            growCounter.increment();
+        } else if (decision.action() == PoolSizingPolicy.Action.SHRINK) {
+            shrinkCounter.increment();
+        }
+        logger.info("Pool {} resized max {} -> {}, min-idle {} -> {} (demand {}): {}",
+                hikari.getPoolName(), previousMaximum, decision.maximumPoolSize(),
+                previousMinimumIdle, decision.minimumIdle(), decision.demand(), decision.reason());
+        eventPublisher.publishEvent(new PoolResizedEvent(hikari.getPoolName(), decision.action(),
+                previousMaximum, decision.maximumPoolSize(), previousMinimumIdle, decision.minimumIdle(),
+                decision.demand(), decision.reason(), Instant.now()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.SpringTest.datasource;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link AdaptivePoolSizer} whenever it changes the pool's maximum size or
+ * minimum idle count.
+ */
+public record PoolResizedEvent(String poolName, PoolSizingPolicy.Action action,
+                               int previousMaximumPoolSize, int maximumPoolSize,
+                               int previousMinimumIdle, int minimumIdle,
+                               int demand, String reason, Instant timestamp) {
+}
@@ -0,0 +1,111 @@
+package com.example.SpringTest.datasource;
+
+import java.time.Duration;
+
+/**
+ * Decides the next Hikari pool size from one sampling interval. Demand is estimated with
+ * Little's law (acquisitions per second x mean time a connection is held, plus headroom);
+ * the pool grows as soon as threads queue or acquisition gets slow, and only shrinks after
+ * several consecutive quiet intervals so short lulls do not cause churn.
+ * <p>
+ * Not thread-safe; a single scheduler drives it.
+ */
+public class PoolSizingPolicy {
+
+    public enum Action {
+        GROW, SHRINK, HOLD
+    }
+
+    public record Bounds(int minSize, int maxSize, int minIdleFloor, Duration targetAcquireTime,
+                         double headroom, int growStep, int shrinkStep, int shrinkAfterIntervals) {
+
+        public Bounds {
+            if (minSize < 1 || maxSize < minSize) {
+                throw new IllegalArgumentException("Pool bounds must satisfy 1 <= min-size <= max-size");
+            }
+            if (minIdleFloor < 0 || minIdleFloor > minSize) {
+                throw new IllegalArgumentException("min-idle must be between 0 and min-size");
+            }
+            if (headroom < 1.0 || growStep < 1 || shrinkStep < 1 || shrinkAfterIntervals < 1) {
+                throw new IllegalArgumentException("headroom must be >= 1 and steps/intervals must be positive");
+            }
+        }
+    }
+
+    /**
+     * Pool state at the end of an interval plus timer deltas over that interval.
+     */
+    public record Sample(int active, int idle, int pending, long acquisitions, Duration interval,
+                         double meanAcquireMillis, double meanUsageMillis) {
+    }
+
+    public record Decision(Action action, int maximumPoolSize, int minimumIdle, int demand, String reason) {
+    }
+
+    private final Bounds bounds;
+    private int quietIntervals;
+
+    public PoolSizingPolicy(Bounds bounds) {
+        this.bounds = bounds;
+    }
+
+    public Bounds getBounds() {
+        return bounds;
+    }
+
+    public Decision decide(int currentMaximum, Sample sample) {
+        int demand = estimateDemand(sample);
+        boolean queueing = sample.pending() > 0;
+        boolean slowAcquire = sample.acquisitions() > 0
+                && sample.meanAcquireMillis() > bounds.targetAcquireTime().toMillis();
+
+        if (queueing || slowAcquire) {
+            quietIntervals = 0;
+            int target = clamp(Math.max(currentMaximum + bounds.growStep(), demand));
+            String reason = queueing
+                    ? sample.pending() + " threads waiting for a connection"
+                    : String.format("mean acquire %.1f ms above target %d ms",
+                            sample.meanAcquireMillis(), bounds.targetAcquireTime().toMillis());
+            if (target > currentMaximum) {
+                return decision(Action.GROW, target, demand, reason);
+            }
+            return decision(Action.HOLD, currentMaximum, demand, reason + ", already at max-size");
+        }
+
+        int target = clamp(demand);
+        if (target < currentMaximum) {
+            quietIntervals++;
+            if (quietIntervals >= bounds.shrinkAfterIntervals()) {
+                quietIntervals = 0;
+                int shrunk = Math.max(target, currentMaximum - bounds.shrinkStep());
+                return decision(Action.SHRINK, shrunk, demand,
+                        "demand " + demand + " below pool size for " + bounds.shrinkAfterIntervals() + " intervals");
+            }
+            return decision(Action.HOLD, currentMaximum, demand, "waiting for sustained low demand");
+        }
+
+        quietIntervals = 0;
+        return decision(Action.HOLD, clamp(currentMaximum), demand, "pool matches demand");
+    }
+
+    int estimateDemand(Sample sample) {
+        double seconds = sample.interval().toNanos() / 1_000_000_000.0;
+        double concurrency = 0;
+        if (seconds > 0 && sample.acquisitions() > 0) {
+            double arrivalRate = sample.acquisitions() / seconds;
+            concurrency = arrivalRate * (sample.meanUsageMillis() / 1000.0);
+        }
+        // What is checked out or queued right now is a hard lower bound on demand
+        double observed = Math.max(concurrency, sample.active() + sample.pending());
+        return (int) Math.ceil(observed * bounds.headroom());
+    }
+
+    private Decision decision(Action action, int maximum, int demand, String reason) {
+        int minimumIdle = Math.max(bounds.minIdleFloor(), Math.min(demand, maximum));
+        return new Decision(action, maximum, minimumIdle, demand, reason);
+    }
+
+    private int clamp(int size) {
+        return Math.max(bounds.minSize(), Math.min(bounds.maxSize(), size));
+    }
+}
@@ -8,4 +8,13 @@ public class BookNotFoundException extends RuntimeException{
     public BookNotFoundException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    private BookNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    // Misses are routine (and often probed), so skip filling in the stack trace
+    public static BookNotFoundException forId(Long id) {
+        return new BookNotFoundException("Book not found with id: " + id, false);
+    }
 }
@@ -3,7 +3,9 @@ package com.example.SpringTest.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,13 +15,17 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Error bodies are always written as JSON: they are plain maps, which the binary converters
+ * (protobuf in particular) do not write, and the status must survive whatever the client accepts.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     @ExceptionHandler(BookNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleBookNotFoundException(BookNotFoundException e, WebRequest request) {
-        logger.error("Book not found exception: {}", e.getMessage());
+        logger.debug("Book not found exception: {}", e.getMessage());
         
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("timestamp", LocalDateTime.now());
@@ -28,7 +34,7 @@ public class GlobalExceptionHandler {
         errorResponse.put("message", e.getMessage());
         errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
         
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -42,7 +48,7 @@ public class GlobalExceptionHandler {
         errorResponse.put("message", e.getMessage());
         errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
         
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -62,7 +68,21 @@ public class GlobalExceptionHandler {
         errorResponse.put("fieldErrors", fieldErrors);
         errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
         
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<Map<String, Object>> handleNotAcceptableException(HttpMediaTypeNotAcceptableException e, WebRequest request) {
+        logger.debug("Not acceptable: {}", e.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.NOT_ACCEPTABLE.value());
+        errorResponse.put("error", "Not Acceptable");
+        errorResponse.put("message", "This response is not available as " + request.getHeader("Accept"));
+        errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
+        
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     @ExceptionHandler(Exception.class)
@@ -76,6 +96,6 @@ public class GlobalExceptionHandler {
         errorResponse.put("message", "An unexpected error occurred. Please try again later.");
         errorResponse.put("path", request.getDescription(false).replace("uri=", ""));
         
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.SpringTest.http;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Representations negotiated by the book endpoints via {@code Accept}/{@code Content-Type}.
+ * CBOR and Smile carry the same field names as the JSON representation; Protobuf follows
+ * {@code proto/books/v1/books.proto}. All of them are versioned together by
+ * {@link #SCHEMA_VERSION}, reported in the {@link #SCHEMA_VERSION_HEADER} response header.
+ */
+public final class BookMediaTypes {
+
+    public static final int SCHEMA_VERSION = 1;
+    public static final String SCHEMA_VERSION_HEADER = "X-Book-Schema-Version";
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private BookMediaTypes() {}
+}
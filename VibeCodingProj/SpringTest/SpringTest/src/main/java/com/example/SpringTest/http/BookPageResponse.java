@@ -0,0 +1,12 @@
+package com.example.SpringTest.http;
+
+import java.util.HashMap;
+
+/**
+ * A page of books as returned by the paged endpoints: {@code books} plus paging fields such
+ * as {@code currentPage}, {@code totalItems} and {@code totalPages}. It serializes like any
+ * other map in JSON, CBOR and Smile. The distinct type is what lets the protobuf converter
+ * accept pages without claiming every map response, such as error bodies or statistics.
+ */
+public class BookPageResponse extends HashMap<String, Object> {
+}
@@ -0,0 +1,266 @@
+package com.example.SpringTest.http;
+
+import com.example.SpringTest.model.Book;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-mapped encoder/decoder for the messages in {@code proto/books/v1/books.proto}, so the
+ * service needs no generated classes while clients can generate theirs from the schema.
+ * Decoders skip unknown field numbers, which keeps them compatible with later schema versions.
+ */
+public final class BookProtobufCodec {
+
+    // Book
+    private static final int BOOK_ID = 1;
+    private static final int BOOK_TITLE = 2;
+    private static final int BOOK_AUTHOR = 3;
+    private static final int BOOK_ISBN = 4;
+    private static final int BOOK_DESCRIPTION = 5;
+    private static final int BOOK_PUBLICATION_YEAR = 6;
+    private static final int BOOK_GENRE = 7;
+    private static final int BOOK_PRICE_CENTS = 8;
+    private static final int BOOK_STOCK_QUANTITY = 9;
+    private static final int BOOK_AVAILABLE = 10;
+    private static final int BOOK_CREATED_AT = 11;
+    private static final int BOOK_UPDATED_AT = 12;
+
+    // BookList / BookPage
+    private static final int BOOKS = 1;
+    private static final int PAGE_CURRENT_PAGE = 2;
+    private static final int PAGE_TOTAL_ITEMS = 3;
+    private static final int PAGE_TOTAL_PAGES = 4;
+    private static final int PAGE_PAGE_SIZE = 5;
+    private static final int PAGE_HAS_NEXT = 6;
+    private static final int PAGE_HAS_PREVIOUS = 7;
+    private static final int PAGE_SEARCH_TERM = 8;
+
+    private BookProtobufCodec() {}
+
+    public static void writeBook(Book book, CodedOutputStream out) throws IOException {
+        if (book.getId() != null) {
+            out.writeInt64(BOOK_ID, book.getId());
+        }
+        if (book.getTitle() != null) {
+            out.writeString(BOOK_TITLE, book.getTitle());
+        }
+        if (book.getAuthor() != null) {
+            out.writeString(BOOK_AUTHOR, book.getAuthor());
+        }
+        if (book.getIsbn() != null) {
+            out.writeString(BOOK_ISBN, book.getIsbn());
+        }
+        if (book.getDescription() != null) {
+            out.writeString(BOOK_DESCRIPTION, book.getDescription());
+        }
+        if (book.getPublicationYear() != null) {
+            out.writeInt32(BOOK_PUBLICATION_YEAR, book.getPublicationYear());
+        }
+        if (book.getGenre() != null) {
+            out.writeString(BOOK_GENRE, book.getGenre());
+        }
+        if (book.getPrice() != null) {
+            out.writeInt64(BOOK_PRICE_CENTS, toCents(book.getPrice()));
+        }
+        if (book.getStockQuantity() != null) {
+            out.writeInt32(BOOK_STOCK_QUANTITY, book.getStockQuantity());
+        }
+        if (book.getAvailable() != null) {
+            out.writeBool(BOOK_AVAILABLE, book.getAvailable());
+        }
+        if (book.getCreatedAt() != null) {
+            out.writeInt64(BOOK_CREATED_AT, toMicros(book.getCreatedAt()));
+        }
+        if (book.getUpdatedAt() != null) {
+            out.writeInt64(BOOK_UPDATED_AT, toMicros(book.getUpdatedAt()));
+        }
+    }
+
+    public static int bookSize(Book book) {
+        int size = 0;
+        if (book.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(BOOK_ID, book.getId());
+        }
+        if (book.getTitle() != null) {
+            size += CodedOutputStream.computeStringSize(BOOK_TITLE, book.getTitle());
+        }
+        if (book.getAuthor() != null) {
+            size += CodedOutputStream.computeStringSize(BOOK_AUTHOR, book.getAuthor());
+        }
+        if (book.getIsbn() != null) {
+            size += CodedOutputStream.computeStringSize(BOOK_ISBN, book.getIsbn());
+        }
+        if (book.getDescription() != null) {
+            size += CodedOutputStream.computeStringSize(BOOK_DESCRIPTION, book.getDescription());
+        }
+        if (book.getPublicationYear() != null) {
+            size += CodedOutputStream.computeInt32Size(BOOK_PUBLICATION_YEAR, book.getPublicationYear());
+        }
+        if (book.getGenre() != null) {
+            size += CodedOutputStream.computeStringSize(BOOK_GENRE, book.getGenre());
+        }
+        if (book.getPrice() != null) {
+            size += CodedOutputStream.computeInt64Size(BOOK_PRICE_CENTS, toCents(book.getPrice()));
+        }
+        if (book.getStockQuantity() != null) {
+            size += CodedOutputStream.computeInt32Size(BOOK_STOCK_QUANTITY, book.getStockQuantity());
+        }
+        if (book.getAvailable() != null) {
+            size += CodedOutputStream.computeBoolSize(BOOK_AVAILABLE, book.getAvailable());
+        }
+        if (book.getCreatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(BOOK_CREATED_AT, toMicros(book.getCreatedAt()));
+        }
+        if (book.getUpdatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(BOOK_UPDATED_AT, toMicros(book.getUpdatedAt()));
+        }
+        return size;
+    }
+
+    /**
+     * Writes a {@code BookList}.
+     */
+    public static void writeBookList(List<?> books, CodedOutputStream out) throws IOException {
+        writeBooks(books, out);
+    }
+
+    /**
+     * Writes a {@code BookPage} from the envelope map built by {@code BookController}.
+     */
+    public static void writeBookPage(Map<?, ?> page, CodedOutputStream out) throws IOException {
+        if (!(page.get("books") instanceof List<?> books)) {
+            throw new IllegalArgumentException("Only paged book responses can be written as protobuf");
+        }
+        writeBooks(books, out);
+        if (page.get("currentPage") instanceof Number number) {
+            out.writeInt32(PAGE_CURRENT_PAGE, number.intValue());
+        }
+        if (page.get("totalItems") instanceof Number number) {
+            out.writeInt64(PAGE_TOTAL_ITEMS, number.longValue());
+        }
+        if (page.get("totalPages") instanceof Number number) {
+            out.writeInt32(PAGE_TOTAL_PAGES, number.intValue());
+        }
+        if (page.get("pageSize") instanceof Number number) {
+            out.writeInt32(PAGE_PAGE_SIZE, number.intValue());
+        }
+        if (page.get("hasNext") instanceof Boolean value) {
+            out.writeBool(PAGE_HAS_NEXT, value);
+        }
+        if (page.get("hasPrevious") instanceof Boolean value) {
+            out.writeBool(PAGE_HAS_PREVIOUS, value);
+        }
+        if (page.get("searchTerm") instanceof String value) {
+            out.writeString(PAGE_SEARCH_TERM, value);
+        }
+    }
+
+    private static void writeBooks(List<?> books, CodedOutputStream out) throws IOException {
+        for (Object element : books) {
+            if (!(element instanceof Book book)) {
+                throw new IllegalArgumentException("Expected a list of books, found " + element);
+            }
+            out.writeTag(BOOKS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(bookSize(book));
+            writeBook(book, out);
+        }
+    }
+
+    public static Book readBook(CodedInputStream in) throws IOException {
+        Book book = new Book();
+        while (true) {
+            int tag = in.readTag();
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 0 -> {
+                    return book;
+                }
+                case BOOK_ID -> book.setId(in.readInt64());
+                case BOOK_TITLE -> book.setTitle(in.readString());
+                case BOOK_AUTHOR -> book.setAuthor(in.readString());
+                case BOOK_ISBN -> book.setIsbn(in.readString());
+                case BOOK_DESCRIPTION -> book.setDescription(in.readString());
+                case BOOK_PUBLICATION_YEAR -> book.setPublicationYear(in.readInt32());
+                case BOOK_GENRE -> book.setGenre(in.readString());
+                case BOOK_PRICE_CENTS -> book.setPrice(BigDecimal.valueOf(in.readInt64(), 2));
+                case BOOK_STOCK_QUANTITY -> book.setStockQuantity(in.readInt32());
+                case BOOK_AVAILABLE -> book.setAvailable(in.readBool());
+                case BOOK_CREATED_AT -> book.setCreatedAt(fromMicros(in.readInt64()));
+                case BOOK_UPDATED_AT -> book.setUpdatedAt(fromMicros(in.readInt64()));
+                default -> in.skipField(tag);
+            }
+        }
+    }
+
+    public static List<Book> readBookList(CodedInputStream in) throws IOException {
+        List<Book> books = new ArrayList<>();
+        while (true) {
+            int tag = in.readTag();
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (field == 0) {
+                return books;
+            }
+            if (field == BOOKS) {
+                books.add(readNestedBook(in));
+            } else {
+                in.skipField(tag);
+            }
+        }
+    }
+
+    /**
+     * Reads a {@code BookPage} back into the same map shape the controller returns.
+     */
+    public static Map<String, Object> readBookPage(CodedInputStream in) throws IOException {
+        Map<String, Object> page = new LinkedHashMap<>();
+        List<Book> books = new ArrayList<>();
+        page.put("books", books);
+        while (true) {
+            int tag = in.readTag();
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 0 -> {
+                    return page;
+                }
+                case BOOKS -> books.add(readNestedBook(in));
+                case PAGE_CURRENT_PAGE -> page.put("currentPage", in.readInt32());
+                case PAGE_TOTAL_ITEMS -> page.put("totalItems", in.readInt64());
+                case PAGE_TOTAL_PAGES -> page.put("totalPages", in.readInt32());
+                case PAGE_PAGE_SIZE -> page.put("pageSize", in.readInt32());
+                case PAGE_HAS_NEXT -> page.put("hasNext", in.readBool());
+                case PAGE_HAS_PREVIOUS -> page.put("hasPrevious", in.readBool());
+                case PAGE_SEARCH_TERM -> page.put("searchTerm", in.readString());
+                default -> in.skipField(tag);
+            }
+        }
+    }
+
+    private static Book readNestedBook(CodedInputStream in) throws IOException {
+        int limit = in.pushLimit(in.readRawVarint32());
+        Book book = readBook(in);
+        in.popLimit(limit);
+        return book;
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
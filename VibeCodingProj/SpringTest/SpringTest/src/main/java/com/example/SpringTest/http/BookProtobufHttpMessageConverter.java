@@ -0,0 +1,103 @@
+package com.example.SpringTest.http;
+
+import com.example.SpringTest.model.Book;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads a {@code Book} request body and writes {@code Book}, {@code BookList} and
+ * {@code BookPage} responses as {@code application/x-protobuf}. Pages must be returned as
+ * {@link BookPageResponse}, and lists must be declared as lists of {@code Book}. Other maps and
+ * lists, such as error bodies and statistics, have no protobuf schema. This converter declines
+ * them, so negotiation falls back to another representation or answers 406.
+ */
+public class BookProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final int OUTPUT_BUFFER_SIZE = 8 * 1024;
+
+    public BookProtobufHttpMessageConverter() {
+        super(BookMediaTypes.PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Book.class.isAssignableFrom(clazz) || BookPageResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return Book.class.isAssignableFrom(clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return type instanceof Class<?> clazz && canRead(clazz, mediaType);
+    }
+
+    // The value's class says nothing about its elements, so lists are judged by their declared type
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (List.class.isAssignableFrom(clazz)) {
+            return isBookList(type) && canWrite(mediaType);
+        }
+        return canWrite(clazz, mediaType);
+    }
+
+    // Asked with the value's class once canWrite(Type, ...) has accepted a list
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : super.getSupportedMediaTypes(clazz);
+    }
+
+    private static boolean isBookList(@Nullable Type type) {
+        if (type == null) {
+            return false;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element != null && Book.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(Book.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return BookProtobufCodec.readBook(CodedInputStream.newInstance(inputMessage.getBody()));
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Malformed protobuf Book: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), OUTPUT_BUFFER_SIZE);
+        try {
+            if (value instanceof Book book) {
+                BookProtobufCodec.writeBook(book, out);
+            } else if (value instanceof List<?> books) {
+                BookProtobufCodec.writeBookList(books, out);
+            } else if (value instanceof BookPageResponse page) {
+                BookProtobufCodec.writeBookPage(page, out);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotWritableException(e.getMessage(), e);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.SpringTest.http;
+
+import com.example.SpringTest.controller.BookController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Tags every book API response with the representation schema version, whichever format
+ * was negotiated, so binary clients can detect a schema they were not built for.
+ */
+@ControllerAdvice(assignableTypes = BookController.class)
+public class BookSchemaVersionAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String VERSION = String.valueOf(BookMediaTypes.SCHEMA_VERSION);
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(BookMediaTypes.SCHEMA_VERSION_HEADER, VERSION);
+        return body;
+    }
+}
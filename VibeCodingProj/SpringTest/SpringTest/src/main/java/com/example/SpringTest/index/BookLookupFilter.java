@@ -0,0 +1,219 @@
+package com.example.SpringTest.index;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory membership filter over existing book ids, used to answer definite misses
+ * without a database round trip.
+ *
+ * The filter is built from the database once the application is ready and kept current
+ * from the {@code BookService} write path. Deletes cannot be removed from a Bloom filter, so
+ * they only count towards a background rebuild.
+ *
+ * Rows inserted outside the service (the H2 console, JDBC bulk loads, the legacy migrator) are
+ * never added. Ids are generated by the database, so such a row first sits above the highest
+ * id the filter knows, and those ids always fall through to the database. When a later service
+ * write skips past ids the filter never saw, that range is marked unseen: lookups in it keep
+ * going to the database, and a rebuild is requested, which reads the rows committed by then.
+ *
+ * ISBNs are deliberately not filtered. The only ISBN check is the uniqueness check on create,
+ * which has to be answered by the database, since a row inserted outside the service would
+ * otherwise only surface as a unique constraint violation.
+ */
+@Component
+public class BookLookupFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookLookupFilter.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.lookup-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.lookup-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${app.lookup-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Rebuild once this fraction of the filter consists of deleted entries
+    @Value("${app.lookup-filter.rebuild-stale-ratio:0.2}")
+    private double rebuildStaleRatio;
+
+    private volatile Snapshot current;
+    private volatile Snapshot building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object buildLock = new Object();
+
+    private Counter rejectedIds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rejectedIds = Counter.builder("books.lookup.filter.rejections")
+                .description("Lookups answered as not found without a database query")
+                .tag("key", "id")
+                .register(meterRegistry);
+        Gauge.builder("books.lookup.filter.entries", this, f -> f.current == null ? 0 : f.current.entries.get())
+                .description("Entries added to the current lookup filter")
+                .register(meterRegistry);
+
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean mightContainId(Long id) {
+        Snapshot snapshot = current;
+        if (!enabled || snapshot == null || id == null || id > snapshot.maxId.get() || snapshot.isUnseen(id)) {
+            return true;
+        }
+        boolean result = snapshot.ids.mightContain(id);
+        if (!result && rejectedIds != null) {
+            rejectedIds.increment();
+        }
+        return result;
+    }
+
+    public void recordWrite(Book book) {
+        if (!enabled || book == null || book.getId() == null) {
+            return;
+        }
+        // Writes racing with a rebuild must land in the replacement as well. The replacement is
+        // read first: if it is published in between, it is also the current snapshot, and if no
+        // rebuild was running, a later one scans the database after this write has committed.
+        Snapshot next = building;
+        Snapshot snapshot = current;
+        long id = book.getId();
+        if (next != null && next != snapshot) {
+            next.add(id);
+        }
+        if (snapshot != null) {
+            long previousMax = snapshot.add(id);
+            if (id > previousMax + 1) {
+                // Another writer was handed the ids in between; a running rebuild may have missed them too
+                snapshot.markUnseen(previousMax + 1, id - 1);
+                if (next != null && next != snapshot) {
+                    next.markUnseen(previousMax + 1, id - 1);
+                }
+                requestRebuild();
+            } else if (snapshot.entries.get() > snapshot.ids.capacity()) {
+                requestRebuild();
+            }
+        }
+    }
+
+    public void recordDelete(Long id) {
+        Snapshot snapshot = current;
+        if (!enabled || snapshot == null || id == null) {
+            return;
+        }
+        long stale = snapshot.deletes.incrementAndGet();
+        if (stale > Math.max(64, snapshot.entries.get() * rebuildStaleRatio)) {
+            requestRebuild();
+        }
+    }
+
+    public void requestRebuild() {
+        if (rebuilding.get()) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuild)
+                .exceptionally(e -> {
+                    logger.warn("Lookup filter rebuild failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    // Explicit calls wait for a running rebuild and then scan again, so they see their own writes
+    public void rebuild() {
+        Snapshot next;
+        synchronized (buildLock) {
+            rebuilding.set(true);
+            try {
+                next = build();
+            } finally {
+                building = null;
+                rebuilding.set(false);
+            }
+        }
+        if (next.hasUnseen()) {
+            requestRebuild();
+        }
+    }
+
+    private Snapshot build() {
+        long start = System.nanoTime();
+        long count = bookRepository.count();
+        Snapshot next = new Snapshot(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+        building = next;
+
+        List<Long> ids = bookRepository.findAllIds();
+        for (Long id : ids) {
+            next.add(id);
+        }
+
+        current = next;
+        building = null;
+        logger.info("Lookup filter rebuilt with {} books in {} ms", ids.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return next;
+    }
+
+    private static final class Snapshot {
+        final BloomFilter ids;
+        final AtomicLong maxId = new AtomicLong(0);
+        final AtomicLong entries = new AtomicLong();
+        final AtomicLong deletes = new AtomicLong();
+        // Inclusive id ranges that may hold rows this snapshot never saw
+        final List<long[]> unseen = new CopyOnWriteArrayList<>();
+
+        Snapshot(long expectedInsertions, double falsePositiveRate) {
+            this.ids = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        // Returns the highest id known before this one
+        long add(long id) {
+            ids.add(id);
+            entries.incrementAndGet();
+            return maxId.getAndAccumulate(id, Math::max);
+        }
+
+        void markUnseen(long from, long to) {
+            unseen.add(new long[] {from, to});
+        }
+
+        boolean hasUnseen() {
+            return !unseen.isEmpty();
+        }
+
+        boolean isUnseen(long id) {
+            for (long[] range : unseen) {
+                if (id >= range[0] && id <= range[1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
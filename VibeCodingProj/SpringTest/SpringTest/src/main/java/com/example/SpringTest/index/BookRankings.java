@@ -0,0 +1,145 @@
+package com.example.SpringTest.index;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The most expensive and most recently added books, held as {@link RankedBookList}s so that
+ * the listings are served from memory.
+ *
+ * The lists are loaded once the application is ready and kept current from the
+ * {@code BookService} write path. Per-genre lists of the most expensive books are created on
+ * first use, up to {@code app.top-k.max-genre-lists}; other genres are queried directly.
+ */
+@Component
+public class BookRankings {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookRankings.class);
+
+    // Same order as the queries: price descending with unpriced books last
+    private static final Comparator<Book> BY_PRICE =
+            Comparator.comparing(Book::getPrice, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()));
+
+    private static final Comparator<Book> BY_CREATED =
+            Comparator.comparing(Book::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.top-k.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.top-k.size:10}")
+    private int size;
+
+    // Entries held beyond the listed ones, so updates and deletes rarely force a reload
+    @Value("${app.top-k.slack:10}")
+    private int slack;
+
+    @Value("${app.top-k.max-genre-lists:32}")
+    private int maxGenreLists;
+
+    private RankedBookList mostExpensive;
+    private RankedBookList recentlyAdded;
+    private volatile boolean ready;
+    private final Map<String, RankedBookList> mostExpensiveByGenre = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        mostExpensive = register(new RankedBookList("most-expensive", size, slack, BY_PRICE, book -> true,
+                n -> bookRepository.findMostExpensive(PageRequest.of(0, n))));
+        recentlyAdded = register(new RankedBookList("recently-added", size, slack, BY_CREATED, book -> true,
+                n -> bookRepository.findMostRecent(PageRequest.of(0, n))));
+        ready = true;
+        long start = System.nanoTime();
+        mostExpensive.reload();
+        recentlyAdded.reload();
+        logger.info("Top-{} book lists loaded in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Book> mostExpensive() {
+        return mostExpensive.top();
+    }
+
+    public List<Book> recentlyAdded() {
+        return recentlyAdded.top();
+    }
+
+    public List<Book> mostExpensive(String genre) {
+        String key = genre.toLowerCase(Locale.ROOT);
+        RankedBookList list = mostExpensiveByGenre.get(key);
+        if (list == null) {
+            if (mostExpensiveByGenre.size() >= maxGenreLists) {
+                return bookRepository.findMostExpensiveInGenre(key, PageRequest.of(0, size));
+            }
+            list = mostExpensiveByGenre.computeIfAbsent(key, g -> register(new RankedBookList(
+                    "most-expensive:" + g, size, slack, BY_PRICE,
+                    book -> book.getGenre() != null && book.getGenre().toLowerCase(Locale.ROOT).equals(g),
+                    n -> bookRepository.findMostExpensiveInGenre(g, PageRequest.of(0, n)))));
+        }
+        return list.top();
+    }
+
+    /**
+     * Reloads every list on its next read, for rows written outside {@code BookService}.
+     */
+    public void rebuild() {
+        if (isReady()) {
+            mostExpensive.invalidate();
+            recentlyAdded.invalidate();
+            mostExpensiveByGenre.values().forEach(RankedBookList::invalidate);
+        }
+    }
+
+    public void recordWrite(Book book) {
+        if (isReady()) {
+            mostExpensive.recordWrite(book);
+            recentlyAdded.recordWrite(book);
+            mostExpensiveByGenre.values().forEach(list -> list.recordWrite(book));
+        }
+    }
+
+    public void recordDelete(Long id) {
+        if (isReady()) {
+            mostExpensive.recordDelete(id);
+            recentlyAdded.recordDelete(id);
+            mostExpensiveByGenre.values().forEach(list -> list.recordDelete(id));
+        }
+    }
+
+    private RankedBookList register(RankedBookList list) {
+        FunctionCounter.builder("books.top.reloads", list, RankedBookList::getReloads)
+                .description("Top-K book lists reloaded from the database")
+                .tag("list", list.getName())
+                .register(meterRegistry);
+        return list;
+    }
+}
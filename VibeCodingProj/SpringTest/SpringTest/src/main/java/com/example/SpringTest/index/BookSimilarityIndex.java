@@ -0,0 +1,157 @@
+package com.example.SpringTest.index;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@link MinHashIndex} over every book, answering "more like this" queries from memory.
+ *
+ * The index is built from the database in id order once the application is ready and kept
+ * current from the {@code BookService} write path. Writes that arrive during a build are
+ * applied to the index in use and replayed on top of the new one; {@link #rebuild} picks up
+ * rows written outside the service. The {@code app.similarity.*} properties trade precision
+ * against recall; see {@link MinHashIndex} for how.
+ */
+@Component
+public class BookSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSimilarityIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.similarity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.similarity.bands:20}")
+    private int bands;
+
+    @Value("${app.similarity.rows:3}")
+    private int rows;
+
+    @Value("${app.similarity.shingle-size:2}")
+    private int shingleSize;
+
+    @Value("${app.similarity.metadata-weight:2}")
+    private int metadataWeight;
+
+    @Value("${app.similarity.max-bucket-scan:100}")
+    private int maxBucketScan;
+
+    @Value("${app.similarity.min-similarity:0.2}")
+    private double minSimilarity;
+
+    @Value("${app.similarity.build-batch-size:10000}")
+    private int buildBatchSize;
+
+    private MinHashIndex.Settings settings;
+    private volatile MinHashIndex index;
+    private Timer queries;
+    private volatile boolean ready;
+    private List<Consumer<MinHashIndex>> pending;
+    private final Object buildLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        settings = new MinHashIndex.Settings(bands, rows, shingleSize, metadataWeight, maxBucketScan, minSimilarity);
+        index = new MinHashIndex(settings);
+        Gauge.builder("books.similarity.index.entries", this, similarity -> similarity.index.size())
+                .description("Books held in the similarity index")
+                .register(meterRegistry);
+        queries = Timer.builder("books.similarity.queries")
+                .description("Similar-book lookups answered from the index")
+                .register(meterRegistry);
+        build();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of up to {@code limit} books similar to the given one, most similar first.
+     */
+    public List<Long> similarTo(long id, int limit) {
+        return queries.record(() -> index.similar(id, limit).stream().map(MinHashIndex.Match::id).toList());
+    }
+
+    public void recordWrite(Book book) {
+        if (index == null || book == null || book.getId() == null) {
+            return;
+        }
+        apply(target -> target.put(book.getId(), book.getDescription(), book.getGenre(), book.getAuthor()));
+    }
+
+    public void recordDelete(Long id) {
+        if (index == null || id == null) {
+            return;
+        }
+        apply(target -> target.remove(id));
+    }
+
+    /**
+     * Rebuilds the index from the database, for rows written outside {@code BookService}.
+     * Queries keep using the current index until the new one is complete.
+     */
+    public void rebuild() {
+        if (index != null) {
+            build();
+        }
+    }
+
+    private synchronized void apply(Consumer<MinHashIndex> change) {
+        change.accept(index);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private void build() {
+        synchronized (buildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            MinHashIndex next = new MinHashIndex(settings);
+            long lastId = Long.MIN_VALUE;
+            List<Object[]> batch;
+            do {
+                batch = bookRepository.findSimilarityColumns(lastId, PageRequest.of(0, buildBatchSize));
+                for (Object[] row : batch) {
+                    lastId = (Long) row[0];
+                    next.put(lastId, (String) row[1], (String) row[2], (String) row[3]);
+                }
+            } while (batch.size() == buildBatchSize);
+            // Replayed in commit order on top of the rows, so each book ends in its latest state
+            synchronized (this) {
+                pending.forEach(change -> change.accept(next));
+                pending = null;
+                index = next;
+            }
+            ready = true;
+            logger.info("Similarity index built over {} books in {} ms", next.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
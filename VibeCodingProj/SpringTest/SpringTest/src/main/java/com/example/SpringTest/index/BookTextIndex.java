@@ -0,0 +1,161 @@
+package com.example.SpringTest.index;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Trigram indexes over book titles and authors, answering case-insensitive substring and
+ * typo-tolerant queries without scanning the table.
+ *
+ * The indexes are built from the database once the application is ready and kept current
+ * from the {@code BookService} write path. Writes that arrive while a build is reading the
+ * table are applied to the indexes in use and replayed on top of the new ones, so neither
+ * lags behind a commit. {@link #rebuild} picks up rows written outside the service.
+ */
+@Component
+public class BookTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookTextIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.trigram-index.enabled:true}")
+    private boolean enabled;
+
+    // Fraction of the query's trigrams a value must share to count as a fuzzy match
+    @Value("${app.trigram-index.min-similarity:0.5}")
+    private double minSimilarity;
+
+    private volatile TrigramIndex titles = new TrigramIndex();
+    private volatile TrigramIndex authors = new TrigramIndex();
+    private volatile boolean ready;
+    // Changes seen while a build is reading the table, as (titles, authors) updates
+    private List<BiConsumer<TrigramIndex, TrigramIndex>> pending;
+    private final Object buildLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Gauge.builder("books.text.index.entries", this, index -> index.titles.size())
+                .description("Books held in the title and author trigram indexes")
+                .register(meterRegistry);
+        if (enabled) {
+            build();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids, ascending, of the books whose title contains {@code term} ignoring case.
+     */
+    public long[] titleContaining(String term) {
+        return titles.containing(term);
+    }
+
+    /**
+     * Ids, ascending, of the books whose author contains {@code term} ignoring case.
+     */
+    public long[] authorContaining(String term) {
+        return authors.containing(term);
+    }
+
+    /**
+     * Ids of the books whose title or author resembles {@code query}, closest first. A book
+     * matching on both is ranked by the better of the two.
+     */
+    public List<Long> similar(String query, int limit) {
+        Map<Long, TrigramIndex.Match> best = new HashMap<>();
+        for (TrigramIndex index : List.of(titles, authors)) {
+            for (TrigramIndex.Match match : index.similar(query, limit, minSimilarity)) {
+                best.merge(match.id(), match, (a, b) -> TrigramIndex.BEST_FIRST.compare(a, b) <= 0 ? a : b);
+            }
+        }
+        List<TrigramIndex.Match> ranked = new ArrayList<>(best.values());
+        ranked.sort(TrigramIndex.BEST_FIRST);
+        return ranked.stream().limit(limit).map(TrigramIndex.Match::id).toList();
+    }
+
+    public void recordWrite(Book book) {
+        if (!enabled || book == null || book.getId() == null) {
+            return;
+        }
+        apply((titleIndex, authorIndex) -> {
+            titleIndex.put(book.getId(), book.getTitle());
+            authorIndex.put(book.getId(), book.getAuthor());
+        });
+    }
+
+    public void recordDelete(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        apply((titleIndex, authorIndex) -> {
+            titleIndex.remove(id);
+            authorIndex.remove(id);
+        });
+    }
+
+    /**
+     * Rebuilds both indexes from the database, for rows written outside {@code BookService}.
+     * Queries keep using the current indexes until the new ones are complete.
+     */
+    public void rebuild() {
+        if (enabled) {
+            build();
+        }
+    }
+
+    private synchronized void apply(BiConsumer<TrigramIndex, TrigramIndex> change) {
+        change.accept(titles, authors);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private void build() {
+        synchronized (buildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            TrigramIndex nextTitles = new TrigramIndex();
+            TrigramIndex nextAuthors = new TrigramIndex();
+            List<Object[]> rows = bookRepository.findAllIdsTitlesAndAuthors();
+            for (Object[] row : rows) {
+                nextTitles.put((Long) row[0], (String) row[1]);
+                nextAuthors.put((Long) row[0], (String) row[2]);
+            }
+            // Replayed in commit order on top of the rows, so each book ends in its latest state
+            synchronized (this) {
+                pending.forEach(change -> change.accept(nextTitles, nextAuthors));
+                pending = null;
+                titles = nextTitles;
+                authors = nextAuthors;
+            }
+            ready = true;
+            logger.info("Trigram indexes built over {} books in {} ms", rows.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.SpringTest.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locality-sensitive index of books by the similarity of their description, genre and author.
+ *
+ * A book is reduced to a set of features: the word shingles of its description, and its
+ * author and genre, each repeated {@code metadataWeight} times so they count for more than a
+ * single shingle. MinHash turns the set into {@code bands * rows} minimum hash values. Two
+ * books agree on any one of them with probability equal to the Jaccard similarity of their
+ * sets. Each band of {@code rows} values is hashed into a bucket, and books sharing a bucket
+ * in any band become candidates. The chance of that is {@code 1 - (1 - s^rows)^bands} for
+ * similarity {@code s}: more rows favour precision and more bands favour recall, with the
+ * crossover near {@code (1/bands)^(1/rows)}.
+ *
+ * Candidates are ranked by similarity estimated from the signatures. Only the low byte of
+ * each minimum is kept for that (b-bit MinHash), which keeps a signature at one byte per
+ * hash and still estimates similarity well. Chains longer than {@code maxBucketScan} are cut
+ * off so that crowded buckets, such as books with no description, cannot slow a query down.
+ *
+ * Books are stored in slots. A write takes a new slot and the old one simply stops being
+ * live, so bucket chains are never edited; dead slots are compacted away once they make up a
+ * quarter of all slots.
+ */
+public class MinHashIndex {
+
+    public record Settings(int bands, int rows, int shingleSize, int metadataWeight, int maxBucketScan,
+                           double minSimilarity) {
+
+        public Settings {
+            if (bands < 1 || rows < 1 || bands * rows > 1024) {
+                throw new IllegalArgumentException("bands and rows must be positive, with at most 1024 hashes");
+            }
+            if (shingleSize < 1 || metadataWeight < 0 || maxBucketScan < 1) {
+                throw new IllegalArgumentException(
+                        "shingle-size and max-bucket-scan must be positive and metadata-weight not negative");
+            }
+            if (minSimilarity < 0 || minSimilarity > 1) {
+                throw new IllegalArgumentException("min-similarity must be in [0, 1]");
+            }
+        }
+
+        public int hashes() {
+            return bands * rows;
+        }
+    }
+
+    public record Match(long id, double similarity) {
+    }
+
+    private static final Comparator<Match> MOST_SIMILAR_FIRST =
+            Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::id);
+
+    private static final int NONE = -1;
+
+    private final Settings settings;
+    private final int hashes;
+    // Multiply-shift hash functions, seeded so that signatures are the same on every run
+    private final long[] multipliers;
+    private final long[] increments;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private long[] ids = new long[1024];
+    private byte[] signatures;
+    private int[] bandKeys;
+    // Most recent slot per bucket and band; buckets are addressed by the low bits of the band key
+    private int[] heads;
+    // Next older slot in the same bucket, per slot and band
+    private int[] chains;
+    private int slots;
+
+    public MinHashIndex(Settings settings) {
+        this.settings = settings;
+        this.hashes = settings.hashes();
+        this.multipliers = new long[hashes];
+        this.increments = new long[hashes];
+        SplittableRandom random = new SplittableRandom(0x5eed);
+        for (int i = 0; i < hashes; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+        this.signatures = new byte[ids.length * hashes];
+        this.bandKeys = new int[ids.length * settings.bands()];
+        this.chains = new int[ids.length * settings.bands()];
+        this.heads = new int[ids.length * settings.bands()];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * The distinct feature hashes of a book, sorted.
+     */
+    public long[] features(String description, String genre, String author) {
+        long[] words = wordHashes(description);
+        int shingleSize = settings.shingleSize();
+        int shingles = words.length == 0 ? 0 : Math.max(1, words.length - shingleSize + 1);
+        long[] features = new long[shingles + 2 * settings.metadataWeight()];
+        int count = 0;
+        // A shingle hashes the hashes of its words, so no shingle text is built
+        for (int i = 0; i < shingles; i++) {
+            long hash = 0;
+            for (int j = i; j < Math.min(words.length, i + shingleSize); j++) {
+                hash = BloomFilter.mix(hash * 0x9e3779b97f4a7c15L + words[j]);
+            }
+            features[count++] = hash;
+        }
+        long authorHash = author == null ? 0 : BloomFilter.hash("author:" + author.trim().toLowerCase(Locale.ROOT));
+        long genreHash = genre == null ? 0 : BloomFilter.hash("genre:" + genre.trim().toLowerCase(Locale.ROOT));
+        for (int copy = 0; copy < settings.metadataWeight(); copy++) {
+            if (author != null) {
+                features[count++] = BloomFilter.mix(authorHash + copy);
+            }
+            if (genre != null) {
+                features[count++] = BloomFilter.mix(genreHash + copy);
+            }
+        }
+        long[] distinct = Arrays.copyOf(features, count);
+        Arrays.sort(distinct);
+        int size = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[size++] = distinct[i];
+            }
+        }
+        return Arrays.copyOf(distinct, size);
+    }
+
+    // Lower-cased runs of letters and digits, hashed as they are scanned
+    private static long[] wordHashes(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        long[] hashes = new long[16];
+        int count = 0;
+        long hash = 0xcbf29ce484222325L;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+                inWord = true;
+            } else if (inWord) {
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = BloomFilter.mix(hash);
+                hash = 0xcbf29ce484222325L;
+                inWord = false;
+            }
+        }
+        return Arrays.copyOf(hashes, count);
+    }
+
+    /**
+     * Exact Jaccard similarity of two sorted feature sets.
+     */
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 0;
+        }
+        int shared = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared / (double) (a.length + b.length - shared);
+    }
+
+    public void put(long id, String description, String genre, String author) {
+        long[] features = features(description, genre, author);
+        if (features.length == 0) {
+            remove(id);
+            return;
+        }
+        // The signature needs no lock; only the slot bookkeeping does
+        int[] minimums = new int[hashes];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        for (long feature : features) {
+            for (int i = 0; i < hashes; i++) {
+                int value = (int) ((feature * multipliers[i] + increments[i]) >>> 32);
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotById.put(id, slots);
+            store(id, minimums);
+            if (previous != null) {
+                compactIfStale();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (slotById.remove(id) != null) {
+                compactIfStale();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return slotById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} books most similar to the indexed book {@code id}, most similar
+     * first, excluding the book itself. Empty if the book is not indexed.
+     */
+    public List<Match> similar(long id, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot == null || limit <= 0) {
+                return List.of();
+            }
+            int bands = settings.bands();
+            Map<Long, Match> candidates = new HashMap<>();
+            for (int band = 0; band < bands; band++) {
+                int key = bandKeys[slot * bands + band];
+                int candidate = heads[bucket(key) * bands + band];
+                for (int scanned = 0; candidate != NONE && scanned < settings.maxBucketScan(); scanned++) {
+                    long candidateId = ids[candidate];
+                    // Buckets are shared by keys with the same low bits
+                    if (bandKeys[candidate * bands + band] == key && candidateId != id
+                            && !candidates.containsKey(candidateId) && isLive(candidate)) {
+                        double similarity = estimate(slot, candidate);
+                        if (similarity >= settings.minSimilarity()) {
+                            candidates.put(candidateId, new Match(candidateId, similarity));
+                        }
+                    }
+                    candidate = chains[candidate * bands + band];
+                }
+            }
+            List<Match> matches = new ArrayList<>(candidates.values());
+            matches.sort(MOST_SIMILAR_FIRST);
+            return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void store(long id, int[] minimums) {
+        if (slots == ids.length) {
+            grow();
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        for (int i = 0; i < hashes; i++) {
+            signatures[slot * hashes + i] = (byte) minimums[i];
+        }
+        int bands = settings.bands();
+        int rows = settings.rows();
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rows; row++) {
+                key = key * 0x9e3779b97f4a7c15L + minimums[band * rows + row];
+            }
+            bandKeys[slot * bands + band] = (int) BloomFilter.mix(key);
+        }
+        link(slot);
+    }
+
+    // Caller holds the write lock
+    private void link(int slot) {
+        int bands = settings.bands();
+        for (int band = 0; band < bands; band++) {
+            int head = bucket(bandKeys[slot * bands + band]) * bands + band;
+            chains[slot * bands + band] = heads[head];
+            heads[head] = slot;
+        }
+    }
+
+    // As many buckets as slots, so a chain holds about one foreign key on average
+    private int bucket(int key) {
+        return (key ^ (key >>> 16)) & (ids.length - 1);
+    }
+
+    private boolean isLive(int slot) {
+        Integer current = slotById.get(ids[slot]);
+        return current != null && current == slot;
+    }
+
+    // b-bit MinHash: unrelated signatures still agree on a byte one time in 256
+    private double estimate(int a, int b) {
+        int agree = 0;
+        for (int i = 0; i < hashes; i++) {
+            if (signatures[a * hashes + i] == signatures[b * hashes + i]) {
+                agree++;
+            }
+        }
+        double observed = agree / (double) hashes;
+        return Math.max(0, (observed - 1 / 256.0) / (1 - 1 / 256.0));
+    }
+
+    // Doubles the capacity and with it the number of buckets, so every slot is linked again
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        signatures = Arrays.copyOf(signatures, capacity * hashes);
+        bandKeys = Arrays.copyOf(bandKeys, capacity * settings.bands());
+        chains = new int[capacity * settings.bands()];
+        relink();
+    }
+
+    private void relink() {
+        heads = new int[ids.length * settings.bands()];
+        Arrays.fill(heads, NONE);
+        for (int slot = 0; slot < slots; slot++) {
+            link(slot);
+        }
+    }
+
+    // Caller holds the write lock
+    private void compactIfStale() {
+        int dead = slots - slotById.size();
+        if (dead < Math.max(1024, slots / 4)) {
+            return;
+        }
+        int bands = settings.bands();
+        int live = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (!isLive(slot)) {
+                continue;
+            }
+            ids[live] = ids[slot];
+            System.arraycopy(signatures, slot * hashes, signatures, live * hashes, hashes);
+            System.arraycopy(bandKeys, slot * bands, bandKeys, live * bands, bands);
+            slotById.put(ids[live], live);
+            live++;
+        }
+        slots = live;
+        relink();
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.SpringTest.index;
+
+import com.example.SpringTest.model.Book;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * The first {@code k} books in some order, kept in memory so the list can be served without a
+ * query.
+ *
+ * Up to {@code k + slack} entries are held. Every book not held ranks after the last held
+ * entry, so a write can only be placed when it ranks ahead of that entry. Updates and deletes
+ * that move entries out can leave fewer than {@code k} entries while the database still has
+ * more. In that case the next read reloads the list from the database. The slack keeps such
+ * reloads rare.
+ */
+public class RankedBookList {
+
+    private final String name;
+    private final int k;
+    private final int capacity;
+    private final Comparator<Book> order;
+    private final Predicate<Book> filter;
+    // Loads the first n matching books in this list's order
+    private final IntFunction<List<Book>> loader;
+
+    private final Object lock = new Object();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private Entries entries;
+    // Writes seen while a reload is querying the database, replayed onto its result
+    private List<Change> pending;
+    private long reloads;
+    // Set by invalidate() until a reload starts, so later writes cannot validate the old entries
+    private boolean stale;
+
+    private volatile List<Book> top = List.of();
+    private volatile boolean valid;
+
+    public RankedBookList(String name, int k, int slack, Comparator<Book> order, Predicate<Book> filter,
+                          IntFunction<List<Book>> loader) {
+        if (k < 1 || slack < 0) {
+            throw new IllegalArgumentException("Ranked list " + name + " needs k >= 1 and slack >= 0");
+        }
+        this.name = name;
+        this.k = k;
+        this.capacity = k + slack;
+        // Ties are broken by id, newest first, as in the reload queries
+        this.order = order.thenComparing(Book::getId, Comparator.reverseOrder());
+        this.filter = filter;
+        this.loader = loader;
+        this.entries = new Entries();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The first {@code k} books, reloaded from the database first if the held entries can no
+     * longer answer that.
+     */
+    public List<Book> top() {
+        if (!valid) {
+            reload();
+        }
+        return top;
+    }
+
+    public void recordWrite(Book book) {
+        if (book != null && book.getId() != null) {
+            apply(new Change(book.getId(), filter.test(book) ? book : null));
+        }
+    }
+
+    public void recordDelete(Long id) {
+        if (id != null) {
+            apply(new Change(id, null));
+        }
+    }
+
+    public void reload() {
+        reloadLock.lock();
+        try {
+            if (valid) {
+                return;
+            }
+            synchronized (lock) {
+                pending = new ArrayList<>();
+                stale = false;
+            }
+            List<Book> rows;
+            try {
+                rows = loader.apply(capacity);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    pending = null;
+                    stale = true;
+                }
+                throw e;
+            }
+            Entries loaded = new Entries();
+            for (Book book : rows) {
+                loaded.put(book);
+            }
+            loaded.complete = rows.size() < capacity;
+            synchronized (lock) {
+                // Replays are idempotent, so writes the query already saw do no harm
+                for (Change change : pending) {
+                    loaded.apply(change);
+                }
+                pending = null;
+                entries = loaded;
+                reloads++;
+                publish();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the list for a reload on its next read, for when rows were written without going
+     * through {@link #recordWrite} and {@link #recordDelete}.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            stale = true;
+            valid = false;
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.byId.size();
+        }
+    }
+
+    public long getReloads() {
+        synchronized (lock) {
+            return reloads;
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (lock) {
+            entries.apply(change);
+            if (pending != null) {
+                pending.add(change);
+            }
+            publish();
+        }
+    }
+
+    // Caller holds the lock
+    private void publish() {
+        List<Book> first = new ArrayList<>(k);
+        Iterator<Book> it = entries.ranked.iterator();
+        while (first.size() < k && it.hasNext()) {
+            first.add(it.next());
+        }
+        top = List.copyOf(first);
+        valid = !stale && (entries.complete || entries.ranked.size() >= k);
+    }
+
+    // book is null when the id no longer belongs in the list
+    private record Change(Long id, Book book) {
+    }
+
+    private final class Entries {
+        final TreeSet<Book> ranked = new TreeSet<>(order);
+        final Map<Long, Book> byId = new HashMap<>();
+        // True when every matching book in the database is held
+        boolean complete;
+
+        void apply(Change change) {
+            Book previous = byId.remove(change.id());
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            Book book = change.book();
+            if (book == null) {
+                return;
+            }
+            if (complete || (!ranked.isEmpty() && order.compare(book, ranked.last()) < 0)) {
+                put(book);
+                if (ranked.size() > capacity) {
+                    byId.remove(ranked.pollLast().getId());
+                    complete = false;
+                }
+            }
+        }
+
+        void put(Book book) {
+            ranked.add(book);
+            byId.put(book.getId(), book);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.SpringTest.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over one lower-cased text attribute, keyed by book id.
+ *
+ * Every distinct three-character sequence of a value has a sorted posting list of the ids
+ * whose value contains it. A substring query intersects the posting lists of its own
+ * trigrams, rarest first, and verifies the few survivors against the stored text. The cost
+ * follows the number of matches rather than the number of books. Similarity queries count
+ * shared trigrams, which tolerates typos. Terms shorter than three characters have no
+ * trigrams and are answered by scanning the stored values.
+ *
+ * Updates only append. Ids are never removed from posting lists; a deleted or changed value
+ * simply fails verification. The stale entries are dropped by compacting once they make up a
+ * quarter of all entries.
+ */
+public class TrigramIndex {
+
+    public record Match(long id, double score, double coverage) {
+    }
+
+    public static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparing(Comparator.comparingDouble(Match::coverage).reversed())
+            .thenComparingLong(Match::id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> values = new HashMap<>();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private long entries;
+    private long staleEntries;
+
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigram codes of an already normalized value, sorted.
+     */
+    static long[] trigrams(String text) {
+        if (text == null || text.length() < 3) {
+            return new long[0];
+        }
+        long[] codes = new long[text.length() - 2];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(codes);
+        int distinct = 0;
+        for (int i = 0; i < codes.length; i++) {
+            if (i == 0 || codes[i] != codes[i - 1]) {
+                codes[distinct++] = codes[i];
+            }
+        }
+        return Arrays.copyOf(codes, distinct);
+    }
+
+    public void put(long id, String value) {
+        String text = normalize(value);
+        lock.writeLock().lock();
+        try {
+            String previous = text == null ? values.remove(id) : values.put(id, text);
+            long[] before = trigrams(previous);
+            long[] after = trigrams(text);
+            int kept = 0;
+            for (long code : after) {
+                if (Arrays.binarySearch(before, code) >= 0) {
+                    kept++;
+                } else {
+                    postings.computeIfAbsent(code, c -> new Postings()).add(id);
+                    entries++;
+                }
+            }
+            staleEntries += before.length - kept;
+            compactIfStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = values.remove(id);
+            if (previous != null) {
+                staleEntries += trigrams(previous).length;
+                compactIfStale();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return values.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids, ascending, whose value contains {@code term} ignoring case.
+     */
+    public long[] containing(String term) {
+        String needle = normalize(term);
+        lock.readLock().lock();
+        try {
+            long[] codes = trigrams(needle);
+            if (codes.length == 0) {
+                return scan(needle);
+            }
+            Postings[] lists = new Postings[codes.length];
+            for (int i = 0; i < codes.length; i++) {
+                lists[i] = postings.get(codes[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+            long[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = retainAll(candidates, count, lists[i]);
+            }
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                String value = values.get(candidates[i]);
+                if (value != null && value.contains(needle)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Values sharing at least {@code minScore} of the query's trigrams, best first. The score
+     * is the fraction of query trigrams found in the value. Coverage, the fraction of the
+     * value's trigrams that the query accounts for, breaks ties in favour of closer matches.
+     */
+    public List<Match> similar(String query, int limit, double minScore) {
+        long[] codes = trigrams(normalize(query));
+        if (codes.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int needed = Math.max(1, (int) Math.ceil(minScore * codes.length));
+        lock.readLock().lock();
+        try {
+            // Stale entries can only inflate these counts, so they are an upper bound for the filter
+            Map<Long, int[]> shared = new HashMap<>();
+            for (long code : codes) {
+                Postings list = postings.get(code);
+                if (list != null) {
+                    for (int i = 0; i < list.size; i++) {
+                        shared.computeIfAbsent(list.ids[i], id -> new int[1])[0]++;
+                    }
+                }
+            }
+            List<Match> matches = new ArrayList<>();
+            for (Map.Entry<Long, int[]> candidate : shared.entrySet()) {
+                if (candidate.getValue()[0] < needed) {
+                    continue;
+                }
+                String value = values.get(candidate.getKey());
+                long[] valueCodes = trigrams(value);
+                int overlap = overlap(codes, valueCodes);
+                if (overlap >= needed) {
+                    matches.add(new Match(candidate.getKey(), overlap / (double) codes.length,
+                            overlap / (double) valueCodes.length));
+                }
+            }
+            matches.sort(BEST_FIRST);
+            return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private long[] scan(String needle) {
+        long[] ids = new long[values.size()];
+        int count = 0;
+        for (Map.Entry<Long, String> entry : values.entrySet()) {
+            if (entry.getValue().contains(needle)) {
+                ids[count++] = entry.getKey();
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    // Keeps the candidates present in the list, galloping through it since candidates are fewer
+    private static int retainAll(long[] candidates, int count, Postings list) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < list.size; i++) {
+            long id = candidates[i];
+            int step = 1;
+            int to = from;
+            while (to < list.size && list.ids[to] < id) {
+                from = to;
+                to = Math.min(list.size, to + step);
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(list.ids, from, Math.min(list.size, to + 1), id);
+            if (found >= 0) {
+                candidates[kept++] = id;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static int overlap(long[] a, long[] b) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    // Caller holds the write lock
+    private void compactIfStale() {
+        if (staleEntries < Math.max(1024, entries / 4)) {
+            return;
+        }
+        Map<Long, Postings> rebuilt = new HashMap<>();
+        long rebuiltEntries = 0;
+        List<Long> ids = new ArrayList<>(values.keySet());
+        ids.sort(null);
+        for (long id : ids) {
+            for (long code : trigrams(values.get(id))) {
+                rebuilt.computeIfAbsent(code, c -> new Postings()).add(id);
+                rebuiltEntries++;
+            }
+        }
+        postings = rebuilt;
+        entries = rebuiltEntries;
+        staleEntries = 0;
+    }
+
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        // Ids mostly arrive in ascending order; anything else is inserted in place
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return;
+                }
+                insert(-at - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void insert(int at, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+    }
+}
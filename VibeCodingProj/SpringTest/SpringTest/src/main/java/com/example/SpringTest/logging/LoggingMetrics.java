@@ -0,0 +1,69 @@
+package com.example.SpringTest.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Exports drop counters and queue depth of the asynchronous logging pipeline.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof RingBufferAsyncAppender appender) {
+                for (Level level : new Level[]{Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR}) {
+                    FunctionCounter.builder("logging.async.dropped", appender, a -> a.getDroppedCount(level))
+                            .description("Log events dropped because the async buffer was full")
+                            .tag("appender", appender.getName())
+                            .tag("level", level.toString())
+                            .register(registry);
+                }
+                FunctionCounter.builder("logging.async.appended", appender, RingBufferAsyncAppender::getAppendedCount)
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("logging.async.queue.size", appender, RingBufferAsyncAppender::getQueueSize)
+                        .description("Log events waiting for the writer thread")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("logging.async.queue.capacity", appender, RingBufferAsyncAppender::getCapacity)
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof SamplingTurboFilter sampling) {
+                for (SamplingTurboFilter.Rule rule : sampling.getRules()) {
+                    FunctionCounter.builder("logging.sampling.dropped", rule, SamplingTurboFilter.Rule::getSampledOut)
+                            .description("Log events suppressed by sampling or rate limiting")
+                            .tag("logger", rule.getPrefix())
+                            .tag("reason", "sampled")
+                            .register(registry);
+                    FunctionCounter.builder("logging.sampling.dropped", rule, SamplingTurboFilter.Rule::getRateLimited)
+                            .description("Log events suppressed by sampling or rate limiting")
+                            .tag("logger", rule.getPrefix())
+                            .tag("reason", "rate_limited")
+                            .register(registry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.SpringTest.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous appender that hands events to a single writer thread through a bounded,
+ * lock-free ring buffer, so request threads never wait on disk I/O.
+ *
+ * When the buffer is full, events below WARN are dropped immediately and WARN/ERROR events
+ * wait up to {@code maxBlockMillis} for space before being dropped. Every drop is counted.
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final int LEVEL_SLOTS = 5; // TRACE, DEBUG, INFO, WARN, ERROR
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLongArray droppedByLevel = new AtomicLongArray(LEVEL_SLOTS);
+    private final AtomicLong appended = new AtomicLong();
+
+    private int bufferSize = 8192;
+    private long maxBlockMillis = 100;
+    private long maxFlushMillis = 1000;
+    private boolean includeCallerData = false;
+
+    private EventRing ring;
+    private Thread worker;
+    private volatile boolean running;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxBlockMillis(long maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    public void setMaxFlushMillis(long maxFlushMillis) {
+        this.maxFlushMillis = maxFlushMillis;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to [" + name + "]");
+            return;
+        }
+        ring = new EventRing(Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1);
+        running = true;
+        worker = new Thread(this::drainLoop, "logback-ring-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Writer thread did not drain " + ring.size() + " queued events within " + maxFlushMillis + " ms");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+
+        if (ring.offer(event)) {
+            appended.incrementAndGet();
+            return;
+        }
+        if (event.getLevel().isGreaterOrEqual(Level.WARN) && maxBlockMillis > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(50_000);
+                if (ring.offer(event)) {
+                    appended.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        droppedByLevel.incrementAndGet(levelSlot(event.getLevel()));
+    }
+
+    private void drainLoop() {
+        int idleSpins = 0;
+        while (running || ring.size() > 0) {
+            ILoggingEvent event = ring.poll();
+            if (event == null) {
+                // Back off progressively so an idle writer does not burn a core
+                if (++idleSpins < 100) {
+                    Thread.onSpinWait();
+                } else if (idleSpins < 200) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(1_000_000);
+                }
+                continue;
+            }
+            idleSpins = 0;
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    public long getDroppedCount(Level level) {
+        return droppedByLevel.get(levelSlot(level));
+    }
+
+    public long getDroppedCount() {
+        long total = 0;
+        for (int i = 0; i < LEVEL_SLOTS; i++) {
+            total += droppedByLevel.get(i);
+        }
+        return total;
+    }
+
+    public long getAppendedCount() {
+        return appended.get();
+    }
+
+    public int getQueueSize() {
+        return ring == null ? 0 : ring.size();
+    }
+
+    public int getCapacity() {
+        return ring == null ? 0 : ring.capacity;
+    }
+
+    private static int levelSlot(Level level) {
+        switch (level.toInt()) {
+            case Level.ERROR_INT:
+                return 4;
+            case Level.WARN_INT:
+                return 3;
+            case Level.INFO_INT:
+                return 2;
+            case Level.DEBUG_INT:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    /**
+     * Bounded multi-producer/single-consumer ring using per-slot sequence numbers
+     * (Vyukov's bounded queue). Producers claim slots with a CAS on the tail; the single
+     * consumer owns the head.
+     */
+    static final class EventRing {
+        private final int capacity;
+        private final int mask;
+        private final AtomicReferenceArray<ILoggingEvent> slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        EventRing(int capacity) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(ILoggingEvent event) {
+            while (true) {
+                long position = tail.get();
+                int index = (int) (position & mask);
+                long diff = sequences.get(index) - position;
+                if (diff == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        slots.lazySet(index, event);
+                        sequences.lazySet(index, position + 1);
+                        return true;
+                    }
+                } else if (diff < 0) {
+                    return false;
+                }
+            }
+        }
+
+        ILoggingEvent poll() {
+            long position = head.get();
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                return null;
+            }
+            ILoggingEvent event = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.lazySet(index, position + capacity);
+            head.lazySet(position + 1);
+            return event;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+    }
+}
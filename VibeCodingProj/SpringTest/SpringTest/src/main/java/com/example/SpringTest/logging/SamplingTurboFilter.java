@@ -0,0 +1,128 @@
+package com.example.SpringTest.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-logger sampling and rate limiting for chatty categories such as {@code org.hibernate.SQL}.
+ *
+ * Each rule is written as {@code loggerPrefix:maxPerSecond:sampleEvery}. Only events at DEBUG
+ * or below that the logger would otherwise emit are considered; INFO and above always pass.
+ * A {@code sampleEvery} of 10 keeps one event in ten, and {@code maxPerSecond} caps what is
+ * left. Use 0 for either value to disable that part of the rule.
+ *
+ * Logback also consults turbo filters for {@code isDebugEnabled()}-style checks, which carry no
+ * message. Those are left alone, so a guarded statement is counted once, when it is logged.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Rule NO_RULE = new Rule("", 0, 0);
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Map<String, Rule> ruleByLogger = new ConcurrentHashMap<>();
+
+    public void addRule(String spec) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length != 3) {
+            addError("Invalid sampling rule [" + spec + "], expected loggerPrefix:maxPerSecond:sampleEvery");
+            return;
+        }
+        try {
+            rules.add(new Rule(parts[0].trim(), Long.parseLong(parts[1].trim()), Long.parseLong(parts[2].trim())));
+            // Longest prefix wins
+            rules.sort((a, b) -> Integer.compare(b.prefix.length(), a.prefix.length()));
+            ruleByLogger.clear();
+        } catch (NumberFormatException e) {
+            addError("Invalid sampling rule [" + spec + "]: " + e.getMessage());
+        }
+    }
+
+    public List<Rule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(Level.INFO) || rules.isEmpty()
+                || format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        Rule rule = ruleByLogger.computeIfAbsent(logger.getName(), this::findRule);
+        if (rule == NO_RULE) {
+            return FilterReply.NEUTRAL;
+        }
+        // Turbo filters run before the level check, so ignore events the logger would discard anyway
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return rule.admit() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Rule findRule(String loggerName) {
+        for (Rule rule : rules) {
+            if (loggerName.equals(rule.prefix) || loggerName.startsWith(rule.prefix + ".")) {
+                return rule;
+            }
+        }
+        return NO_RULE;
+    }
+
+    public static final class Rule {
+        private final String prefix;
+        private final long maxPerSecond;
+        private final long sampleEvery;
+
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicLong windowCount = new AtomicLong();
+        private final AtomicLong sampledOut = new AtomicLong();
+        private final AtomicLong rateLimited = new AtomicLong();
+
+        Rule(String prefix, long maxPerSecond, long sampleEvery) {
+            this.prefix = prefix;
+            this.maxPerSecond = maxPerSecond;
+            this.sampleEvery = sampleEvery;
+        }
+
+        boolean admit() {
+            if (sampleEvery > 1 && seen.getAndIncrement() % sampleEvery != 0) {
+                sampledOut.incrementAndGet();
+                return false;
+            }
+            if (maxPerSecond > 0) {
+                long second = System.nanoTime() / 1_000_000_000L;
+                long current = window.get();
+                if (current != second && window.compareAndSet(current, second)) {
+                    windowCount.set(0);
+                }
+                if (windowCount.incrementAndGet() > maxPerSecond) {
+                    rateLimited.incrementAndGet();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public long getSampledOut() {
+            return sampledOut.get();
+        }
+
+        public long getRateLimited() {
+            return rateLimited.get();
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.SpringTest.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Copies books from the legacy {@code /books} service database (the {@code SpringTest} module's
+ * {@code book} table: id, title, author) into the Flyway-managed {@code books} table.
+ * <p>
+ * The legacy table is read in id order, one keyset chunk at a time ({@code WHERE id > ? ORDER BY
+ * id LIMIT ?}), so no query or transaction on the legacy side stays open for long. Chunks are
+ * cleaned up and written by a pool of workers, each chunk in one target transaction together
+ * with its {@code legacy_book_map} rows. At most {@code 2 * workers} chunks are held at once,
+ * so memory stays bounded however large the legacy catalog is.
+ * <p>
+ * Chunks finish out of order; the checkpoint in {@code legacy_migration_checkpoint} only moves
+ * past a chunk once every earlier chunk has been written, and a restarted run resumes from it.
+ * Rows written after the last checkpoint are recognised through {@code legacy_book_map} and
+ * skipped, so a resumed run never imports a row twice.
+ * <p>
+ * Books are de-duplicated on ISBN when the legacy table has one, otherwise on title and author
+ * (case-insensitive, whitespace-normalised), against both the existing catalog and earlier rows
+ * of the same migration. Duplicates are recorded against the book they matched.
+ */
+public class LegacyBookMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyBookMigrator.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String INSERT_BOOK =
+            "INSERT INTO books (title, author, isbn, stock_quantity, is_available) VALUES (?, ?, ?, 0, TRUE)";
+    private static final String INSERT_MAPPING =
+            "INSERT INTO legacy_book_map (legacy_id, book_id, outcome) VALUES (?, ?, ?)";
+    private static final String INSERT_DEDUPE_KEY =
+            "INSERT INTO legacy_dedupe_key (dedupe_key, book_id) VALUES (?, ?)";
+
+    private record LegacyRow(long id, String title, String author, String isbn) {
+    }
+
+    // A cleaned-up legacy row ready to be matched or inserted
+    private record Candidate(long legacyId, String title, String author, String isbn, String dedupeKey) {
+    }
+
+    private record ChunkResult(int inserted, int duplicates, int alreadyMigrated, int invalid) {
+    }
+
+    private final JdbcTemplate legacy;
+    private final JdbcTemplate target;
+    private final TransactionTemplate transactions;
+    private final String jobName;
+    private final String legacyTable;
+    private final int chunkSize;
+    private final int workers;
+    private final Duration progressInterval;
+
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder alreadyMigrated = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private volatile long resumedAfterId;
+    private volatile long totalRows;
+    private volatile long checkpointId;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+
+    public LegacyBookMigrator(DataSource legacyDataSource, DataSource targetDataSource,
+                              PlatformTransactionManager transactionManager, String jobName, String legacyTable,
+                              int chunkSize, int workers, Duration progressInterval) {
+        if (!IDENTIFIER.matcher(legacyTable).matches()) {
+            throw new IllegalArgumentException("Invalid legacy table name: " + legacyTable);
+        }
+        if (chunkSize < 1 || workers < 1) {
+            throw new IllegalArgumentException("chunkSize and workers must be positive");
+        }
+        this.legacy = new JdbcTemplate(legacyDataSource);
+        this.target = new JdbcTemplate(targetDataSource);
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.jobName = jobName;
+        this.legacyTable = legacyTable;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Migrates every legacy row beyond the job's checkpoint and returns the final progress.
+     * Throws if a chunk cannot be written; the checkpoint then covers every chunk before it.
+     */
+    public synchronized MigrationProgress migrate() {
+        resetCounters();
+        resumedAfterId = loadCheckpoint();
+        checkpointId = resumedAfterId;
+        String isbnColumn = legacyIsbnColumn();
+        totalRows = legacy.queryForObject("SELECT COUNT(*) FROM " + legacyTable + " WHERE id > ?", Long.class,
+                resumedAfterId);
+        logger.info("Migrating {} legacy books from {} after id {} ({} workers, chunks of {}, ISBN {})", totalRows,
+                legacyTable, resumedAfterId, workers, chunkSize, isbnColumn == null ? "not available" : "available");
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "legacy-migration-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Permits for chunks read but not yet covered by the checkpoint
+        Semaphore window = new Semaphore(workers * 2);
+        Watermark watermark = new Watermark(resumedAfterId);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long nextLog = System.nanoTime() + progressInterval.toNanos();
+        try {
+            long after = resumedAfterId;
+            for (long sequence = 0; failure.get() == null; sequence++) {
+                window.acquireUninterruptibly();
+                if (failure.get() != null) {
+                    break;
+                }
+                List<LegacyRow> chunk = readChunk(after, isbnColumn);
+                if (chunk.isEmpty()) {
+                    window.release();
+                    break;
+                }
+                rowsRead.add(chunk.size());
+                after = chunk.get(chunk.size() - 1).id();
+                long chunkSequence = sequence;
+                watermark.started(chunkSequence, after);
+                pool.execute(() -> {
+                    try {
+                        ChunkResult result = writeChunkWithRetry(chunk);
+                        record(result, chunk.size());
+                        int retired = watermark.completed(chunkSequence);
+                        if (retired > 0) {
+                            saveCheckpoint(watermark.mark());
+                            window.release(retired);
+                        }
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                        // Wake the reader so it notices the failure
+                        window.release(workers * 2);
+                    }
+                });
+                if (System.nanoTime() >= nextLog) {
+                    logProgress();
+                    nextLog = System.nanoTime() + progressInterval.toNanos();
+                }
+            }
+        } finally {
+            pool.shutdown();
+            awaitTermination(pool);
+        }
+
+        finishNanos = System.nanoTime();
+        Throwable failed = failure.get();
+        if (failed != null) {
+            logger.error("Legacy migration {} failed; checkpoint stays at legacy id {}", jobName, checkpointId, failed);
+            throw new IllegalStateException("Legacy migration " + jobName + " failed after legacy id " + checkpointId,
+                    failed);
+        }
+        target.update("UPDATE legacy_migration_checkpoint SET completed = TRUE, updated_at = CURRENT_TIMESTAMP "
+                + "WHERE job_name = ?", jobName);
+        MigrationProgress done = progress();
+        logger.info("Legacy migration {} finished: {} rows in {} ms ({} rows/s), {} inserted, {} duplicates, "
+                        + "{} already migrated, {} invalid", jobName, done.rowsWritten(), done.elapsed().toMillis(),
+                Math.round(done.rowsPerSecond()), done.inserted(), done.duplicates(), done.alreadyMigrated(),
+                done.invalid());
+        return done;
+    }
+
+    public MigrationProgress progress() {
+        long start = startNanos;
+        long end = finishNanos != 0 ? finishNanos : System.nanoTime();
+        return new MigrationProgress(jobName, resumedAfterId, totalRows, rowsRead.sum(), rowsWritten.sum(),
+                inserted.sum(), duplicates.sum(), alreadyMigrated.sum(), invalid.sum(), checkpointId,
+                start == 0 ? Duration.ZERO : Duration.ofNanos(end - start), finishNanos != 0);
+    }
+
+    private void resetCounters() {
+        rowsRead.reset();
+        rowsWritten.reset();
+        inserted.reset();
+        duplicates.reset();
+        alreadyMigrated.reset();
+        invalid.reset();
+        startNanos = System.nanoTime();
+        finishNanos = 0;
+    }
+
+    private void logProgress() {
+        MigrationProgress progress = progress();
+        logger.info("Legacy migration {}: {}/{} rows ({}%), {} rows/s, checkpoint at legacy id {}", jobName,
+                progress.rowsWritten(), progress.totalRows(), Math.round(progress.percentComplete()),
+                Math.round(progress.rowsPerSecond()), progress.checkpointId());
+    }
+
+    private void record(ChunkResult result, int rows) {
+        rowsWritten.add(rows);
+        inserted.add(result.inserted());
+        duplicates.add(result.duplicates());
+        alreadyMigrated.add(result.alreadyMigrated());
+        invalid.add(result.invalid());
+    }
+
+    // --- legacy side ---
+
+    private String legacyIsbnColumn() {
+        return legacy.execute((ConnectionCallback<String>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : new String[] {legacyTable, legacyTable.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet columns = metaData.getColumns(null, null, table, null)) {
+                    while (columns.next()) {
+                        if (columns.getString("COLUMN_NAME").equalsIgnoreCase("isbn")) {
+                            return columns.getString("COLUMN_NAME");
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private List<LegacyRow> readChunk(long afterId, String isbnColumn) {
+        String isbn = isbnColumn == null ? "NULL" : isbnColumn;
+        return legacy.query("SELECT id, title, author, " + isbn + " AS isbn FROM " + legacyTable
+                        + " WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new LegacyRow(rs.getLong("id"), rs.getString("title"), rs.getString("author"),
+                        rs.getString("isbn")),
+                afterId, chunkSize);
+    }
+
+    // --- target side ---
+
+    private ChunkResult writeChunkWithRetry(List<LegacyRow> chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactions.execute(status -> writeChunk(chunk));
+            } catch (DuplicateKeyException e) {
+                // Another worker inserted one of these books first; retrying matches it instead
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Retrying legacy chunk from id {} after a concurrent insert", chunk.get(0).id());
+            }
+        }
+    }
+
+    private ChunkResult writeChunk(List<LegacyRow> chunk) {
+        Set<Long> done = new HashSet<>(target.queryForList(
+                "SELECT legacy_id FROM legacy_book_map WHERE legacy_id BETWEEN ? AND ?", Long.class,
+                chunk.get(0).id(), chunk.get(chunk.size() - 1).id()));
+
+        List<Object[]> mappings = new ArrayList<>(chunk.size());
+        List<Candidate> toInsert = new ArrayList<>();
+        // Duplicates of books that are themselves inserted by this chunk, resolved once their ids are known
+        List<Candidate> duplicatesOfNew = new ArrayList<>();
+        Map<String, Long> matched = new HashMap<>();
+        Set<String> newKeys = new HashSet<>();
+        int duplicateCount = 0;
+        int invalidCount = 0;
+        for (LegacyRow row : chunk) {
+            if (done.contains(row.id())) {
+                continue;
+            }
+            Candidate candidate = clean(row);
+            if (candidate == null) {
+                mappings.add(new Object[] {row.id(), null, "INVALID"});
+                invalidCount++;
+                continue;
+            }
+            if (newKeys.contains(candidate.dedupeKey())) {
+                duplicatesOfNew.add(candidate);
+                duplicateCount++;
+                continue;
+            }
+            Long existing = matched.containsKey(candidate.dedupeKey())
+                    ? matched.get(candidate.dedupeKey()) : findExisting(candidate);
+            if (existing != null) {
+                matched.put(candidate.dedupeKey(), existing);
+                mappings.add(new Object[] {row.id(), existing, "DUPLICATE"});
+                duplicateCount++;
+            } else {
+                newKeys.add(candidate.dedupeKey());
+                toInsert.add(candidate);
+            }
+        }
+
+        List<Long> ids = insertBooks(toInsert);
+        Map<String, Long> insertedIds = new HashMap<>();
+        List<Object[]> keys = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            Candidate candidate = toInsert.get(i);
+            insertedIds.put(candidate.dedupeKey(), ids.get(i));
+            keys.add(new Object[] {candidate.dedupeKey(), ids.get(i)});
+            mappings.add(new Object[] {candidate.legacyId(), ids.get(i), "INSERTED"});
+        }
+        for (Candidate duplicate : duplicatesOfNew) {
+            mappings.add(new Object[] {duplicate.legacyId(), insertedIds.get(duplicate.dedupeKey()), "DUPLICATE"});
+        }
+        target.batchUpdate(INSERT_DEDUPE_KEY, keys);
+        target.batchUpdate(INSERT_MAPPING, mappings);
+        return new ChunkResult(toInsert.size(), duplicateCount, done.size(), invalidCount);
+    }
+
+    // Trims and collapses whitespace; null if the row can't become a valid book
+    private static Candidate clean(LegacyRow row) {
+        String title = normalise(row.title());
+        String author = normalise(row.author());
+        if (title == null || author == null || title.length() > 255 || author.length() > 255) {
+            return null;
+        }
+        String isbn = normaliseIsbn(row.isbn());
+        String key = isbn != null
+                ? "isbn:" + isbn
+                : "title-author:" + title.toLowerCase(Locale.ROOT) + "|" + author.toLowerCase(Locale.ROOT);
+        return new Candidate(row.id(), title, author, isbn, key);
+    }
+
+    private static String normalise(String value) {
+        if (value == null) {
+            return null;
+        }
+        String collapsed = WHITESPACE.matcher(value).replaceAll(" ").trim();
+        return collapsed.isEmpty() ? null : collapsed;
+    }
+
+    // Digits (and a trailing X) of an ISBN-10 or ISBN-13; anything else is treated as no ISBN
+    private static String normaliseIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        String compact = isbn.replaceAll("[^0-9Xx]", "").toUpperCase(Locale.ROOT);
+        return compact.length() == 10 || compact.length() == 13 ? compact : null;
+    }
+
+    private Long findExisting(Candidate candidate) {
+        List<Long> ids = candidate.isbn() != null
+                ? target.queryForList("SELECT id FROM books WHERE isbn_norm = ? ORDER BY id LIMIT 1",
+                        Long.class, candidate.isbn())
+                : target.queryForList("SELECT id FROM books WHERE title_lc = ? AND author_lc = ? ORDER BY id LIMIT 1",
+                        Long.class, candidate.title().toLowerCase(Locale.ROOT),
+                        candidate.author().toLowerCase(Locale.ROOT));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private List<Long> insertBooks(List<Candidate> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        return target.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_BOOK, new String[] {"id"})) {
+                for (Candidate book : books) {
+                    insert.setString(1, book.title());
+                    insert.setString(2, book.author());
+                    insert.setString(3, book.isbn());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Long> ids = new ArrayList<>(books.size());
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != books.size()) {
+                    throw new SQLException("Expected " + books.size() + " generated ids, got " + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    // --- checkpoint ---
+
+    private long loadCheckpoint() {
+        List<Long> saved = target.queryForList(
+                "SELECT last_legacy_id FROM legacy_migration_checkpoint WHERE job_name = ?", Long.class, jobName);
+        if (saved.isEmpty()) {
+            target.update("INSERT INTO legacy_migration_checkpoint (job_name, last_legacy_id) VALUES (?, 0)", jobName);
+            return 0;
+        }
+        target.update("UPDATE legacy_migration_checkpoint SET completed = FALSE WHERE job_name = ?", jobName);
+        return saved.get(0);
+    }
+
+    private void saveCheckpoint(long lastLegacyId) {
+        // Guarded so a slower worker can never move the checkpoint backwards
+        int updated = target.update("UPDATE legacy_migration_checkpoint SET last_legacy_id = ?, "
+                + "updated_at = CURRENT_TIMESTAMP WHERE job_name = ? AND last_legacy_id < ?",
+                lastLegacyId, jobName, lastLegacyId);
+        if (updated > 0) {
+            checkpointId = Math.max(checkpointId, lastLegacyId);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for legacy migration workers to finish");
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tracks which chunks have been written and the highest legacy id below which all have.
+     */
+    private static final class Watermark {
+
+        private final Map<Long, Long> lastIdBySequence = new HashMap<>();
+        private final Set<Long> completed = new HashSet<>();
+        private long nextToRetire;
+        private long mark;
+
+        Watermark(long mark) {
+            this.mark = mark;
+        }
+
+        synchronized void started(long sequence, long lastId) {
+            lastIdBySequence.put(sequence, lastId);
+        }
+
+        // Returns how many chunks the checkpoint moved past
+        synchronized int completed(long sequence) {
+            completed.add(sequence);
+            int retired = 0;
+            while (completed.remove(nextToRetire)) {
+                mark = lastIdBySequence.remove(nextToRetire);
+                nextToRetire++;
+                retired++;
+            }
+            return retired;
+        }
+
+        synchronized long mark() {
+            return mark;
+        }
+    }
+}
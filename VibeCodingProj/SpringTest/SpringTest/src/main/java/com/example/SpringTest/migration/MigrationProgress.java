@@ -0,0 +1,31 @@
+package com.example.SpringTest.migration;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time progress of a {@link LegacyBookMigrator} run. {@code totalRows} is the number
+ * of legacy rows beyond the checkpoint the run started from.
+ */
+public record MigrationProgress(
+        String jobName,
+        long resumedAfterId,
+        long totalRows,
+        long rowsRead,
+        long rowsWritten,
+        long inserted,
+        long duplicates,
+        long alreadyMigrated,
+        long invalid,
+        long checkpointId,
+        Duration elapsed,
+        boolean finished) {
+
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : rowsWritten / seconds;
+    }
+
+    public double percentComplete() {
+        return totalRows == 0 ? 100 : Math.min(100, 100.0 * rowsWritten / totalRows);
+    }
+}
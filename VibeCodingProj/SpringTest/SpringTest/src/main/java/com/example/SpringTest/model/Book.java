@@ -1,11 +1,14 @@
 package com.example.SpringTest.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,8 +22,13 @@ import java.util.Objects;
     @Index(name = "idx_book_title", columnList = "title"),
     @Index(name = "idx_book_isbn", columnList = "isbn", unique = true)
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
 public class Book {
 
+    // Second-level cache region, sized in ehcache.xml
+    public static final String CACHE_REGION = "book";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -61,6 +69,19 @@ public class Book {
     @Column(name = "is_available")
     private Boolean available = true;
 
+    // Lower-cased copies maintained by the database (see V2 migration); only used in search predicates
+    @JsonIgnore
+    @Column(name = "title_lc", insertable = false, updatable = false)
+    private String titleLower;
+
+    @JsonIgnore
+    @Column(name = "author_lc", insertable = false, updatable = false)
+    private String authorLower;
+
+    @JsonIgnore
+    @Column(name = "genre_lc", length = 100, insertable = false, updatable = false)
+    private String genreLower;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -4,6 +4,7 @@ import com.example.SpringTest.model.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
 
     // Find by author
     List<Book> findByAuthor(String author);
@@ -29,6 +30,9 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     // Find by author (case insensitive)
     List<Book> findByAuthorContainingIgnoreCase(String author);
+
+    // Find by author with pagination
+    Page<Book> findByAuthorContainingIgnoreCase(String author, Pageable pageable);
     
     // Find by genre
     List<Book> findByGenre(String genre);
@@ -60,27 +64,21 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     // Find books with stock
     List<Book> findByStockQuantityGreaterThan(Integer quantity);
 
-    // Advanced search query
-    @Query("SELECT b FROM Book b WHERE " +
-           "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
-           "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))) AND " +
-           "(:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%'))) AND " +
-           "(:minPrice IS NULL OR b.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR b.price <= :maxPrice) AND " +
-           "(:minYear IS NULL OR b.publicationYear >= :minYear) AND " +
-           "(:maxYear IS NULL OR b.publicationYear <= :maxYear) AND " +
-           "(:available IS NULL OR b.available = :available)")
-    Page<Book> findBooksWithFilters(
-            @Param("title") String title,
-            @Param("author") String author,
-            @Param("genre") String genre,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("minYear") Integer minYear,
-            @Param("maxYear") Integer maxYear,
-            @Param("available") Boolean available,
-            Pageable pageable
-    );
+    // Every id, for rebuilding the in-memory lookup filter
+    @Query("SELECT b.id FROM Book b")
+    List<Long> findAllIds();
+
+    // Id/title/author triples for building the in-memory trigram indexes
+    @Query("SELECT b.id, b.title, b.author FROM Book b")
+    List<Object[]> findAllIdsTitlesAndAuthors();
+
+    // Columns the similarity index is built from, in id batches after the given id
+    @Query("SELECT b.id, b.description, b.genre, b.author FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSimilarityColumns(@Param("afterId") long afterId, Pageable pageable);
+
+    // Scalar columns for the analytics snapshot (no entities, so the persistence context stays empty)
+    @Query("SELECT b.id, b.genre, b.author, b.price, b.publicationYear, b.stockQuantity, b.available FROM Book b ORDER BY b.id")
+    List<Object[]> findAnalyticsColumns();
 
     // Get books count by genre
     @Query("SELECT b.genre, COUNT(b) FROM Book b WHERE b.genre IS NOT NULL GROUP BY b.genre")
@@ -96,6 +94,16 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     // Find recently added books
     List<Book> findTop10ByOrderByCreatedAtDesc();
 
+    // Ranked slices for reloading the in-memory top-K lists; ties go to the newest id
+    @Query("SELECT b FROM Book b ORDER BY b.price DESC NULLS LAST, b.id DESC")
+    List<Book> findMostExpensive(Pageable pageable);
+
+    @Query("SELECT b FROM Book b ORDER BY b.createdAt DESC NULLS LAST, b.id DESC")
+    List<Book> findMostRecent(Pageable pageable);
+
+    @Query("SELECT b FROM Book b WHERE b.genreLower = :genre ORDER BY b.price DESC NULLS LAST, b.id DESC")
+    List<Book> findMostExpensiveInGenre(@Param("genre") String lowerCaseGenre, Pageable pageable);
+
     // Find books by multiple authors
     @Query("SELECT b FROM Book b WHERE b.author IN :authors")
     List<Book> findByAuthorIn(@Param("authors") List<String> authors);
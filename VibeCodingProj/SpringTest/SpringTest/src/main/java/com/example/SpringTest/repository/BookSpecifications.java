@@ -0,0 +1,107 @@
+package com.example.SpringTest.repository;
+
+import com.example.SpringTest.model.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Building blocks for the advanced search. Each filter is only added to the query when the
+ * caller supplied it, and every predicate is an equality or range on an indexed column, so the
+ * planner can drive the query from whichever index is most selective.
+ *
+ * Text filters compare against the lower-cased columns maintained by the database. A prefix
+ * match is expressed as the half-open range {@code [prefix, successor(prefix))} rather than
+ * {@code LIKE 'prefix%'}: with a bound parameter the database cannot tell at plan time that the
+ * pattern has no leading wildcard, but a range on the same column always uses the index.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> withFilters(String title, String author, String genre,
+                                                  BigDecimal minPrice, BigDecimal maxPrice,
+                                                  Integer minYear, Integer maxYear, Boolean available) {
+        List<Specification<Book>> filters = new ArrayList<>();
+        if (hasText(title)) {
+            filters.add(startsWith("titleLower", title));
+        }
+        if (hasText(author)) {
+            filters.add(startsWith("authorLower", author));
+        }
+        if (hasText(genre)) {
+            filters.add(genreIs(genre));
+        }
+        if (minPrice != null || maxPrice != null) {
+            filters.add(between("price", minPrice, maxPrice));
+        }
+        if (minYear != null || maxYear != null) {
+            filters.add(between("publicationYear", minYear, maxYear));
+        }
+        if (available != null) {
+            filters.add(isAvailable(available));
+        }
+        return Specification.allOf(filters);
+    }
+
+    // Case-insensitive prefix match on one of the maintained lower-cased columns
+    public static Specification<Book> startsWith(String lowerCaseAttribute, String prefix) {
+        String lower = normalize(prefix);
+        String upper = successor(lower);
+        return (root, query, cb) -> upper == null
+                ? cb.greaterThanOrEqualTo(root.<String>get(lowerCaseAttribute), lower)
+                : cb.and(cb.greaterThanOrEqualTo(root.<String>get(lowerCaseAttribute), lower),
+                         cb.lessThan(root.<String>get(lowerCaseAttribute), upper));
+    }
+
+    public static Specification<Book> genreIs(String genre) {
+        String lower = normalize(genre);
+        return (root, query, cb) -> cb.equal(root.get("genreLower"), lower);
+    }
+
+    public static <T extends Comparable<? super T>> Specification<Book> between(String attribute, T min, T max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.<T>get(attribute), min, max);
+            }
+            return min != null
+                    ? cb.greaterThanOrEqualTo(root.<T>get(attribute), min)
+                    : cb.lessThanOrEqualTo(root.<T>get(attribute), max);
+        };
+    }
+
+    public static Specification<Book> isAvailable(boolean available) {
+        return (root, query, cb) -> cb.equal(root.get("available"), available);
+    }
+
+    /**
+     * Smallest string greater than every string starting with {@code prefix}, or {@code null}
+     * when there is none (the prefix is made only of {@code Character.MAX_VALUE}).
+     */
+    static String successor(String prefix) {
+        StringBuilder bound = new StringBuilder(prefix);
+        while (bound.length() > 0) {
+            int last = bound.length() - 1;
+            char c = bound.charAt(last);
+            if (c != Character.MAX_VALUE) {
+                bound.setCharAt(last, (char) (c + 1));
+                return bound.toString();
+            }
+            bound.setLength(last);
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        // Must match the database's LOWER() for the stored columns
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -1,21 +1,33 @@
 package com.example.SpringTest.service;
 
 import com.example.SpringTest.exception.BookNotFoundException;
+import com.example.SpringTest.index.BookLookupFilter;
+import com.example.SpringTest.index.BookRankings;
+import com.example.SpringTest.index.BookSimilarityIndex;
+import com.example.SpringTest.index.BookTextIndex;
 import com.example.SpringTest.model.Book;
 import com.example.SpringTest.repository.BookRepository;
+import com.example.SpringTest.repository.BookSpecifications;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -28,6 +40,18 @@ public class BookService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookLookupFilter bookLookupFilter;
+
+    @Autowired
+    private BookRankings bookRankings;
+
+    @Autowired
+    private BookTextIndex bookTextIndex;
+
+    @Autowired
+    private BookSimilarityIndex bookSimilarityIndex;
+
     @Transactional(readOnly = true)
     @Cacheable(value = "books", key = "'all_books'")
     public List<Book> getAllBooks() {
@@ -45,10 +69,14 @@ public class BookService {
     @Cacheable(value = "books", key = "#id")
     public Book getBookById(Long id) {
         logger.debug("Fetching book with id: {}", id);
+        if (!bookLookupFilter.mightContainId(id)) {
+            logger.debug("Book id {} rejected by lookup filter", id);
+            throw BookNotFoundException.forId(id);
+        }
         return bookRepository.findById(id)
                 .orElseThrow(() -> {
-                    logger.error("Book not found with id: {}", id);
-                    return new BookNotFoundException("Book not found with id: " + id);
+                    logger.debug("Book not found with id: {}", id);
+                    return BookNotFoundException.forId(id);
                 });
     }
 
@@ -76,6 +104,12 @@ public class BookService {
         }
         
         Book savedBook = bookRepository.save(book);
+        afterCommit(() -> {
+            bookLookupFilter.recordWrite(savedBook);
+            bookRankings.recordWrite(savedBook);
+            bookTextIndex.recordWrite(savedBook);
+            bookSimilarityIndex.recordWrite(savedBook);
+        });
         logger.info("Book created successfully with id: {}", savedBook.getId());
         return savedBook;
     }
@@ -112,6 +146,12 @@ public class BookService {
         }
         
         Book updatedBook = bookRepository.save(existingBook);
+        afterCommit(() -> {
+            bookLookupFilter.recordWrite(updatedBook);
+            bookRankings.recordWrite(updatedBook);
+            bookTextIndex.recordWrite(updatedBook);
+            bookSimilarityIndex.recordWrite(updatedBook);
+        });
         logger.info("Book updated successfully with id: {}", updatedBook.getId());
         return updatedBook;
     }
@@ -122,11 +162,20 @@ public class BookService {
         
         Book book = getBookById(id); // This will throw exception if not found
         bookRepository.delete(book);
+        afterCommit(() -> {
+            bookLookupFilter.recordDelete(id);
+            bookRankings.recordDelete(id);
+            bookTextIndex.recordDelete(id);
+            bookSimilarityIndex.recordDelete(id);
+        });
         logger.info("Book deleted successfully with id: {}", id);
     }
 
     @Transactional(readOnly = true)
     public boolean existsById(Long id) {
+        if (!bookLookupFilter.mightContainId(id)) {
+            return false;
+        }
         return bookRepository.existsById(id);
     }
 
@@ -142,8 +191,8 @@ public class BookService {
                                            Integer minYear, Integer maxYear, 
                                            Boolean available, Pageable pageable) {
         logger.debug("Searching books with filters");
-        return bookRepository.findBooksWithFilters(title, author, genre, minPrice, maxPrice, 
-                                                 minYear, maxYear, available, pageable);
+        return bookRepository.findAll(BookSpecifications.withFilters(title, author, genre, minPrice, maxPrice,
+                                                                   minYear, maxYear, available), pageable);
     }
 
     @Transactional(readOnly = true)
@@ -152,6 +201,46 @@ public class BookService {
         return bookRepository.searchBooks(searchTerm, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Page<Book> searchByTitle(String term, Pageable pageable) {
+        logger.debug("Searching books with title containing: {}", term);
+        if (!bookTextIndex.isReady() || pageable.getSort().isSorted()) {
+            return bookRepository.findByTitleContainingIgnoreCase(term, pageable);
+        }
+        return pageOfIds(bookTextIndex.titleContaining(term), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Book> searchByAuthor(String term, Pageable pageable) {
+        logger.debug("Searching books with author containing: {}", term);
+        if (!bookTextIndex.isReady() || pageable.getSort().isSorted()) {
+            return bookRepository.findByAuthorContainingIgnoreCase(term, pageable);
+        }
+        return pageOfIds(bookTextIndex.authorContaining(term), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Book> fuzzySearch(String query, int limit) {
+        logger.debug("Fuzzy search for: {}", query);
+        if (!bookTextIndex.isReady()) {
+            return bookRepository.searchBooks(query, PageRequest.of(0, limit)).getContent();
+        }
+        return findAllInOrder(bookTextIndex.similar(query, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Book> getSimilarBooks(Long id, int limit) {
+        logger.debug("Fetching books similar to id: {}", id);
+        if (!existsById(id)) {
+            throw BookNotFoundException.forId(id);
+        }
+        // Comparing against every row is not an option, so there are no suggestions until the index is built
+        if (!bookSimilarityIndex.isReady()) {
+            return List.of();
+        }
+        return findAllInOrder(bookSimilarityIndex.similarTo(id, limit));
+    }
+
     @Transactional(readOnly = true)
     public Page<Book> getAvailableBooks(Pageable pageable) {
         logger.debug("Fetching available books");
@@ -179,12 +268,27 @@ public class BookService {
     @Transactional(readOnly = true)
     public List<Book> getTopExpensiveBooks() {
         logger.debug("Fetching top expensive books");
+        if (bookRankings.isReady()) {
+            return bookRankings.mostExpensive();
+        }
         return bookRepository.findTop10ByOrderByPriceDesc();
     }
 
+    @Transactional(readOnly = true)
+    public List<Book> getTopExpensiveBooksByGenre(String genre) {
+        logger.debug("Fetching top expensive books in genre: {}", genre);
+        if (bookRankings.isReady()) {
+            return bookRankings.mostExpensive(genre);
+        }
+        return bookRepository.findMostExpensiveInGenre(genre.toLowerCase(Locale.ROOT), PageRequest.of(0, 10));
+    }
+
     @Transactional(readOnly = true)
     public List<Book> getRecentlyAddedBooks() {
         logger.debug("Fetching recently added books");
+        if (bookRankings.isReady()) {
+            return bookRankings.recentlyAdded();
+        }
         return bookRepository.findTop10ByOrderByCreatedAtDesc();
     }
 
@@ -254,6 +358,45 @@ public class BookService {
         return stats;
     }
 
+    // Ids come from the index in id order, so only the requested page is loaded
+    private Page<Book> pageOfIds(long[] ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAllInOrder(Arrays.stream(ids).boxed().toList()));
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        List<Long> page = Arrays.stream(ids, from, to).boxed().toList();
+        return new PageImpl<>(findAllInOrder(page), pageable, ids.length);
+    }
+
+    // Books removed since the index answered are skipped
+    private List<Book> findAllInOrder(List<Long> ids) {
+        Map<Long, Book> byId = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, book -> book));
+        List<Book> books = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Book book = byId.get(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    // In-memory structures must only see committed writes
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private boolean isDuplicateBook(Book book) {
         return bookRepository.findByAuthor(book.getAuthor())
                 .stream()
@@ -0,0 +1,66 @@
+package com.example.SpringTest.tracing;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Times each JDBC statement Hibernate executes and labels it with the SQL, so the paging
+ * query and its COUNT query appear as separate "db" spans.
+ *
+ * Registered through hibernate.session.events.auto and
+ * hibernate.session_factory.statement_inspector; Hibernate creates the instances.
+ */
+public class HibernateTracingListener implements SessionEventListener, StatementInspector {
+
+    private static final int MAX_SQL_LENGTH = 120;
+
+    private RequestTrace.SpanScope statementSpan;
+
+    @Override
+    public String inspect(String sql) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.setPendingSql(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            statementSpan = trace.span("db", summarize(trace.takePendingSql()));
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (statementSpan != null) {
+            statementSpan.close();
+            statementSpan = null;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+
+    static String summarize(String sql) {
+        if (sql == null) {
+            return "statement";
+        }
+        String flattened = sql.replaceAll("\\s+", " ").trim();
+        String lower = flattened.toLowerCase();
+        String kind = lower.startsWith("select count(") ? "COUNT " : "";
+        if (flattened.length() > MAX_SQL_LENGTH) {
+            flattened = flattened.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        return kind + flattened;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.SpringTest.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Span timings collected for one HTTP request. A trace is bound to the request thread
+ * between {@link #begin} and {@link #clear}; code on other threads simply sees no trace.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SPANS = 256;
+
+    private final String traceId;
+    private final String spanId;
+    private final String method;
+    private final String path;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final List<Span> spans = new ArrayList<>();
+
+    private int depth;
+    private int droppedSpans;
+    private long responseWriteStartNanos;
+    private String pendingSql;
+    private String route;
+    private int status;
+    private long durationNanos;
+    private volatile boolean kept;
+
+    private RequestTrace(String method, String path) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceId = String.format("%016x%016x", random.nextLong(), random.nextLong());
+        this.spanId = String.format("%016x", random.nextLong());
+        this.method = method;
+        this.path = path;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    public static RequestTrace begin(String method, String path) {
+        RequestTrace trace = new RequestTrace(method, path);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public SpanScope span(String layer, String name) {
+        return new SpanScope(layer, name, System.nanoTime(), depth++);
+    }
+
+    public void markResponseWrite() {
+        if (responseWriteStartNanos == 0) {
+            responseWriteStartNanos = System.nanoTime();
+        }
+    }
+
+    void setPendingSql(String sql) {
+        this.pendingSql = sql;
+    }
+
+    String takePendingSql() {
+        String sql = pendingSql;
+        pendingSql = null;
+        return sql;
+    }
+
+    void finish(int status, String route) {
+        long end = System.nanoTime();
+        if (responseWriteStartNanos != 0) {
+            addSpan(new Span("serialization", "response.write",
+                    responseWriteStartNanos - startNanos, end - responseWriteStartNanos, 0));
+        }
+        this.status = status;
+        this.route = route;
+        this.durationNanos = end - startNanos;
+    }
+
+    void setKept(boolean kept) {
+        this.kept = kept;
+    }
+
+    private void addSpan(Span span) {
+        if (spans.size() < MAX_SPANS) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isKept() {
+        return kept;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    // Inclusive time per layer; nested spans of the same layer are only counted once
+    public Map<String, Double> layerBreakdownMillis() {
+        Map<String, Long> nanos = new LinkedHashMap<>();
+        Map<String, Integer> outermostDepth = new LinkedHashMap<>();
+        for (Span span : spans) {
+            outermostDepth.merge(span.layer(), span.depth(), Math::min);
+        }
+        for (Span span : spans) {
+            if (span.depth() == outermostDepth.get(span.layer())) {
+                nanos.merge(span.layer(), span.durationNanos(), Long::sum);
+            }
+        }
+        Map<String, Double> millis = new LinkedHashMap<>();
+        nanos.forEach((layer, value) -> millis.put(layer, value / 1_000_000.0));
+        return millis;
+    }
+
+    public record Span(String layer, String name, long startOffsetNanos, long durationNanos, int depth) {
+    }
+
+    public final class SpanScope implements AutoCloseable {
+        private final String layer;
+        private final String name;
+        private final long start;
+        private final int spanDepth;
+        private boolean closed;
+
+        private SpanScope(String layer, String name, long start, int spanDepth) {
+            this.layer = layer;
+            this.name = name;
+            this.start = start;
+            this.spanDepth = spanDepth;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            depth--;
+            addSpan(new Span(layer, name, start - startNanos, System.nanoTime() - start, spanDepth));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.SpringTest.tracing;
+
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the current request trace to the Prometheus exemplar sampler. Only traces the
+ * tail sampler kept are reported, so every exemplar links to a trace in the store.
+ */
+@Component
+public class TraceSpanContextSupplier implements SpanContextSupplier {
+
+    @Override
+    public String getTraceId() {
+        RequestTrace trace = RequestTrace.current();
+        return trace != null ? trace.getTraceId() : null;
+    }
+
+    @Override
+    public String getSpanId() {
+        RequestTrace trace = RequestTrace.current();
+        return trace != null ? trace.getSpanId() : null;
+    }
+
+    @Override
+    public boolean isSampled() {
+        RequestTrace trace = RequestTrace.current();
+        return trace != null && trace.isKept();
+    }
+}
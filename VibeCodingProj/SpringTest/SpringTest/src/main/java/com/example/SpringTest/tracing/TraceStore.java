@@ -0,0 +1,82 @@
+package com.example.SpringTest.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tail-sampling decision and bounded storage for finished traces. Slow requests and
+ * server errors are always kept; everything else is kept at the configured sample rate.
+ */
+@Component
+public class TraceStore {
+
+    @Value("${app.tracing.slow-threshold:500ms}")
+    private Duration slowThreshold;
+
+    @Value("${app.tracing.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${app.tracing.capacity:500}")
+    private int capacity;
+
+    private RequestTrace[] ring;
+    private int next;
+    private long keptTotal;
+
+    public boolean shouldKeep(RequestTrace trace) {
+        if (trace.getDurationNanos() >= slowThreshold.toNanos() || trace.getStatus() >= 500) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public synchronized void add(RequestTrace trace) {
+        if (ring == null) {
+            ring = new RequestTrace[Math.max(1, capacity)];
+        }
+        ring[next] = trace;
+        next = (next + 1) % ring.length;
+        keptTotal++;
+    }
+
+    public synchronized List<RequestTrace> recent(int limit, Duration minDuration) {
+        List<RequestTrace> result = new ArrayList<>();
+        if (ring == null) {
+            return result;
+        }
+        for (RequestTrace trace : ring) {
+            if (trace != null && trace.getDurationNanos() >= minDuration.toNanos()) {
+                result.add(trace);
+            }
+        }
+        result.sort(Comparator.comparing(RequestTrace::getStartedAt).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    public synchronized Optional<RequestTrace> find(String traceId) {
+        if (ring == null) {
+            return Optional.empty();
+        }
+        for (RequestTrace trace : ring) {
+            if (trace != null && trace.getTraceId().equals(traceId)) {
+                return Optional.of(trace);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized long getKeptTotal() {
+        return keptTotal;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.SpringTest.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint ({@code /actuator/traces}) listing the traces kept by the tail sampler.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @ReadOperation
+    public Map<String, Object> traces(@Nullable Integer limit, @Nullable Long minDurationMs) {
+        int max = limit != null ? limit : 50;
+        Duration minDuration = Duration.ofMillis(minDurationMs != null ? minDurationMs : 0);
+
+        List<Map<String, Object>> traces = traceStore.recent(max, minDuration).stream()
+                .map(this::summary)
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("slowThresholdMs", traceStore.getSlowThreshold().toMillis());
+        response.put("keptTotal", traceStore.getKeptTotal());
+        response.put("traces", traces);
+        return response;
+    }
+
+    @ReadOperation
+    public Map<String, Object> trace(@Selector String traceId) {
+        return traceStore.find(traceId)
+                .map(trace -> {
+                    Map<String, Object> detail = summary(trace);
+                    detail.put("spans", trace.getSpans().stream().map(span -> {
+                        Map<String, Object> s = new HashMap<>();
+                        s.put("layer", span.layer());
+                        s.put("name", span.name());
+                        s.put("depth", span.depth());
+                        s.put("startMs", span.startOffsetNanos() / 1_000_000.0);
+                        s.put("durationMs", span.durationNanos() / 1_000_000.0);
+                        return s;
+                    }).collect(Collectors.toList()));
+                    detail.put("droppedSpans", trace.getDroppedSpans());
+                    return detail;
+                })
+                .orElse(null);
+    }
+
+    private Map<String, Object> summary(RequestTrace trace) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("traceId", trace.getTraceId());
+        summary.put("method", trace.getMethod());
+        summary.put("path", trace.getPath());
+        summary.put("route", trace.getRoute());
+        summary.put("status", trace.getStatus());
+        summary.put("startedAt", trace.getStartedAt().toString());
+        summary.put("durationMs", trace.getDurationNanos() / 1_000_000.0);
+        summary.put("layers", trace.layerBreakdownMillis());
+        return summary;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.SpringTest.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records controller, service and repository spans on the current request trace.
+ * Outside a traced request the advice just proceeds.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    @Around("within(com.example.SpringTest.controller..*) && execution(public * *(..))")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint);
+    }
+
+    @Around("within(com.example.SpringTest.service..*) && execution(public * *(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", joinPoint);
+    }
+
+    @Around("target(com.example.SpringTest.repository.BookRepository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", joinPoint);
+    }
+
+    private Object trace(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return joinPoint.proceed();
+        }
+        String name = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        if ("repository".equals(layer)) {
+            name = "BookRepository." + joinPoint.getSignature().getName();
+        }
+        try (RequestTrace.SpanScope ignored = trace.span(layer, name)) {
+            return joinPoint.proceed();
+        }
+    }
+}
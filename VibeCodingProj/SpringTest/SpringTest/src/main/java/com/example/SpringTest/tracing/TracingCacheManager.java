@@ -0,0 +1,166 @@
+package com.example.SpringTest.tracing;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorates a {@link CacheManager} so cache reads and writes show up as "cache" spans.
+ */
+public class TracingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Map<String, Cache> decorated = new ConcurrentHashMap<>();
+
+    public TracingCacheManager(CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return decorated.computeIfAbsent(name, n -> new TracingCache(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    static class TracingCache implements Cache {
+
+        private final Cache delegate;
+
+        TracingCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        private RequestTrace.SpanScope span(String operation) {
+            RequestTrace trace = RequestTrace.current();
+            return trace == null ? null : trace.span("cache", delegate.getName() + "." + operation);
+        }
+
+        private static void close(RequestTrace.SpanScope scope) {
+            if (scope != null) {
+                scope.close();
+            }
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        @Nullable
+        public ValueWrapper get(Object key) {
+            RequestTrace.SpanScope scope = span("get");
+            try {
+                return delegate.get(key);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object key, @Nullable Class<T> type) {
+            RequestTrace.SpanScope scope = span("get");
+            try {
+                return delegate.get(key, type);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            RequestTrace.SpanScope scope = span("get");
+            try {
+                return delegate.get(key, valueLoader);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        public void put(Object key, @Nullable Object value) {
+            RequestTrace.SpanScope scope = span("put");
+            try {
+                delegate.put(key, value);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        @Nullable
+        public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+            RequestTrace.SpanScope scope = span("put");
+            try {
+                return delegate.putIfAbsent(key, value);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            RequestTrace.SpanScope scope = span("evict");
+            try {
+                delegate.evict(key);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            RequestTrace.SpanScope scope = span("evict");
+            try {
+                return delegate.evictIfPresent(key);
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        public void clear() {
+            RequestTrace.SpanScope scope = span("clear");
+            try {
+                delegate.clear();
+            } finally {
+                close(scope);
+            }
+        }
+
+        @Override
+        public boolean invalidate() {
+            RequestTrace.SpanScope scope = span("clear");
+            try {
+                return delegate.invalidate();
+            } finally {
+                close(scope);
+            }
+        }
+    }
+}
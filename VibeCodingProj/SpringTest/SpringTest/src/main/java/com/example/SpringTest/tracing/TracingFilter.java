@@ -0,0 +1,72 @@
+package com.example.SpringTest.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestTrace} for each API request and, once the response is written,
+ * applies the tail-sampling decision and records the request latency.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_HEADER = "X-Trace-Id";
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin(request.getMethod(), request.getRequestURI());
+        response.setHeader(TRACE_HEADER, trace.getTraceId());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : "UNKNOWN";
+            trace.finish(response.getStatus(), route);
+
+            boolean keep = traceStore.shouldKeep(trace);
+            trace.setKept(keep);
+            // Recorded while the trace is still bound so kept traces become exemplars
+            Timer.builder("books.request.latency")
+                    .description("End-to-end latency of API requests")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(trace.getDurationNanos(), TimeUnit.NANOSECONDS);
+            if (keep) {
+                traceStore.add(trace);
+            }
+            RequestTrace.clear();
+        }
+    }
+}
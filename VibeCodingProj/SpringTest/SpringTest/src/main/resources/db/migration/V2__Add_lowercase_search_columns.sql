@@ -0,0 +1,10 @@
+-- Lower-cased copies of the searchable text columns, computed by the database so every
+-- writer (JPA, JDBC batch loaders, SQL scripts) keeps them in step with the originals.
+-- Case-insensitive filters compare against these so the indexes below can be used.
+ALTER TABLE books ADD COLUMN IF NOT EXISTS title_lc VARCHAR(255) GENERATED ALWAYS AS (LOWER(title));
+ALTER TABLE books ADD COLUMN IF NOT EXISTS author_lc VARCHAR(255) GENERATED ALWAYS AS (LOWER(author));
+ALTER TABLE books ADD COLUMN IF NOT EXISTS genre_lc VARCHAR(100) GENERATED ALWAYS AS (LOWER(genre));
+
+CREATE INDEX IF NOT EXISTS idx_book_title_lc ON books(title_lc);
+CREATE INDEX IF NOT EXISTS idx_book_author_lc ON books(author_lc);
+CREATE INDEX IF NOT EXISTS idx_book_genre_lc ON books(genre_lc);
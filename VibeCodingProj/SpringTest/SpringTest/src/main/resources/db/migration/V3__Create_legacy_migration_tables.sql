@@ -0,0 +1,32 @@
+-- Bookkeeping for LegacyBookMigrator, which imports the legacy /books service database.
+
+-- ISBN reduced to its digits and check character, computed by the database like the V2
+-- lower-case columns, so legacy ISBNs written with or without hyphens or spaces can be
+-- matched against existing books through an index
+ALTER TABLE books ADD COLUMN IF NOT EXISTS isbn_norm VARCHAR(20)
+    GENERATED ALWAYS AS (UPPER(REGEXP_REPLACE(isbn, '[^0-9Xx]', '')));
+
+CREATE INDEX IF NOT EXISTS idx_book_isbn_norm ON books(isbn_norm);
+
+-- Highest legacy id below which every row has been written, per job; a restarted run resumes from here
+CREATE TABLE IF NOT EXISTS legacy_migration_checkpoint (
+    job_name VARCHAR(100) PRIMARY KEY,
+    last_legacy_id BIGINT NOT NULL,
+    completed BOOLEAN DEFAULT FALSE NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- What happened to each legacy row (INSERTED, DUPLICATE or INVALID), written in the same
+-- transaction as the books themselves so no row is ever imported twice
+CREATE TABLE IF NOT EXISTS legacy_book_map (
+    legacy_id BIGINT PRIMARY KEY,
+    book_id BIGINT,
+    outcome VARCHAR(16) NOT NULL
+);
+
+-- One row per book the migrator inserted, keyed by ISBN or normalised title and author; the
+-- primary key stops two workers inserting the same book from different chunks
+CREATE TABLE IF NOT EXISTS legacy_dedupe_key (
+    dedupe_key VARCHAR(600) PRIMARY KEY,
+    book_id BIGINT NOT NULL
+);
@@ -0,0 +1,146 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.analytics.AnalyticsEngine;
+import com.example.SpringTest.analytics.AnalyticsQuery;
+import com.example.SpringTest.analytics.BookColumnarSnapshot;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalyticsEngineTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+    private final AnalyticsEngine engine = new AnalyticsEngine(pool);
+
+    @AfterAll
+    static void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static BookColumnarSnapshot sample() {
+        return BookColumnarSnapshot.builder(6)
+                .add(1, "Fiction", "Harper Lee", new BigDecimal("14.99"), 1960, 30, true)
+                .add(2, "Fiction", "F. Scott Fitzgerald", new BigDecimal("12.99"), 1925, 50, true)
+                .add(3, "Fantasy", "J.R.R. Tolkien", new BigDecimal("25.99"), 1954, 15, true)
+                .add(4, "Fantasy", "J.R.R. Tolkien", new BigDecimal("12.99"), 1937, 35, false)
+                .add(5, "Fiction", "J.D. Salinger", new BigDecimal("13.50"), 1951, 20, true)
+                .add(6, null, "Anonymous", null, null, null, false)
+                .build();
+    }
+
+    private static AnalyticsQuery query(String groupBy, String aggregates) {
+        return new AnalyticsQuery(AnalyticsQuery.parseDimensions(groupBy), AnalyticsQuery.parseAggregates(aggregates),
+                AnalyticsQuery.Filter.NONE, null, false, 1000);
+    }
+
+    @Test
+    void averagePriceByGenre() {
+        AnalyticsEngine.AnalyticsResult result = engine.execute(sample(), query("genre", "count,avg(price),max(price)"));
+
+        assertEquals(3, result.totalGroups());
+        assertEquals(6, result.matchedRows());
+        Map<String, Object> fantasy = result.rows().get(0);
+        assertEquals("Fantasy", fantasy.get("genre"));
+        assertEquals(2L, fantasy.get("count"));
+        assertEquals(new BigDecimal("19.49"), fantasy.get("avg(price)"));
+        assertEquals(new BigDecimal("25.99"), fantasy.get("max(price)"));
+
+        Map<String, Object> unknown = result.rows().get(2);
+        assertNull(unknown.get("genre"));
+        assertNull(unknown.get("avg(price)"));
+    }
+
+    @Test
+    void groupsByDecadeAndBucketsStock() {
+        List<Map<String, Object>> decades = engine.execute(sample(), query("decade", "count")).rows();
+        assertEquals(1920, decades.get(0).get("decade"));
+        assertEquals(2L, decades.stream().filter(r -> Integer.valueOf(1950).equals(r.get("decade")))
+                .findFirst().orElseThrow().get("count"));
+
+        List<Map<String, Object>> stock = engine.execute(sample(), query("stock:25", "count,sum(stock)")).rows();
+        assertEquals(0, stock.get(0).get("stock:25"));
+        assertEquals(2L, stock.get(0).get("count"));
+        assertEquals(35L, stock.get(0).get("sum(stock)"));
+    }
+
+    @Test
+    void filtersApplyBeforeGrouping() {
+        AnalyticsQuery query = new AnalyticsQuery(AnalyticsQuery.parseDimensions("author"),
+                AnalyticsQuery.parseAggregates("count"),
+                new AnalyticsQuery.Filter("fantasy", null, null, null, true, null, null), null, false, 10);
+
+        AnalyticsEngine.AnalyticsResult result = engine.execute(sample(), query);
+        assertEquals(1, result.rows().size());
+        assertEquals("J.R.R. Tolkien", result.rows().get(0).get("author"));
+        assertEquals(1L, result.rows().get(0).get("count"));
+
+        AnalyticsQuery missingGenre = new AnalyticsQuery(List.of(), AnalyticsQuery.parseAggregates("count"),
+                new AnalyticsQuery.Filter("Poetry", null, null, null, null, null, null), null, false, 10);
+        assertEquals(0, engine.execute(sample(), missingGenre).matchedRows());
+    }
+
+    @Test
+    void genresDifferingOnlyInCaseAreOneValue() {
+        BookColumnarSnapshot snapshot = BookColumnarSnapshot.builder(4)
+                .add(1, "Fantasy", "J.R.R. Tolkien", new BigDecimal("25.99"), 1954, 15, true)
+                .add(2, "fantasy", "Ursula K. Le Guin", new BigDecimal("9.99"), 1968, 10, true)
+                .add(3, "FANTASY", "Terry Pratchett", new BigDecimal("8.99"), 1983, 5, true)
+                .add(4, "Fiction", "Harper Lee", new BigDecimal("14.99"), 1960, 30, true)
+                .build();
+
+        AnalyticsQuery filtered = new AnalyticsQuery(List.of(), AnalyticsQuery.parseAggregates("count"),
+                new AnalyticsQuery.Filter("fAnTaSy", null, null, null, null, null, null), null, false, 10);
+        assertEquals(3, engine.execute(snapshot, filtered).matchedRows());
+
+        List<Map<String, Object>> byGenre = engine.execute(snapshot, query("genre", "count")).rows();
+        assertEquals(2, byGenre.size());
+        assertEquals("Fantasy", byGenre.get(0).get("genre"));
+        assertEquals(3L, byGenre.get(0).get("count"));
+    }
+
+    @Test
+    void parallelScanMatchesSequentialTotals() {
+        Random random = new Random(7);
+        String[] genres = {"Fiction", "Fantasy", "Mystery", "History"};
+        BookColumnarSnapshot.Builder builder = BookColumnarSnapshot.builder(200_000);
+        long expectedCents = 0;
+        for (int i = 0; i < 200_000; i++) {
+            long cents = 500 + random.nextInt(5000);
+            expectedCents += cents;
+            builder.add(i, genres[i % genres.length], "Author " + (i % 5000), BigDecimal.valueOf(cents, 2),
+                    1900 + random.nextInt(120), random.nextInt(100), i % 3 != 0);
+        }
+        BookColumnarSnapshot snapshot = builder.build();
+
+        AnalyticsEngine.AnalyticsResult byAuthorYear = engine.execute(snapshot, query("author,year", "count,sum(price)"));
+        assertEquals(200_000, byAuthorYear.matchedRows());
+        assertEquals(1000, byAuthorYear.rows().size());
+
+        AnalyticsEngine.AnalyticsResult byAuthor = engine.execute(snapshot, new AnalyticsQuery(
+                AnalyticsQuery.parseDimensions("author"), AnalyticsQuery.parseAggregates("count,sum(price)"),
+                AnalyticsQuery.Filter.NONE, null, false, AnalyticsQuery.MAX_LIMIT));
+        assertEquals(5000, byAuthor.totalGroups());
+        BigDecimal total = byAuthor.rows().stream()
+                .map(r -> (BigDecimal) r.get("sum(price)"))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(BigDecimal.valueOf(expectedCents, 2), total);
+
+        AnalyticsEngine.AnalyticsResult all = engine.execute(snapshot, query("", "count,sum(price)"));
+        assertEquals(1, all.totalGroups());
+        assertEquals(BigDecimal.valueOf(expectedCents, 2), all.rows().get(0).get("sum(price)"));
+    }
+
+    @Test
+    void rejectsUnknownColumns() {
+        assertThrows(IllegalArgumentException.class, () -> AnalyticsQuery.parseDimensions("publisher"));
+        assertThrows(IllegalArgumentException.class, () -> AnalyticsQuery.parseAggregates("median(price)"));
+        assertThrows(IllegalArgumentException.class, () -> AnalyticsQuery.parseDimensions("genre:5"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.http.BookMediaTypes;
+import com.example.SpringTest.http.BookProtobufCodec;
+import com.example.SpringTest.http.BookProtobufHttpMessageConverter;
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+public class BookContentNegotiationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        bookRepository.deleteAll();
+        bookRepository.save(book("Negotiated One", "Fantasy"));
+        bookRepository.save(book("Negotiated Two", "Fiction"));
+    }
+
+    private static Book book(String title, String genre) {
+        Book book = new Book(title, "Format Author");
+        book.setGenre(genre);
+        book.setPrice(new BigDecimal("12.50"));
+        book.setPublicationYear(1999);
+        return book;
+    }
+
+    private byte[] fetchPage(MediaType accept) throws Exception {
+        return mockMvc.perform(get("/api/v1/books/pageable").accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andExpect(header().string(BookMediaTypes.SCHEMA_VERSION_HEADER, "1"))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Test
+    void protobufPageDecodesWithSchemaCodec() throws Exception {
+        Map<String, Object> page = BookProtobufCodec.readBookPage(
+                CodedInputStream.newInstance(fetchPage(BookMediaTypes.PROTOBUF)));
+
+        assertEquals(2L, page.get("totalItems"));
+        assertEquals(10, page.get("pageSize"));
+        @SuppressWarnings("unchecked")
+        List<Book> books = (List<Book>) page.get("books");
+        assertEquals(List.of("Negotiated One", "Negotiated Two"), books.stream().map(Book::getTitle).toList());
+        assertEquals(new BigDecimal("12.50"), books.get(0).getPrice());
+    }
+
+    @Test
+    void cborAndSmileKeepJsonFieldNames() throws Exception {
+        JsonNode json = objectMapper.readTree(fetchPage(MediaType.APPLICATION_JSON));
+        JsonNode cbor = objectMapper.copyWith(new CBORFactory()).readTree(fetchPage(BookMediaTypes.CBOR));
+        JsonNode smile = objectMapper.copyWith(new SmileFactory()).readTree(fetchPage(BookMediaTypes.SMILE));
+
+        assertEquals(1999, cbor.get("books").get(0).get("publication_year").asInt());
+        assertEquals(json.get("books").get(1).get("title"), cbor.get("books").get(1).get("title"));
+        assertEquals(json.get("totalItems").asLong(), smile.get("totalItems").asLong());
+        assertEquals(json.get("books").get(0).get("created_at").asText(), smile.get("books").get(0).get("created_at").asText());
+    }
+
+    @Test
+    void wildcardAcceptStillGetsJson() throws Exception {
+        mockMvc.perform(get("/api/v1/books/pageable").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void protobufAcceptKeepsTheNotFoundStatus() throws Exception {
+        mockMvc.perform(get("/api/v1/books/{id}", 987654L).accept(BookMediaTypes.PROTOBUF))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void protobufBookListDecodesWithSchemaCodec() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/v1/books/author/{author}", "Format Author")
+                        .accept(BookMediaTypes.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BookMediaTypes.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<Book> books = BookProtobufCodec.readBookList(CodedInputStream.newInstance(body));
+        assertEquals(2, books.size());
+        assertEquals("Format Author", books.get(0).getAuthor());
+    }
+
+    @Test
+    void protobufConverterOnlyTakesListsDeclaredAsBooks() {
+        BookProtobufHttpMessageConverter converter = new BookProtobufHttpMessageConverter();
+        ResolvableType bookList = ResolvableType.forClassWithGenerics(List.class, Book.class);
+        ResolvableType mapList = ResolvableType.forClassWithGenerics(List.class,
+                ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class));
+
+        assertTrue(converter.canWrite(bookList.getType(), ArrayList.class, BookMediaTypes.PROTOBUF));
+        assertFalse(converter.canWrite(mapList.getType(), ArrayList.class, BookMediaTypes.PROTOBUF));
+        assertFalse(converter.canWrite(List.class, ArrayList.class, BookMediaTypes.PROTOBUF));
+        assertFalse(converter.canWrite(ArrayList.class, BookMediaTypes.PROTOBUF));
+        assertTrue(converter.canWrite(Book.class, Book.class, BookMediaTypes.PROTOBUF));
+        assertTrue(converter.canRead(Book.class, null, BookMediaTypes.PROTOBUF));
+        assertFalse(converter.canRead(bookList.getType(), null, BookMediaTypes.PROTOBUF));
+    }
+
+    @Test
+    void protobufAcceptOnANonPageMapIsNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/v1/books/stats").accept(BookMediaTypes.PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void protobufDecoderSkipsUnknownFields() throws Exception {
+        Book book = new Book("Forward", "Compatible");
+        book.setId(7L);
+        book.setAvailable(false);
+        book.setCreatedAt(LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_000));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        BookProtobufCodec.writeBook(book, out);
+        // A field from a later schema version
+        out.writeString(42, "ignored by v1 readers");
+        out.flush();
+
+        Book decoded = BookProtobufCodec.readBook(CodedInputStream.newInstance(bytes.toByteArray()));
+        assertEquals(7L, decoded.getId());
+        assertEquals("Forward", decoded.getTitle());
+        assertFalse(decoded.getAvailable());
+        assertNull(decoded.getPrice());
+        assertEquals(book.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(BookProtobufCodec.bookSize(book), bytes.size() - CodedOutputStream.computeStringSize(42, "ignored by v1 readers"));
+    }
+}
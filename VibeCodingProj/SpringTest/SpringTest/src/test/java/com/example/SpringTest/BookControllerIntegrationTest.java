@@ -123,6 +123,14 @@ public class BookControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Book not found with id: 999"));
     }
 
+    @Test
+    @WithMockUser
+    void testGetSimilarBooks_NotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/books/{id}/similar", 999L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Book not found with id: 999"));
+    }
+
     @Test
     @WithMockUser
     void testUpdateBook_Success() throws Exception {
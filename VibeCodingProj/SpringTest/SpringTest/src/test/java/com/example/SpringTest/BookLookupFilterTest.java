@@ -0,0 +1,123 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.exception.BookNotFoundException;
+import com.example.SpringTest.index.BookLookupFilter;
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the filter only sees writes once BookService has committed them
+@SpringBootTest
+@ActiveProfiles("test")
+class BookLookupFilterTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookLookupFilter bookLookupFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(id -> jdbcTemplate.update("DELETE FROM books WHERE id = ?", id));
+    }
+
+    private static String randomIsbn() {
+        return "978" + ThreadLocalRandom.current().nextLong(1_000_000_000L, 9_999_999_999L);
+    }
+
+    private Book create(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Filter Author " + randomIsbn());
+        book.setIsbn(randomIsbn());
+        book.setPrice(BigDecimal.valueOf(9.99));
+        Book saved = bookService.createBook(book);
+        created.add(saved.getId());
+        return saved;
+    }
+
+    private double rejections() {
+        return meterRegistry.get("books.lookup.filter.rejections").tag("key", "id").counter().count();
+    }
+
+    @Test
+    void createdBooksAreFoundAndMissingIdsAreRejected() {
+        bookLookupFilter.rebuild();
+        Book removed = create("Filtered Away");
+        Book kept = create("Filtered Kept");
+        // existsById is not cached, so each call goes through the filter
+        assertTrue(bookService.existsById(removed.getId()));
+
+        // Removed behind the service's back, then rebuilt: the id is now a definite miss below the maximum
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", removed.getId());
+        bookLookupFilter.rebuild();
+
+        double before = rejections();
+        assertThrows(BookNotFoundException.class, () -> bookService.getBookById(removed.getId()));
+        assertFalse(bookService.existsById(removed.getId()));
+        assertTrue(rejections() > before);
+        assertEquals("Filtered Kept", bookService.getBookById(kept.getId()).getTitle());
+    }
+
+    @Test
+    void rowsInsertedOutsideTheServiceStayVisible() {
+        bookLookupFilter.rebuild();
+        String isbn = randomIsbn();
+        jdbcTemplate.update("INSERT INTO books (title, author, isbn, price, stock_quantity, is_available) "
+                + "VALUES ('Loaded Elsewhere', 'Bulk Author', ?, 5.00, 1, TRUE)", isbn);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM books WHERE isbn = ?", Long.class, isbn);
+        created.add(id);
+
+        assertEquals("Loaded Elsewhere", bookService.getBookById(id).getTitle());
+        assertTrue(bookService.existsById(id));
+
+        Book duplicate = new Book();
+        duplicate.setTitle("Same ISBN, Different Book");
+        duplicate.setAuthor("Another Author");
+        duplicate.setIsbn(isbn);
+        duplicate.setPrice(BigDecimal.valueOf(7.50));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> bookService.createBook(duplicate));
+        assertTrue(e.getMessage().contains(isbn));
+    }
+
+    @Test
+    void rowsInsertedOutsideTheServiceStayVisibleAfterLaterCreates() {
+        bookLookupFilter.rebuild();
+        String isbn = randomIsbn();
+        jdbcTemplate.update("INSERT INTO books (title, author, isbn, price, stock_quantity, is_available) "
+                + "VALUES ('Loaded Before A Create', 'Bulk Author', ?, 5.00, 1, TRUE)", isbn);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM books WHERE isbn = ?", Long.class, isbn);
+        created.add(id);
+
+        // The service create raises the filter's highest id past the row it never saw
+        Book later = create("Created Afterwards");
+        assertTrue(later.getId() > id);
+
+        assertTrue(bookService.existsById(id));
+        assertEquals("Loaded Before A Create", bookService.getBookById(id).getTitle());
+        assertTrue(bookService.existsById(later.getId()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import com.example.SpringTest.service.BookService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Advanced search through the specification builder: results, the SQL it emits for a given
+ * set of filters, and the H2 plan for that SQL (index used, no table scan).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.SpringTest.BookSearchSpecificationTest$CapturingInspector")
+@ActiveProfiles("test")
+@Transactional
+public class BookSearchSpecificationTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    // Records every statement Hibernate prepares in this test's application context
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        bookRepository.save(book("The Hobbit", "J.R.R. Tolkien", "Fantasy", "12.99", 1937));
+        bookRepository.save(book("Hobbit Companion", "David Day", "Fantasy", "24.50", 1997));
+        bookRepository.save(book("Hobbes and Leviathan", "Thomas Hobbes", "Philosophy", "9.00", 1651));
+        bookRepository.save(book("Dune", "Frank Herbert", "Science Fiction", "15.00", 1965));
+        bookRepository.flush();
+    }
+
+    private static Book book(String title, String author, String genre, String price, int year) {
+        Book book = new Book(title, author);
+        book.setGenre(genre);
+        book.setPrice(new BigDecimal(price));
+        book.setPublicationYear(year);
+        return book;
+    }
+
+    private List<String> titles(String title, String author, String genre, BigDecimal minPrice,
+                                BigDecimal maxPrice, Integer minYear, Integer maxYear, Boolean available) {
+        Page<Book> page = bookService.searchBooksWithFilters(title, author, genre, minPrice, maxPrice,
+                minYear, maxYear, available, FIRST_PAGE);
+        return page.getContent().stream().map(Book::getTitle).toList();
+    }
+
+    // The row query (not the count) the service sent for the given filters
+    private String searchSql(String title, String author, String genre, BigDecimal minPrice,
+                             BigDecimal maxPrice, Integer minYear, Integer maxYear, Boolean available) {
+        CapturingInspector.STATEMENTS.clear();
+        titles(title, author, genre, minPrice, maxPrice, minYear, maxYear, available);
+        return CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(" from books "))
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).contains("count("))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No search query captured: " + CapturingInspector.STATEMENTS));
+    }
+
+    private String plan(String sql) {
+        // H2 plans statements with unbound parameters, which is what the index choice sees in production
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase(Locale.ROOT);
+    }
+
+    @Test
+    void textFiltersAreCaseInsensitivePrefixes() {
+        assertEquals(List.of("Hobbit Companion", "Hobbes and Leviathan"),
+                titles("HOBB", null, null, null, null, null, null, null));
+        assertEquals(List.of("Hobbes and Leviathan"),
+                titles(null, "thomas", null, null, null, null, null, null));
+        assertEquals(List.of("The Hobbit", "Hobbit Companion"),
+                titles(null, null, "fantasy", null, null, null, null, null));
+        // Genre is an exact (case-insensitive) match, not a substring
+        assertEquals(List.of(), titles(null, null, "fanta", null, null, null, null, null));
+    }
+
+    @Test
+    void rangeAndCombinedFilters() {
+        assertEquals(List.of("The Hobbit", "Dune"),
+                titles(null, null, null, new BigDecimal("10"), new BigDecimal("20"), null, null, null));
+        assertEquals(List.of("Hobbit Companion", "Dune"),
+                titles(null, null, null, null, null, 1950, null, null));
+        assertEquals(List.of("Hobbit Companion"),
+                titles("hobbit", null, "Fantasy", new BigDecimal("20"), null, null, 2000, true));
+        assertEquals(4, titles(" ", "", null, null, null, null, null, null).size());
+    }
+
+    @Test
+    void onlySuppliedFiltersReachTheSql() {
+        String sql = searchSql(null, null, "Fantasy", null, null, null, null, null).toLowerCase(Locale.ROOT);
+        String where = sql.substring(sql.indexOf(" where "), sql.indexOf(" order by "));
+
+        assertTrue(where.contains("genre_lc=?"), sql);
+        assertFalse(where.contains("is null"), sql);
+        assertFalse(where.contains("like"), sql);
+        assertFalse(where.contains("price"), sql);
+        assertFalse(where.contains(" and "), sql);
+    }
+
+    @Test
+    void singleFiltersUseTheirIndexes() {
+        assertTrue(plan(searchSql("hob", null, null, null, null, null, null, null)).contains("IDX_BOOK_TITLE_LC"));
+        assertTrue(plan(searchSql(null, "tolk", null, null, null, null, null, null)).contains("IDX_BOOK_AUTHOR_LC"));
+        assertTrue(plan(searchSql(null, null, "fantasy", null, null, null, null, null)).contains("IDX_BOOK_GENRE_LC"));
+        assertTrue(plan(searchSql(null, null, null, new BigDecimal("5"), new BigDecimal("10"), null, null, null))
+                .contains("IDX_BOOK_PRICE"));
+        assertTrue(plan(searchSql(null, null, null, null, null, 1900, 1950, null)).contains("IDX_BOOK_PUBLICATION_YEAR"));
+    }
+
+    @Test
+    void combinedFiltersNeverScanTheTable() {
+        String plan = plan(searchSql("hob", "j.r.r", "fantasy", new BigDecimal("5"), null, 1900, null, true));
+
+        assertFalse(plan.contains("TABLESCAN"), plan);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookSecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private SessionFactory sessionFactory;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        Book book = new Book();
+        book.setTitle("Cached Book");
+        book.setAuthor("Cache Author");
+        book.setIsbn("978" + ThreadLocalRandom.current().nextLong(1_000_000_000L, 9_999_999_999L));
+        book.setPrice(BigDecimal.valueOf(10.00));
+        bookId = transactionTemplate.execute(status -> bookRepository.save(book).getId());
+
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getStatistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> bookRepository.deleteById(bookId));
+    }
+
+    @Test
+    void repeatedLoadsAreServedFromTheSecondLevelCache() {
+        transactionTemplate.executeWithoutResult(status -> bookRepository.findById(bookId).orElseThrow());
+        assertTrue(sessionFactory.getCache().containsEntity(Book.class, bookId));
+
+        transactionTemplate.executeWithoutResult(status -> bookRepository.findById(bookId).orElseThrow());
+
+        CacheRegionStatistics region = sessionFactory.getStatistics().getDomainDataRegionStatistics(Book.CACHE_REGION);
+        assertEquals(1, region.getMissCount());
+        assertEquals(1, region.getHitCount());
+    }
+
+    @Test
+    void bulkJpqlUpdateInvalidatesCachedBooks() {
+        transactionTemplate.executeWithoutResult(status -> bookRepository.findById(bookId).orElseThrow());
+        assertTrue(sessionFactory.getCache().containsEntity(Book.class, bookId));
+
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE Book b SET b.price = :price WHERE b.id = :id")
+                .setParameter("price", BigDecimal.valueOf(25.50))
+                .setParameter("id", bookId)
+                .executeUpdate());
+
+        assertFalse(sessionFactory.getCache().containsEntity(Book.class, bookId));
+        Book reloaded = transactionTemplate.execute(status -> bookRepository.findById(bookId).orElseThrow());
+        assertEquals(0, BigDecimal.valueOf(25.50).compareTo(reloaded.getPrice()));
+    }
+}
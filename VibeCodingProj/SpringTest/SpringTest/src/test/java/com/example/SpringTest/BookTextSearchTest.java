@@ -0,0 +1,162 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.index.BookTextIndex;
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: the trigram indexes only see writes once BookService has committed them
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class BookTextSearchTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookTextIndex bookTextIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+    // A made-up word, so only this test's books match
+    private String token;
+    private final List<Long> created = new ArrayList<>();
+    private Long insertedElsewhere;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            word.append((char) ('a' + ThreadLocalRandom.current().nextInt(26)));
+        }
+        token = word.toString();
+        for (String title : List.of("Alpha", "Beta", "Gamma")) {
+            Book book = new Book();
+            book.setTitle(token + " " + title);
+            book.setAuthor("Author " + token);
+            book.setPrice(BigDecimal.valueOf(12.00));
+            created.add(bookService.createBook(book).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(bookService::deleteBook);
+        if (insertedElsewhere != null) {
+            jdbcTemplate.update("DELETE FROM books WHERE id = ?", insertedElsewhere);
+        }
+    }
+
+    // Inserted behind the service's back, so only the database fallback can find it
+    private void insertOutsideTheIndex() {
+        jdbcTemplate.update("INSERT INTO books (title, author, price, stock_quantity, is_available) "
+                + "VALUES (?, 'Bulk Author', 5.00, 1, TRUE)", token + " Delta");
+        insertedElsewhere = jdbcTemplate.queryForObject("SELECT id FROM books WHERE title = ?",
+                Long.class, token + " Delta");
+    }
+
+    @Test
+    void containsSearchPagesIndexResultsInIdOrder() throws Exception {
+        assertTrue(bookTextIndex.isReady());
+
+        mockMvc.perform(get("/api/v1/books/search/contains")
+                        .param("title", token.substring(2, 7).toUpperCase())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(2))
+                .andExpect(jsonPath("$.books[0].title").value(token + " Alpha"))
+                .andExpect(jsonPath("$.books[1].title").value(token + " Beta"))
+                .andExpect(jsonPath("$.currentPage").value(0))
+                .andExpect(jsonPath("$.totalItems").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        mockMvc.perform(get("/api/v1/books/search/contains")
+                        .param("title", token)
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(1))
+                .andExpect(jsonPath("$.books[0].title").value(token + " Gamma"));
+
+        mockMvc.perform(get("/api/v1/books/search/contains").param("author", "thor " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(3));
+
+        mockMvc.perform(get("/api/v1/books/search/contains"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void fuzzySearchToleratesTyposClosestFirst() throws Exception {
+        mockMvc.perform(get("/api/v1/books/search/fuzzy").param("q", token + " alpah"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(token + " Alpha"))
+                .andExpect(jsonPath("$.length()").value(3));
+
+        mockMvc.perform(get("/api/v1/books/search/fuzzy").param("q", token).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void fallsBackToTheDatabaseUntilTheIndexIsReady() throws Exception {
+        insertOutsideTheIndex();
+
+        // Ready: answered from the index, which never saw the JDBC row
+        mockMvc.perform(get("/api/v1/books/search/contains").param("title", token))
+                .andExpect(jsonPath("$.totalItems").value(3));
+        assertEquals(3, bookService.fuzzySearch(token, 10).size());
+
+        ReflectionTestUtils.setField(bookTextIndex, "ready", false);
+        try {
+            mockMvc.perform(get("/api/v1/books/search/contains").param("title", token).param("size", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalItems").value(4))
+                    .andExpect(jsonPath("$.totalPages").value(2))
+                    .andExpect(jsonPath("$.books.length()").value(3));
+            assertEquals(4, bookService.fuzzySearch(token, 10).size());
+        } finally {
+            ReflectionTestUtils.setField(bookTextIndex, "ready", true);
+        }
+
+        // A sorted page always comes from the database, which the id-ordered index cannot serve
+        Page<Book> sorted = bookService.searchByTitle(token, PageRequest.of(0, 2, Sort.by("title").descending()));
+        assertEquals(4, sorted.getTotalElements());
+        assertEquals(List.of(token + " Gamma", token + " Delta"),
+                sorted.getContent().stream().map(Book::getTitle).toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.cache.CompactBinaryRedisSerializer;
+import com.example.SpringTest.model.Book;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares payload size and encode/decode time of the cache value serializers for the
+ * shapes we actually cache (one book, and the all_books list at several catalog sizes).
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.example.SpringTest.CacheCodecBenchmark -Dexec.classpathScope=test
+ */
+public class CacheCodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    public static void main(String[] args) {
+        List<RedisSerializer<Object>> serializers = List.of(
+                CompactBinaryRedisSerializer.jsonSerializer(),
+                new CompactBinaryRedisSerializer(0),
+                new CompactBinaryRedisSerializer(1024));
+        List<String> names = List.of("json", "binary", "binary+deflate");
+
+        System.out.printf("%-16s %-12s %12s %14s %14s%n", "serializer", "value", "bytes", "encode(us)", "decode(us)");
+        for (int catalogSize : new int[]{1, 100, 1_000, 10_000}) {
+            Object value = catalogSize == 1 ? book(1) : books(catalogSize);
+            String label = catalogSize == 1 ? "book" : "list:" + catalogSize;
+            int rounds = Math.max(5, MEASURED_ROUNDS / Math.max(1, catalogSize / 100));
+            for (int s = 0; s < serializers.size(); s++) {
+                run(names.get(s), label, serializers.get(s), value, rounds);
+            }
+        }
+    }
+
+    private static void run(String name, String label, RedisSerializer<Object> serializer, Object value, int rounds) {
+        byte[] bytes = serializer.serialize(value);
+        for (int i = 0; i < Math.min(WARMUP_ROUNDS, rounds * 4); i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            bytes = serializer.serialize(value);
+            long mid = System.nanoTime();
+            serializer.deserialize(bytes);
+            long end = System.nanoTime();
+            encodeNanos += mid - start;
+            decodeNanos += end - mid;
+        }
+
+        System.out.printf("%-16s %-12s %12d %14.1f %14.1f%n", name, label, bytes.length,
+                encodeNanos / 1_000.0 / rounds, decodeNanos / 1_000.0 / rounds);
+    }
+
+    private static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    private static Book book(long id) {
+        Book book = new Book("Benchmark Title " + id, "Author " + (id % 500));
+        book.setId(id);
+        book.setIsbn("978-" + (1_000_000_000L + id));
+        book.setDescription("Description for benchmark book " + id + " with a few more words to be realistic");
+        book.setGenre(new String[]{"Fiction", "Fantasy", "Romance", "Science Fiction"}[(int) (id % 4)]);
+        book.setPrice(BigDecimal.valueOf(999 + id % 5000, 2));
+        book.setPublicationYear(1900 + (int) (id % 124));
+        book.setStockQuantity((int) (id % 200));
+        book.setAvailable(true);
+        book.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        book.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        return book;
+    }
+}
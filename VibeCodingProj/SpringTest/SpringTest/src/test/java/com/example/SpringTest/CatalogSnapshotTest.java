@@ -0,0 +1,142 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.catalog.CatalogSnapshotWriter;
+import com.example.SpringTest.catalog.MappedCatalogSnapshot;
+import com.example.SpringTest.catalog.MappedCatalogStore;
+import com.example.SpringTest.model.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private final CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+
+    private static List<Book> catalog(int size, String titlePrefix) {
+        List<Book> books = new ArrayList<>();
+        // Reverse order: the writer must sort by id itself
+        for (int i = size; i >= 1; i--) {
+            Book book = new Book(titlePrefix + " " + i, "Author " + (i % 13));
+            book.setId((long) i * 3);
+            book.setIsbn(i % 4 == 0 ? null : "979" + String.format("%010d", i));
+            book.setDescription(i % 2 == 0 ? "Notes on édition n°" + i : null);
+            book.setGenre(i % 5 == 0 ? null : "Genre " + (i % 3));
+            book.setPrice(i % 7 == 0 ? null : BigDecimal.valueOf(999 + i, 2));
+            book.setPublicationYear(i % 11 == 0 ? null : 1900 + i % 120);
+            book.setStockQuantity(i % 9);
+            book.setAvailable(i % 17 == 0 ? null : i % 2 == 0);
+            book.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusNanos(i * 1_000L));
+            books.add(book);
+        }
+        return books;
+    }
+
+    @Test
+    void roundTripsRecordsAndIndexes() throws IOException {
+        List<Book> books = catalog(2_000, "Title");
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshotWriter.Summary summary = writer.write(books, file);
+        assertEquals(2_000, summary.books());
+        assertEquals(13, summary.authors());
+        assertEquals(3, summary.genres());
+
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+        assertEquals(2_000, snapshot.count());
+        for (Book expected : books) {
+            Book actual = snapshot.findById(expected.getId()).orElseThrow();
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getAuthor(), actual.getAuthor());
+            assertEquals(expected.getIsbn(), actual.getIsbn());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getGenre(), actual.getGenre());
+            assertEquals(expected.getPrice(), actual.getPrice());
+            assertEquals(expected.getPublicationYear(), actual.getPublicationYear());
+            assertEquals(expected.getStockQuantity(), actual.getStockQuantity());
+            assertEquals(expected.getAvailable(), actual.getAvailable());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertNull(actual.getUpdatedAt());
+        }
+        assertTrue(snapshot.findById(1L).isEmpty());
+        assertTrue(snapshot.findById(6_001L).isEmpty());
+
+        List<Book> byAuthor = snapshot.findByAuthor("Author 4");
+        assertEquals(books.stream().filter(b -> b.getAuthor().equals("Author 4")).count(), byAuthor.size());
+        for (int i = 1; i < byAuthor.size(); i++) {
+            assertTrue(byAuthor.get(i - 1).getId() < byAuthor.get(i).getId());
+        }
+        assertEquals(books.stream().filter(b -> "Genre 2".equals(b.getGenre())).count(),
+                snapshot.findByGenre("Genre 2").size());
+        assertTrue(snapshot.findByGenre("Poetry").isEmpty());
+        assertTrue(snapshot.findByAuthor(null).isEmpty());
+    }
+
+    @Test
+    void replacedFileLeavesOpenSnapshotIntact() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        writer.write(catalog(100, "First"), file);
+        MappedCatalogSnapshot first = MappedCatalogSnapshot.open(file);
+
+        writer.write(catalog(50, "Second"), file);
+        MappedCatalogSnapshot second = MappedCatalogSnapshot.open(file);
+
+        assertEquals("First 1", first.findById(3L).orElseThrow().getTitle());
+        assertEquals(100, first.count());
+        assertEquals("Second 1", second.findById(3L).orElseThrow().getTitle());
+        assertEquals(50, second.count());
+    }
+
+    @Test
+    void rejectsTruncatedOrForeignFiles() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        writer.write(catalog(100, "Title"), file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+        assertThrows(IllegalStateException.class, () -> MappedCatalogSnapshot.open(file));
+
+        Path other = Files.writeString(dir.resolve("other.snapshot"), "x".repeat(200));
+        assertThrows(IllegalStateException.class, () -> MappedCatalogSnapshot.open(other));
+    }
+
+    @Test
+    void emptyCatalogIsValid() throws IOException {
+        Path file = dir.resolve("empty.snapshot");
+        writer.write(List.of(), file);
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+        assertEquals(0, snapshot.count());
+        assertTrue(snapshot.findById(1L).isEmpty());
+        assertTrue(snapshot.findByAuthor("Anyone").isEmpty());
+    }
+
+    @Test
+    void disabledStoreNeverMapsTheFile() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        writer.write(catalog(10, "Title"), file);
+        MappedCatalogStore store = new MappedCatalogStore();
+        ReflectionTestUtils.setField(store, "path", file);
+
+        ReflectionTestUtils.setField(store, "enabled", false);
+        assertFalse(store.reloadIfChanged());
+        assertFalse(store.isAvailable());
+
+        ReflectionTestUtils.setField(store, "enabled", true);
+        assertTrue(store.reloadIfChanged());
+        assertEquals(10, store.count());
+        assertFalse(store.reloadIfChanged());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.cache.CompactBinaryRedisSerializer;
+import com.example.SpringTest.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBinaryRedisSerializerTest {
+
+    private final CompactBinaryRedisSerializer serializer = new CompactBinaryRedisSerializer(1024);
+
+    @Test
+    void roundTripsSingleBook() {
+        Book book = createTestBook(42L);
+
+        Book decoded = (Book) serializer.deserialize(serializer.serialize(book));
+
+        assertBookEquals(book, decoded);
+    }
+
+    @Test
+    void keepsNullFieldsNull() {
+        Book book = new Book("Sparse", "Author");
+        book.setStockQuantity(null);
+        book.setAvailable(null);
+
+        Book decoded = (Book) serializer.deserialize(serializer.serialize(book));
+
+        assertNull(decoded.getId());
+        assertNull(decoded.getPrice());
+        assertNull(decoded.getStockQuantity());
+        assertNull(decoded.getAvailable());
+        assertEquals("Sparse", decoded.getTitle());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compressesLargeListsAndRoundTrips() {
+        List<Book> books = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            books.add(createTestBook(i));
+        }
+
+        byte[] bytes = serializer.serialize(books);
+        List<Book> decoded = (List<Book>) serializer.deserialize(bytes);
+
+        assertEquals(1, bytes[2] & 1, "payload above threshold should be deflated");
+        assertEquals(books.size(), decoded.size());
+        for (int i = 0; i < books.size(); i++) {
+            assertBookEquals(books.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void roundTripsStatisticsMap() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBooks", 12L);
+        stats.put("availableBooks", 10);
+        stats.put("averagePrice", BigDecimal.valueOf(14.25));
+        stats.put("booksByGenre", Map.of("Fiction", 3L, "Fantasy", 4L));
+        stats.put("generatedAt", LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6000));
+
+        Map<String, Object> decoded = (Map<String, Object>) serializer.deserialize(serializer.serialize(stats));
+
+        assertEquals(stats, decoded);
+    }
+
+    @Test
+    void readsEntriesWrittenAsJson() {
+        Book book = createTestBook(7L);
+        byte[] json = CompactBinaryRedisSerializer.jsonSerializer().serialize(book);
+
+        Book decoded = (Book) serializer.deserialize(json);
+
+        assertEquals(book.getTitle(), decoded.getTitle());
+    }
+
+    @Test
+    void treatsUnknownSchemaVersionAsMiss() {
+        byte[] bytes = serializer.serialize(createTestBook(1L));
+        bytes[1] = (byte) 99;
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    private Book createTestBook(long id) {
+        Book book = new Book("Title " + id, "Author " + (id % 7));
+        book.setId(id);
+        book.setIsbn("978-0-00-" + String.format("%06d", id) + "-0");
+        book.setDescription("A fairly ordinary description for book number " + id);
+        book.setGenre(id % 2 == 0 ? "Fiction" : "Fantasy");
+        book.setPrice(new BigDecimal("12.99").add(BigDecimal.valueOf(id)));
+        book.setPublicationYear(1900 + (int) (id % 120));
+        book.setStockQuantity((int) id);
+        book.setAvailable(id % 3 != 0);
+        book.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 30).plusSeconds(id));
+        book.setUpdatedAt(LocalDateTime.of(2024, 5, 2, 10, 30).plusNanos(id * 1000));
+        return book;
+    }
+
+    private void assertBookEquals(Book expected, Book actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getIsbn(), actual.getIsbn());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getGenre(), actual.getGenre());
+        assertEquals(expected.getPrice(), actual.getPrice());
+        assertEquals(expected.getPublicationYear(), actual.getPublicationYear());
+        assertEquals(expected.getStockQuantity(), actual.getStockQuantity());
+        assertEquals(expected.getAvailable(), actual.getAvailable());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.admission.ConcurrencyLimiter;
+import com.example.SpringTest.admission.GradientConcurrencyLimit;
+import com.example.SpringTest.admission.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private static GradientConcurrencyLimit limit(int initial) {
+        return new GradientConcurrencyLimit(new GradientConcurrencyLimit.Settings(
+                initial, 4, 200, 1.5, 0.2, 0.9, 10, 10_000, 20));
+    }
+
+    // Requests whose latency follows Little's law for a server that can work on `capacity` at a time
+    private static void serve(GradientConcurrencyLimit limit, int capacity, long serviceMillis, int samples) {
+        for (int i = 0; i < samples; i++) {
+            int inFlight = limit.getLimit();
+            long rtt = serviceMillis * MILLIS * Math.max(1, inFlight) / Math.min(inFlight, capacity);
+            limit.onSample(rtt, inFlight, false);
+        }
+    }
+
+    @Test
+    void measuresTheBaselineAtTheMinimumLimit() {
+        GradientConcurrencyLimit limit = limit(20);
+        assertTrue(limit.isProbing());
+        assertEquals(4, limit.getLimit());
+
+        // Admitted before the probe took effect, so possibly queued
+        limit.onSample(500 * MILLIS, 20, false);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample((i % 2 == 0 ? 8 : 12) * MILLIS, 4, false);
+        }
+
+        assertFalse(limit.isProbing());
+        assertEquals(10.0, limit.getBaselineMillis(), 0.001);
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void growsWhileLatencyHolds() {
+        GradientConcurrencyLimit limit = limit(20);
+        serve(limit, 1_000, 10, 200);
+
+        assertEquals(200, limit.getLimit());
+    }
+
+    @Test
+    void settlesNearCapacityWhenQueueingRaisesLatency() {
+        GradientConcurrencyLimit limit = limit(10);
+        serve(limit, 30, 10, 5_000);
+
+        // Tolerance lets latency rise by half before shrinking, so the limit settles a little above capacity
+        int settled = limit.getLimit();
+        assertTrue(settled >= 25 && settled <= 60, "limit: " + settled);
+    }
+
+    @Test
+    void shrinksWhenCapacityDrops() {
+        GradientConcurrencyLimit limit = limit(20);
+        serve(limit, 100, 10, 2_000);
+        int before = limit.getLimit();
+
+        serve(limit, 10, 10, 300);
+
+        assertTrue(limit.getLimit() < before / 2, before + " -> " + limit.getLimit());
+    }
+
+    @Test
+    void remeasuresTheBaselineAfterTheProbeInterval() {
+        GradientConcurrencyLimit limit = limit(20);
+        serve(limit, 30, 10, 10_020);
+        assertTrue(limit.isProbing());
+        assertEquals(4, limit.getLimit());
+
+        // The service itself got slower; the new baseline keeps the limit from collapsing
+        serve(limit, 30, 40, 5_000);
+        assertEquals(40.0, limit.getBaselineMillis(), 0.001);
+        assertTrue(limit.getLimit() >= 25, "limit: " + limit.getLimit());
+    }
+
+    @Test
+    void backsOffOnDrops() {
+        GradientConcurrencyLimit limit = limit(100);
+        serve(limit, 1, 5, 20);
+        assertEquals(100, limit.getLimit());
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(5 * MILLIS, 100, true);
+        }
+
+        assertEquals(34, limit.getLimit());
+    }
+
+    @Test
+    void quietPeriodsDoNotRaiseTheLimit() {
+        GradientConcurrencyLimit limit = limit(40);
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(5 * MILLIS, 3, false);
+        }
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void lowerPrioritiesAreShedFirst() {
+        GradientConcurrencyLimit limit = limit(10);
+        serve(limit, 1, 5, 20);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(limit,
+                Map.of(Priority.HIGH, 1.0, Priority.NORMAL, 0.8, Priority.LOW, 0.5));
+        List<ConcurrencyLimiter.Permit> held = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            held.add(limiter.tryAcquire(Priority.LOW));
+        }
+        assertNull(limiter.tryAcquire(Priority.LOW));
+        for (int i = 0; i < 3; i++) {
+            held.add(limiter.tryAcquire(Priority.NORMAL));
+        }
+        assertNull(limiter.tryAcquire(Priority.NORMAL));
+        held.add(limiter.tryAcquire(Priority.HIGH));
+        held.add(limiter.tryAcquire(Priority.HIGH));
+        assertNull(limiter.tryAcquire(Priority.HIGH));
+        assertFalse(held.contains(null));
+
+        ConcurrencyLimiter.Permit probe = limiter.tryAcquire(Priority.CRITICAL);
+        assertNotNull(probe);
+        assertEquals(10, limiter.getInFlight());
+
+        held.forEach(permit -> permit.release(false));
+        probe.release(false);
+        held.get(0).release(false);
+        assertEquals(0, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire(Priority.LOW));
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.http.BookProtobufCodec;
+import com.example.SpringTest.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares payload size and encode/decode time of the negotiable response formats for the
+ * shapes the book endpoints return: one book, a page envelope, and the full list.
+ * JSON uses the same settings as the application (SNAKE_CASE, ISO dates).
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.example.SpringTest.ContentNegotiationBenchmark -Dexec.classpathScope=test
+ */
+public class ContentNegotiationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    interface Format {
+        byte[] encode(Object value) throws IOException;
+
+        Object decode(byte[] bytes, Object shape) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper cbor = json.copyWith(new CBORFactory());
+        ObjectMapper smile = json.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+
+        Map<String, Format> formats = new LinkedHashMap<>();
+        formats.put("json", jackson(json));
+        formats.put("cbor", jackson(cbor));
+        formats.put("smile", jackson(smile));
+        formats.put("protobuf", protobuf());
+
+        System.out.printf("%-10s %-12s %12s %14s %14s%n", "format", "value", "bytes", "encode(us)", "decode(us)");
+        Map<String, Object> shapes = new LinkedHashMap<>();
+        shapes.put("book", book(1));
+        shapes.put("page:20", page(20));
+        shapes.put("list:1000", books(1_000));
+        for (Map.Entry<String, Object> shape : shapes.entrySet()) {
+            int rounds = shape.getValue() instanceof List<?> list ? Math.max(20, MEASURED_ROUNDS / (list.size() / 50)) : MEASURED_ROUNDS;
+            for (Map.Entry<String, Format> format : formats.entrySet()) {
+                run(format.getKey(), shape.getKey(), format.getValue(), shape.getValue(), rounds);
+            }
+        }
+    }
+
+    private static void run(String name, String label, Format format, Object value, int rounds) throws IOException {
+        byte[] bytes = format.encode(value);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            format.decode(format.encode(value), value);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            bytes = format.encode(value);
+            long mid = System.nanoTime();
+            format.decode(bytes, value);
+            long end = System.nanoTime();
+            encodeNanos += mid - start;
+            decodeNanos += end - mid;
+        }
+
+        System.out.printf("%-10s %-12s %12d %14.1f %14.1f%n", name, label, bytes.length,
+                encodeNanos / 1_000.0 / rounds, decodeNanos / 1_000.0 / rounds);
+    }
+
+    private static Format jackson(ObjectMapper mapper) {
+        return new Format() {
+            public byte[] encode(Object value) throws IOException {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            public Object decode(byte[] bytes, Object shape) throws IOException {
+                if (shape instanceof Book) {
+                    return mapper.readValue(bytes, Book.class);
+                }
+                if (shape instanceof List<?>) {
+                    return mapper.readValue(bytes, mapper.getTypeFactory().constructCollectionType(List.class, Book.class));
+                }
+                // Envelope: typed books plus scalar members, like a client would bind it
+                return mapper.readValue(bytes, PageEnvelope.class);
+            }
+        };
+    }
+
+    private static Format protobuf() {
+        return new Format() {
+            public byte[] encode(Object value) throws IOException {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+                if (value instanceof Book book) {
+                    BookProtobufCodec.writeBook(book, out);
+                } else if (value instanceof List<?> list) {
+                    BookProtobufCodec.writeBookList(list, out);
+                } else {
+                    BookProtobufCodec.writeBookPage((Map<?, ?>) value, out);
+                }
+                out.flush();
+                return buffer.toByteArray();
+            }
+
+            public Object decode(byte[] bytes, Object shape) throws IOException {
+                CodedInputStream in = CodedInputStream.newInstance(bytes);
+                if (shape instanceof Book) {
+                    return BookProtobufCodec.readBook(in);
+                }
+                if (shape instanceof List<?>) {
+                    return BookProtobufCodec.readBookList(in);
+                }
+                return BookProtobufCodec.readBookPage(in);
+            }
+        };
+    }
+
+    // Envelope keys are map keys, so the naming strategy never applied to them
+    @JsonNaming(PropertyNamingStrategies.LowerCamelCaseStrategy.class)
+    public static class PageEnvelope {
+        public List<Book> books;
+        public int currentPage;
+        public long totalItems;
+        public int totalPages;
+        public int pageSize;
+        public boolean hasNext;
+        public boolean hasPrevious;
+    }
+
+    private static Map<String, Object> page(int size) {
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("books", books(size));
+        page.put("currentPage", 3);
+        page.put("totalItems", 10_000L);
+        page.put("totalPages", 10_000 / size);
+        page.put("pageSize", size);
+        page.put("hasNext", true);
+        page.put("hasPrevious", true);
+        return page;
+    }
+
+    private static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    private static Book book(long id) {
+        Book book = new Book("Benchmark Title " + id, "Author " + (id % 500));
+        book.setId(id);
+        book.setIsbn("978-" + (1_000_000_000L + id));
+        book.setDescription("Description for benchmark book " + id + " with a few more words to be realistic");
+        book.setGenre(new String[]{"Fiction", "Fantasy", "Romance", "Science Fiction"}[(int) (id % 4)]);
+        book.setPrice(BigDecimal.valueOf(999 + id % 5000, 2));
+        book.setPublicationYear(1900 + (int) (id % 124));
+        book.setStockQuantity((int) (id % 200));
+        book.setAvailable(true);
+        book.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        book.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        return book;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.migration.LegacyBookMigrator;
+import com.example.SpringTest.migration.MigrationProgress;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegacyBookMigratorTest {
+
+    // V1 seeds this many books into the new schema
+    private static final int SEEDED = 10;
+
+    private HikariDataSource legacyDb;
+    private HikariDataSource targetDb;
+    private JdbcTemplate legacy;
+    private JdbcTemplate target;
+
+    private static HikariDataSource memoryDb(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(8);
+        return pool;
+    }
+
+    @BeforeEach
+    void setUp() {
+        legacyDb = memoryDb("legacy");
+        targetDb = memoryDb("target");
+        legacy = new JdbcTemplate(legacyDb);
+        target = new JdbcTemplate(targetDb);
+        // The legacy module's ddl-auto schema for its Book entity
+        legacy.execute("CREATE TABLE book (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "title VARCHAR(255), author VARCHAR(255))");
+        Flyway.configure().dataSource(targetDb).locations("classpath:db/migration").load().migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        legacyDb.close();
+        targetDb.close();
+    }
+
+    private LegacyBookMigrator migrator(int chunkSize, int workers) {
+        return new LegacyBookMigrator(legacyDb, targetDb, new DataSourceTransactionManager(targetDb), "test-job",
+                "book", chunkSize, workers, Duration.ofSeconds(5));
+    }
+
+    private void addLegacyBooks(int from, int to) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            // Every fifth title repeats an earlier one with different case and spacing
+            String title = i % 5 == 4 ? "  book   " + (i - 1) : "Book " + i;
+            rows.add(new Object[] {title, "Author " + (i / 5 % 50)});
+        }
+        legacy.batchUpdate("INSERT INTO book (title, author) VALUES (?, ?)", rows);
+    }
+
+    private long count(String sql) {
+        return target.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void migratesDeduplicatesAndRejectsInvalidRows() {
+        addLegacyBooks(0, 2_000);
+        legacy.update("INSERT INTO book (title, author) VALUES ('1984', 'george  ORWELL')");
+        legacy.update("INSERT INTO book (title, author) VALUES ('   ', 'Nobody')");
+        legacy.update("INSERT INTO book (title, author) VALUES ('Untitled', NULL)");
+
+        MigrationProgress progress = migrator(128, 4).migrate();
+
+        assertTrue(progress.finished());
+        assertEquals(2_003, progress.totalRows());
+        assertEquals(2_003, progress.rowsWritten());
+        assertEquals(1_600, progress.inserted());
+        assertEquals(401, progress.duplicates());
+        assertEquals(2, progress.invalid());
+        assertEquals(SEEDED + 1_600, count("SELECT COUNT(*) FROM books"));
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT title_lc, author_lc FROM books "
+                + "GROUP BY title_lc, author_lc HAVING COUNT(*) > 1)"));
+        assertEquals(2_003, count("SELECT COUNT(*) FROM legacy_book_map"));
+
+        long orwell = count("SELECT id FROM books WHERE title = '1984'");
+        assertEquals(orwell, count("SELECT book_id FROM legacy_book_map WHERE legacy_id = 2001"));
+        assertEquals("Book 3", target.queryForObject("SELECT b.title FROM legacy_book_map m "
+                + "JOIN books b ON b.id = m.book_id WHERE m.legacy_id = 5", String.class));
+        assertEquals(2_003, count("SELECT last_legacy_id FROM legacy_migration_checkpoint WHERE job_name = 'test-job'"));
+    }
+
+    @Test
+    void matchesExistingBooksOnTheNormalisedIsbnThroughItsIndex() {
+        legacy.execute("CREATE TABLE catalogue (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "title VARCHAR(255), author VARCHAR(255), isbn VARCHAR(32))");
+        // V1 seeds 1984 as 978-0-452-28423-4
+        legacy.update("INSERT INTO catalogue (title, author, isbn) VALUES ('Nineteen Eighty-Four', 'Orwell', '978 0452284234')");
+        legacy.update("INSERT INTO catalogue (title, author, isbn) VALUES ('New Book', 'New Author', '0-306-40615-x')");
+        legacy.update("INSERT INTO catalogue (title, author, isbn) VALUES ('New Book Again', 'New Author', '030640615X')");
+
+        MigrationProgress progress = new LegacyBookMigrator(legacyDb, targetDb,
+                new DataSourceTransactionManager(targetDb), "isbn-job", "catalogue", 10, 1, Duration.ofSeconds(5))
+                .migrate();
+
+        assertEquals(1, progress.inserted());
+        assertEquals(2, progress.duplicates());
+        assertEquals(count("SELECT id FROM books WHERE title = '1984'"),
+                count("SELECT book_id FROM legacy_book_map WHERE legacy_id = 1"));
+        assertEquals("030640615X", target.queryForObject("SELECT isbn_norm FROM books WHERE title = 'New Book'",
+                String.class));
+        String plan = target.queryForObject("EXPLAIN SELECT id FROM books WHERE isbn_norm = '030640615X'",
+                String.class);
+        assertTrue(plan.contains("IDX_BOOK_ISBN_NORM"), plan);
+    }
+
+    @Test
+    void resumesFromTheCheckpoint() {
+        addLegacyBooks(0, 500);
+        migrator(50, 3).migrate();
+
+        addLegacyBooks(500, 800);
+        MigrationProgress second = migrator(50, 3).migrate();
+
+        assertEquals(500, second.resumedAfterId());
+        assertEquals(300, second.rowsRead());
+        assertEquals(240, second.inserted());
+        assertEquals(SEEDED + 640, count("SELECT COUNT(*) FROM books"));
+    }
+
+    @Test
+    void rowsWrittenPastTheCheckpointAreNotImportedAgain() {
+        addLegacyBooks(0, 1_000);
+        migrator(100, 4).migrate();
+
+        // As if the run had stopped before saving its checkpoint
+        target.update("UPDATE legacy_migration_checkpoint SET last_legacy_id = 300, completed = FALSE");
+        MigrationProgress rerun = migrator(100, 4).migrate();
+
+        assertEquals(700, rerun.rowsRead());
+        assertEquals(700, rerun.alreadyMigrated());
+        assertEquals(0, rerun.inserted());
+        assertEquals(SEEDED + 800, count("SELECT COUNT(*) FROM books"));
+        assertEquals(Map.of("LAST_LEGACY_ID", 1_000L, "COMPLETED", true),
+                target.queryForMap("SELECT last_legacy_id, completed FROM legacy_migration_checkpoint"));
+    }
+}
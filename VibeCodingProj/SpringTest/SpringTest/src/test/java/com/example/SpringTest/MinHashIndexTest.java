@@ -0,0 +1,115 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.index.MinHashIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashIndexTest {
+
+    private static final MinHashIndex.Settings SETTINGS = new MinHashIndex.Settings(20, 3, 2, 2, 100, 0.2);
+
+    private static final String DUNE = "A desert planet, a noble family betrayed, and a young heir who leads "
+            + "the nomads of the sands against an empire that wants the spice only their world produces";
+
+    private static final String HOBBIT = "A comfortable hobbit is swept into a quest with thirteen dwarves and "
+            + "a wizard to win back a mountain kingdom and its treasure from a dragon";
+
+    // Replaces every n-th word, so roughly 1 - 2/n of the two-word shingles survive
+    private static String variant(String text, int n, String replacement) {
+        String[] words = text.split(" ");
+        for (int i = n - 1; i < words.length; i += n) {
+            words[i] = replacement + i;
+        }
+        return String.join(" ", words);
+    }
+
+    private static List<Long> ids(List<MinHashIndex.Match> matches) {
+        return matches.stream().map(MinHashIndex.Match::id).toList();
+    }
+
+    @Test
+    void findsNearDuplicatesOnly() {
+        MinHashIndex index = new MinHashIndex(SETTINGS);
+        index.put(1, DUNE, "Science Fiction", "Frank Herbert");
+        index.put(2, variant(DUNE, 12, "sand"), "Science Fiction", "Frank Herbert");
+        index.put(3, variant(DUNE, 6, "spice"), "Science Fiction", "Brian Herbert");
+        index.put(4, HOBBIT, "Fantasy", "J.R.R. Tolkien");
+        index.put(5, null, "Science Fiction", "Frank Herbert");
+
+        List<MinHashIndex.Match> similar = index.similar(1, 10);
+
+        assertEquals(List.of(2L, 3L), ids(similar));
+        assertTrue(similar.get(0).similarity() > similar.get(1).similarity());
+        assertEquals(List.of(), index.similar(4, 10));
+        assertEquals(1, index.similar(1, 1).size());
+        assertEquals(List.of(), index.similar(99, 10));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        MinHashIndex index = new MinHashIndex(SETTINGS);
+        index.put(1, DUNE, "Science Fiction", "Frank Herbert");
+        index.put(2, variant(DUNE, 12, "sand"), "Science Fiction", "Frank Herbert");
+        index.put(3, HOBBIT, "Fantasy", "J.R.R. Tolkien");
+
+        index.put(2, variant(HOBBIT, 8, "ring"), "Fantasy", "J.R.R. Tolkien");
+        assertEquals(List.of(), index.similar(1, 10));
+        assertEquals(List.of(2L), ids(index.similar(3, 10)));
+
+        index.remove(2);
+        index.put(3, null, null, null);
+        assertEquals(List.of(), index.similar(3, 10));
+        assertFalse(index.contains(3));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void estimatesTrackExactSimilarityThroughCompaction() {
+        MinHashIndex index = new MinHashIndex(SETTINGS);
+        Random random = new Random(7);
+        String[] vocabulary = new String[2_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = "w" + i;
+        }
+        List<String> bases = new ArrayList<>();
+        for (int cluster = 0; cluster < 50; cluster++) {
+            StringBuilder base = new StringBuilder();
+            for (int w = 0; w < 40; w++) {
+                base.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+            }
+            bases.add(base.toString().trim());
+        }
+
+        // Rewrites every book several times so dead slots are compacted away along the way
+        String[] descriptions = new String[2_000];
+        for (int round = 0; round < 5; round++) {
+            for (int id = 0; id < descriptions.length; id++) {
+                descriptions[id] = variant(bases.get(random.nextInt(bases.size())), 5 + random.nextInt(20), "x" + id + "_");
+                index.put(id, descriptions[id], null, null);
+            }
+        }
+        assertEquals(descriptions.length, index.size());
+
+        double totalError = 0;
+        double worstError = 0;
+        int found = 0;
+        for (int id = 0; id < 200; id++) {
+            long[] query = index.features(descriptions[id], null, null);
+            for (MinHashIndex.Match match : index.similar(id, 50)) {
+                double exact = MinHashIndex.jaccard(query, index.features(descriptions[(int) match.id()], null, null));
+                totalError += Math.abs(exact - match.similarity());
+                worstError = Math.max(worstError, Math.abs(exact - match.similarity()));
+                found++;
+            }
+        }
+        assertTrue(found > 1_000, "matches: " + found);
+        // 60 hashes give a standard error of about 0.06
+        assertTrue(totalError / found < 0.06, "mean error: " + totalError / found);
+        assertTrue(worstError < 0.35, "worst error: " + worstError);
+    }
+}
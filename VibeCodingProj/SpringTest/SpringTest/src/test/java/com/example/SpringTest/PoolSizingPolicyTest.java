@@ -0,0 +1,94 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.datasource.PoolSizingPolicy;
+import com.example.SpringTest.datasource.PoolSizingPolicy.Action;
+import com.example.SpringTest.datasource.PoolSizingPolicy.Decision;
+import com.example.SpringTest.datasource.PoolSizingPolicy.Sample;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolSizingPolicyTest {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(5);
+
+    private static PoolSizingPolicy policy() {
+        return new PoolSizingPolicy(new PoolSizingPolicy.Bounds(5, 40, 2, Duration.ofMillis(5),
+                1.25, 4, 2, 3));
+    }
+
+    private static Sample quiet(long acquisitions, double usageMillis) {
+        return new Sample(1, 9, 0, acquisitions, INTERVAL, 0.2, usageMillis);
+    }
+
+    @Test
+    void growsToLittlesLawDemandWhenThreadsQueue() {
+        // 2000 acquisitions/s held 10 ms each -> 20 concurrent, 25 with headroom
+        Decision decision = policy().decide(10, new Sample(10, 0, 7, 10_000, INTERVAL, 40, 10));
+
+        assertEquals(Action.GROW, decision.action());
+        assertEquals(25, decision.maximumPoolSize());
+        assertEquals(25, decision.demand());
+        assertEquals(25, decision.minimumIdle());
+    }
+
+    @Test
+    void growsByStepOnSlowAcquireAndStopsAtMaxSize() {
+        PoolSizingPolicy policy = policy();
+        Sample slow = new Sample(4, 0, 0, 500, INTERVAL, 12, 5);
+
+        Decision first = policy.decide(20, slow);
+        assertEquals(Action.GROW, first.action());
+        assertEquals(24, first.maximumPoolSize());
+
+        Decision capped = policy.decide(40, slow);
+        assertEquals(Action.HOLD, capped.action());
+        assertEquals(40, capped.maximumPoolSize());
+    }
+
+    @Test
+    void shrinksOnlyAfterSustainedLowDemand() {
+        PoolSizingPolicy policy = policy();
+
+        assertEquals(Action.HOLD, policy.decide(20, quiet(100, 5)).action());
+        assertEquals(Action.HOLD, policy.decide(20, quiet(100, 5)).action());
+        Decision third = policy.decide(20, quiet(100, 5));
+        assertEquals(Action.SHRINK, third.action());
+        assertEquals(18, third.maximumPoolSize());
+        assertEquals(2, third.minimumIdle());
+
+        // A busy interval resets the count
+        policy.decide(18, quiet(100, 5));
+        policy.decide(18, new Sample(3, 0, 1, 100, INTERVAL, 8, 5));
+        assertEquals(Action.HOLD, policy.decide(18, quiet(100, 5)).action());
+    }
+
+    @Test
+    void neverShrinksBelowMinSize() {
+        PoolSizingPolicy policy = policy();
+        Decision decision = null;
+        for (int i = 0; i < 3; i++) {
+            decision = policy.decide(6, quiet(0, 0));
+        }
+        assertEquals(Action.SHRINK, decision.action());
+        assertEquals(5, decision.maximumPoolSize());
+
+        for (int i = 0; i < 3; i++) {
+            decision = policy.decide(5, quiet(0, 0));
+        }
+        assertEquals(Action.HOLD, decision.action());
+        assertEquals(5, decision.maximumPoolSize());
+    }
+
+    @Test
+    void rejectsInconsistentBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new PoolSizingPolicy.Bounds(10, 5, 2,
+                Duration.ofMillis(5), 1.25, 4, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PoolSizingPolicy.Bounds(5, 10, 6,
+                Duration.ofMillis(5), 1.25, 4, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PoolSizingPolicy.Bounds(5, 10, 2,
+                Duration.ofMillis(5), 0.5, 4, 2, 3));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.index.RankedBookList;
+import com.example.SpringTest.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedBookListTest {
+
+    private static final Comparator<Book> BY_PRICE =
+            Comparator.comparing(Book::getPrice, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()));
+
+    // Stands in for the books table and the ranked query
+    private final Map<Long, Book> table = new TreeMap<>();
+    private int queries;
+
+    private List<Book> query(String genre, int limit) {
+        queries++;
+        return table.values().stream()
+                .filter(book -> genre == null || genre.equals(book.getGenre()))
+                .sorted(BY_PRICE.thenComparing(Book::getId, Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    private RankedBookList list(String genre, int k, int slack) {
+        return new RankedBookList("test", k, slack, BY_PRICE,
+                book -> genre == null || genre.equals(book.getGenre()), n -> query(genre, n));
+    }
+
+    private static Book book(long id, String price, String genre) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        book.setAuthor("Author");
+        book.setPrice(price != null ? new BigDecimal(price) : null);
+        book.setGenre(genre);
+        return book;
+    }
+
+    private void save(RankedBookList list, Book book) {
+        table.put(book.getId(), book);
+        list.recordWrite(book);
+    }
+
+    private void delete(RankedBookList list, long id) {
+        table.remove(id);
+        list.recordDelete(id);
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).toList();
+    }
+
+    @Test
+    void servesWritesFromMemory() {
+        for (long id = 1; id <= 30; id++) {
+            table.put(id, book(id, id + ".00", null));
+        }
+        RankedBookList list = list(null, 3, 2);
+        assertEquals(List.of(30L, 29L, 28L), ids(list.top()));
+
+        save(list, book(31, "100.00", null));
+        save(list, book(32, "5.00", null));
+        save(list, book(29, "0.50", null));
+        delete(list, 30);
+
+        assertEquals(List.of(31L, 28L, 27L), ids(list.top()));
+        assertEquals(1, queries);
+        assertTrue(list.size() <= 5);
+    }
+
+    @Test
+    void reloadsWhenEntriesFallOutBelowK() {
+        for (long id = 1; id <= 30; id++) {
+            table.put(id, book(id, id + ".00", null));
+        }
+        RankedBookList list = list(null, 3, 2);
+        list.top();
+
+        // Moving a held entry down past the unheld rows must not put it back in the wrong place
+        save(list, book(30, "1.50", null));
+        delete(list, 29);
+        delete(list, 28);
+
+        assertEquals(List.of(27L, 26L, 25L), ids(list.top()));
+        assertEquals(2, queries);
+        assertEquals(2, list.getReloads());
+    }
+
+    @Test
+    void invalidateReloadsEvenAfterLaterWrites() {
+        for (long id = 1; id <= 30; id++) {
+            table.put(id, book(id, id + ".00", null));
+        }
+        RankedBookList list = list(null, 3, 2);
+        list.top();
+
+        // Loaded behind the list's back, as a bulk import would
+        table.put(40L, book(40, "90.00", null));
+        list.invalidate();
+        save(list, book(41, "1.00", null));
+
+        assertEquals(List.of(40L, 30L, 29L), ids(list.top()));
+        assertEquals(2, list.getReloads());
+    }
+
+    @Test
+    void smallTablesAreHeldCompletely() {
+        table.put(1L, book(1, null, null));
+        table.put(2L, book(2, "3.00", null));
+        RankedBookList list = list(null, 5, 0);
+
+        assertEquals(List.of(2L, 1L), ids(list.top()));
+        save(list, book(3, "1.00", null));
+        delete(list, 2);
+        assertEquals(List.of(3L, 1L), ids(list.top()));
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void matchesTheQueryUnderRandomWrites() {
+        Random random = new Random(46);
+        String[] genres = {"Fiction", "Science", "History"};
+        RankedBookList all = list(null, 10, 5);
+        RankedBookList science = list("Science", 4, 2);
+        long nextId = 1;
+        for (int op = 0; op < 5_000; op++) {
+            int choice = random.nextInt(10);
+            if (choice < 5 || table.size() < 5) {
+                Book book = book(nextId++, random.nextInt(20) + ".00", genres[random.nextInt(genres.length)]);
+                save(all, book);
+                science.recordWrite(book);
+            } else {
+                List<Long> ids = new ArrayList<>(table.keySet());
+                long id = ids.get(random.nextInt(ids.size()));
+                if (choice < 8) {
+                    String price = random.nextInt(25) == 0 ? null : random.nextInt(20) + ".00";
+                    Book book = book(id, price, genres[random.nextInt(genres.length)]);
+                    save(all, book);
+                    science.recordWrite(book);
+                } else {
+                    delete(all, id);
+                    science.recordDelete(id);
+                }
+            }
+            assertEquals(ids(query(null, 10)), ids(all.top()), "after operation " + op);
+            assertEquals(ids(query("Science", 4)), ids(science.top()), "after operation " + op);
+        }
+        // The slack keeps reloads well below one per write
+        assertTrue(all.getReloads() < 1_000, "reloads: " + all.getReloads());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.cache.CompactBinaryRedisSerializer;
+import com.example.SpringTest.cache.ResilientCacheManager;
+import com.example.SpringTest.model.Book;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientCacheManagerTest {
+
+    // Stands in for Redis: a map that can be made slow or unreachable
+    private final ConcurrentMapCache store = new ConcurrentMapCache("books");
+    private volatile long delayMillis;
+    private volatile boolean down;
+
+    private CircuitBreaker breaker;
+    private ResilientCacheManager manager;
+    private Cache cache;
+
+    private class FlakyCache implements Cache {
+
+        private void call() {
+            if (down) {
+                throw new RedisConnectionFailureException("Connection refused");
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RedisConnectionFailureException("Interrupted");
+                }
+            }
+        }
+
+        @Override
+        public String getName() {
+            return store.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store;
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            call();
+            return store.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            call();
+            return store.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            call();
+            return store.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            call();
+            store.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            call();
+            store.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            call();
+            store.clear();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        breaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        AbstractCacheManager redis = new AbstractCacheManager() {
+            @Override
+            protected List<Cache> loadCaches() {
+                return List.of(new FlakyCache());
+            }
+        };
+        redis.afterPropertiesSet();
+        manager = new ResilientCacheManager(redis, breaker, CompactBinaryRedisSerializer.jsonSerializer(),
+                new ResilientCacheManager.Settings(Duration.ofMillis(50), 2, 1, 100, Duration.ofMinutes(1), 1_000));
+        cache = manager.getCache("books");
+    }
+
+    private static Book book(long id, String title) {
+        Book book = new Book(title, "Author");
+        book.setId(id);
+        book.setIsbn("isbn-" + id);
+        return book;
+    }
+
+    @Test
+    void slowRedisCostsAtMostTheTimeoutAndOpensTheBreaker() {
+        store.put(1L, book(1, "Cached"));
+        delayMillis = 1_000;
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            assertNull(cache.get(1L));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(4, manager.getTimeouts());
+        // Open: answered without touching Redis at all
+        long start = System.nanoTime();
+        assertNull(cache.get(1L));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void servesLocalCopiesAndDefersInvalidationsWhileOpen() throws Exception {
+        store.put(1L, book(1, "Stale"));
+        breaker.transitionToOpenState();
+
+        Book fresh = book(1, "Fresh");
+        cache.put(1L, fresh);
+        cache.put(2L, book(2, "Second"));
+        cache.evict(2L);
+
+        Book local = cache.get(1L, Book.class);
+        assertEquals("Fresh", local.getTitle());
+        assertNotSame(fresh, local);
+        assertNull(cache.get(2L));
+        assertEquals(2, manager.getDeferredKeys());
+        assertEquals("Stale", ((Book) store.get(1L).get()).getTitle());
+
+        // Still pending after closing, so reads keep bypassing the stale Redis value until it is invalidated
+        breaker.transitionToClosedState();
+        await(() -> manager.getDeferredKeys() == 0);
+        assertNull(store.get(1L));
+        // A miss in Redis again, so the next read loads the current row from the database
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void failedWritesAreReplayedAfterRecovery() throws Exception {
+        store.put(1L, book(1, "Stale"));
+        down = true;
+        cache.put(1L, book(1, "Fresh"));
+        cache.clear();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        down = false;
+        assertNull(cache.get(1L));
+        await(() -> store.get(1L) == null);
+        store.put(5L, book(5, "Direct"));
+        await(() -> cache.get(5L) != null);
+
+        cache.put(3L, book(3, "Third"));
+        assertEquals("Third", ((Book) store.get(3L).get()).getTitle());
+    }
+
+    @Test
+    void fullBulkheadFallsBackWithoutChargingTheBreaker() throws Exception {
+        delayMillis = 300;
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            long key = i;
+            calls.add(callers.submit(() -> {
+                start.await();
+                return cache.get(key);
+            }));
+        }
+        start.countDown();
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        // Two running and one queued at most; the other callers never reached Redis
+        assertTrue(manager.getBulkheadRejections() >= 5, "rejections: " + manager.getBulkheadRejections());
+        assertEquals(8 - manager.getBulkheadRejections(), breaker.getMetrics().getNumberOfBufferedCalls());
+    }
+
+    // The replay runs on a bulkhead thread
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the replay");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.SpringTest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.SpringTest.logging.RingBufferAsyncAppender;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("test");
+
+    RingBufferAsyncAppenderTest() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    @Test
+    void deliversEventsInOrder() {
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        target.setContext(context);
+        target.start();
+        RingBufferAsyncAppender appender = createAppender(target, 2048);
+
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend(event(Level.INFO, "message " + i));
+        }
+        appender.stop();
+
+        assertEquals(1000, target.list.size());
+        assertEquals("message 0", target.list.get(0).getFormattedMessage());
+        assertEquals("message 999", target.list.get(999).getFormattedMessage());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void dropsDebugEventsWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender target = new BlockingAppender(release);
+        target.setContext(context);
+        target.start();
+        RingBufferAsyncAppender appender = createAppender(target, 8);
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(Level.DEBUG, "debug " + i));
+        }
+
+        assertTrue(appender.getDroppedCount(Level.DEBUG) > 0);
+        release.countDown();
+        appender.stop();
+    }
+
+    private RingBufferAsyncAppender createAppender(Appender<ILoggingEvent> target, int bufferSize) {
+        RingBufferAsyncAppender appender = new RingBufferAsyncAppender();
+        appender.setContext(context);
+        appender.setName("async-test");
+        appender.setBufferSize(bufferSize);
+        appender.setMaxBlockMillis(0);
+        appender.addAppender(target);
+        appender.start();
+        return appender;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch release;
+
+        BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.SpringTest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.SpringTest.logging.SamplingTurboFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.spi.LocationAwareLogger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    SamplingTurboFilterTest() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+
+        filter.setContext(context);
+        filter.addRule("org.hibernate.orm.jdbc.bind:0:10");
+        filter.addRule("org.hibernate.SQL:200:1");
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    private Logger logger(String name, Level level) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(level);
+        return logger;
+    }
+
+    private SamplingTurboFilter.Rule rule(String prefix) {
+        return filter.getRules().stream().filter(r -> r.getPrefix().equals(prefix)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void guardedAndUnguardedCallsAreSampledAlike() {
+        Logger bind = logger("org.hibernate.orm.jdbc.bind", Level.TRACE);
+
+        for (int i = 0; i < 1000; i++) {
+            if (bind.isTraceEnabled()) {
+                bind.trace("binding parameter [{}]", i);
+            }
+        }
+        assertEquals(100, appender.list.size());
+
+        for (int i = 0; i < 1000; i++) {
+            bind.trace("binding parameter [{}]", i);
+        }
+        assertEquals(200, appender.list.size());
+        assertEquals(1800, rule("org.hibernate.orm.jdbc.bind").getSampledOut());
+    }
+
+    @Test
+    void locationAwareCallsAsMadeByJbossLoggingAreSampled() {
+        // jboss-logging's tracef checks isTraceEnabled, then logs the formatted text through LocationAwareLogger
+        Logger bind = logger("org.hibernate.orm.jdbc.bind", Level.TRACE);
+
+        for (int i = 0; i < 1000; i++) {
+            if (bind.isTraceEnabled()) {
+                bind.log(null, "org.jboss.logging.Logger", LocationAwareLogger.TRACE_INT,
+                        "binding parameter (" + i + ")", null, null);
+            }
+        }
+        assertEquals(100, appender.list.size());
+        assertEquals("binding parameter (0)", appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    void rateLimitCountsOnlyLoggedStatements() {
+        Logger sql = logger("org.hibernate.SQL", Level.DEBUG);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            if (sql.isDebugEnabled()) {
+                sql.debug("select b1_0.id from books b1_0 where b1_0.id=?");
+            }
+        }
+        long seconds = (System.nanoTime() - start) / 1_000_000_000L + 1;
+
+        // Each one-second window admits 200; the loop may straddle a window boundary
+        int logged = appender.list.size();
+        assertTrue(logged >= 200 && logged <= 200 * (seconds + 1), "logged " + logged);
+        assertEquals(1000 - logged, rule("org.hibernate.SQL").getRateLimited());
+    }
+
+    @Test
+    void otherEventsAreNotCounted() {
+        Logger sql = logger("org.hibernate.SQL", Level.INFO);
+        Logger app = logger("com.example.SpringTest", Level.DEBUG);
+
+        for (int i = 0; i < 500; i++) {
+            sql.debug("below the logger level");
+            sql.info("info always passes");
+            app.debug("no rule for this logger");
+        }
+
+        assertEquals(1000, appender.list.size());
+        assertEquals(0, rule("org.hibernate.SQL").getRateLimited());
+        assertEquals(0, rule("org.hibernate.SQL").getSampledOut());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.index.MinHashIndex;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds the similar-books index over a synthetic catalogue (one million books by default)
+ * and reports build rate, query latency, and recall and precision against exact Jaccard
+ * similarity, for a few band/row layouts.
+ *
+ * Books come in clusters of {@value #CLUSTER_SIZE}, like editions or a series: every member
+ * rewrites a random share of up to half the words of the cluster's description. Books in
+ * different clusters share only their genre, so the exact neighbours of a book are found by
+ * comparing it with its own cluster rather than with the whole catalogue. Recall is the share
+ * of those neighbours at or above {@value #RELEVANT} that are returned; precision is the share
+ * of results whose exact similarity reaches the configured minimum.
+ *
+ * Run from the IDE or with (the heap must hold the index, roughly 400 MB per million books):
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-Xmx2g -cp %classpath com.example.SpringTest.SimilarityIndexBenchmark 1000000"
+ */
+public class SimilarityIndexBenchmark {
+
+    private static final int CLUSTER_SIZE = 8;
+    private static final int DESCRIPTION_WORDS = 40;
+    private static final int VOCABULARY = 20_000;
+    private static final String[] GENRES = {"Fiction", "Fantasy", "Romance", "Science Fiction", "Mystery",
+            "Thriller", "Horror", "Biography", "History", "Poetry", "Drama", "Travel", "Cooking", "Children",
+            "Young Adult", "Philosophy", "Science", "Art", "Religion", "Business"};
+
+    private static final int QUERIES = 10_000;
+    private static final int QUALITY_QUERIES = 2_000;
+    private static final int RESULTS = 10;
+    private static final double RELEVANT = 0.5;
+
+    public static void main(String[] args) {
+        int books = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<int[]> layouts = List.of(new int[]{10, 6}, new int[]{20, 3}, new int[]{30, 2});
+
+        System.out.printf("%,d books, top %d, relevant = exact Jaccard >= %.1f%n", books, RESULTS, RELEVANT);
+        System.out.printf("%-12s %12s %10s %10s %10s %10s %10s %12s%n", "bands x rows", "build(k/s)",
+                "p50(us)", "p99(us)", "max(us)", "recall", "precision", "heap(MB)");
+        for (int[] layout : layouts) {
+            run(books, new MinHashIndex.Settings(layout[0], layout[1], 2, 2, 100, 0.2));
+        }
+    }
+
+    private static void run(int books, MinHashIndex.Settings settings) {
+        long heapBefore = usedHeap();
+        MinHashIndex index = new MinHashIndex(settings);
+        long start = System.nanoTime();
+        for (int id = 0; id < books; id++) {
+            index.put(id, description(id), genre(id), author(id));
+        }
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+        long heap = usedHeap() - heapBefore;
+
+        Random random = new Random(11);
+        for (int i = 0; i < QUERIES; i++) {
+            index.similar(random.nextInt(books), RESULTS);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long id = random.nextInt(books);
+            long queryStart = System.nanoTime();
+            index.similar(id, RESULTS);
+            latencies[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(latencies);
+
+        // Recall counts relevant cluster members among the results, up to the number of results asked for
+        long relevant = 0;
+        long relevantFound = 0;
+        long returned = 0;
+        long returnedRelevant = 0;
+        for (int i = 0; i < QUALITY_QUERIES; i++) {
+            int id = random.nextInt(books);
+            long[] query = index.features(description(id), genre(id), author(id));
+            Set<Long> neighbours = new HashSet<>();
+            int first = id - id % CLUSTER_SIZE;
+            for (int other = first; other < Math.min(books, first + CLUSTER_SIZE); other++) {
+                if (other != id && MinHashIndex.jaccard(query,
+                        index.features(description(other), genre(other), author(other))) >= RELEVANT) {
+                    neighbours.add((long) other);
+                }
+            }
+            List<MinHashIndex.Match> matches = index.similar(id, RESULTS);
+            relevant += Math.min(RESULTS, neighbours.size());
+            for (MinHashIndex.Match match : matches) {
+                returned++;
+                if (neighbours.contains(match.id())) {
+                    relevantFound++;
+                }
+                int other = (int) match.id();
+                if (MinHashIndex.jaccard(query, index.features(description(other), genre(other), author(other)))
+                        >= settings.minSimilarity()) {
+                    returnedRelevant++;
+                }
+            }
+        }
+
+        System.out.printf("%-12s %12.0f %10.1f %10.1f %10.1f %10.3f %10.3f %12d%n",
+                settings.bands() + "x" + settings.rows(), books / buildSeconds / 1_000,
+                latencies[QUERIES / 2] / 1_000.0, latencies[QUERIES * 99 / 100] / 1_000.0,
+                latencies[QUERIES - 1] / 1_000.0, relevant == 0 ? 1.0 : relevantFound / (double) relevant,
+                returned == 0 ? 1.0 : returnedRelevant / (double) returned, heap / (1024 * 1024));
+        if (index.size() != books) {
+            throw new IllegalStateException("Indexed " + index.size() + " of " + books + " books");
+        }
+    }
+
+    private static String description(int id) {
+        int cluster = id / CLUSTER_SIZE;
+        Random base = new Random(cluster * 0x9e3779b97f4a7c15L);
+        Random edits = new Random(id * 0xc2b2ae3d27d4eb4fL + 1);
+        double rewrite = edits.nextDouble() * 0.5;
+        StringBuilder description = new StringBuilder();
+        for (int w = 0; w < DESCRIPTION_WORDS; w++) {
+            int word = word(base);
+            if (edits.nextDouble() < rewrite) {
+                word = word(edits);
+            }
+            description.append('w').append(word).append(' ');
+        }
+        return description.toString();
+    }
+
+    // Skewed towards low indexes, so some words are as common as in real text
+    private static int word(Random random) {
+        double u = random.nextDouble();
+        return (int) (VOCABULARY * u * u * u);
+    }
+
+    private static String genre(int id) {
+        return GENRES[(id / CLUSTER_SIZE) % GENRES.length];
+    }
+
+    private static String author(int id) {
+        return "Author " + (id / CLUSTER_SIZE);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.SpringTest;
+
+import com.example.SpringTest.index.TrigramIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static long[] scan(Map<Long, String> values, String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        return values.entrySet().stream()
+                .filter(entry -> entry.getValue().toLowerCase(Locale.ROOT).contains(needle))
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "The Great Gatsby");
+        index.put(2, "Great Expectations");
+        index.put(3, "The Grapes of Wrath");
+        index.put(4, "Gatsby");
+
+        assertArrayEquals(new long[]{1, 2}, index.containing("GREAT"));
+        assertArrayEquals(new long[]{1, 4}, index.containing("atsb"));
+        assertArrayEquals(new long[]{1, 3}, index.containing("the gr"));
+        // Every trigram occurs, but not in sequence
+        assertArrayEquals(new long[0], index.containing("gatsby great"));
+        assertArrayEquals(new long[0], index.containing("xyz"));
+        // Too short for trigrams
+        assertArrayEquals(new long[]{1, 2, 3}, index.containing("Gr"));
+        assertArrayEquals(new long[]{1, 2, 3, 4}, index.containing(""));
+    }
+
+    @Test
+    void updatesAndDeletesAreVisibleImmediately() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Dune");
+        index.put(2, "Dune Messiah");
+
+        index.put(1, "Children of Dune");
+        index.remove(2);
+        index.put(3, null);
+
+        assertArrayEquals(new long[]{1}, index.containing("dune"));
+        assertArrayEquals(new long[]{1}, index.containing("children"));
+        assertArrayEquals(new long[0], index.containing("messiah"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void ranksTypoTolerantMatches() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Harry Potter and the Philosopher's Stone");
+        index.put(2, "Harry Potter");
+        index.put(3, "Pottery for Beginners");
+        index.put(4, "The Hobbit");
+
+        List<TrigramIndex.Match> matches = index.similar("hary poter", 10, 0.5);
+
+        // Both Harry Potter titles share every trigram of the query that survived the typos
+        assertEquals(List.of(2L, 1L), matches.stream().map(TrigramIndex.Match::id).toList());
+        assertTrue(matches.get(0).coverage() > matches.get(1).coverage());
+        assertTrue(index.similar("hobit", 10, 0.5).stream().anyMatch(match -> match.id() == 4));
+        assertEquals(1, index.similar("hary poter", 1, 0.5).size());
+        assertTrue(index.similar("zz", 10, 0.5).isEmpty());
+    }
+
+    @Test
+    void matchesAScanUnderRandomWrites() {
+        String[] words = {"war", "peace", "ward", "reward", "pea", "ace", "warden", "space", "aces", "drawer"};
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        Map<Long, String> values = new TreeMap<>();
+
+        // Enough churn that stale entries are compacted several times
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                values.remove(id);
+            } else {
+                StringBuilder value = new StringBuilder();
+                for (int w = 1 + random.nextInt(3); w > 0; w--) {
+                    value.append(words[random.nextInt(words.length)]).append(random.nextBoolean() ? " " : "");
+                }
+                String text = random.nextBoolean() ? value.toString().toUpperCase(Locale.ROOT) : value.toString();
+                index.put(id, text);
+                values.put(id, text);
+            }
+            if (step % 500 == 0) {
+                for (String term : List.of("war", "ward", "ace", "eace", "a", "r w", "aces wa", "drawer reward")) {
+                    assertArrayEquals(scan(values, term), index.containing(term), "step " + step + ", term " + term);
+                }
+            }
+        }
+        assertEquals(values.size(), index.size());
+    }
+}
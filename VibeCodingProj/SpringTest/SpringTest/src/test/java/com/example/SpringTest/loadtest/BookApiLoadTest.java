@@ -0,0 +1,144 @@
+package com.example.SpringTest.loadtest;
+
+import com.example.SpringTest.index.BookLookupFilter;
+import com.example.SpringTest.index.BookRankings;
+import com.example.SpringTest.index.BookSimilarityIndex;
+import com.example.SpringTest.index.BookTextIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Release load run against the full app on a random port with a seeded in-memory H2.
+ * Excluded from the normal build; run it with {@code mvn -P load-test test} and tune it
+ * with the {@code loadtest.*} properties, e.g. {@code -Dloadtest.rate-per-second=500}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+public class BookApiLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookApiLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookLookupFilter bookLookupFilter;
+
+    @Autowired
+    private BookRankings bookRankings;
+
+    @Autowired
+    private BookTextIndex bookTextIndex;
+
+    @Autowired
+    private BookSimilarityIndex bookSimilarityIndex;
+
+    @Value("${loadtest.name:books-api}")
+    private String runName;
+
+    @Value("${loadtest.seed-books:10000}")
+    private int seedBooks;
+
+    @Value("${loadtest.rate-per-second:200}")
+    private double ratePerSecond;
+
+    @Value("${loadtest.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:60s}")
+    private Duration duration;
+
+    @Value("${loadtest.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${loadtest.request-timeout:10s}")
+    private Duration requestTimeout;
+
+    @Value("${loadtest.mix}")
+    private String mix;
+
+    @Value("${loadtest.cache:local}")
+    private String cacheMode;
+
+    @Value("${loadtest.report-dir:target/load-reports}")
+    private String reportDir;
+
+    @Value("${loadtest.baseline:}")
+    private String baseline;
+
+    @Value("${loadtest.max-error-rate:0.01}")
+    private double maxErrorRate;
+
+    @TestConfiguration
+    static class LocalCacheConfiguration {
+
+        // Lets the harness run where no Redis is available; loadtest.cache=redis measures the real setup
+        @Bean
+        @Primary
+        @ConditionalOnProperty(name = "loadtest.cache", havingValue = "local", matchIfMissing = true)
+        public CacheManager localCacheManager() {
+            return new ConcurrentMapCacheManager("books", "book_stats");
+        }
+    }
+
+    @Test
+    void runLoadPlan() throws Exception {
+        // Seeded over JDBC for speed, so every in-memory structure has to be rebuilt to see the rows
+        long[] seededIds = new LoadTestSeeder(jdbcTemplate).seed(seedBooks, 42L);
+        bookLookupFilter.rebuild();
+        bookRankings.rebuild();
+        bookTextIndex.rebuild();
+        bookSimilarityIndex.rebuild();
+
+        LoadContext context = new LoadContext(URI.create("http://localhost:" + port), seededIds[0], seededIds[1],
+                LoadTestSeeder.AUTHORS, LoadTestSeeder.GENRES, LoadTestSeeder.KEYWORDS);
+        List<Scenario> scenarios = BookApiScenarios.fromMix(mix);
+        LoadPlan plan = new LoadPlan(ratePerSecond, warmup, duration, maxInFlight, requestTimeout, scenarios);
+
+        OpenModelLoadGenerator.LoadResult result = new OpenModelLoadGenerator().run(plan, context);
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("seededBooks", seedBooks);
+        environment.put("cache", cacheMode);
+        environment.put("mix", mix);
+        LoadReport report = new LoadReport(runName, plan, result, environment);
+        Path written = report.write(Path.of(reportDir));
+        logger.info("Load report written to {}", written.toAbsolutePath());
+
+        if (!baseline.isBlank() && Files.exists(Path.of(baseline))) {
+            report.compareTo(Path.of(baseline)).forEach(line -> logger.info("vs baseline: {}", line));
+        }
+
+        double errorRate = (double) ((Map<?, ?>) report.asMap().get("total")).get("errorRate");
+        assertTrue(errorRate <= maxErrorRate,
+                "Error rate " + errorRate + " exceeds loadtest.max-error-rate " + maxErrorRate + ", see " + written);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.SpringTest.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * The request scripts for /api/v1/books. A mix string such as {@code "get:15,search:25"}
+ * picks which ones run and how often.
+ */
+public final class BookApiScenarios {
+
+    private static final String BASE = "/api/v1/books";
+
+    private static final Map<String, Function<LoadContext, HttpRequest>> SCRIPTS = new LinkedHashMap<>();
+
+    static {
+        SCRIPTS.put("list", ctx -> get(ctx, BASE));
+        SCRIPTS.put("pageable", ctx -> get(ctx, BASE + "/pageable?page=" + random(0, 50)
+                + "&size=20&sortBy=title&sortDir=" + (ThreadLocalRandom.current().nextBoolean() ? "asc" : "desc")));
+        SCRIPTS.put("get", ctx -> get(ctx, BASE + "/" + ctx.randomSeededId()));
+        SCRIPTS.put("search", ctx -> get(ctx, BASE + "/search?genre=" + encode(ctx.randomGenre())
+                + "&minPrice=" + random(5, 20) + "&maxPrice=" + random(20, 60) + "&size=20"));
+        SCRIPTS.put("search-author", ctx -> get(ctx, BASE + "/search?author=" + encode(ctx.randomAuthor()) + "&size=20"));
+        SCRIPTS.put("text-search", ctx -> get(ctx, BASE + "/search/text?q=" + encode(ctx.randomKeyword()) + "&size=20"));
+        SCRIPTS.put("stats", ctx -> get(ctx, BASE + "/stats"));
+        SCRIPTS.put("create", BookApiScenarios::create);
+        SCRIPTS.put("update", BookApiScenarios::update);
+    }
+
+    private BookApiScenarios() {
+    }
+
+    public static List<Scenario> fromMix(String mix) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split(":");
+            Function<LoadContext, HttpRequest> script = SCRIPTS.get(parts[0]);
+            if (script == null) {
+                throw new IllegalArgumentException("Unknown scenario '" + parts[0] + "', expected one of " + SCRIPTS.keySet());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            scenarios.add(new Scenario(parts[0], weight, script));
+        }
+        return scenarios;
+    }
+
+    private static HttpRequest create(LoadContext ctx) {
+        long n = ctx.nextSequence();
+        String body = bookJson("Load Test Book " + n, ctx.randomAuthor(), String.format("978%010d", n),
+                ctx.randomGenre(), random(5, 60));
+        return HttpRequest.newBuilder(ctx.uri(BASE))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest update(LoadContext ctx) {
+        long id = ctx.randomSeededId();
+        // The seeded ISBN is kept so the unique constraint does not turn updates into conflicts
+        String body = bookJson("Updated Book " + id, ctx.randomAuthor(), LoadTestSeeder.seededIsbn(id),
+                ctx.randomGenre(), random(5, 60));
+        return HttpRequest.newBuilder(ctx.uri(BASE + "/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String bookJson(String title, String author, String isbn, String genre, int price) {
+        return "{\"title\":\"" + title + "\",\"author\":\"" + author + "\",\"isbn\":\"" + isbn
+                + "\",\"genre\":\"" + genre + "\",\"price\":" + price + ".99,\"publicationYear\":" + random(1900, 2024)
+                + ",\"stockQuantity\":" + random(0, 100) + ",\"description\":\"Written by the load harness\"}";
+    }
+
+    private static HttpRequest get(LoadContext ctx, String pathAndQuery) {
+        return HttpRequest.newBuilder(ctx.uri(pathAndQuery)).GET().build();
+    }
+
+    private static int random(int fromInclusive, int toExclusive) {
+        return ThreadLocalRandom.current().nextInt(fromInclusive, toExclusive);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.SpringTest.loadtest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What a scenario needs to build its request: where the app runs and what was seeded.
+ */
+public class LoadContext {
+
+    private final URI baseUri;
+    private final long minSeededId;
+    private final long maxSeededId;
+    private final List<String> authors;
+    private final List<String> genres;
+    private final List<String> keywords;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public LoadContext(URI baseUri, long minSeededId, long maxSeededId,
+                       List<String> authors, List<String> genres, List<String> keywords) {
+        this.baseUri = baseUri;
+        this.minSeededId = minSeededId;
+        this.maxSeededId = maxSeededId;
+        this.authors = authors;
+        this.genres = genres;
+        this.keywords = keywords;
+    }
+
+    public URI uri(String pathAndQuery) {
+        return baseUri.resolve(pathAndQuery);
+    }
+
+    public long randomSeededId() {
+        return ThreadLocalRandom.current().nextLong(minSeededId, maxSeededId + 1);
+    }
+
+    public String randomAuthor() {
+        return pick(authors);
+    }
+
+    public String randomGenre() {
+        return pick(genres);
+    }
+
+    public String randomKeyword() {
+        return pick(keywords);
+    }
+
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    private static String pick(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.SpringTest.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Open-model plan: requests arrive at {@code ratePerSecond} (Poisson) no matter how fast the
+ * app answers. {@code maxInFlight} only protects the client; arrivals over it count as errors.
+ */
+public record LoadPlan(double ratePerSecond, Duration warmup, Duration duration, int maxInFlight,
+                       Duration requestTimeout, List<Scenario> scenarios) {
+
+    public LoadPlan {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        if (scenarios.stream().mapToInt(Scenario::weight).sum() <= 0) {
+            throw new IllegalArgumentException("At least one scenario needs a positive weight");
+        }
+        scenarios = List.copyOf(scenarios);
+    }
+}
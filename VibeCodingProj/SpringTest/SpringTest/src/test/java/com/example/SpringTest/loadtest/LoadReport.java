@@ -0,0 +1,149 @@
+package com.example.SpringTest.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON report of a load run. Each scenario carries its percentiles plus the compressed
+ * HdrHistogram, so two runs can be compared (or merged) without rerunning them.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9};
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    public LoadReport(String runName, LoadPlan plan, OpenModelLoadGenerator.LoadResult result,
+                      Map<String, Object> environment) {
+        double seconds = result.measured().toMillis() / 1000.0;
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("name", runName);
+        run.put("timestamp", Instant.now().toString());
+        run.put("ratePerSecond", plan.ratePerSecond());
+        run.put("warmupSeconds", plan.warmup().toSeconds());
+        run.put("durationSeconds", plan.duration().toSeconds());
+        run.put("maxInFlight", plan.maxInFlight());
+        run.put("arrivals", result.arrivals());
+        run.put("javaVersion", System.getProperty("java.version"));
+        run.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        run.putAll(environment);
+        report.put("run", run);
+
+        Histogram total = new Histogram(3);
+        long totalRequests = 0;
+        long totalErrors = 0;
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        for (Scenario scenario : plan.scenarios()) {
+            ScenarioStats stats = result.scenarios().get(scenario.name());
+            total.add(stats.getLatency());
+            totalRequests += stats.getRequests();
+            totalErrors += stats.getErrors();
+
+            Map<String, Object> entry = summarize(stats.getRequests(), stats.getErrors(), stats.getLatency(), seconds);
+            entry.put("weight", scenario.weight());
+            entry.put("outcomes", stats.getOutcomes());
+            entry.put("histogram", encode(stats.getLatency()));
+            scenarios.put(scenario.name(), entry);
+        }
+        report.put("total", summarize(totalRequests, totalErrors, total, seconds));
+        report.put("scenarios", scenarios);
+    }
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String runName = (String) ((Map<?, ?>) report.get("run")).get("name");
+        Path file = directory.resolve(runName + "-" + FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        // Stable name for CI to pick up and for the next run to compare against
+        objectMapper.writeValue(directory.resolve(runName + "-latest.json").toFile(), report);
+        return file;
+    }
+
+    /**
+     * Lines describing how throughput, error rate and p99 moved relative to an earlier report.
+     */
+    public List<String> compareTo(Path baseline) throws IOException {
+        JsonNode previous = objectMapper.readTree(baseline.toFile());
+        JsonNode current = objectMapper.valueToTree(report);
+        List<String> lines = new ArrayList<>();
+        lines.add(compareLine("total", previous.path("total"), current.path("total")));
+        current.path("scenarios").fields().forEachRemaining(entry -> {
+            JsonNode before = previous.path("scenarios").path(entry.getKey());
+            if (!before.isMissingNode()) {
+                lines.add(compareLine(entry.getKey(), before, entry.getValue()));
+            }
+        });
+        return lines;
+    }
+
+    public Map<String, Object> asMap() {
+        return report;
+    }
+
+    private static String compareLine(String name, JsonNode before, JsonNode after) {
+        return String.format("%-12s throughput %8.1f -> %8.1f/s  errors %6.2f%% -> %6.2f%%  p99 %9.2f -> %9.2f ms (%+.1f%%)",
+                name,
+                before.path("throughputPerSecond").asDouble(), after.path("throughputPerSecond").asDouble(),
+                before.path("errorRate").asDouble() * 100, after.path("errorRate").asDouble() * 100,
+                before.path("latencyMs").path("p99").asDouble(), after.path("latencyMs").path("p99").asDouble(),
+                percentChange(before.path("latencyMs").path("p99").asDouble(), after.path("latencyMs").path("p99").asDouble()));
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    private static Map<String, Object> summarize(long requests, long errors, Histogram latency, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        summary.put("throughputPerSecond", seconds == 0 ? 0.0 : (requests - errors) / seconds);
+
+        Map<String, Object> latencyMs = new LinkedHashMap<>();
+        latencyMs.put("min", millis(latency.getTotalCount() == 0 ? 0 : latency.getMinValue()));
+        latencyMs.put("mean", millis(latency.getMean()));
+        for (double percentile : PERCENTILES) {
+            latencyMs.put(percentileKey(percentile), millis(latency.getValueAtPercentile(percentile)));
+        }
+        latencyMs.put("max", millis(latency.getMaxValue()));
+        summary.put("latencyMs", latencyMs);
+        return summary;
+    }
+
+    private static String percentileKey(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (int) percentile : "p" + percentile;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.SpringTest.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the books table with a deterministic synthetic catalog, bypassing the API so the
+ * seed does not warm the caches the run is about to measure.
+ */
+public class LoadTestSeeder {
+
+    static final List<String> AUTHORS = List.of(
+            "Ursula Le Guin", "Terry Pratchett", "Octavia Butler", "Isaac Asimov", "Jane Austen",
+            "Haruki Murakami", "Toni Morrison", "Neil Gaiman", "Agatha Christie", "Umberto Eco",
+            "Chinua Achebe", "Mary Shelley", "Italo Calvino", "Kazuo Ishiguro", "Ray Bradbury");
+    static final List<String> GENRES = List.of(
+            "Fiction", "Fantasy", "Science Fiction", "Mystery", "Romance", "History", "Biography", "Poetry");
+    static final List<String> KEYWORDS = List.of(
+            "river", "night", "empire", "garden", "machine", "winter", "shadow", "ocean", "city", "memory",
+            "storm", "letters", "glass", "mountain", "silence", "harbor");
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoadTestSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static String seededIsbn(long id) {
+        return String.format("979%010d", id);
+    }
+
+    /**
+     * Inserts {@code count} books and returns the id range they were given.
+     */
+    public long[] seed(int count, long randomSeed) {
+        Random random = new Random(randomSeed);
+        Long before = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM books", Long.class);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            String title = capitalize(pick(KEYWORDS, random)) + " of the " + capitalize(pick(KEYWORDS, random)) + " " + i;
+            String description = "A story about " + pick(KEYWORDS, random) + ", " + pick(KEYWORDS, random)
+                    + " and " + pick(KEYWORDS, random) + ".";
+            batch.add(new Object[]{
+                    title,
+                    pick(AUTHORS, random),
+                    description,
+                    1900 + random.nextInt(125),
+                    pick(GENRES, random),
+                    BigDecimal.valueOf(500 + random.nextInt(5500), 2),
+                    random.nextInt(200),
+                    random.nextInt(10) != 0
+            });
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch);
+        }
+
+        // ISBNs derive from the generated id so update scenarios can send a matching one
+        jdbcTemplate.update("UPDATE books SET isbn = CONCAT('979', LPAD(CAST(id AS VARCHAR), 10, '0')) WHERE id > ?", before);
+        Long after = jdbcTemplate.queryForObject("SELECT MAX(id) FROM books", Long.class);
+        return new long[]{before + 1, after};
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO books (title, author, description, publication_year, genre, price, "
+                + "stock_quantity, is_available) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private static String pick(List<String> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.SpringTest.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the app with an open arrival model: one pacing thread schedules arrivals with
+ * exponential gaps and fires them asynchronously, so slow responses never hold back the
+ * next arrival. Latency is measured from the scheduled arrival time, which keeps
+ * coordinated omission out of the percentiles.
+ */
+public class OpenModelLoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenModelLoadGenerator.class);
+
+    private static final String CLIENT_OVERLOAD = "client_overload";
+
+    public record LoadResult(Map<String, ScenarioStats> scenarios, long arrivals, Duration measured) {
+    }
+
+    public LoadResult run(LoadPlan plan, LoadContext context) throws InterruptedException {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()), daemonThreads());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(plan.requestTimeout())
+                .executor(clientExecutor)
+                .build();
+        try {
+            Map<String, ScenarioStats> warmupStats = newStats(plan.scenarios());
+            Map<String, ScenarioStats> stats = newStats(plan.scenarios());
+            AtomicInteger inFlight = new AtomicInteger();
+            int[] cumulativeWeights = cumulativeWeights(plan.scenarios());
+
+            long meanGapNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / plan.ratePerSecond()));
+            long start = System.nanoTime();
+            long measureFrom = start + plan.warmup().toNanos();
+            long end = measureFrom + plan.duration().toNanos();
+            long arrivals = 0;
+
+            logger.info("Load run: {} req/s for {} after {} warm-up, {} scenarios",
+                    plan.ratePerSecond(), plan.duration(), plan.warmup(), plan.scenarios().size());
+
+            long intended = start;
+            while (intended < end) {
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                Scenario scenario = pick(plan.scenarios(), cumulativeWeights);
+                boolean measured = intended >= measureFrom;
+                ScenarioStats target = (measured ? stats : warmupStats).get(scenario.name());
+                if (measured) {
+                    arrivals++;
+                }
+                fire(client, plan, context, scenario, target, intended, inFlight);
+                intended += nextGap(meanGapNanos);
+            }
+
+            awaitDrain(inFlight, plan.requestTimeout().multipliedBy(2));
+            return new LoadResult(stats, arrivals, plan.duration());
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private void fire(HttpClient client, LoadPlan plan, LoadContext context, Scenario scenario,
+                      ScenarioStats target, long intendedNanos, AtomicInteger inFlight) {
+        if (inFlight.get() >= plan.maxInFlight()) {
+            target.record(elapsedMicros(intendedNanos), CLIENT_OVERLOAD, true);
+            return;
+        }
+
+        HttpRequest request;
+        try {
+            request = scenario.request().apply(context);
+        } catch (RuntimeException e) {
+            target.record(elapsedMicros(intendedNanos), "request_build_failed", true);
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .orTimeout(plan.requestTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, ex) -> {
+                    long latencyMicros = elapsedMicros(intendedNanos);
+                    inFlight.decrementAndGet();
+                    if (ex != null) {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        target.record(latencyMicros, cause.getClass().getSimpleName(), true);
+                    } else {
+                        int status = response.statusCode();
+                        target.record(latencyMicros, String.valueOf(status), status >= 400);
+                    }
+                });
+    }
+
+    private static void awaitDrain(AtomicInteger inFlight, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            logger.warn("{} requests still in flight after the drain timeout", inFlight.get());
+        }
+    }
+
+    private static long elapsedMicros(long fromNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - fromNanos);
+    }
+
+    private static long nextGap(long meanGapNanos) {
+        return Math.max(1, (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos));
+    }
+
+    private static Scenario pick(List<Scenario> scenarios, int[] cumulativeWeights) {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private static int[] cumulativeWeights(List<Scenario> scenarios) {
+        int[] cumulative = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            total += scenarios.get(i).weight();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static Map<String, ScenarioStats> newStats(List<Scenario> scenarios) {
+        Map<String, ScenarioStats> stats = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            stats.put(scenario.name(), new ScenarioStats(scenario.name()));
+        }
+        return stats;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "load-client-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.SpringTest.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.Function;
+
+/**
+ * One weighted step of the load mix. The request function is called once per arrival and
+ * builds the request against the running application.
+ */
+public record Scenario(String name, int weight, Function<LoadContext, HttpRequest> request) {
+
+    public Scenario {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Scenario weight cannot be negative: " + name);
+        }
+    }
+}
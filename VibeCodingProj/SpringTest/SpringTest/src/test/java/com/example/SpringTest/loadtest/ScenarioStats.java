@@ -0,0 +1,60 @@
+package com.example.SpringTest.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measured results for one scenario. Latencies are microseconds from the intended arrival
+ * time, so a stalled server shows up in the tail instead of silently lowering the rate.
+ */
+public class ScenarioStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    public ScenarioStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyMicros, String outcome, boolean error) {
+        latency.recordValue(Math.min(Math.max(latencyMicros, 0), MAX_TRACKABLE_MICROS));
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public Map<String, Long> getOutcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.SpringTest.tracing;
+
+import com.example.SpringTest.model.Book;
+import com.example.SpringTest.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A zero slow threshold makes every request slow, so the tail sampler keeps them all
+@SpringBootTest(properties = {"app.tracing.slow-threshold=0ms", "app.tracing.sample-rate=0"})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class RequestTracingTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TracingFilter tracingFilter;
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @Autowired
+    private BookService bookService;
+
+    private MockMvc mockMvc;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(webApplicationContext)
+                .addFilters(tracingFilter)
+                .apply(springSecurity())
+                .build();
+        Book book = new Book();
+        book.setTitle("Traced Book");
+        book.setAuthor("Span Author");
+        book.setPrice(BigDecimal.valueOf(19.99));
+        bookId = bookService.createBook(book).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookService.deleteBook(bookId);
+    }
+
+    private RequestTrace traceOf(String path) throws Exception {
+        String traceId = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(TracingFilter.TRACE_HEADER))
+                .andReturn().getResponse().getHeader(TracingFilter.TRACE_HEADER);
+        return traceStore.find(traceId).orElseThrow();
+    }
+
+    private static RequestTrace.Span span(RequestTrace trace, String layer) {
+        return trace.getSpans().stream()
+                .filter(s -> s.layer().equals(layer))
+                .min((a, b) -> Integer.compare(a.depth(), b.depth()))
+                .orElseThrow(() -> new AssertionError("No " + layer + " span in " + trace.getSpans()));
+    }
+
+    private static boolean encloses(RequestTrace.Span outer, RequestTrace.Span inner) {
+        return outer.depth() < inner.depth()
+                && outer.startOffsetNanos() <= inner.startOffsetNanos()
+                && inner.startOffsetNanos() + inner.durationNanos() <= outer.startOffsetNanos() + outer.durationNanos();
+    }
+
+    @Test
+    void spansNestFromControllerDownToTheDatabase() throws Exception {
+        RequestTrace miss = traceOf("/api/v1/books/" + bookId);
+
+        assertTrue(miss.isKept());
+        assertEquals(200, miss.getStatus());
+        assertEquals("/api/v1/books/{id}", miss.getRoute());
+
+        RequestTrace.Span controller = span(miss, "controller");
+        RequestTrace.Span service = span(miss, "service");
+        RequestTrace.Span cache = span(miss, "cache");
+        RequestTrace.Span repository = span(miss, "repository");
+        RequestTrace.Span db = span(miss, "db");
+        assertEquals(0, controller.depth());
+        assertEquals("BookController.getBookById", controller.name());
+        assertEquals("BookService.getBookById", service.name());
+        assertTrue(cache.name().startsWith("books.get"), cache.name());
+        assertTrue(encloses(controller, service));
+        assertTrue(encloses(controller, cache));
+        assertTrue(encloses(service, repository));
+        assertTrue(encloses(repository, db));
+        assertTrue(db.name().toLowerCase().startsWith("select"), db.name());
+        assertTrue(miss.layerBreakdownMillis().keySet().containsAll(
+                List.of("controller", "service", "cache", "repository", "db", "serialization")));
+
+        // Served from the cache the second time: no repository or database work inside the request
+        RequestTrace hit = traceOf("/api/v1/books/" + bookId);
+        assertTrue(encloses(span(hit, "controller"), span(hit, "cache")));
+        assertTrue(hit.getSpans().stream().noneMatch(s -> s.layer().equals("repository") || s.layer().equals("db")));
+    }
+
+    @Test
+    void tracesEndpointListsKeptTracesWithTheirSpans() throws Exception {
+        RequestTrace trace = traceOf("/api/v1/books/" + bookId);
+
+        mockMvc.perform(get("/actuator/traces").param("limit", "5").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowThresholdMs").value(0))
+                .andExpect(jsonPath("$.keptTotal").isNumber())
+                .andExpect(jsonPath("$.traces.length()").value(lessThanOrEqualTo(5)))
+                .andExpect(jsonPath("$.traces[0].traceId").value(trace.getTraceId()))
+                .andExpect(jsonPath("$.traces[0].method").value("GET"))
+                .andExpect(jsonPath("$.traces[0].path").value("/api/v1/books/" + bookId))
+                .andExpect(jsonPath("$.traces[0].route").value("/api/v1/books/{id}"))
+                .andExpect(jsonPath("$.traces[0].status").value(200))
+                .andExpect(jsonPath("$.traces[0].layers.controller").isNumber())
+                .andExpect(jsonPath("$.traces[0].spans").doesNotExist());
+
+        mockMvc.perform(get("/actuator/traces/" + trace.getTraceId()).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.traceId").value(trace.getTraceId()))
+                .andExpect(jsonPath("$.spans.length()").value(trace.getSpans().size()))
+                .andExpect(jsonPath("$.spans[?(@.layer == 'controller')].depth").value(0))
+                .andExpect(jsonPath("$.spans[?(@.layer == 'controller')].name").value("BookController.getBookById"))
+                .andExpect(jsonPath("$.droppedSpans").value(0));
+
+        mockMvc.perform(get("/actuator/traces/does-not-exist").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/traces"))
+                .andExpect(status().isUnauthorized());
+    }
+}
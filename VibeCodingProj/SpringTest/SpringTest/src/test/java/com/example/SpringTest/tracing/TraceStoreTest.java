@@ -0,0 +1,109 @@
+package com.example.SpringTest.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceStoreTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.clear();
+    }
+
+    private static TraceStore store(Duration slowThreshold, double sampleRate, int capacity) {
+        TraceStore store = new TraceStore();
+        ReflectionTestUtils.setField(store, "slowThreshold", slowThreshold);
+        ReflectionTestUtils.setField(store, "sampleRate", sampleRate);
+        ReflectionTestUtils.setField(store, "capacity", capacity);
+        return store;
+    }
+
+    private static RequestTrace finished(long sleepMillis, int status) throws InterruptedException {
+        RequestTrace trace = RequestTrace.begin("GET", "/api/v1/books/1");
+        if (sleepMillis > 0) {
+            Thread.sleep(sleepMillis);
+        }
+        trace.finish(status, "/api/v1/books/{id}");
+        RequestTrace.clear();
+        return trace;
+    }
+
+    @Test
+    void slowRequestsAndServerErrorsAreAlwaysKept() throws InterruptedException {
+        TraceStore store = store(Duration.ofMillis(20), 0.0, 10);
+
+        assertFalse(store.shouldKeep(finished(0, 200)));
+        assertFalse(store.shouldKeep(finished(0, 404)));
+        assertTrue(store.shouldKeep(finished(0, 503)));
+        assertTrue(store.shouldKeep(finished(25, 200)));
+    }
+
+    @Test
+    void fastRequestsFollowTheSampleRate() throws InterruptedException {
+        TraceStore everything = store(Duration.ofSeconds(10), 1.0, 10);
+        TraceStore nothing = store(Duration.ofSeconds(10), 0.0, 10);
+
+        for (int i = 0; i < 20; i++) {
+            RequestTrace trace = finished(0, 200);
+            assertTrue(everything.shouldKeep(trace));
+            assertFalse(nothing.shouldKeep(trace));
+        }
+    }
+
+    @Test
+    void storeKeepsTheNewestTracesUpToCapacity() throws InterruptedException {
+        TraceStore store = store(Duration.ofMillis(500), 0.01, 3);
+        assertTrue(store.recent(10, Duration.ZERO).isEmpty());
+
+        RequestTrace oldest = finished(0, 200);
+        store.add(oldest);
+        Thread.sleep(2);
+        RequestTrace slow = finished(15, 200);
+        store.add(slow);
+        Thread.sleep(2);
+        store.add(finished(0, 200));
+        Thread.sleep(2);
+        RequestTrace newest = finished(0, 200);
+        store.add(newest);
+
+        assertEquals(4, store.getKeptTotal());
+        List<RequestTrace> recent = store.recent(10, Duration.ZERO);
+        assertEquals(3, recent.size());
+        assertSame(newest, recent.get(0));
+        assertFalse(recent.contains(oldest));
+        assertTrue(store.find(oldest.getTraceId()).isEmpty());
+        assertSame(newest, store.find(newest.getTraceId()).orElseThrow());
+
+        assertEquals(List.of(slow), store.recent(10, Duration.ofMillis(15)));
+        assertEquals(1, store.recent(1, Duration.ZERO).size());
+    }
+
+    @Test
+    void nestedSpansRecordDepthAndCountEachLayerOnce() throws InterruptedException {
+        RequestTrace trace = RequestTrace.begin("GET", "/api/v1/books/1");
+        try (RequestTrace.SpanScope controller = trace.span("controller", "BookController.getBookById")) {
+            try (RequestTrace.SpanScope service = trace.span("service", "BookService.getBookById")) {
+                try (RequestTrace.SpanScope inner = trace.span("service", "BookService.helper")) {
+                    Thread.sleep(5);
+                }
+            }
+        }
+        trace.finish(200, "/api/v1/books/{id}");
+
+        List<RequestTrace.Span> spans = trace.getSpans();
+        assertEquals(List.of("BookService.helper", "BookService.getBookById", "BookController.getBookById"),
+                spans.stream().map(RequestTrace.Span::name).toList());
+        assertEquals(List.of(2, 1, 0), spans.stream().map(RequestTrace.Span::depth).toList());
+
+        // The nested service span lies inside the outer one, so it must not be added again
+        double service = trace.layerBreakdownMillis().get("service");
+        assertEquals(spans.get(1).durationNanos() / 1_000_000.0, service);
+        assertTrue(trace.layerBreakdownMillis().get("controller") >= service);
+    }
+}